@@ -0,0 +1,65 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.ledger.AmountKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение скалярного и векторного ядра суммирования на колонках из 10 млн строк:
+ * сумма по типу (как при проверке итогов) и сумма по типу за диапазон дат.
+ * Форк запускается с --add-modules jdk.incubator.vector, поэтому kernel=best
+ * выбирает векторное ядро, если процессор это позволяет.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class AmountKernelBenchmark {
+
+    @Param({"10000000"})
+    private int rows;
+
+    @Param({"scalar", "best"})
+    private String kernel;
+
+    private AmountKernel amountKernel;
+    private long[] amounts;
+    private int[] epochDays;
+    private long[] incomeBits;
+    private int fromDay;
+    private int toDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        amountKernel = "scalar".equals(kernel) ? AmountKernel.scalar() : AmountKernel.best();
+        Random random = new Random(42);
+        int firstDay = (int) BenchmarkData.FIRST_DAY.toEpochDay();
+        int days = (int) (BenchmarkData.LAST_DAY.toEpochDay() - firstDay) + 1;
+        amounts = new long[rows];
+        epochDays = new int[rows];
+        incomeBits = new long[(rows + 63) >>> 6];
+        for (int row = 0; row < rows; row++) {
+            amounts[row] = 100 + random.nextInt(100_000);
+            epochDays[row] = firstDay + random.nextInt(days);
+            if (random.nextInt(10) < 3) {
+                incomeBits[row >>> 6] |= 1L << row;
+            }
+        }
+        toDay = (int) BenchmarkData.LAST_DAY.toEpochDay();
+        fromDay = toDay - 364;
+    }
+
+    @Benchmark
+    public long sumByType() {
+        return amountKernel.sum(amounts, incomeBits, rows, false);
+    }
+
+    @Benchmark
+    public long sumInRange() {
+        return amountKernel.sumInRange(amounts, epochDays, incomeBits, rows, false, fromDay, toDay);
+    }
+}
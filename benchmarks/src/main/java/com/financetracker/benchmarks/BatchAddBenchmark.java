@@ -0,0 +1,118 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.journal.Journal;
+import com.financetracker.journal.MappedJournal;
+import com.financetracker.journal.WriteAheadLog;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.User;
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.GoalRepository;
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.*;
+import com.financetracker.utils.Ids;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Добавление 10 тыс. транзакций пользователю с установленными бюджетом и целью, транзакций в секунду:
+ * по одной через FinanceTracker.addTransaction (-p mode=single) и одной пачкой
+ * через FinanceTracker.addTransactions (-p mode=batch), без журнала (-p journal=off) и с журналом
+ * предзаписи в режиме GROUP_COMMIT, как в приложении (-p journal=wal). С журналом каждая транзакция,
+ * добавленная по одной, ждёт своего сброса на диск, а пачка подтверждается одним сбросом.
+ * Каждый вызов начинается с пустого хранилища и пустого журнала.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BatchAddBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class BatchAddBenchmark {
+    static final int ROWS = 10_000;
+
+    @Param({"single", "batch"})
+    private String mode;
+
+    @Param({"off", "wal"})
+    private String journal;
+
+    private final LocalDate[] dates = new LocalDate[ROWS];
+    private final long[] amounts = new long[ROWS];
+    private final String[] categories = new String[ROWS];
+    private final boolean[] incomes = new boolean[ROWS];
+    private final TransactionBatch batch = new TransactionBatch(ROWS);
+    private FinanceTracker financeTracker;
+    private WriteAheadLog log;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        for (int i = 0; i < ROWS; i++) {
+            dates[i] = BenchmarkData.LAST_DAY.minusDays(random.nextInt(90));
+            amounts[i] = 100 + random.nextInt(100_000);
+            categories[i] = BenchmarkData.CATEGORIES[random.nextInt(BenchmarkData.CATEGORIES.length)];
+            incomes[i] = random.nextInt(10) < 3;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        Journal target = Journal.DISABLED;
+        if ("wal".equals(journal)) {
+            directory = Files.createTempDirectory("batch-add-benchmark");
+            log = WriteAheadLog.open(new MappedJournal(directory), WriteAheadLog.Durability.GROUP_COMMIT);
+            target = log;
+        }
+        UserRepository userRepository = new UserRepository();
+        financeTracker = new FinanceTracker(new UserService(userRepository), new TransactionService(userRepository),
+                new BudgetService(new BudgetRepository()), new GoalService(new GoalRepository()),
+                new ConsoleNotificationService(), target);
+        userRepository.saveUser(new User("bench@example.com", "password", "Bench", "user"));
+        financeTracker.loginUser("bench@example.com", "password");
+        financeTracker.addBudget(BenchmarkData.LAST_DAY.toString().substring(0, 7), 100_000_000L);
+        financeTracker.setGoal("Отпуск", 100_000_000L);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        if (log == null) {
+            return;
+        }
+        log.close();
+        log = null;
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long addTransactions() {
+        if ("single".equals(mode)) {
+            for (int i = 0; i < ROWS; i++) {
+                financeTracker.addTransaction(amounts[i], categories[i], dates[i], "Покупка", incomes[i]);
+            }
+        } else {
+            CategoryDictionary dictionary = CategoryDictionary.getInstance();
+            batch.clear();
+            for (int i = 0; i < ROWS; i++) {
+                batch.add(Ids.next(), (int) dates[i].toEpochDay(), amounts[i], dictionary.idOf(categories[i]),
+                        "Покупка", incomes[i]);
+            }
+            financeTracker.addTransactions(batch);
+        }
+        return financeTracker.getMonthlyExpress(financeTracker.getId());
+    }
+}
@@ -0,0 +1,64 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.model.User;
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.TransactionService;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Генератор воспроизводимых данных для бенчмарков.
+ * Заполняет репозиторий пользователем с заданным количеством транзакций,
+ * равномерно распределённых по десяти годам истории.
+ */
+public final class BenchmarkData {
+    /**
+     * Категории, из которых выбираются транзакции.
+     */
+    public static final String[] CATEGORIES = {
+            "Food", "Transport", "Rent", "Utilities", "Health", "Education",
+            "Entertainment", "Clothes", "Travel", "Gifts", "Salary", "Other"
+    };
+
+    /**
+     * Последний день сгенерированной истории.
+     */
+    public static final LocalDate LAST_DAY = LocalDate.of(2025, 12, 31);
+
+    /**
+     * Первый день сгенерированной истории (десять лет до LAST_DAY).
+     */
+    public static final LocalDate FIRST_DAY = LAST_DAY.minusYears(10).plusDays(1);
+
+    private static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Регистрирует пользователя и добавляет ему указанное количество транзакций.
+     * Примерно 30% транзакций являются доходами.
+     *
+     * @param userRepository     репозиторий, в который сохраняется пользователь.
+     * @param transactionService сервис, через который добавляются транзакции.
+     * @param transactions       количество транзакций.
+     * @return идентификатор созданного пользователя.
+     */
+    public static String populate(UserRepository userRepository, TransactionService transactionService,
+                                  int transactions) {
+        User user = new User("bench@example.com", "password", "Bench", "user");
+        userRepository.saveUser(user);
+
+        Random random = new Random(SEED);
+        int days = (int) (LAST_DAY.toEpochDay() - FIRST_DAY.toEpochDay()) + 1;
+        for (int i = 0; i < transactions; i++) {
+            boolean isIncome = random.nextInt(10) < 3;
+            long amount = 100 + random.nextInt(100_000);
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            LocalDate date = FIRST_DAY.plusDays(random.nextInt(days));
+            transactionService.addTransaction(user.getId(), amount, category, date, "Operation " + i, isIncome);
+        }
+        return user.getId();
+    }
+}
@@ -0,0 +1,72 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.io.CsvImporter;
+import com.financetracker.io.ImportResult;
+import com.financetracker.ledger.TransactionLedger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Импорт файла CSV из 1 млн строк: только разбор (-p target=parse) и разбор с добавлением
+ * пачек в колоночное хранилище (-p target=ledger). Результат — строк в секунду.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(CsvImportBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class CsvImportBenchmark {
+    static final int ROWS = 1_000_000;
+
+    @Param({"parse", "ledger"})
+    private String target;
+
+    private Path file;
+    private final CsvImporter importer = new CsvImporter();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("import-benchmark", ".csv");
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("date,amount,category,description\n");
+            for (int i = 0; i < ROWS; i++) {
+                long cents = 100 + random.nextInt(1_000_000);
+                writer.write(start.plusDays(random.nextInt(2000)).toString());
+                writer.write(random.nextInt(5) == 0 ? "," : ",-");
+                writer.write(cents / 100 + "." + String.format("%02d", cents % 100));
+                writer.write(',');
+                writer.write(BenchmarkData.CATEGORIES[random.nextInt(BenchmarkData.CATEGORIES.length)]);
+                writer.write(",Покупка ");
+                writer.write(Integer.toString(i % 1000));
+                writer.write('\n');
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long importFile() throws IOException {
+        if ("parse".equals(target)) {
+            return importer.importFile(file, batch -> {
+            }).getImported();
+        }
+        TransactionLedger ledger = new TransactionLedger();
+        ImportResult result = importer.importFile(file, ledger::addAll);
+        return result.getImported() + ledger.size();
+    }
+}
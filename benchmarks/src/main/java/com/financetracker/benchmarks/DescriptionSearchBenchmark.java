@@ -0,0 +1,52 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.model.Transaction;
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск по описаниям среди 1 млн транзакций, микросекунды на запрос: по инвертированному индексу
+ * через searchTransactions (-p mode=index) и обходом всех транзакций с проверкой описания
+ * (-p mode=scan) для сравнения. Запрос из двух слов, одно из которых есть во всех описаниях.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class DescriptionSearchBenchmark {
+    static final int ROWS = 1_000_000;
+
+    @Param({"index", "scan"})
+    private String mode;
+
+    private TransactionService transactionService;
+    private String userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository userRepository = new UserRepository();
+        transactionService = new TransactionService(userRepository);
+        userId = BenchmarkData.populate(userRepository, transactionService, ROWS);
+        // Индекс строится при первом поиске
+        transactionService.searchTransactions(userId, "operation", 1);
+    }
+
+    @Benchmark
+    public List<Transaction> search() {
+        if ("index".equals(mode)) {
+            return transactionService.searchTransactions(userId, "operation 123456", 100);
+        }
+        return transactionService.getTransactions(userId).values().stream()
+                .filter(transaction -> transaction.getDescription() != null
+                        && transaction.getDescription().toLowerCase().contains("operation")
+                        && transaction.getDescription().endsWith(" 123456"))
+                .limit(100)
+                .toList();
+    }
+}
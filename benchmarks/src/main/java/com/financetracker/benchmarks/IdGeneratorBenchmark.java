@@ -0,0 +1,58 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк многопоточной вставки транзакций с разными способами генерации идентификаторов.
+ * Каждый поток добавляет транзакции в собственное хранилище, поэтому общим ресурсом
+ * остаётся только источник идентификаторов:
+ * - insertWithUuid — прежний способ, UUID.randomUUID() через общий SecureRandom;
+ * - insertWithIdGenerator — генератор по умолчанию из Ids (время + узел + счётчик).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+@State(Scope.Thread)
+public class IdGeneratorBenchmark {
+    /**
+     * Размер хранилища, после которого оно очищается, чтобы не расти бесконечно.
+     */
+    private static final int LEDGER_LIMIT = 100_000;
+
+    private static final LocalDate DATE = BenchmarkData.LAST_DAY;
+
+    private TransactionLedger ledger;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ledger = new TransactionLedger();
+    }
+
+    @Benchmark
+    public int insertWithUuid() {
+        String id = UUID.randomUUID().toString().substring(0, 8);
+        return insert(new Transaction(id, 1000, "Food", DATE, "Groceries", false));
+    }
+
+    @Benchmark
+    public int insertWithIdGenerator() {
+        return insert(new Transaction(1000, "Food", DATE, "Groceries", false));
+    }
+
+    private int insert(Transaction transaction) {
+        if (ledger.size() == LEDGER_LIMIT) {
+            ledger.clear();
+        }
+        ledger.add(transaction);
+        return ledger.size();
+    }
+}
@@ -0,0 +1,46 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вывод списка 1 млн транзакций в текстовом виде, строк в секунду: в одну строку через
+ * viewTransactionNoFilter (-p mode=string) и потоково в Writer через writeTransactions (-p mode=stream).
+ * С профилировщиком GC видно, что потоковый вывод не выделяет память под текст всего списка.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ListingBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ListingBenchmark {
+    static final int ROWS = 1_000_000;
+
+    @Param({"string", "stream"})
+    private String mode;
+
+    private TransactionService transactionService;
+    private String userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository userRepository = new UserRepository();
+        transactionService = new TransactionService(userRepository);
+        userId = BenchmarkData.populate(userRepository, transactionService, ROWS);
+    }
+
+    @Benchmark
+    public long list() throws IOException {
+        if ("string".equals(mode)) {
+            return transactionService.viewTransactionNoFilter(userId).length();
+        }
+        return transactionService.writeTransactions(userId, Writer.nullWriter());
+    }
+}
@@ -0,0 +1,97 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.ledger.FileLedger;
+import com.financetracker.ledger.Ledger;
+import com.financetracker.ledger.OffHeapLedger;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение колоночного хранилища в куче (TransactionLedger), хранилища вне кучи (OffHeapLedger)
+ * и файлового хранилища с кешем страниц (FileLedger, кеш по умолчанию — 16 МБ на файл).
+ * После заполнения в вывод печатается объём занятой кучи, чтобы сравнить нагрузку на сборщик мусора;
+ * сами бенчмарки измеряют баланс, сумму за период и поиск по идентификатору.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:MaxDirectMemorySize=4g"})
+@State(Scope.Benchmark)
+public class OffHeapLedgerBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int transactions;
+
+    @Param({"heap", "offheap", "file"})
+    private String storage;
+
+    private Ledger ledger;
+    private String[] ids;
+    private int next;
+
+    private final LocalDate start = BenchmarkData.LAST_DAY.minusYears(1).plusDays(1);
+    private final LocalDate end = BenchmarkData.LAST_DAY;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        long heapBefore = usedHeap();
+        ledger = switch (storage) {
+            case "offheap" -> new OffHeapLedger();
+            case "file" -> new FileLedger(Files.createTempFile("ledger-benchmark", ".records"));
+            default -> new TransactionLedger();
+        };
+        ids = new String[transactions];
+        Random random = new Random(42L);
+        int days = (int) (BenchmarkData.LAST_DAY.toEpochDay() - BenchmarkData.FIRST_DAY.toEpochDay()) + 1;
+        for (int i = 0; i < transactions; i++) {
+            Transaction transaction = new Transaction(100 + random.nextInt(100_000),
+                    BenchmarkData.CATEGORIES[random.nextInt(BenchmarkData.CATEGORIES.length)],
+                    BenchmarkData.FIRST_DAY.plusDays(random.nextInt(days)), "Operation " + i,
+                    random.nextInt(10) < 3);
+            ledger.add(transaction);
+            ids[i] = transaction.getId();
+        }
+        // Массив идентификаторов нужен только для поиска и не относится к хранилищу
+        long idsBytes = (long) transactions * 64;
+        System.out.printf("%n%s, %d transactions: heap used by ledger ~%d MB%n",
+                storage, transactions, Math.max(0, usedHeap() - heapBefore - idsBytes) >> 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (ledger instanceof FileLedger fileLedger) {
+            fileLedger.close();
+        }
+    }
+
+    @Benchmark
+    public long balance() {
+        return ledger.balance();
+    }
+
+    @Benchmark
+    public long sumOfPeriod() {
+        return ledger.sumOfPeriod(false, start, end);
+    }
+
+    @Benchmark
+    public Transaction getById() {
+        String id = ids[next];
+        next = next + 1 == ids.length ? 0 : next + 1;
+        return ledger.get(id);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
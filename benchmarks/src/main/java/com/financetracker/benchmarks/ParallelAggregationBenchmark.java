@@ -0,0 +1,60 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.ledger.ParallelAggregator;
+import com.financetracker.model.Transaction;
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение последовательного и параллельного подсчёта баланса и итогов за период
+ * по транзакциям, хранящимся в обычной HashMap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ParallelAggregationBenchmark {
+
+    @Param({"1000000"})
+    private int transactions;
+
+    private Map<String, Transaction> map;
+    private ParallelAggregator sequential;
+    private ParallelAggregator parallel;
+
+    private final LocalDate start = BenchmarkData.LAST_DAY.minusYears(1).plusDays(1);
+    private final LocalDate end = BenchmarkData.LAST_DAY;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository userRepository = new UserRepository();
+        String userId = BenchmarkData.populate(userRepository, new TransactionService(userRepository), transactions);
+        map = new HashMap<>(userRepository.getTransactions(userId));
+        sequential = new ParallelAggregator(1, Integer.MAX_VALUE);
+        parallel = new ParallelAggregator(Runtime.getRuntime().availableProcessors(), 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    @Benchmark
+    public ParallelAggregator.Result sequential() {
+        return sequential.aggregate(map, start, end);
+    }
+
+    @Benchmark
+    public ParallelAggregator.Result parallel() {
+        return parallel.aggregate(map, start, end);
+    }
+}
@@ -0,0 +1,79 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.journal.Checkpointer;
+import com.financetracker.journal.MappedJournal;
+import com.financetracker.journal.Recovery;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.GoalRepository;
+import com.financetracker.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Время восстановления состояния при запуске: только из журнала (-p source=journal)
+ * и из снимка с хвостом журнала (-p source=snapshot). В режиме snapshot снимок записан
+ * после 99% транзакций, остальные транзакции применяются из журнала.
+ * Транзакции распределены по 1000 пользователей.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RecoveryBenchmark {
+    private static final int USERS = 1000;
+
+    @Param({"1000000", "10000000"})
+    private int transactions;
+
+    @Param({"journal", "snapshot"})
+    private String source;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("recovery-benchmark");
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        try (MappedJournal journal = new MappedJournal(directory)) {
+            for (int u = 0; u < USERS; u++) {
+                journal.userSaved(new User("u" + u, "user" + u + "@example.com", "password", "User", "user", "active"));
+            }
+            int snapshotAt = "snapshot".equals(source) ? transactions - transactions / 100 : -1;
+            for (int i = 0; i < transactions; i++) {
+                if (i == snapshotAt) {
+                    new Checkpointer(directory, journal).checkpoint();
+                }
+                journal.transactionSaved("u" + i % USERS, new Transaction("t" + i, 100 + i % 10000,
+                        BenchmarkData.CATEGORIES[i % BenchmarkData.CATEGORIES.length],
+                        start.plusDays(i % 2000), "Покупка", i % 5 == 0));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public UserRepository recover() throws IOException {
+        UserRepository userRepository = new UserRepository();
+        Recovery.recover(directory, userRepository, new BudgetRepository(), new GoalRepository());
+        return userRepository;
+    }
+}
@@ -0,0 +1,82 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.model.Transaction;
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.TransactionService;
+import com.financetracker.utils.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение однопроходного ReportEngine с прежним четырёхпроходным формированием отчёта,
+ * которое отдельно вызывало getBalance, getIncomeOfPeriod, getExpensesOfPeriod и getExpensesByCategory.
+ * <p>
+ * Параметр storage задаёт хранилище транзакций пользователя:
+ * ledger — колоночное хранилище, map — обычная HashMap с объектами Transaction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int transactions;
+
+    @Param({"ledger", "map"})
+    private String storage;
+
+    private TransactionService transactionService;
+    private String userId;
+
+    private final LocalDate start = BenchmarkData.LAST_DAY.minusYears(1).plusDays(1);
+    private final LocalDate end = BenchmarkData.LAST_DAY;
+
+    /**
+     * Репозиторий, отдающий транзакции пользователя как обычную HashMap.
+     */
+    private static class MapUserRepository extends UserRepository {
+        private final Map<String, Map<String, Transaction>> copies = new HashMap<>();
+
+        @Override
+        public Map<String, Transaction> getTransactions(String userId) {
+            return copies.computeIfAbsent(userId, id -> new HashMap<>(super.getTransactions(id)));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository userRepository = "map".equals(storage) ? new MapUserRepository() : new UserRepository();
+        transactionService = new TransactionService(userRepository);
+        userId = BenchmarkData.populate(userRepository, transactionService, transactions);
+    }
+
+    @Benchmark
+    public String fusedReport() {
+        return transactionService.generateReport(userId, start, end);
+    }
+
+    @Benchmark
+    public String fourPassReport() {
+        long balance = transactionService.getBalance(userId);
+        long income = transactionService.getIncomeOfPeriod(userId, start, end);
+        long expense = transactionService.getExpensesOfPeriod(userId, start, end);
+        Map<String, Long> expensesByCategory = transactionService.getExpensesByCategory(userId, start, end);
+
+        StringBuilder report = new StringBuilder();
+        report.append("=== Финансовый отчёт ===\n");
+        report.append(String.format("Текущий баланс: %.2f \n", Money.toDecimal(balance)));
+        report.append(String.format("Доход за период: %.2f \n", Money.toDecimal(income)));
+        report.append(String.format("Расход за период: %.2f \n", Money.toDecimal(expense)));
+        report.append("Расходы по категориям:\n");
+        expensesByCategory.forEach((category, amount) ->
+                report.append(String.format("- %s: %.2f \n", category, Money.toDecimal(amount))));
+        return report.toString();
+    }
+}
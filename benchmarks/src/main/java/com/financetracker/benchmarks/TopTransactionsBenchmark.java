@@ -0,0 +1,60 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.model.Transaction;
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Десять крупнейших расходов среди 1 млн транзакций за месяц (-p period=month) и за всю историю
+ * (-p period=all), микросекунды на запрос: ограниченной кучей через getLargestTransactions
+ * (-p mode=heap) и полной сортировкой отфильтрованного списка (-p mode=sort) для сравнения.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class TopTransactionsBenchmark {
+    static final int ROWS = 1_000_000;
+    static final int LIMIT = 10;
+
+    @Param({"month", "all"})
+    private String period;
+
+    @Param({"heap", "sort"})
+    private String mode;
+
+    private TransactionService transactionService;
+    private String userId;
+    private LocalDate start;
+    private LocalDate end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository userRepository = new UserRepository();
+        transactionService = new TransactionService(userRepository);
+        userId = BenchmarkData.populate(userRepository, transactionService, ROWS);
+        start = "month".equals(period) ? BenchmarkData.LAST_DAY.withDayOfMonth(1) : BenchmarkData.FIRST_DAY;
+        end = BenchmarkData.LAST_DAY;
+    }
+
+    @Benchmark
+    public List<Transaction> largestExpenses() {
+        if ("heap".equals(mode)) {
+            return transactionService.getLargestTransactions(userId, LIMIT, start, end, false, null);
+        }
+        return transactionService.getTransactions(userId).values().stream()
+                .filter(transaction -> !transaction.isIncome() && !transaction.getDate().isBefore(start)
+                        && !transaction.getDate().isAfter(end))
+                .sorted(Comparator.comparingLong(Transaction::getAmount).reversed())
+                .limit(LIMIT)
+                .toList();
+    }
+}
@@ -0,0 +1,98 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки агрегирующих методов TransactionService.
+ * Каждый метод измеряется на пользователе с 1 тыс., 100 тыс. и 1 млн транзакций.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class TransactionServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int transactions;
+
+    /**
+     * Включать ли индекс префиксных сумм по дням (запуск с -p prefixSums=true).
+     */
+    @Param({"false"})
+    private boolean prefixSums;
+
+    private TransactionService transactionService;
+    private String userId;
+
+    /**
+     * Период в один год в конце истории.
+     */
+    private final LocalDate start = BenchmarkData.LAST_DAY.minusYears(1).plusDays(1);
+    private final LocalDate end = BenchmarkData.LAST_DAY;
+    /**
+     * Последняя неделя истории.
+     */
+    private final LocalDate weekStart = BenchmarkData.LAST_DAY.minusDays(6);
+    private final String month = BenchmarkData.LAST_DAY.toString().substring(0, 7);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository userRepository = new UserRepository();
+        transactionService = new TransactionService(userRepository);
+        userId = BenchmarkData.populate(userRepository, transactionService, transactions);
+        transactionService.setPrefixSumIndexEnabled(userId, prefixSums);
+    }
+
+    @Benchmark
+    public long getBalance() {
+        return transactionService.getBalance(userId);
+    }
+
+    @Benchmark
+    public long getIncomeOfPeriod() {
+        return transactionService.getIncomeOfPeriod(userId, start, end);
+    }
+
+    @Benchmark
+    public long getExpensesOfPeriod() {
+        return transactionService.getExpensesOfPeriod(userId, start, end);
+    }
+
+    @Benchmark
+    public long getExpensesOfLastWeek() {
+        return transactionService.getExpensesOfPeriod(userId, weekStart, end);
+    }
+
+    @Benchmark
+    public Map<String, Long> getExpensesByCategory() {
+        return transactionService.getExpensesByCategory(userId, start, end);
+    }
+
+    @Benchmark
+    public long calculateMonthlyExpress() {
+        return transactionService.calculateMonthlyExpress(userId, month);
+    }
+
+    @Benchmark
+    public String generateReport() {
+        return transactionService.generateReport(userId, start, end);
+    }
+
+    @Benchmark
+    public String generateLastWeekReport() {
+        return transactionService.generateReport(userId, weekStart, end);
+    }
+
+    @Benchmark
+    public String viewTransactionsDateFilter() {
+        return transactionService.viewTransactionsDateFilter(userId, end);
+    }
+}
@@ -0,0 +1,52 @@
+package com.financetracker.benchmarks;
+
+import com.financetracker.model.User;
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.GoalRepository;
+import com.financetracker.repository.UserRepository;
+import com.financetracker.service.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк входа пользователя при большом количестве зарегистрированных пользователей.
+ * Поиск по email выполняется через вторичный индекс UserRepository,
+ * поэтому время входа не должно зависеть от числа пользователей.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class UserLoginBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int users;
+
+    private FinanceTracker financeTracker;
+    private String[] emails;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository userRepository = new UserRepository();
+        financeTracker = new FinanceTracker(new UserService(userRepository), new TransactionService(userRepository),
+                new BudgetService(new BudgetRepository()), new GoalService(new GoalRepository()),
+                new ConsoleNotificationService());
+
+        emails = new String[users];
+        for (int i = 0; i < users; i++) {
+            emails[i] = "user" + i + "@example.com";
+            userRepository.saveUser(new User(emails[i], "password", "User " + i, "user"));
+        }
+    }
+
+    @Benchmark
+    public FinanceTracker.LoginResult loginUser() {
+        String email = emails[next];
+        next = next + 1 == emails.length ? 0 : next + 1;
+        return financeTracker.loginUser(email, "password");
+    }
+}
@@ -1,14 +1,31 @@
 package com.financetracker.app;
 
+import com.financetracker.io.ExportFormat;
+import com.financetracker.io.ImportResult;
+import com.financetracker.journal.Checkpointer;
+import com.financetracker.journal.Journal;
+import com.financetracker.journal.MappedJournal;
+import com.financetracker.journal.Recovery;
+import com.financetracker.journal.WriteAheadLog;
+import com.financetracker.ledger.FileLedger;
+import com.financetracker.ledger.FileTransactionStore;
+import com.financetracker.ledger.TransactionStore;
 import com.financetracker.repository.BudgetRepository;
 import com.financetracker.repository.GoalRepository;
 import com.financetracker.repository.UserRepository;
 import com.financetracker.service.*;
 import com.financetracker.utils.InputValidator;
+import com.financetracker.utils.Money;
 import com.financetracker.utils.ScannerInputProvider;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * Класс FinanceTrackerApp представляет собой консольное приложение для управления финансами.
@@ -16,6 +33,16 @@ import java.util.*;
  * бюджетами, финансовыми целями, а также просматривать статистику и аналитику.
  */
 public class FinanceTrackerApp {
+    /**
+     * Количество транзакций на одной странице списка.
+     */
+    private static final int TRANSACTIONS_PAGE_SIZE = 20;
+
+    /**
+     * Наибольшее количество транзакций, выводимых при поиске по описанию.
+     */
+    private static final int SEARCH_LIMIT = 100;
+
     private static FinanceTracker financeTracker;
     public static InputValidator inputValidator = new InputValidator( new ScannerInputProvider(new Scanner(System.in)));
 
@@ -27,16 +54,19 @@ public class FinanceTrackerApp {
      * @param args Аргументы командной строки (не используются).
      */
     public static void main(String[] args) {
-        UserRepository userRepository = new UserRepository();
+        UserRepository userRepository = new UserRepository(openStore());
+        BudgetRepository budgetRepository = new BudgetRepository();
+        GoalRepository goalRepository = new GoalRepository();
+        Journal journal = openJournal(userRepository, budgetRepository, goalRepository);
 
         NotificationService notificationService = new ConsoleNotificationService();
         UserService userService = new UserService(userRepository);
         TransactionService transactionService = new TransactionService(userRepository);
-        BudgetService budgetService = new BudgetService(new BudgetRepository());
-        GoalService goalService = new GoalService(new GoalRepository());
+        BudgetService budgetService = new BudgetService(budgetRepository);
+        GoalService goalService = new GoalService(goalRepository);
 
         financeTracker = new FinanceTracker(userService, transactionService,
-                budgetService, goalService, notificationService);
+                budgetService, goalService, notificationService, journal);
         while (true) {
             System.out.println("1. Регистрация");
             System.out.println("2. Вход");
@@ -57,6 +87,90 @@ public class FinanceTrackerApp {
         }
     }
 
+    /**
+     * Создаёт движок хранения транзакций, заданный системным свойством "financetracker.store":
+     * "heap" (по умолчанию) — в куче, "offheap" — вне кучи, "file" — в файлах с кешем страниц.
+     * Для файлового движка каталог задаёт свойство "financetracker.store.dir" (по умолчанию — временный
+     * каталог), число страниц общего кеша всех файлов — "financetracker.store.cache". Если файловый движок
+     * не удалось создать, транзакции хранятся в куче.
+     *
+     * @return движок хранения транзакций.
+     */
+    private static TransactionStore openStore() {
+        String engine = System.getProperty("financetracker.store", "heap");
+        switch (engine) {
+            case "heap":
+                return TransactionStore.heap();
+            case "offheap":
+                return TransactionStore.offHeap();
+            case "file":
+                try {
+                    String directory = System.getProperty("financetracker.store.dir");
+                    int cachePages = Integer.parseInt(System.getProperty("financetracker.store.cache",
+                            Integer.toString(FileLedger.DEFAULT_CACHE_PAGES)));
+                    TransactionStore store = new FileTransactionStore(
+                            directory == null ? Files.createTempDirectory("financetracker-store") : Path.of(directory),
+                            FileLedger.DEFAULT_PAGE_SIZE, cachePages);
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        try {
+                            store.close();
+                        } catch (IOException e) {
+                            System.out.println("Не удалось закрыть хранилище транзакций: " + e.getMessage());
+                        }
+                    }));
+                    return store;
+                } catch (IOException | IllegalArgumentException e) {
+                    System.out.println("Не удалось открыть файловое хранилище: " + e.getMessage());
+                    return TransactionStore.heap();
+                }
+            default:
+                System.out.println("Неизвестный движок хранения " + engine + ", транзакции хранятся в куче");
+                return TransactionStore.heap();
+        }
+    }
+
+    /**
+     * Восстанавливает состояние и открывает журнал изменений в каталоге из системного свойства
+     * "financetracker.journal.dir". Сначала загружается последний снимок из этого каталога
+     * и применяется хвост журнала после него.
+     * Гарантия сохранности записей задаётся свойством "financetracker.journal.durability"
+     * (SYNC, GROUP_COMMIT или ASYNC; по умолчанию GROUP_COMMIT), период записи снимков —
+     * свойством "financetracker.snapshot.interval" в минутах (по умолчанию 10).
+     * Если свойство каталога не задано или каталог не удалось открыть, изменения не журналируются.
+     *
+     * @param userRepository   репозиторий пользователей для восстановления.
+     * @param budgetRepository репозиторий бюджетов для восстановления.
+     * @param goalRepository   репозиторий целей для восстановления.
+     * @return журнал изменений или Journal.DISABLED.
+     */
+    private static Journal openJournal(UserRepository userRepository, BudgetRepository budgetRepository,
+                                       GoalRepository goalRepository) {
+        String directory = System.getProperty("financetracker.journal.dir");
+        if (directory == null) {
+            return Journal.DISABLED;
+        }
+        try {
+            WriteAheadLog.Durability durability = WriteAheadLog.Durability.valueOf(
+                    System.getProperty("financetracker.journal.durability", "GROUP_COMMIT"));
+            Duration interval = Duration.ofMinutes(
+                    Long.parseLong(System.getProperty("financetracker.snapshot.interval", "10")));
+            Path path = Path.of(directory);
+            Recovery.recover(path, userRepository, budgetRepository, goalRepository);
+            MappedJournal mappedJournal = new MappedJournal(path);
+            WriteAheadLog journal = WriteAheadLog.open(mappedJournal, durability);
+            Checkpointer checkpointer = new Checkpointer(path, mappedJournal);
+            checkpointer.start(interval);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                checkpointer.close();
+                journal.close();
+            }));
+            return journal;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Не удалось открыть журнал: " + e.getMessage());
+            return Journal.DISABLED;
+        }
+    }
+
     /**
      * Регистрирует нового пользователя в системе.
      * Запрашивает email, пароль, имя и создаёт нового пользователя.
@@ -158,6 +272,8 @@ public class FinanceTrackerApp {
             System.out.println("2. Удалить транзакцию");
             System.out.println("3. Редактировать транзакцию");
             System.out.println("4. Просмотреть транзакции");
+            System.out.println("5. Импортировать транзакции из CSV");
+            System.out.println("6. Экспортировать транзакции");
             System.out.println("0. Выход");
             int choice = inputValidator.getIntInput("Выберите действие: ");
             switch (choice) {
@@ -173,6 +289,12 @@ public class FinanceTrackerApp {
                 case 4:
                     viewTransactions(financeTracker.getId()); // ??
                     break;
+                case 5:
+                    importTransactions();
+                    break;
+                case 6:
+                    exportTransactions();
+                    break;
                 case 0:
                     return;
             }
@@ -185,7 +307,7 @@ public class FinanceTrackerApp {
      * Запрашивает ID, сумму, категорию, дату, описание и тип транзакции (доход/расход).
      */
     private static void addTransaction() {
-        double amount = inputValidator.getDoubleInput("Введите сумму: ");
+        long amount = inputValidator.getMoneyInput("Введите сумму: ");
         String category = inputValidator.getStringInput("Введите категорию: ");
         LocalDate date = inputValidator.getDateInput("Введите дату (гггг-мм-дд): ");
         String description = inputValidator.getStringInput("Введите описание: ");
@@ -195,6 +317,38 @@ public class FinanceTrackerApp {
         System.out.println("Транзакция добавлена");
     }
 
+    /**
+     * Импортирует транзакции текущего пользователя из файла CSV или из двоичного экспорта (.bin).
+     * Строка файла CSV: дата,сумма[,категория[,описание]]; отрицательная сумма — расход.
+     */
+    private static void importTransactions() {
+        String file = inputValidator.getStringInput("Введите путь к файлу CSV или .bin: ");
+        try {
+            ImportResult result = financeTracker.importTransactions(Path.of(file));
+            System.out.println("Импортировано транзакций: " + result.getImported());
+            if (result.getRejected() > 0) {
+                System.out.println("Пропущено некорректных строк: " + result.getRejected()
+                        + " (первая — строка " + result.getFirstRejectedLine() + ")");
+            }
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("Не удалось прочитать файл: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Экспортирует транзакции текущего пользователя в файл CSV или в двоичный файл.
+     */
+    private static void exportTransactions() {
+        String file = inputValidator.getStringInput("Введите путь к файлу: ");
+        boolean binary = inputValidator.getBooleanInput("Двоичный формат? (true/false): ");
+        try {
+            long count = financeTracker.exportTransactions(Path.of(file), binary ? ExportFormat.BINARY : ExportFormat.CSV);
+            System.out.println("Экспортировано транзакций: " + count);
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("Не удалось записать файл: " + e.getMessage());
+        }
+    }
+
     /**
      * Удаляет транзакцию по её ID.
      * Запрашивает ID транзакции для удаления.
@@ -227,7 +381,7 @@ public class FinanceTrackerApp {
             int choice = inputValidator.getIntInput("Выберите действие: ");
             switch (choice) {
                 case 1:
-                    double newAmount = inputValidator.getDoubleInput("Введите новую сумму: ");;
+                    long newAmount = inputValidator.getMoneyInput("Введите новую сумму: ");
                     financeTracker.setTransactionAmount(id, newAmount);
                     break;
                 case 2:
@@ -258,23 +412,40 @@ public class FinanceTrackerApp {
             System.out.println("2. По дате");
             System.out.println("3. По категории");
             System.out.println("4. По доходу (доход/расход)");
+            System.out.println("5. Поиск по описанию");
             System.out.println("0. Выход");
             int choice = inputValidator.getIntInput("");
             switch (choice) {
                 case 1:
-                    System.out.println(financeTracker.viewTransactionsNoFilter(id));
+                    viewTransactionPages(cursor -> financeTracker.getTransactionsPage(id, null, null, null, null,
+                            cursor, TRANSACTIONS_PAGE_SIZE), "Список транзакций:");
                     break;
                 case 2:
                     LocalDate dateFilter = inputValidator.getDateInput("Введите дату для фильтрации(гггг-мм-дд): ");
-                    System.out.println(financeTracker.viewTransactionsDateFilter(id, dateFilter));
+                    viewTransactionPages(cursor -> financeTracker.getTransactionsPage(id, dateFilter, dateFilter, null,
+                            null, cursor, TRANSACTIONS_PAGE_SIZE), "Список транзакций по дате " + dateFilter + ":");
                     break;
                 case 3:
                     String categoryFilter = inputValidator.getStringInput("Введите категорию для фильтрации: ");
-                    System.out.println(financeTracker.viewTransactionsCategoryFilter(id, categoryFilter));
+                    viewTransactionPages(cursor -> financeTracker.getTransactionsPage(id, null, null, null,
+                            categoryFilter, cursor, TRANSACTIONS_PAGE_SIZE),
+                            "Список транзакций по категории " + categoryFilter + ":");
                     break;
                 case 4:
                     boolean isIncomeFilter = inputValidator.getBooleanInput("Доход/расход? (введите true/false): ");
-                    System.out.println(financeTracker.viewTransactionsIsIncomeFilter(id, isIncomeFilter));
+                    viewTransactionPages(cursor -> financeTracker.getTransactionsPage(id, null, null, isIncomeFilter,
+                            null, cursor, TRANSACTIONS_PAGE_SIZE),
+                            "Список транзакций (" + (isIncomeFilter ? "Доходы" : "Расходы") + "):");
+                    break;
+                case 5:
+                    String query = inputValidator.getStringInput("Введите слова для поиска (слово* — по началу слова): ");
+                    try {
+                        new TransactionFormatter().write(financeTracker.searchTransactions(id, query, SEARCH_LIMIT),
+                                "Найденные транзакции:", System.out);
+                    } catch (IOException e) {
+                        System.out.println("Ошибка вывода транзакций: " + e.getMessage());
+                    }
+                    System.out.println();
                     break;
                 case 0:
                     return;
@@ -284,6 +455,42 @@ public class FinanceTrackerApp {
         }
     }
 
+    /**
+     * Выводит транзакции пользователя страницами по TRANSACTIONS_PAGE_SIZE строк.
+     * Следующая страница запрашивается, только если пользователь хочет её увидеть.
+     *
+     * @param pages  запрос страницы по курсору; null — первая страница.
+     * @param header заголовок списка.
+     */
+    private static void viewTransactionPages(Function<String, TransactionPage> pages, String header) {
+        String cursor = null;
+        do {
+            TransactionPage page = pages.apply(cursor);
+            try {
+                financeTracker.writeTransactionPage(page, header, System.out);
+            } catch (IOException e) {
+                System.out.println("Ошибка вывода транзакций: " + e.getMessage());
+            }
+            System.out.println();
+            cursor = page.getNextCursor();
+        } while (cursor != null && inputValidator.getBooleanInput("Показать следующую страницу? (true/false): "));
+    }
+
+    /**
+     * Выводит все транзакции пользователя без постраничного разбиения.
+     * Строки пишутся в консоль по одной, текст всего списка в памяти не собирается.
+     *
+     * @param id уникальный идентификатор пользователя.
+     */
+    private static void dumpTransactions(String id) {
+        try {
+            long rows = financeTracker.writeTransactions(id, System.out);
+            System.out.println("Выведено транзакций: " + rows);
+        } catch (IOException e) {
+            System.out.println("Ошибка вывода транзакций: " + e.getMessage());
+        }
+    }
+
     /**
      * Отображает профиль текущего пользователя и предоставляет меню для его изменения или удаления.
      */
@@ -422,7 +629,7 @@ public class FinanceTrackerApp {
             switch (choice) {
                 case 1:
                     String month = inputValidator.getStringInput("Введите месяц (гггг-мм) :");
-                    double budget = inputValidator.getDoubleInput("Введите сумму бюджета: ");
+                    long budget = inputValidator.getMoneyInput("Введите сумму бюджета: ");
                     financeTracker.addBudget(month, budget);
                     System.out.println("Месячный бюджет установлен!");
                     break;
@@ -448,7 +655,7 @@ public class FinanceTrackerApp {
             switch (choice) {
                 case 1:
                     String name = inputValidator.getStringInput("Введите название цели: ");
-                    double target = inputValidator.getDoubleInput("Введите целевую сумму: ");
+                    long target = inputValidator.getMoneyInput("Введите целевую сумму: ");
                     financeTracker.setGoal(name, target);
                     System.out.println("Цель установлена!");
                     break;
@@ -471,17 +678,20 @@ public class FinanceTrackerApp {
             System.out.println("2. Показать доходы и расходы за период");
             System.out.println("3. Показать расходы по категориям");
             System.out.println("4. Сформировать отчёт");
+            System.out.println("5. Показать крупнейшие расходы за период");
             System.out.println("0. Выход");
             int choice = inputValidator.getIntInput("Выберите действие: ");
             switch (choice) {
                 case 1:
-                    System.out.println("Текущий баланс: " + financeTracker.getBalance());
+                    System.out.println("Текущий баланс: " + Money.format(financeTracker.getBalance()));
                     break;
                 case 2:
                     LocalDate start = inputValidator.getDateInput("Введите дату начала периода (гггг-мм-дд): ");
                     LocalDate end = inputValidator.getDateInput("Введите дату конца периода (гггг-мм-дд): ");
-                    System.out.println("Суммарный доход за период: " + financeTracker.getIncomeOfPeriod(start, end));
-                    System.out.println("Суммарный расход за период: " + financeTracker.getExpensesOfPeriod(start, end));
+                    System.out.println("Суммарный доход за период: "
+                            + Money.format(financeTracker.getIncomeOfPeriod(start, end)));
+                    System.out.println("Суммарный расход за период: "
+                            + Money.format(financeTracker.getExpensesOfPeriod(start, end)));
                     break;
                 case 3:
                     start = inputValidator.getDateInput("Введите дату начала периода (гггг-мм-дд): ");
@@ -493,6 +703,17 @@ public class FinanceTrackerApp {
                     end = inputValidator.getDateInput("Введите дату конца периода (гггг-мм-дд): ");
                     System.out.println(financeTracker.generateReport(start, end));
                     break;
+                case 5:
+                    start = inputValidator.getDateInput("Введите дату начала периода (гггг-мм-дд): ");
+                    end = inputValidator.getDateInput("Введите дату конца периода (гггг-мм-дд): ");
+                    int limit = inputValidator.getIntInput("Сколько расходов показать: ");
+                    try {
+                        new TransactionFormatter().write(financeTracker.getLargestTransactions(limit, start, end,
+                                false, null), "Крупнейшие расходы за период:", System.out);
+                    } catch (IOException | IllegalArgumentException e) {
+                        System.out.println("Ошибка: " + e.getMessage());
+                    }
+                    break;
                 case 0:
                     return;
                 default:
@@ -517,6 +738,7 @@ public class FinanceTrackerApp {
             System.out.println("1. Просмотреть транзакции пользователя");
             System.out.println("2. Заблокировать пользователя");
             System.out.println("3. Удалить пользователя");
+            System.out.println("4. Вывести все транзакции пользователя");
             System.out.println("0. Выход");
             int choice = inputValidator.getIntInput("Выберите действие: ");
             switch (choice) {
@@ -541,6 +763,12 @@ public class FinanceTrackerApp {
                         else System.out.println("Вы не можете удалить аккаунт администратора!");
                     }
                     else System.out.println("Пользователь с таким id не найден!");
+                    return;
+                case 4:
+                    id = inputValidator.getStringInput("Введите id пользователя: ");
+                    if (financeTracker.isUserExist(id)) dumpTransactions(id);
+                    else System.out.println("Пользователь с таким id не найден!");
+                    break;
                 case 0:
                     return;
                 default:
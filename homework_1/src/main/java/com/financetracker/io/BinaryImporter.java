@@ -0,0 +1,184 @@
+package com.financetracker.io;
+
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.model.CategoryDictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Чтение транзакций в двоичном формате TransactionExporter.
+ * Транзакции сохраняют идентификаторы из файла, поэтому повторный импорт того же файла
+ * перезаписывает транзакции, а не дублирует их. Номера категорий файла сопоставляются
+ * с номерами в CategoryDictionary по названиям.
+ */
+public class BinaryImporter {
+    private final int bufferSize;
+    private final int batchSize;
+
+    /**
+     * Создаёт импорт с размерами буфера и пачки по умолчанию.
+     */
+    public BinaryImporter() {
+        this(TransactionExporter.DEFAULT_CHUNK_SIZE, CsvImporter.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Создаёт импорт с заданными параметрами.
+     *
+     * @param bufferSize размер буфера чтения в байтах; буфер увеличивается для длинных строк.
+     * @param batchSize  количество строк в пачке.
+     * @throws IllegalArgumentException если буфер меньше 8 байт или размер пачки не положителен.
+     */
+    public BinaryImporter(int bufferSize, int batchSize) {
+        if (bufferSize < Long.BYTES || batchSize <= 0) {
+            throw new IllegalArgumentException("Buffer must hold at least 8 bytes and batch size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Импортирует транзакции из файла.
+     *
+     * @param file файл в двоичном формате.
+     * @param sink получатель пачек; пачка переиспользуется после возврата из sink.
+     * @return итог импорта.
+     * @throws IOException если файл не удалось прочитать или он повреждён.
+     */
+    public ImportResult importFile(Path file, Consumer<TransactionBatch> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importFrom(channel, sink);
+        }
+    }
+
+    /**
+     * Импортирует транзакции из канала. Канал не закрывается.
+     *
+     * @param channel канал с данными в двоичном формате.
+     * @param sink    получатель пачек; пачка переиспользуется после возврата из sink.
+     * @return итог импорта.
+     * @throws IOException если канал не удалось прочитать или данные повреждены.
+     */
+    public ImportResult importFrom(ReadableByteChannel channel, Consumer<TransactionBatch> sink) throws IOException {
+        Input input = new Input(channel, bufferSize);
+        if (input.getInt() != TransactionExporter.MAGIC || input.getInt() != TransactionExporter.VERSION) {
+            throw new IOException("Not a transaction export");
+        }
+        CategoryDictionary dictionary = CategoryDictionary.getInstance();
+        int[] categoryIds = new int[16];
+        Arrays.fill(categoryIds, CategoryDictionary.UNKNOWN);
+        TransactionBatch batch = new TransactionBatch(batchSize);
+        long imported = 0;
+        while (true) {
+            int tag = input.getByte();
+            if (tag == TransactionExporter.END) {
+                break;
+            }
+            if (tag == TransactionExporter.CATEGORY) {
+                int fileId = input.getInt();
+                if (fileId < 0) {
+                    throw new IOException("Invalid category number " + fileId);
+                }
+                if (fileId >= categoryIds.length) {
+                    int length = categoryIds.length;
+                    categoryIds = Arrays.copyOf(categoryIds, Math.max(fileId + 1, length * 2));
+                    Arrays.fill(categoryIds, length, categoryIds.length, CategoryDictionary.UNKNOWN);
+                }
+                categoryIds[fileId] = dictionary.idOf(input.getString());
+                continue;
+            }
+            if (tag != TransactionExporter.TRANSACTION) {
+                throw new IOException("Unknown record type " + tag);
+            }
+            String id = input.getString();
+            int epochDay = input.getInt();
+            long amount = input.getLong();
+            int fileCategory = input.getInt();
+            String description = input.getString();
+            boolean income = input.getByte() != 0;
+            int categoryId = CategoryDictionary.NO_CATEGORY;
+            if (fileCategory >= 0) {
+                categoryId = fileCategory < categoryIds.length ? categoryIds[fileCategory] : CategoryDictionary.UNKNOWN;
+                if (categoryId == CategoryDictionary.UNKNOWN) {
+                    throw new IOException("Undefined category number " + fileCategory);
+                }
+            }
+            batch.add(id, epochDay, amount, categoryId, description, income);
+            imported++;
+            if (batch.size() == batchSize) {
+                sink.accept(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
+        }
+        return new ImportResult(imported, 0, 0);
+    }
+
+    /**
+     * Буферизованное чтение из канала.
+     */
+    private static final class Input {
+        private final ReadableByteChannel channel;
+        private ByteBuffer buffer;
+
+        Input(ReadableByteChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(bufferSize).limit(0);
+        }
+
+        int getByte() throws IOException {
+            ensure(1);
+            return buffer.get();
+        }
+
+        int getInt() throws IOException {
+            ensure(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0) {
+                return null;
+            }
+            ensure(length);
+            String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            if (buffer.capacity() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(bytes);
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of transaction export");
+                }
+            }
+            buffer.flip();
+        }
+    }
+}
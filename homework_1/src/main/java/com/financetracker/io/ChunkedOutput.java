@@ -0,0 +1,81 @@
+package com.financetracker.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Запись в канал через буфер постоянного размера.
+ * Буфер выделяется вне кучи, поэтому FileChannel пишет из него без промежуточного копирования.
+ * Данные, которые не помещаются в буфер целиком, пишутся в канал напрямую.
+ */
+final class ChunkedOutput {
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    ChunkedOutput(WritableByteChannel channel, int chunkSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(chunkSize);
+    }
+
+    void putByte(int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.capacity()) {
+            flush();
+            write(ByteBuffer.wrap(bytes));
+            return;
+        }
+        ensure(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Записывает неотрицательное число десятичными цифрами, дополняя нулями слева до width цифр.
+     */
+    void putDigits(long value, int width) throws IOException {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int length = Math.max(digits, width);
+        ensure(length);
+        int end = buffer.position() + length;
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void write(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package com.financetracker.io;
+
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.utils.Ids;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Потоковый импорт транзакций из CSV.
+ * <p>
+ * Формат строки: {@code дата,сумма[,категория[,описание]]}, кодировка UTF-8.
+ * <ul>
+ *     <li>дата — {@code ГГГГ-ММ-ДД} или {@code ДД.ММ.ГГГГ};</li>
+ *     <li>сумма — со знаком, не более двух знаков после точки или запятой; положительная сумма — доход,
+ *     отрицательная — расход;</li>
+ *     <li>категория и описание необязательны; пустая категория означает транзакцию без категории.</li>
+ * </ul>
+ * Поля можно заключать в двойные кавычки (кавычка внутри поля удваивается), тогда они могут содержать
+ * разделитель и перевод строки. Лишние поля игнорируются. Первая строка пропускается как заголовок,
+ * если в ней нет корректной даты. Некорректные строки пропускаются и учитываются в ImportResult.
+ * <p>
+ * Файл читается из канала блоками в один буфер, а поля разбираются прямо в байтах буфера:
+ * дата и сумма переводятся в числа без создания строк, LocalDate и исключений,
+ * для категорий хранится кэш байтов → номер в CategoryDictionary. Объекты создаются только
+ * для идентификатора и описания, которые остаются в хранилище. Строки накапливаются
+ * в TransactionBatch и передаются получателю пачками.
+ */
+public class CsvImporter {
+    /**
+     * Размер буфера чтения по умолчанию.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Количество строк в пачке по умолчанию.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    private final byte delimiter;
+    private final int bufferSize;
+    private final int batchSize;
+
+    /**
+     * Создаёт импорт с разделителем ',' и размерами буфера и пачки по умолчанию.
+     */
+    public CsvImporter() {
+        this(',', DEFAULT_BUFFER_SIZE, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Создаёт импорт с заданными параметрами.
+     *
+     * @param delimiter  разделитель полей, например ',' или ';'.
+     * @param bufferSize размер буфера чтения в байтах; буфер увеличивается, если строка в него не помещается.
+     * @param batchSize  количество строк в пачке.
+     * @throws IllegalArgumentException если разделитель не однобайтовый или совпадает с кавычкой
+     *                                  или переводом строки, либо размеры не положительны.
+     */
+    public CsvImporter(char delimiter, int bufferSize, int batchSize) {
+        if (delimiter >= 0x80 || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+        }
+        if (bufferSize <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Buffer and batch sizes must be positive");
+        }
+        this.delimiter = (byte) delimiter;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Импортирует транзакции из файла.
+     *
+     * @param file файл CSV.
+     * @param sink получатель пачек; пачка переиспользуется после возврата из sink.
+     * @return итог импорта.
+     * @throws IOException если файл не удалось прочитать.
+     */
+    public ImportResult importFile(Path file, Consumer<TransactionBatch> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importFrom(channel, sink);
+        }
+    }
+
+    /**
+     * Импортирует транзакции из канала. Канал не закрывается.
+     *
+     * @param channel канал с данными CSV.
+     * @param sink    получатель пачек; пачка переиспользуется после возврата из sink.
+     * @return итог импорта.
+     * @throws IOException если канал не удалось прочитать.
+     */
+    public ImportResult importFrom(ReadableByteChannel channel, Consumer<TransactionBatch> sink) throws IOException {
+        return new Parser(channel, sink).run();
+    }
+
+    /**
+     * Состояние одного импорта.
+     */
+    private final class Parser {
+        private static final int FIELDS = 4;
+        private static final int INCOMPLETE = -1;
+        private static final int INVALID_DATE = Integer.MIN_VALUE;
+        private static final int MAX_CACHED_CATEGORIES = 256;
+
+        private final ReadableByteChannel channel;
+        private final Consumer<TransactionBatch> sink;
+        private final TransactionBatch batch = new TransactionBatch(batchSize);
+        private final CategoryDictionary dictionary = CategoryDictionary.getInstance();
+
+        private ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        private byte[] data = buffer.array();
+        private int limit;
+        private boolean eof;
+
+        /**
+         * Границы полей текущей строки: [fieldStart, fieldEnd) в data.
+         */
+        private final int[] fieldStart = new int[FIELDS];
+        private final int[] fieldEnd = new int[FIELDS];
+        private final boolean[] fieldEscaped = new boolean[FIELDS];
+        private int fieldCount;
+        private boolean malformed;
+        private int recordLines;
+
+        private long amount;
+
+        private byte[][] cachedCategories = new byte[16][];
+        private int[] cachedCategoryIds = new int[16];
+        private int cachedCount;
+
+        private long line = 1;
+        private long imported;
+        private long rejected;
+        private long firstRejectedLine;
+
+        Parser(ReadableByteChannel channel, Consumer<TransactionBatch> sink) {
+            this.channel = channel;
+            this.sink = sink;
+        }
+
+        ImportResult run() throws IOException {
+            fill();
+            int position = skipByteOrderMark();
+            boolean first = true;
+            while (true) {
+                int end = scanRecord(position);
+                if (end == INCOMPLETE) {
+                    if (eof) {
+                        break;
+                    }
+                    position = compact(position);
+                    fill();
+                    continue;
+                }
+                if (!isBlank()) {
+                    if (!accept() && !(first && isHeader())) {
+                        reject();
+                    }
+                    first = false;
+                }
+                line += recordLines;
+                position = end;
+            }
+            flush();
+            return new ImportResult(imported, rejected, firstRejectedLine);
+        }
+
+        /**
+         * Находит поля строки, начинающейся в start.
+         *
+         * @return позиция после строки; INCOMPLETE, если строка не дочитана или данных больше нет.
+         */
+        private int scanRecord(int start) {
+            if (start >= limit) {
+                return INCOMPLETE;
+            }
+            int position = start;
+            fieldCount = 0;
+            malformed = false;
+            recordLines = 1;
+            while (true) {
+                int from;
+                int to;
+                boolean escaped = false;
+                if (position < limit && data[position] == '"') {
+                    from = ++position;
+                    while (true) {
+                        if (position >= limit) {
+                            if (!eof) {
+                                return INCOMPLETE;
+                            }
+                            malformed = true;
+                            break;
+                        }
+                        byte b = data[position];
+                        if (b == '"') {
+                            if (position + 1 >= limit && !eof) {
+                                return INCOMPLETE;
+                            }
+                            if (position + 1 < limit && data[position + 1] == '"') {
+                                escaped = true;
+                                position += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        if (b == '\n') {
+                            recordLines++;
+                        }
+                        position++;
+                    }
+                    to = position;
+                    position = Math.min(position + 1, limit);
+                    while (position < limit && data[position] != delimiter && data[position] != '\n') {
+                        if (data[position] != '\r') {
+                            malformed = true;
+                        }
+                        position++;
+                    }
+                } else {
+                    from = position;
+                    while (position < limit && data[position] != delimiter && data[position] != '\n') {
+                        position++;
+                    }
+                    to = position > from && data[position - 1] == '\r' ? position - 1 : position;
+                }
+                if (position >= limit && !eof) {
+                    return INCOMPLETE;
+                }
+                if (fieldCount < FIELDS) {
+                    fieldStart[fieldCount] = from;
+                    fieldEnd[fieldCount] = to;
+                    fieldEscaped[fieldCount] = escaped;
+                }
+                fieldCount++;
+                if (position >= limit) {
+                    return limit;
+                }
+                if (data[position] == '\n') {
+                    return position + 1;
+                }
+                position++;
+            }
+        }
+
+        /**
+         * Добавляет текущую строку в пачку.
+         *
+         * @return false, если строка некорректна.
+         */
+        private boolean accept() {
+            if (malformed || fieldCount < 2) {
+                return false;
+            }
+            int epochDay = parseDate(fieldStart[0], fieldEnd[0]);
+            if (epochDay == INVALID_DATE || !parseAmount(fieldStart[1], fieldEnd[1]) || amount == 0) {
+                return false;
+            }
+            int categoryId = fieldCount > 2 ? category(2) : CategoryDictionary.NO_CATEGORY;
+            String description = fieldCount > 3 ? text(3) : "";
+            boolean income = amount > 0;
+            batch.add(Ids.next(), epochDay, income ? amount : -amount, categoryId, description, income);
+            imported++;
+            if (batch.size() == batchSize) {
+                flush();
+            }
+            return true;
+        }
+
+        private boolean isHeader() {
+            return !malformed && parseDate(fieldStart[0], fieldEnd[0]) == INVALID_DATE;
+        }
+
+        private boolean isBlank() {
+            return fieldCount == 1 && !malformed && fieldStart[0] == fieldEnd[0];
+        }
+
+        private void reject() {
+            if (rejected++ == 0) {
+                firstRejectedLine = line;
+            }
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                sink.accept(batch);
+                batch.clear();
+            }
+        }
+
+        /**
+         * Разбирает дату ГГГГ-ММ-ДД или ДД.ММ.ГГГГ.
+         *
+         * @return номер дня от эпохи; INVALID_DATE, если дата некорректна.
+         */
+        private int parseDate(int from, int to) {
+            while (from < to && data[from] == ' ') {
+                from++;
+            }
+            while (to > from && data[to - 1] == ' ') {
+                to--;
+            }
+            if (to - from != 10) {
+                return INVALID_DATE;
+            }
+            int year;
+            int month;
+            int day;
+            if (data[from + 4] == '-' && data[from + 7] == '-') {
+                year = digits(from, 4);
+                month = digits(from + 5, 2);
+                day = digits(from + 8, 2);
+            } else if (data[from + 2] == '.' && data[from + 5] == '.') {
+                day = digits(from, 2);
+                month = digits(from + 3, 2);
+                year = digits(from + 6, 4);
+            } else {
+                return INVALID_DATE;
+            }
+            if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+                return INVALID_DATE;
+            }
+            return epochDay(year, month, day);
+        }
+
+        /**
+         * Читает count десятичных цифр.
+         *
+         * @return число; -1, если встретился не цифровой символ.
+         */
+        private int digits(int from, int count) {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                int digit = data[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        /**
+         * Разбирает сумму со знаком в поле amount, по тем же правилам, что и Money.parse.
+         *
+         * @return false, если сумма некорректна или не помещается в long.
+         */
+        private boolean parseAmount(int from, int to) {
+            while (from < to && data[from] == ' ') {
+                from++;
+            }
+            while (to > from && data[to - 1] == ' ') {
+                to--;
+            }
+            int position = from;
+            boolean negative = false;
+            if (position < to && (data[position] == '-' || data[position] == '+')) {
+                negative = data[position] == '-';
+                position++;
+            }
+            long units = 0;
+            int unitDigits = 0;
+            while (position < to && data[position] >= '0' && data[position] <= '9') {
+                if (units > (Long.MAX_VALUE / 100 - 9) / 10) {
+                    return false;
+                }
+                units = units * 10 + (data[position++] - '0');
+                unitDigits++;
+            }
+            long cents = 0;
+            int centDigits = 0;
+            if (position < to && (data[position] == '.' || data[position] == ',')) {
+                position++;
+                while (position < to && data[position] >= '0' && data[position] <= '9') {
+                    if (centDigits == 2) {
+                        return false;
+                    }
+                    cents = cents * 10 + (data[position++] - '0');
+                    centDigits++;
+                }
+                if (centDigits == 1) {
+                    cents *= 10;
+                }
+            }
+            if (position != to || unitDigits + centDigits == 0) {
+                return false;
+            }
+            long value = units * 100 + cents;
+            amount = negative ? -value : value;
+            return true;
+        }
+
+        /**
+         * Возвращает номер категории поля. Для уже встречавшихся категорий строка не создаётся.
+         */
+        private int category(int field) {
+            int from = fieldStart[field];
+            int to = fieldEnd[field];
+            if (from == to) {
+                return CategoryDictionary.NO_CATEGORY;
+            }
+            if (!fieldEscaped[field]) {
+                for (int i = 0; i < cachedCount; i++) {
+                    byte[] cached = cachedCategories[i];
+                    if (Arrays.equals(cached, 0, cached.length, data, from, to)) {
+                        return cachedCategoryIds[i];
+                    }
+                }
+            }
+            int id = dictionary.idOf(text(field));
+            if (!fieldEscaped[field] && cachedCount < MAX_CACHED_CATEGORIES) {
+                if (cachedCount == cachedCategories.length) {
+                    cachedCategories = Arrays.copyOf(cachedCategories, cachedCount * 2);
+                    cachedCategoryIds = Arrays.copyOf(cachedCategoryIds, cachedCount * 2);
+                }
+                cachedCategories[cachedCount] = Arrays.copyOfRange(data, from, to);
+                cachedCategoryIds[cachedCount++] = id;
+            }
+            return id;
+        }
+
+        /**
+         * Декодирует поле в строку, заменяя удвоенные кавычки одиночными.
+         */
+        private String text(int field) {
+            int from = fieldStart[field];
+            int to = fieldEnd[field];
+            if (from == to) {
+                return "";
+            }
+            if (!fieldEscaped[field]) {
+                return new String(data, from, to - from, StandardCharsets.UTF_8);
+            }
+            byte[] unescaped = new byte[to - from];
+            int length = 0;
+            for (int i = from; i < to; i++) {
+                unescaped[length++] = data[i];
+                if (data[i] == '"') {
+                    i++;
+                }
+            }
+            return new String(unescaped, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private int skipByteOrderMark() {
+            return limit >= 3 && data[0] == (byte) 0xEF && data[1] == (byte) 0xBB && data[2] == (byte) 0xBF ? 3 : 0;
+        }
+
+        /**
+         * Переносит недочитанную строку в начало буфера; если она занимает весь буфер, увеличивает его.
+         *
+         * @return новая позиция начала строки.
+         */
+        private int compact(int start) {
+            if (start == 0 && limit == data.length) {
+                buffer = ByteBuffer.wrap(Arrays.copyOf(data, data.length * 2));
+                data = buffer.array();
+                return 0;
+            }
+            System.arraycopy(data, start, data, 0, limit - start);
+            limit -= start;
+            return 0;
+        }
+
+        /**
+         * Дочитывает данные из канала до заполнения буфера или конца данных.
+         */
+        private void fill() throws IOException {
+            buffer.limit(data.length).position(limit);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    eof = true;
+                    break;
+                }
+            }
+            limit = buffer.position();
+        }
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Номер дня от эпохи по тому же алгоритму, что и LocalDate.toEpochDay.
+     */
+    private static int epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (year % 4 != 0 || year % 100 == 0 && year % 400 != 0) {
+                total--;
+            }
+        }
+        return (int) (total - 719528);
+    }
+}
@@ -0,0 +1,34 @@
+package com.financetracker.io;
+
+import java.nio.file.Path;
+
+/**
+ * Формат экспорта транзакций.
+ */
+public enum ExportFormat {
+    /**
+     * Текст CSV, который читает CsvImporter: дата,сумма,категория,описание,id.
+     */
+    CSV,
+
+    /**
+     * Компактный двоичный формат, который читает BinaryImporter.
+     */
+    BINARY;
+
+    /**
+     * Расширение файлов двоичного формата.
+     */
+    public static final String BINARY_EXTENSION = ".bin";
+
+    /**
+     * Определяет формат файла по расширению: BINARY_EXTENSION — двоичный формат, остальные — CSV.
+     *
+     * @param file путь к файлу.
+     * @return формат файла.
+     */
+    public static ExportFormat of(Path file) {
+        Path name = file.getFileName();
+        return name != null && name.toString().endsWith(BINARY_EXTENSION) ? BINARY : CSV;
+    }
+}
@@ -0,0 +1,50 @@
+package com.financetracker.io;
+
+/**
+ * Итог импорта транзакций.
+ */
+public class ImportResult {
+    private final long imported;
+    private final long rejected;
+    private final long firstRejectedLine;
+
+    /**
+     * Создаёт итог импорта.
+     *
+     * @param imported          количество добавленных строк.
+     * @param rejected          количество пропущенных некорректных строк.
+     * @param firstRejectedLine номер первой пропущенной строки файла (с единицы); 0, если таких строк нет.
+     */
+    public ImportResult(long imported, long rejected, long firstRejectedLine) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.firstRejectedLine = firstRejectedLine;
+    }
+
+    /**
+     * Возвращает количество добавленных строк.
+     *
+     * @return количество строк.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Возвращает количество пропущенных некорректных строк.
+     *
+     * @return количество строк.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Возвращает номер первой пропущенной строки файла.
+     *
+     * @return номер строки с единицы; 0, если все строки корректны.
+     */
+    public long getFirstRejectedLine() {
+        return firstRejectedLine;
+    }
+}
@@ -0,0 +1,237 @@
+package com.financetracker.io;
+
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.Transaction;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Потоковый экспорт транзакций в канал.
+ * <p>
+ * Транзакции пишутся по одной через буфер постоянного размера, который сбрасывается в канал
+ * по заполнении, поэтому расход памяти не зависит от количества транзакций: ни весь список,
+ * ни весь текст экспорта в памяти не собираются. Хранилище Ledger отдаёт транзакции
+ * при обходе по одной.
+ * <p>
+ * Двоичный формат:
+ * <pre>
+ * int MAGIC, int VERSION, затем записи:
+ *     byte 1 — категория: int номер, строка название (перед первой транзакцией с этой категорией);
+ *     byte 2 — транзакция: строка id, int epochDay, long amount, int номер категории (-1 — без категории),
+ *              строка description, byte income;
+ *     byte 0 — конец данных.
+ * </pre>
+ * Строка — int длина в байтах UTF-8 (-1 для null) и байты.
+ */
+public class TransactionExporter {
+    /**
+     * Размер буфера записи по умолчанию.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    static final int MAGIC = 0x46545458; // "FTTX"
+    static final int VERSION = 1;
+    static final int END = 0;
+    static final int CATEGORY = 1;
+    static final int TRANSACTION = 2;
+
+    private static final byte[] CSV_HEADER = "date,amount,category,description,id\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final int chunkSize;
+
+    /**
+     * Создаёт экспорт с буфером DEFAULT_CHUNK_SIZE.
+     */
+    public TransactionExporter() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Создаёт экспорт с заданным размером буфера.
+     *
+     * @param chunkSize размер буфера записи в байтах; не меньше 64.
+     * @throws IllegalArgumentException если размер меньше 64.
+     */
+    public TransactionExporter(int chunkSize) {
+        if (chunkSize < 64) {
+            throw new IllegalArgumentException("Chunk size must be at least 64 bytes");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Записывает транзакции в канал в указанном формате. Канал не закрывается.
+     *
+     * @param transactions транзакции для экспорта.
+     * @param format       формат экспорта.
+     * @param target       канал, в который пишутся данные.
+     * @return количество записанных транзакций.
+     * @throws IOException если запись в канал не удалась.
+     */
+    public long export(Iterable<Transaction> transactions, ExportFormat format, WritableByteChannel target)
+            throws IOException {
+        return switch (format) {
+            case CSV -> exportCsv(transactions, target);
+            case BINARY -> exportBinary(transactions, target);
+        };
+    }
+
+    /**
+     * Записывает транзакции в файл, заменяя его содержимое.
+     *
+     * @param transactions транзакции для экспорта.
+     * @param format       формат экспорта.
+     * @param file         файл, в который пишутся данные.
+     * @return количество записанных транзакций.
+     * @throws IOException если файл не удалось записать.
+     */
+    public long export(Iterable<Transaction> transactions, ExportFormat format, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(transactions, format, channel);
+        }
+    }
+
+    /**
+     * Записывает транзакции в канал в формате CSV, который читает CsvImporter.
+     * Сумма расхода записывается со знаком минус; поля с разделителем, кавычкой или переводом строки
+     * заключаются в кавычки.
+     *
+     * @param transactions транзакции для экспорта.
+     * @param target       канал, в который пишутся данные.
+     * @return количество записанных транзакций.
+     * @throws IOException если запись в канал не удалась.
+     */
+    public long exportCsv(Iterable<Transaction> transactions, WritableByteChannel target) throws IOException {
+        ChunkedOutput output = new ChunkedOutput(target, chunkSize);
+        CategoryNames categories = new CategoryNames();
+        output.putBytes(CSV_HEADER);
+        long rows = 0;
+        for (Transaction transaction : transactions) {
+            LocalDate date = transaction.getDate();
+            output.putDigits(date.getYear(), 4);
+            output.putByte('-');
+            output.putDigits(date.getMonthValue(), 2);
+            output.putByte('-');
+            output.putDigits(date.getDayOfMonth(), 2);
+            output.putByte(',');
+            long amount = transaction.isIncome() ? transaction.getAmount() : -transaction.getAmount();
+            if (amount < 0) {
+                output.putByte('-');
+                amount = -amount;
+            }
+            output.putDigits(amount / 100, 1);
+            output.putByte('.');
+            output.putDigits(amount % 100, 2);
+            output.putByte(',');
+            if (transaction.getCategoryId() >= 0) {
+                putCsvField(output, categories.bytes(transaction.getCategoryId()));
+            }
+            output.putByte(',');
+            if (transaction.getDescription() != null) {
+                putCsvField(output, transaction.getDescription().getBytes(StandardCharsets.UTF_8));
+            }
+            output.putByte(',');
+            putCsvField(output, transaction.getId().getBytes(StandardCharsets.UTF_8));
+            output.putByte('\n');
+            rows++;
+        }
+        output.flush();
+        return rows;
+    }
+
+    /**
+     * Записывает транзакции в канал в двоичном формате, который читает BinaryImporter.
+     * Названия категорий записываются один раз, перед первой транзакцией категории.
+     *
+     * @param transactions транзакции для экспорта.
+     * @param target       канал, в который пишутся данные.
+     * @return количество записанных транзакций.
+     * @throws IOException если запись в канал не удалась.
+     */
+    public long exportBinary(Iterable<Transaction> transactions, WritableByteChannel target) throws IOException {
+        ChunkedOutput output = new ChunkedOutput(target, chunkSize);
+        CategoryNames categories = new CategoryNames();
+        BitSet written = new BitSet();
+        output.putInt(MAGIC);
+        output.putInt(VERSION);
+        long rows = 0;
+        for (Transaction transaction : transactions) {
+            int categoryId = transaction.getCategoryId();
+            if (categoryId >= 0 && !written.get(categoryId)) {
+                output.putByte(CATEGORY);
+                output.putInt(categoryId);
+                putString(output, categories.bytes(categoryId));
+                written.set(categoryId);
+            }
+            output.putByte(TRANSACTION);
+            putString(output, transaction.getId().getBytes(StandardCharsets.UTF_8));
+            output.putInt((int) transaction.getDate().toEpochDay());
+            output.putLong(transaction.getAmount());
+            output.putInt(categoryId < 0 ? CategoryDictionary.NO_CATEGORY : categoryId);
+            putString(output, transaction.getDescription() == null ? null
+                    : transaction.getDescription().getBytes(StandardCharsets.UTF_8));
+            output.putByte(transaction.isIncome() ? 1 : 0);
+            rows++;
+        }
+        output.putByte(END);
+        output.flush();
+        return rows;
+    }
+
+    private static void putCsvField(ChunkedOutput output, byte[] bytes) throws IOException {
+        boolean quote = false;
+        for (byte b : bytes) {
+            if (b == ',' || b == '"' || b == '\n' || b == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            output.putBytes(bytes);
+            return;
+        }
+        output.putByte('"');
+        for (byte b : bytes) {
+            if (b == '"') {
+                output.putByte('"');
+            }
+            output.putByte(b);
+        }
+        output.putByte('"');
+    }
+
+    private static void putString(ChunkedOutput output, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            output.putInt(-1);
+            return;
+        }
+        output.putInt(bytes.length);
+        output.putBytes(bytes);
+    }
+
+    /**
+     * Названия категорий в UTF-8, закодированные один раз на экспорт.
+     */
+    private static final class CategoryNames {
+        private byte[][] names = new byte[16][];
+
+        byte[] bytes(int categoryId) {
+            if (categoryId >= names.length) {
+                names = Arrays.copyOf(names, Math.max(categoryId + 1, names.length * 2));
+            }
+            if (names[categoryId] == null) {
+                names[categoryId] = CategoryDictionary.getInstance().nameOf(categoryId).getBytes(StandardCharsets.UTF_8);
+            }
+            return names[categoryId];
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.financetracker.journal;
+
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.GoalRepository;
+import com.financetracker.repository.UserRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодически записывает снимок состояния и удаляет покрытые им сегменты журнала.
+ * <p>
+ * Снимок строится не по рабочим репозиториям, а сжатием журнала: в отдельные репозитории
+ * загружается предыдущий снимок и применяются записи журнала до зафиксированной позиции.
+ * Поэтому снимок соответствует ровно одной точке журнала, а пишущие потоки не останавливаются
+ * и не ждут его построения. Цена — память на вторую копию состояния на время построения.
+ */
+public class Checkpointer implements Closeable {
+    private final Path directory;
+    private final MappedJournal journal;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Создаёт объект для записи снимков.
+     *
+     * @param directory каталог журнала; снимки хранятся в нём же.
+     * @param journal   открытый журнал в этом каталоге.
+     */
+    public Checkpointer(Path directory, MappedJournal journal) {
+        this.directory = directory;
+        this.journal = journal;
+    }
+
+    /**
+     * Записывает снимок состояния на текущую позицию журнала, затем удаляет
+     * предыдущие снимки и сегменты журнала, которые целиком вошли в снимок.
+     * Если с прошлого снимка журнал не изменился, новый снимок не записывается.
+     *
+     * @return путь к последнему снимку; null, если журнал пуст.
+     * @throws IOException если снимок не удалось построить или записать.
+     */
+    public synchronized Path checkpoint() throws IOException {
+        // Записи до этой позиции сбрасываются на диск, иначе после сбоя журнал
+        // мог бы продолжиться с позиции, которая меньше позиции снимка.
+        long target = journal.force();
+        Path previous = Snapshots.latest(directory);
+        UserRepository userRepository = new UserRepository();
+        BudgetRepository budgetRepository = new BudgetRepository();
+        GoalRepository goalRepository = new GoalRepository();
+        long from = previous == null ? JournalReader.BEGINNING
+                : Snapshots.load(previous, userRepository, budgetRepository, goalRepository);
+        if (from >= target) {
+            return previous;
+        }
+        new JournalReader(directory).replay(new RepositoryJournal(userRepository, budgetRepository, goalRepository),
+                from, target);
+        Path snapshot = Snapshots.write(directory, target, userRepository, budgetRepository, goalRepository);
+
+        for (Path old : Snapshots.list(directory)) {
+            if (!old.equals(snapshot)) {
+                Files.deleteIfExists(old);
+            }
+        }
+        int segment = (int) (target >>> 32);
+        for (int index : JournalFormat.segments(directory)) {
+            if (index < segment) {
+                Files.deleteIfExists(JournalFormat.segmentPath(directory, index));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Запускает запись снимков в фоновом потоке с указанным периодом.
+     * Ошибка записи снимка выводится в консоль и не останавливает следующие попытки.
+     *
+     * @param interval период между снимками.
+     * @throws IllegalArgumentException если период не положителен.
+     * @throws IllegalStateException    если запись снимков уже запущена.
+     */
+    public synchronized void start(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Invalid snapshot interval " + interval);
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("Checkpointer is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException | UncheckedIOException | IllegalStateException e) {
+                System.out.println("Не удалось записать снимок: " + e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Останавливает фоновую запись снимков и дожидается завершения текущего снимка.
+     * Журнал не закрывается.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            running.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.financetracker.journal;
+
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+
+import java.io.Closeable;
+
+/**
+ * Журнал изменений состояния приложения.
+ * <p>
+ * Каждая запись содержит полное новое состояние изменённого объекта (пользователя, транзакции,
+ * бюджета или цели) либо факт его удаления. Поэтому повторное применение записи не меняет
+ * результат, а для восстановления достаточно применить записи по порядку.
+ * <p>
+ * Тот же интерфейс используется и при чтении журнала: JournalReader передаёт
+ * прочитанные записи в реализацию Journal, которая применяет их к репозиториям.
+ */
+public interface Journal extends Closeable {
+    /**
+     * Журнал, который ничего не записывает.
+     */
+    Journal DISABLED = new Journal() {
+        @Override
+        public void userSaved(User user) {
+        }
+
+        @Override
+        public void userDeleted(String userId) {
+        }
+
+        @Override
+        public void transactionSaved(String userId, Transaction transaction) {
+        }
+
+        @Override
+        public void transactionRemoved(String userId, String transactionId) {
+        }
+
+        @Override
+        public void budgetSaved(String userId, String month, long budget, long express) {
+        }
+
+        @Override
+        public void goalSaved(String userId, String name, long target, long current) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Записывает состояние пользователя после регистрации или изменения.
+     *
+     * @param user пользователь.
+     */
+    void userSaved(User user);
+
+    /**
+     * Записывает удаление пользователя.
+     *
+     * @param userId идентификатор пользователя.
+     */
+    void userDeleted(String userId);
+
+    /**
+     * Записывает состояние транзакции после добавления или изменения.
+     *
+     * @param userId      идентификатор пользователя.
+     * @param transaction транзакция.
+     */
+    void transactionSaved(String userId, Transaction transaction);
+
+    /**
+     * Записывает состояние всех транзакций пачки после добавления.
+     * Реализация по умолчанию записывает строки по одной через transactionSaved; журналы,
+     * подтверждающие запись сбросом на диск, переопределяют метод, чтобы пачка подтверждалась одним сбросом.
+     *
+     * @param userId идентификатор пользователя.
+     * @param batch  пачка транзакций.
+     */
+    default void transactionsSaved(String userId, TransactionBatch batch) {
+        for (int row = 0; row < batch.size(); row++) {
+            transactionSaved(userId, batch.toTransaction(row));
+        }
+    }
+
+    /**
+     * Записывает удаление транзакции.
+     *
+     * @param userId        идентификатор пользователя.
+     * @param transactionId идентификатор транзакции.
+     */
+    void transactionRemoved(String userId, String transactionId);
+
+    /**
+     * Записывает состояние бюджета пользователя.
+     *
+     * @param userId  идентификатор пользователя.
+     * @param month   месяц бюджета в формате "yyyy-MM".
+     * @param budget  сумма бюджета в копейках.
+     * @param express сумма расходов за месяц в копейках.
+     */
+    void budgetSaved(String userId, String month, long budget, long express);
+
+    /**
+     * Записывает состояние финансовой цели пользователя.
+     *
+     * @param userId  идентификатор пользователя.
+     * @param name    название цели.
+     * @param target  целевая сумма в копейках.
+     * @param current накопленная сумма в копейках.
+     */
+    void goalSaved(String userId, String name, long target, long current);
+}
@@ -0,0 +1,184 @@
+package com.financetracker.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Двоичный формат сегментов журнала.
+ * <p>
+ * Сегмент — файл фиксированного размера с именем вида 0000000000.journal.
+ * Он начинается с заголовка (MAGIC, VERSION), за которым подряд идут записи:
+ * <pre>
+ * int  length   длина тела записи в байтах; 0 — дальше записей в сегменте нет
+ * int  checksum CRC32C тела записи
+ * byte type     код RecordType
+ * ...           поля записи
+ * </pre>
+ * Строки хранятся как int длина в байтах UTF-8 (-1 — null) и сами байты.
+ * Запись с неверной контрольной суммой считается недописанной: чтение сегмента на ней заканчивается.
+ */
+final class JournalFormat {
+    static final int MAGIC = 0x46544A4C; // "FTJL"
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER = 8;
+    static final int RECORD_HEADER = 8;
+
+    private static final String SUFFIX = ".journal";
+
+    private JournalFormat() {
+    }
+
+    /**
+     * Возвращает путь к сегменту с указанным номером.
+     */
+    static Path segmentPath(Path directory, int index) {
+        return directory.resolve(String.format("%010d%s", index, SUFFIX));
+    }
+
+    /**
+     * Возвращает номера сегментов в каталоге в порядке возрастания.
+     */
+    static List<Integer> segments(Path directory) throws IOException {
+        List<Integer> result = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX) && name.length() == 10 + SUFFIX.length())
+                    .map(name -> Integer.parseInt(name.substring(0, 10)))
+                    .sorted()
+                    .forEach(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет заголовок сегмента.
+     *
+     * @throws IOException если файл не является сегментом журнала.
+     */
+    static void checkHeader(ByteBuffer segment, Path path) throws IOException {
+        if (segment.limit() < SEGMENT_HEADER || segment.getInt(0) != MAGIC) {
+            throw new IOException("Not a journal segment: " + path);
+        }
+        if (segment.getInt(4) != VERSION) {
+            throw new IOException("Unsupported journal version " + segment.getInt(4) + " in " + path);
+        }
+    }
+
+    /**
+     * Проверяет запись, начинающуюся со смещения offset.
+     *
+     * @return длина тела записи; -1, если записи нет или она недописана.
+     */
+    static int checkRecord(ByteBuffer segment, int offset, CRC32C crc) {
+        if (offset + RECORD_HEADER > segment.limit()) {
+            return -1;
+        }
+        int length = segment.getInt(offset);
+        if (length <= 0 || length > segment.limit() - offset - RECORD_HEADER) {
+            return -1;
+        }
+        crc.reset();
+        crc.update(segment.slice(offset + RECORD_HEADER, length));
+        return (int) crc.getValue() == segment.getInt(offset + 4) ? length : -1;
+    }
+
+    /**
+     * Возвращает смещение, следующее за последней целой записью сегмента.
+     */
+    static int end(ByteBuffer segment, CRC32C crc) {
+        int offset = SEGMENT_HEADER;
+        int length;
+        while ((length = checkRecord(segment, offset, crc)) > 0) {
+            offset += RECORD_HEADER + length;
+        }
+        return offset;
+    }
+
+    /**
+     * Возвращает размер строки в записи: длина и байты в кодировке UTF-8.
+     * Одиночные суррогаты кодируются одним байтом '?', как в String.getBytes.
+     */
+    static int sizeOf(String value) {
+        if (value == null) {
+            return Integer.BYTES;
+        }
+        int size = Integer.BYTES;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                size++;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                size += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                size++;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Записывает строку в буфер в кодировке UTF-8 без промежуточного массива байтов.
+     */
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        int lengthOffset = buffer.position();
+        buffer.putInt(0);
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >> 18));
+                buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        buffer.putInt(lengthOffset, buffer.position() - lengthOffset - Integer.BYTES);
+    }
+
+    /**
+     * Читает строку, записанную методом putString.
+     */
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
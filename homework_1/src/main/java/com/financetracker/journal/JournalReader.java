@@ -0,0 +1,115 @@
+package com.financetracker.journal;
+
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Чтение журнала, записанного MappedJournal.
+ * Записи всех сегментов передаются по порядку в реализацию Journal,
+ * которая применяет их, например, к репозиториям.
+ */
+public class JournalReader {
+    /**
+     * Позиция начала журнала.
+     */
+    public static final long BEGINNING = JournalFormat.SEGMENT_HEADER;
+
+    private final Path directory;
+
+    /**
+     * Создаёт читателя журнала.
+     *
+     * @param directory каталог сегментов журнала.
+     */
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Передаёт все записи журнала в target.
+     * Чтение сегмента заканчивается на первой недописанной записи.
+     *
+     * @param target получатель записей.
+     * @return количество прочитанных записей.
+     * @throws IOException если сегмент не удалось прочитать или он повреждён.
+     */
+    public long replay(Journal target) throws IOException {
+        return replay(target, BEGINNING, Long.MAX_VALUE);
+    }
+
+    /**
+     * Передаёт в target записи, начинающиеся в позициях из диапазона [from, to).
+     * Позиции — в формате MappedJournal.position; from должна быть границей записи.
+     * Сегменты до сегмента позиции from не читаются.
+     *
+     * @param target получатель записей.
+     * @param from   позиция первой записи.
+     * @param to     позиция, на которой чтение останавливается.
+     * @return количество прочитанных записей.
+     * @throws IOException если сегмент не удалось прочитать или он повреждён.
+     */
+    public long replay(Journal target, long from, long to) throws IOException {
+        CRC32C crc = new CRC32C();
+        long records = 0;
+        int fromSegment = (int) (from >>> 32);
+        for (int index : JournalFormat.segments(directory)) {
+            if (index < fromSegment) {
+                continue;
+            }
+            long base = (long) index << 32;
+            if (base + JournalFormat.SEGMENT_HEADER >= to) {
+                break;
+            }
+            Path path = JournalFormat.segmentPath(directory, index);
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            JournalFormat.checkHeader(segment, path);
+            int offset = index == fromSegment ? Math.max((int) from, JournalFormat.SEGMENT_HEADER)
+                    : JournalFormat.SEGMENT_HEADER;
+            int length;
+            while (base + offset < to && (length = JournalFormat.checkRecord(segment, offset, crc)) > 0) {
+                segment.position(offset + JournalFormat.RECORD_HEADER);
+                apply(segment, target);
+                offset += JournalFormat.RECORD_HEADER + length;
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private static void apply(MappedByteBuffer record, Journal target) {
+        switch (RecordType.of(record.get())) {
+            case USER_SAVED -> target.userSaved(new User(JournalFormat.getString(record),
+                    JournalFormat.getString(record), JournalFormat.getString(record),
+                    JournalFormat.getString(record), JournalFormat.getString(record),
+                    JournalFormat.getString(record)));
+            case USER_DELETED -> target.userDeleted(JournalFormat.getString(record));
+            case TRANSACTION_SAVED -> {
+                String userId = JournalFormat.getString(record);
+                String id = JournalFormat.getString(record);
+                long amount = record.getLong();
+                LocalDate date = LocalDate.ofEpochDay(record.getInt());
+                String category = JournalFormat.getString(record);
+                String description = JournalFormat.getString(record);
+                boolean income = record.get() != 0;
+                target.transactionSaved(userId, new Transaction(id, amount, category, date, description, income));
+            }
+            case TRANSACTION_REMOVED -> target.transactionRemoved(JournalFormat.getString(record),
+                    JournalFormat.getString(record));
+            case BUDGET_SAVED -> target.budgetSaved(JournalFormat.getString(record), JournalFormat.getString(record),
+                    record.getLong(), record.getLong());
+            case GOAL_SAVED -> target.goalSaved(JournalFormat.getString(record), JournalFormat.getString(record),
+                    record.getLong(), record.getLong());
+        }
+    }
+}
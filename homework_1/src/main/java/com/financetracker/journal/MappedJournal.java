@@ -0,0 +1,293 @@
+package com.financetracker.journal;
+
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Журнал изменений, записываемый в отображённые в память файлы-сегменты.
+ * <p>
+ * Записи кодируются сразу в отображённый буфер сегмента: поля пишутся методами ByteBuffer,
+ * а строки — в UTF-8 посимвольно, без промежуточных массивов и объектов. Поэтому добавление
+ * записи стоит как копирование её байтов в память, а запись на диск выполняет операционная система.
+ * Данные переживают аварийное завершение процесса; для защиты от сбоя питания нужно вызывать force.
+ * <p>
+ * Когда запись не помещается в текущий сегмент, он сбрасывается на диск и создаётся следующий.
+ * При открытии существующего каталога запись продолжается с конца последнего сегмента;
+ * недописанная последняя запись отбрасывается.
+ * <p>
+ * Методы потокобезопасны.
+ */
+public class MappedJournal implements Journal {
+    /**
+     * Размер сегмента по умолчанию — 64 МБ.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    private static final int MIN_SEGMENT_SIZE = 4096;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32C crc = new CRC32C();
+
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private int recordStart;
+
+    /**
+     * Смещение в текущем сегменте, до которого данные уже сброшены на диск.
+     */
+    private int forced;
+
+    /**
+     * Открывает журнал в каталоге с размером сегмента по умолчанию.
+     *
+     * @param directory каталог сегментов; создаётся, если не существует.
+     * @throws IOException если каталог или сегмент не удалось открыть.
+     */
+    public MappedJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Открывает журнал в каталоге.
+     *
+     * @param directory   каталог сегментов; создаётся, если не существует.
+     * @param segmentSize размер новых сегментов в байтах.
+     * @throws IOException              если каталог или сегмент не удалось открыть.
+     * @throws IllegalArgumentException если размер сегмента меньше 4 КБ.
+     */
+    public MappedJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Segment size must be at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Integer> segments = JournalFormat.segments(directory);
+        if (segments.isEmpty()) {
+            createSegment(0);
+        } else {
+            openLastSegment(segments.get(segments.size() - 1));
+        }
+    }
+
+    @Override
+    public synchronized void userSaved(User user) {
+        begin(RecordType.USER_SAVED, JournalFormat.sizeOf(user.getId()) + JournalFormat.sizeOf(user.getEmail())
+                + JournalFormat.sizeOf(user.getPassword()) + JournalFormat.sizeOf(user.getName())
+                + JournalFormat.sizeOf(user.getRole()) + JournalFormat.sizeOf(user.getStatus()));
+        JournalFormat.putString(segment, user.getId());
+        JournalFormat.putString(segment, user.getEmail());
+        JournalFormat.putString(segment, user.getPassword());
+        JournalFormat.putString(segment, user.getName());
+        JournalFormat.putString(segment, user.getRole());
+        JournalFormat.putString(segment, user.getStatus());
+        end();
+    }
+
+    @Override
+    public synchronized void userDeleted(String userId) {
+        begin(RecordType.USER_DELETED, JournalFormat.sizeOf(userId));
+        JournalFormat.putString(segment, userId);
+        end();
+    }
+
+    @Override
+    public synchronized void transactionSaved(String userId, Transaction transaction) {
+        putTransaction(userId, transaction.getId(), transaction.getAmount(), (int) transaction.getDate().toEpochDay(),
+                transaction.getCategory(), transaction.getDescription(), transaction.isIncome());
+    }
+
+    /**
+     * Записывает все транзакции пачки подряд, читая поля из колонок пачки без создания объектов Transaction.
+     */
+    @Override
+    public synchronized void transactionsSaved(String userId, TransactionBatch batch) {
+        CategoryDictionary categories = CategoryDictionary.getInstance();
+        for (int row = 0; row < batch.size(); row++) {
+            putTransaction(userId, batch.id(row), batch.amount(row), batch.epochDay(row),
+                    categories.nameOf(batch.categoryId(row)), batch.description(row), batch.isIncome(row));
+        }
+    }
+
+    private void putTransaction(String userId, String id, long amount, int epochDay, String category,
+                                String description, boolean income) {
+        begin(RecordType.TRANSACTION_SAVED, JournalFormat.sizeOf(userId) + JournalFormat.sizeOf(id)
+                + Long.BYTES + Integer.BYTES + JournalFormat.sizeOf(category)
+                + JournalFormat.sizeOf(description) + 1);
+        JournalFormat.putString(segment, userId);
+        JournalFormat.putString(segment, id);
+        segment.putLong(amount);
+        segment.putInt(epochDay);
+        JournalFormat.putString(segment, category);
+        JournalFormat.putString(segment, description);
+        segment.put((byte) (income ? 1 : 0));
+        end();
+    }
+
+    @Override
+    public synchronized void transactionRemoved(String userId, String transactionId) {
+        begin(RecordType.TRANSACTION_REMOVED, JournalFormat.sizeOf(userId) + JournalFormat.sizeOf(transactionId));
+        JournalFormat.putString(segment, userId);
+        JournalFormat.putString(segment, transactionId);
+        end();
+    }
+
+    @Override
+    public synchronized void budgetSaved(String userId, String month, long budget, long express) {
+        begin(RecordType.BUDGET_SAVED, JournalFormat.sizeOf(userId) + JournalFormat.sizeOf(month) + 2 * Long.BYTES);
+        JournalFormat.putString(segment, userId);
+        JournalFormat.putString(segment, month);
+        segment.putLong(budget);
+        segment.putLong(express);
+        end();
+    }
+
+    @Override
+    public synchronized void goalSaved(String userId, String name, long target, long current) {
+        begin(RecordType.GOAL_SAVED, JournalFormat.sizeOf(userId) + JournalFormat.sizeOf(name) + 2 * Long.BYTES);
+        JournalFormat.putString(segment, userId);
+        JournalFormat.putString(segment, name);
+        segment.putLong(target);
+        segment.putLong(current);
+        end();
+    }
+
+    /**
+     * Возвращает позицию конца журнала: номер сегмента в старших 32 битах и смещение в младших.
+     * Позиции возрастают с каждой записью.
+     *
+     * @return позиция конца журнала.
+     */
+    public synchronized long position() {
+        ensureOpen();
+        return (long) segmentIndex << 32 | segment.position();
+    }
+
+    /**
+     * Сбрасывает на диск записи, добавленные до вызова.
+     * Сбрасывается только ещё не сброшенная часть текущего сегмента (предыдущие сегменты
+     * сбрасываются при переходе к следующему), и сброс выполняется без блокировки журнала,
+     * поэтому другие потоки могут продолжать добавлять записи.
+     *
+     * @return позиция, до которой записи гарантированно сохранены на диске.
+     */
+    public long force() {
+        MappedByteBuffer current;
+        int from;
+        int to;
+        long position;
+        synchronized (this) {
+            ensureOpen();
+            current = segment;
+            from = forced;
+            to = segment.position();
+            position = (long) segmentIndex << 32 | to;
+        }
+        if (to > from) {
+            current.force(from, to - from);
+            synchronized (this) {
+                if (segment == current && forced < to) {
+                    forced = to;
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Сбрасывает данные на диск и закрывает журнал.
+     * Повторный вызов ничего не делает.
+     */
+    @Override
+    public synchronized void close() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+
+    /**
+     * Резервирует место под запись и записывает её тип.
+     * Если запись не помещается в текущий сегмент, открывается следующий.
+     */
+    private void begin(RecordType type, int fieldsLength) {
+        ensureOpen();
+        int total = JournalFormat.RECORD_HEADER + 1 + fieldsLength;
+        if (total > segmentSize - JournalFormat.SEGMENT_HEADER) {
+            throw new IllegalArgumentException("Journal record of " + total + " bytes exceeds segment size");
+        }
+        if (segment.remaining() < total) {
+            segment.force();
+            try {
+                createSegment(segmentIndex + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create journal segment", e);
+            }
+        }
+        recordStart = segment.position();
+        segment.position(recordStart + JournalFormat.RECORD_HEADER);
+        segment.put(type.code);
+    }
+
+    /**
+     * Дописывает контрольную сумму и длину записи. Длина записывается последней,
+     * поэтому читатель не увидит запись, пока она не записана целиком.
+     */
+    private void end() {
+        int bodyStart = recordStart + JournalFormat.RECORD_HEADER;
+        int end = segment.position();
+        crc.reset();
+        segment.limit(end).position(bodyStart);
+        crc.update(segment);
+        segment.limit(segment.capacity());
+        segment.putInt(recordStart + 4, (int) crc.getValue());
+        segment.putInt(recordStart, end - bodyStart);
+    }
+
+    private void ensureOpen() {
+        if (segment == null) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    private void createSegment(int index) throws IOException {
+        Path path = JournalFormat.segmentPath(directory, index);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.putInt(JournalFormat.MAGIC);
+        segment.putInt(JournalFormat.VERSION);
+        segmentIndex = index;
+        forced = 0;
+    }
+
+    private void openLastSegment(int index) throws IOException {
+        Path path = JournalFormat.segmentPath(directory, index);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        segmentIndex = index;
+        if (segment.limit() >= JournalFormat.SEGMENT_HEADER && segment.getInt(0) == 0) {
+            // Сегмент создан, но заголовок не успел попасть на диск
+            segment.putInt(0, JournalFormat.MAGIC);
+            segment.putInt(4, JournalFormat.VERSION);
+        }
+        JournalFormat.checkHeader(segment, path);
+        segment.position(JournalFormat.end(segment, crc));
+        forced = 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.financetracker.journal;
+
+/**
+ * Типы записей журнала и их коды в двоичном формате.
+ * Коды записываются в файлы, поэтому их нельзя менять или переиспользовать.
+ */
+enum RecordType {
+    USER_SAVED(1),
+    USER_DELETED(2),
+    TRANSACTION_SAVED(3),
+    TRANSACTION_REMOVED(4),
+    BUDGET_SAVED(5),
+    GOAL_SAVED(6);
+
+    private static final RecordType[] BY_CODE = new RecordType[8];
+
+    static {
+        for (RecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    final byte code;
+
+    RecordType(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * Возвращает тип записи по коду.
+     *
+     * @throws IllegalArgumentException если код неизвестен.
+     */
+    static RecordType of(byte code) {
+        RecordType type = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown journal record type " + code);
+        }
+        return type;
+    }
+}
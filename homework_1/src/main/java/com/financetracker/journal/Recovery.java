@@ -0,0 +1,38 @@
+package com.financetracker.journal;
+
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.GoalRepository;
+import com.financetracker.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Восстановление состояния при запуске: загружается последний снимок,
+ * затем применяются только записи журнала после его позиции.
+ */
+public final class Recovery {
+
+    private Recovery() {
+    }
+
+    /**
+     * Восстанавливает состояние репозиториев из каталога журнала.
+     * Репозитории должны быть пустыми.
+     *
+     * @param directory        каталог журнала и снимков.
+     * @param userRepository   репозиторий пользователей и их транзакций.
+     * @param budgetRepository репозиторий бюджетов.
+     * @param goalRepository   репозиторий финансовых целей.
+     * @return количество применённых записей журнала.
+     * @throws IOException если снимок или журнал не удалось прочитать.
+     */
+    public static long recover(Path directory, UserRepository userRepository, BudgetRepository budgetRepository,
+                               GoalRepository goalRepository) throws IOException {
+        Path snapshot = Snapshots.latest(directory);
+        long from = snapshot == null ? JournalReader.BEGINNING
+                : Snapshots.load(snapshot, userRepository, budgetRepository, goalRepository);
+        return new JournalReader(directory).replay(
+                new RepositoryJournal(userRepository, budgetRepository, goalRepository), from, Long.MAX_VALUE);
+    }
+}
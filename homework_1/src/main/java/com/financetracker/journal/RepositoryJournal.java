@@ -0,0 +1,86 @@
+package com.financetracker.journal;
+
+import com.financetracker.model.BudgetRecord;
+import com.financetracker.model.Goal;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.GoalRepository;
+import com.financetracker.repository.UserRepository;
+
+/**
+ * Применяет записи журнала к репозиториям.
+ * Используется при восстановлении состояния и при построении снимка:
+ * JournalReader передаёт сюда прочитанные записи.
+ * Записи содержат полное состояние объекта, поэтому повторное применение записи ничего не меняет.
+ */
+public class RepositoryJournal implements Journal {
+    private final UserRepository userRepository;
+    private final BudgetRepository budgetRepository;
+    private final GoalRepository goalRepository;
+
+    /**
+     * Создаёт журнал, изменяющий указанные репозитории.
+     *
+     * @param userRepository   репозиторий пользователей и их транзакций.
+     * @param budgetRepository репозиторий бюджетов.
+     * @param goalRepository   репозиторий финансовых целей.
+     */
+    public RepositoryJournal(UserRepository userRepository, BudgetRepository budgetRepository,
+                             GoalRepository goalRepository) {
+        this.userRepository = userRepository;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+    }
+
+    /**
+     * Сохраняет пользователя. Если пользователь уже есть, обновляются его поля,
+     * а транзакции сохраняются.
+     */
+    @Override
+    public void userSaved(User user) {
+        User existing = userRepository.findUserById(user.getId());
+        if (existing == null) {
+            userRepository.saveUser(user);
+            return;
+        }
+        existing.setEmail(user.getEmail());
+        existing.setPassword(user.getPassword());
+        existing.setName(user.getName());
+        existing.setStatus(user.getStatus());
+        userRepository.saveUser(existing);
+    }
+
+    @Override
+    public void userDeleted(String userId) {
+        userRepository.deleteUser(userId);
+    }
+
+    @Override
+    public void transactionSaved(String userId, Transaction transaction) {
+        userRepository.addTransaction(userId, transaction);
+    }
+
+    @Override
+    public void transactionRemoved(String userId, String transactionId) {
+        userRepository.removeTransaction(userId, transactionId);
+    }
+
+    @Override
+    public void budgetSaved(String userId, String month, long budget, long express) {
+        BudgetRecord record = new BudgetRecord(month, budget);
+        record.addExpress(express);
+        budgetRepository.saveBudget(userId, record);
+    }
+
+    @Override
+    public void goalSaved(String userId, String name, long target, long current) {
+        Goal goal = new Goal(target, name);
+        goal.addCurrentAmount(current);
+        goalRepository.saveGoal(userId, goal);
+    }
+
+    @Override
+    public void close() {
+    }
+}
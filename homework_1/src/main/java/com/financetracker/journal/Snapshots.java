@@ -0,0 +1,315 @@
+package com.financetracker.journal;
+
+import com.financetracker.model.BudgetRecord;
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.Goal;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.GoalRepository;
+import com.financetracker.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Двоичные снимки состояния всех репозиториев.
+ * <p>
+ * Снимок хранит позицию журнала, которой соответствует его состояние, поэтому при восстановлении
+ * после загрузки снимка применяется только хвост журнала. Формат:
+ * <pre>
+ * int MAGIC, int VERSION, long позиция журнала
+ * int число категорий, названия категорий        — номер категории в снимке = номер в списке
+ * int число пользователей; для каждого:
+ *     id, email, password, name, role, status, int число транзакций; для каждой:
+ *     id, long amount, int epochDay, int номер категории (-1 — без категории), description, byte income
+ * int число бюджетов; для каждого: id пользователя, month, long budget, long express
+ * int число целей; для каждой: id пользователя, name, long target, long current
+ * </pre>
+ * Строки записываются так же, как в журнале. Снимок пишется во временный файл и атомарно
+ * переименовывается, поэтому недописанный снимок никогда не будет загружен.
+ */
+public final class Snapshots {
+    private static final int MAGIC = 0x4654534E; // "FTSN"
+    private static final int VERSION = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snapshot";
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private Snapshots() {
+    }
+
+    /**
+     * Записывает снимок репозиториев в каталог.
+     *
+     * @param directory        каталог снимков.
+     * @param position         позиция журнала, которой соответствует состояние репозиториев.
+     * @param userRepository   репозиторий пользователей и их транзакций.
+     * @param budgetRepository репозиторий бюджетов.
+     * @param goalRepository   репозиторий финансовых целей.
+     * @return путь к записанному снимку.
+     * @throws IOException если снимок не удалось записать.
+     */
+    public static Path write(Path directory, long position, UserRepository userRepository,
+                             BudgetRepository budgetRepository, GoalRepository goalRepository) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("%s%016x%s", PREFIX, position, SUFFIX));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try (Output output = new Output(FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            output.ensure(16);
+            output.buffer.putInt(MAGIC).putInt(VERSION).putLong(position);
+
+            CategoryDictionary dictionary = CategoryDictionary.getInstance();
+            int categories = dictionary.size();
+            output.putInt(categories);
+            for (int id = 0; id < categories; id++) {
+                output.putString(dictionary.nameOf(id));
+            }
+
+            List<User> users = userRepository.getUsers();
+            output.putInt(users.size());
+            for (User user : users) {
+                output.putString(user.getId());
+                output.putString(user.getEmail());
+                output.putString(user.getPassword());
+                output.putString(user.getName());
+                output.putString(user.getRole());
+                output.putString(user.getStatus());
+                Map<String, Transaction> transactions = user.getTransactions();
+                output.putInt(transactions.size());
+                for (Transaction transaction : transactions.values()) {
+                    output.putString(transaction.getId());
+                    output.ensure(Long.BYTES + 2 * Integer.BYTES);
+                    output.buffer.putLong(transaction.getAmount())
+                            .putInt((int) transaction.getDate().toEpochDay())
+                            .putInt(transaction.getCategoryId());
+                    output.putString(transaction.getDescription());
+                    output.ensure(1);
+                    output.buffer.put((byte) (transaction.isIncome() ? 1 : 0));
+                }
+            }
+
+            Map<String, BudgetRecord> budgets = budgetRepository.getBudgets();
+            output.putInt(budgets.size());
+            for (Map.Entry<String, BudgetRecord> entry : budgets.entrySet()) {
+                output.putString(entry.getKey());
+                output.putString(entry.getValue().getMonth());
+                output.ensure(2 * Long.BYTES);
+                output.buffer.putLong(entry.getValue().getBudget()).putLong(entry.getValue().getExpress());
+            }
+
+            Map<String, Goal> goals = goalRepository.getGoals();
+            output.putInt(goals.size());
+            for (Map.Entry<String, Goal> entry : goals.entrySet()) {
+                output.putString(entry.getKey());
+                output.putString(entry.getValue().getGoalName());
+                output.ensure(2 * Long.BYTES);
+                output.buffer.putLong(entry.getValue().getTargetAmount()).putLong(entry.getValue().getCurrentAmount());
+            }
+            output.flush();
+            output.channel.force(true);
+        }
+        return Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Загружает снимок в репозитории.
+     *
+     * @param file             файл снимка.
+     * @param userRepository   репозиторий пользователей и их транзакций.
+     * @param budgetRepository репозиторий бюджетов.
+     * @param goalRepository   репозиторий финансовых целей.
+     * @return позиция журнала, которой соответствует снимок.
+     * @throws IOException если снимок не удалось прочитать или он повреждён.
+     */
+    public static long load(Path file, UserRepository userRepository, BudgetRepository budgetRepository,
+                            GoalRepository goalRepository) throws IOException {
+        try (Input input = new Input(FileChannel.open(file, StandardOpenOption.READ))) {
+            input.ensure(16);
+            if (input.buffer.getInt() != MAGIC || input.buffer.getInt() != VERSION) {
+                throw new IOException("Not a snapshot: " + file);
+            }
+            long position = input.buffer.getLong();
+
+            CategoryDictionary dictionary = CategoryDictionary.getInstance();
+            int[] categoryIds = new int[input.getInt()];
+            for (int i = 0; i < categoryIds.length; i++) {
+                categoryIds[i] = dictionary.idOf(input.getString());
+            }
+
+            int users = input.getInt();
+            for (int u = 0; u < users; u++) {
+                User user = new User(input.getString(), input.getString(), input.getString(),
+                        input.getString(), input.getString(), input.getString());
+                // Пользователь сохраняется до транзакций, чтобы они сразу попадали в хранилище движка репозитория
+                userRepository.saveUser(user);
+                int transactions = input.getInt();
+                for (int t = 0; t < transactions; t++) {
+                    String id = input.getString();
+                    input.ensure(Long.BYTES + 2 * Integer.BYTES);
+                    long amount = input.buffer.getLong();
+                    LocalDate date = LocalDate.ofEpochDay(input.buffer.getInt());
+                    int category = input.buffer.getInt();
+                    String description = input.getString();
+                    input.ensure(1);
+                    boolean income = input.buffer.get() != 0;
+                    user.addTransaction(new Transaction(id, amount,
+                            category < 0 ? CategoryDictionary.NO_CATEGORY : categoryIds[category],
+                            date, description, income));
+                }
+            }
+
+            int budgets = input.getInt();
+            for (int i = 0; i < budgets; i++) {
+                String userId = input.getString();
+                String month = input.getString();
+                input.ensure(2 * Long.BYTES);
+                BudgetRecord record = new BudgetRecord(month, input.buffer.getLong());
+                record.addExpress(input.buffer.getLong());
+                budgetRepository.saveBudget(userId, record);
+            }
+
+            int goals = input.getInt();
+            for (int i = 0; i < goals; i++) {
+                String userId = input.getString();
+                String name = input.getString();
+                input.ensure(2 * Long.BYTES);
+                Goal goal = new Goal(input.buffer.getLong(), name);
+                goal.addCurrentAmount(input.buffer.getLong());
+                goalRepository.saveGoal(userId, goal);
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Возвращает самый новый снимок в каталоге.
+     *
+     * @param directory каталог снимков.
+     * @return путь к снимку; null, если снимков нет.
+     * @throws IOException если каталог не удалось прочитать.
+     */
+    public static Path latest(Path directory) throws IOException {
+        List<Path> snapshots = list(directory);
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    /**
+     * Возвращает снимки в каталоге в порядке возрастания позиции журнала.
+     */
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    /**
+     * Буферизованная запись в канал.
+     */
+    private static final class Output implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+                if (buffer.capacity() < bytes) {
+                    throw new IOException("Snapshot field of " + bytes + " bytes is too large");
+                }
+            }
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putString(String value) throws IOException {
+            ensure(JournalFormat.sizeOf(value));
+            JournalFormat.putString(buffer, value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Буферизованное чтение из канала.
+     */
+    private static final class Input implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).limit(0);
+
+        Input(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            if (buffer.capacity() < bytes) {
+                throw new IOException("Snapshot field of " + bytes + " bytes is too large");
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of snapshot");
+                }
+            }
+            buffer.flip();
+        }
+
+        int getInt() throws IOException {
+            ensure(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0) {
+                return null;
+            }
+            ensure(length);
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
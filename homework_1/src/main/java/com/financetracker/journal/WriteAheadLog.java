@@ -0,0 +1,346 @@
+package com.financetracker.journal;
+
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Журнал предзаписи: MappedJournal с настраиваемой гарантией сохранности записей на диске.
+ * <p>
+ * Сброс на диск (force) стоит миллисекунды, поэтому сброс после каждой записи ограничивает
+ * пропускную способность сотнями записей в секунду. В режиме GROUP_COMMIT записи добавляются
+ * в отображённый сегмент сразу, а сбрасывает их отдельный поток: один вызов force подтверждает
+ * все записи, добавленные к его началу, и каждый писатель ждёт только подтверждения своей записи.
+ * <ul>
+ * <li>SYNC — каждая запись сбрасывается на диск до возврата из метода;</li>
+ * <li>GROUP_COMMIT — метод возвращается после группового сброса, включившего запись;
+ * окно задаёт, сколько поток сброса ждёт, чтобы собрать в группу больше записей;</li>
+ * <li>ASYNC — метод возвращается сразу, поток сброса сбрасывает записи раз в окно;
+ * при сбое питания теряются записи последнего окна.</li>
+ * </ul>
+ */
+public class WriteAheadLog implements Journal {
+    /**
+     * Гарантия сохранности записи на момент возврата из метода журнала.
+     */
+    public enum Durability {
+        SYNC,
+        GROUP_COMMIT,
+        ASYNC
+    }
+
+    /**
+     * Окно по умолчанию для GROUP_COMMIT: сброс начинается сразу, а записи, добавленные
+     * во время сброса, подтверждаются следующим сбросом одной группой.
+     */
+    public static final Duration DEFAULT_GROUP_WINDOW = Duration.ZERO;
+
+    /**
+     * Период сброса по умолчанию для ASYNC.
+     */
+    public static final Duration DEFAULT_ASYNC_PERIOD = Duration.ofMillis(10);
+
+    private final MappedJournal journal;
+    private final Durability durability;
+    private final long windowNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+
+    /**
+     * Позиция конца последней добавленной записи, ожидающей сброса.
+     */
+    private long requested;
+
+    /**
+     * Позиция, до которой записи сохранены на диске.
+     */
+    private volatile long durable;
+
+    private volatile RuntimeException failure;
+    private volatile boolean closed;
+
+    /**
+     * Поток сброса завершился; изменяется под блокировкой lock.
+     */
+    private boolean stopped;
+
+    /**
+     * Поток сброса; null в режиме SYNC. Запускается в open после конструктора,
+     * чтобы ссылка на журнал не попадала в другой поток до окончания его создания.
+     */
+    private Thread committer;
+
+    private WriteAheadLog(MappedJournal journal, Durability durability, Duration window) {
+        this.journal = journal;
+        this.durability = durability;
+        this.windowNanos = window.toNanos();
+        this.durable = journal.position();
+        this.requested = durable;
+    }
+
+    /**
+     * Открывает журнал предзаписи с окном по умолчанию: DEFAULT_ASYNC_PERIOD для ASYNC,
+     * DEFAULT_GROUP_WINDOW для остальных режимов.
+     *
+     * @param journal    журнал, в который добавляются записи.
+     * @param durability гарантия сохранности записей.
+     * @return журнал предзаписи с запущенным потоком сброса (кроме режима SYNC).
+     */
+    public static WriteAheadLog open(MappedJournal journal, Durability durability) {
+        return open(journal, durability, durability == Durability.ASYNC ? DEFAULT_ASYNC_PERIOD : DEFAULT_GROUP_WINDOW);
+    }
+
+    /**
+     * Открывает журнал предзаписи.
+     *
+     * @param journal    журнал, в который добавляются записи.
+     * @param durability гарантия сохранности записей.
+     * @param window     для GROUP_COMMIT — время сбора группы перед сбросом (может быть нулевым);
+     *                   для ASYNC — период сброса.
+     * @return журнал предзаписи с запущенным потоком сброса (кроме режима SYNC).
+     * @throws IllegalArgumentException если окно отрицательно или для ASYNC равно нулю.
+     */
+    public static WriteAheadLog open(MappedJournal journal, Durability durability, Duration window) {
+        if (window.isNegative() || durability == Durability.ASYNC && window.isZero()) {
+            throw new IllegalArgumentException("Invalid commit window " + window);
+        }
+        WriteAheadLog log = new WriteAheadLog(journal, durability, window);
+        if (durability != Durability.SYNC) {
+            log.committer = new Thread(log::runCommitter, "wal-committer");
+            log.committer.setDaemon(true);
+            log.committer.start();
+        }
+        return log;
+    }
+
+    @Override
+    public void userSaved(User user) {
+        long position;
+        synchronized (journal) {
+            journal.userSaved(user);
+            position = journal.position();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void userDeleted(String userId) {
+        long position;
+        synchronized (journal) {
+            journal.userDeleted(userId);
+            position = journal.position();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void transactionSaved(String userId, Transaction transaction) {
+        long position;
+        synchronized (journal) {
+            journal.transactionSaved(userId, transaction);
+            position = journal.position();
+        }
+        commit(position);
+    }
+
+    /**
+     * Добавляет все транзакции пачки и подтверждает их одним сбросом на диск,
+     * а не сбросом на каждую транзакцию.
+     */
+    @Override
+    public void transactionsSaved(String userId, TransactionBatch batch) {
+        long position;
+        synchronized (journal) {
+            journal.transactionsSaved(userId, batch);
+            position = journal.position();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void transactionRemoved(String userId, String transactionId) {
+        long position;
+        synchronized (journal) {
+            journal.transactionRemoved(userId, transactionId);
+            position = journal.position();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void budgetSaved(String userId, String month, long budget, long express) {
+        long position;
+        synchronized (journal) {
+            journal.budgetSaved(userId, month, budget, express);
+            position = journal.position();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void goalSaved(String userId, String name, long target, long current) {
+        long position;
+        synchronized (journal) {
+            journal.goalSaved(userId, name, target, current);
+            position = journal.position();
+        }
+        commit(position);
+    }
+
+    /**
+     * Возвращает гарантию сохранности записей.
+     *
+     * @return режим журнала.
+     */
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Возвращает позицию, до которой записи сохранены на диске.
+     *
+     * @return позиция в формате MappedJournal.position.
+     */
+    public long durablePosition() {
+        return durable;
+    }
+
+    /**
+     * Сбрасывает все записи на диск, останавливает поток сброса и закрывает журнал.
+     * Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (committer != null) {
+            lock.lock();
+            try {
+                pending.signal();
+            } finally {
+                lock.unlock();
+            }
+            boolean interrupted = false;
+            while (committer.isAlive()) {
+                try {
+                    committer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+    }
+
+    private void commit(long position) {
+        switch (durability) {
+            case SYNC -> advance(journal.force());
+            case ASYNC -> request(position);
+            case GROUP_COMMIT -> {
+                request(position);
+                awaitDurable(position);
+            }
+        }
+    }
+
+    private void request(long position) {
+        lock.lock();
+        try {
+            if (position > requested) {
+                requested = position;
+                pending.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitDurable(long position) {
+        lock.lock();
+        try {
+            boolean interrupted = false;
+            while (durable < position) {
+                if (failure != null) {
+                    throw new IllegalStateException("Write-ahead log commit failed", failure);
+                }
+                if (stopped) {
+                    throw new IllegalStateException("Write-ahead log is closed");
+                }
+                try {
+                    committed.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void advance(long position) {
+        lock.lock();
+        try {
+            if (position > durable) {
+                durable = position;
+            }
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Цикл потока сброса: ждёт новые записи, при необходимости выдерживает окно
+     * и сбрасывает на диск всё, что добавлено к этому моменту.
+     */
+    private void runCommitter() {
+        while (true) {
+            lock.lock();
+            try {
+                while (requested <= durable && !closed) {
+                    pending.await();
+                }
+                if (requested <= durable && closed) {
+                    stopped = true;
+                    committed.signalAll();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                // Поток сброса не прерывается извне; закрытие выполняется через флаг closed
+            } finally {
+                lock.unlock();
+            }
+            if (windowNanos > 0 && !closed) {
+                LockSupport.parkNanos(this, windowNanos);
+            }
+            try {
+                advance(journal.force());
+            } catch (RuntimeException e) {
+                failure = e;
+                lock.lock();
+                try {
+                    stopped = true;
+                    committed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.financetracker.ledger;
+
+/**
+ * Вычислительное ядро для суммирования колонки сумм хранилища с маской.
+ * <p>
+ * Строка учитывается, если её тип (доход или расход, бит в битовой маске incomeBits)
+ * совпадает с запрошенным и, для sumInRange, её день попадает в диапазон.
+ * Реализация выбирается при запуске: векторная, если доступен модуль jdk.incubator.vector,
+ * иначе скалярная.
+ */
+public interface AmountKernel {
+    /**
+     * Возвращает сумму строк [0, size) указанного типа.
+     *
+     * @param amounts    суммы в копейках.
+     * @param incomeBits битовая маска доходов: бит i равен 1, если строка i — доход.
+     * @param size       количество строк.
+     * @param income     true — суммировать доходы, false — расходы.
+     * @return сумма в копейках.
+     */
+    long sum(long[] amounts, long[] incomeBits, int size, boolean income);
+
+    /**
+     * Возвращает сумму строк [0, size) указанного типа, дни которых попадают в диапазон.
+     *
+     * @param amounts    суммы в копейках.
+     * @param epochDays  даты строк как номера дней от эпохи.
+     * @param incomeBits битовая маска доходов: бит i равен 1, если строка i — доход.
+     * @param size       количество строк.
+     * @param income     true — суммировать доходы, false — расходы.
+     * @param fromDay    первый день диапазона (включительно).
+     * @param toDay      последний день диапазона (включительно).
+     * @return сумма в копейках.
+     */
+    long sumInRange(long[] amounts, int[] epochDays, long[] incomeBits, int size,
+                    boolean income, int fromDay, int toDay);
+
+    /**
+     * Возвращает скалярную реализацию, доступную всегда.
+     *
+     * @return скалярное ядро.
+     */
+    static AmountKernel scalar() {
+        return ScalarAmountKernel.INSTANCE;
+    }
+
+    /**
+     * Возвращает самую быструю реализацию, доступную в текущей JVM.
+     *
+     * @return векторное ядро, если оно поддерживается, иначе скалярное.
+     */
+    static AmountKernel best() {
+        return AmountKernels.BEST;
+    }
+}
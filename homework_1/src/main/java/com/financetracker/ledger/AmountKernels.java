@@ -0,0 +1,30 @@
+package com.financetracker.ledger;
+
+/**
+ * Выбор реализации AmountKernel при запуске.
+ * Векторное ядро используется, если модуль jdk.incubator.vector подключён
+ * (java --add-modules jdk.incubator.vector) и предпочтительный вектор содержит
+ * хотя бы два значения long. Иначе используется скалярное ядро.
+ * Выбор можно отключить системным свойством "financetracker.vector=false".
+ */
+final class AmountKernels {
+    static final AmountKernel BEST = detect();
+
+    private AmountKernels() {
+    }
+
+    private static AmountKernel detect() {
+        if (!Boolean.parseBoolean(System.getProperty("financetracker.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return AmountKernel.scalar();
+        }
+        try {
+            if (VectorAmountKernel.LONGS.length() < 2) {
+                return AmountKernel.scalar();
+            }
+            return new VectorAmountKernel();
+        } catch (LinkageError e) {
+            return AmountKernel.scalar();
+        }
+    }
+}
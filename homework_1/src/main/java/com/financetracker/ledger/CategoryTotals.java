@@ -0,0 +1,132 @@
+package com.financetracker.ledger;
+
+import com.financetracker.model.CategoryDictionary;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Переиспользуемый накопитель сумм по категориям.
+ * Суммы хранятся в массиве, индексированном номером категории из CategoryDictionary,
+ * поэтому накопление не требует ни хеширования строк, ни выделения памяти.
+ * Нулевая ячейка отведена транзакциям без категории.
+ */
+public class CategoryTotals {
+    private long[] sums;
+    private int[] counts;
+
+    /**
+     * Создаёт накопитель, рассчитанный на текущий размер словаря категорий.
+     */
+    public CategoryTotals() {
+        int capacity = CategoryDictionary.getInstance().size() + 1;
+        sums = new long[capacity];
+        counts = new int[capacity];
+    }
+
+    /**
+     * Обнуляет накопленные суммы, сохраняя выделенные массивы.
+     * При необходимости расширяет массивы до текущего размера словаря.
+     */
+    public void reset() {
+        int capacity = CategoryDictionary.getInstance().size() + 1;
+        if (capacity > sums.length) {
+            sums = new long[capacity];
+            counts = new int[capacity];
+        } else {
+            Arrays.fill(sums, 0L);
+            Arrays.fill(counts, 0);
+        }
+    }
+
+    /**
+     * Добавляет сумму к категории.
+     *
+     * @param categoryId номер категории или CategoryDictionary.NO_CATEGORY.
+     * @param amount     сумма в копейках.
+     */
+    public void add(int categoryId, long amount) {
+        int slot = categoryId + 1;
+        if (slot >= sums.length) {
+            grow(slot + 1);
+        }
+        sums[slot] += amount;
+        counts[slot]++;
+    }
+
+    /**
+     * Вычитает ранее добавленную сумму из категории.
+     *
+     * @param categoryId номер категории или CategoryDictionary.NO_CATEGORY.
+     * @param amount     сумма в копейках.
+     */
+    public void subtract(int categoryId, long amount) {
+        int slot = categoryId + 1;
+        if (slot >= sums.length) {
+            grow(slot + 1);
+        }
+        sums[slot] -= amount;
+        counts[slot]--;
+    }
+
+    /**
+     * Прибавляет суммы другого накопителя.
+     *
+     * @param other накопитель, суммы которого нужно прибавить.
+     */
+    public void merge(CategoryTotals other) {
+        if (other.sums.length > sums.length) {
+            grow(other.sums.length);
+        }
+        for (int slot = 0; slot < other.sums.length; slot++) {
+            sums[slot] += other.sums[slot];
+            counts[slot] += other.counts[slot];
+        }
+    }
+
+    /**
+     * Возвращает сумму по категории.
+     *
+     * @param categoryId номер категории или CategoryDictionary.NO_CATEGORY.
+     * @return сумма в копейках.
+     */
+    public long get(int categoryId) {
+        int slot = categoryId + 1;
+        return slot < sums.length ? sums[slot] : 0;
+    }
+
+    /**
+     * Возвращает накопленные суммы в виде карты по названиям категорий.
+     * В карту попадают только категории, в которые была добавлена хотя бы одна сумма.
+     *
+     * @return Map<String, Long>, где ключ — категория, а значение — сумма в копейках.
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> result = new HashMap<>();
+        forEach(result::put);
+        return result;
+    }
+
+    /**
+     * Передаёт накопленные суммы в порядке номеров категорий.
+     * Обрабатываются только категории, в которые была добавлена хотя бы одна сумма.
+     *
+     * @param action обработчик, получающий название категории и сумму в копейках.
+     */
+    public void forEach(ObjLongConsumer<String> action) {
+        CategoryDictionary dictionary = CategoryDictionary.getInstance();
+        for (int slot = 0; slot < sums.length; slot++) {
+            if (counts[slot] > 0) {
+                action.accept(dictionary.nameOf(slot - 1), sums[slot]);
+            }
+        }
+    }
+
+    private void grow(int capacity) {
+        int newCapacity = Math.max(capacity, CategoryDictionary.getInstance().size() + 1);
+        sums = Arrays.copyOf(sums, newCapacity);
+        counts = Arrays.copyOf(counts, newCapacity);
+    }
+}
@@ -0,0 +1,106 @@
+package com.financetracker.ledger;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Индекс строк хранилища, упорядоченный по дате.
+ * Строки сгруппированы по дням: каждому номеру дня от эпохи соответствует корзина
+ * с номерами строк этого дня. Запрос за период обходит только корзины внутри периода,
+ * поэтому его стоимость зависит от числа транзакций в периоде, а не от длины истории.
+ */
+final class DateIndex {
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    /**
+     * Корзины строк по дням.
+     * Ключ: номер дня от эпохи (Integer).
+     * Значение: корзина с номерами строк этого дня (Bucket).
+     */
+    private final NavigableMap<Integer, Bucket> buckets = new TreeMap<>();
+
+    /**
+     * Номера строк одного дня. Порядок строк внутри корзины не определён.
+     */
+    static final class Bucket {
+        int[] rows = new int[INITIAL_BUCKET_CAPACITY];
+        int size;
+
+        private void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        private int indexOf(int row) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] == row) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("Row " + row + " is not indexed");
+        }
+    }
+
+    /**
+     * Добавляет строку в корзину дня.
+     *
+     * @param day номер дня от эпохи.
+     * @param row номер строки.
+     */
+    void add(int day, int row) {
+        buckets.computeIfAbsent(day, key -> new Bucket()).add(row);
+    }
+
+    /**
+     * Удаляет строку из корзины дня. Пустая корзина удаляется.
+     *
+     * @param day номер дня от эпохи.
+     * @param row номер строки.
+     */
+    void remove(int day, int row) {
+        Bucket bucket = buckets.get(day);
+        int index = bucket.indexOf(row);
+        bucket.rows[index] = bucket.rows[--bucket.size];
+        if (bucket.size == 0) {
+            buckets.remove(day);
+        }
+    }
+
+    /**
+     * Заменяет номер строки после её перемещения в хранилище.
+     *
+     * @param day    номер дня от эпохи.
+     * @param oldRow прежний номер строки.
+     * @param newRow новый номер строки.
+     */
+    void move(int day, int oldRow, int newRow) {
+        Bucket bucket = buckets.get(day);
+        bucket.rows[bucket.indexOf(oldRow)] = newRow;
+    }
+
+    /**
+     * Возвращает корзины дней из периода (границы включительно) в порядке возрастания дат.
+     *
+     * @param from номер первого дня периода.
+     * @param to   номер последнего дня периода.
+     * @return корзины дней периода; пустая коллекция, если from больше to.
+     */
+    Collection<Bucket> range(int from, int to) {
+        if (from > to) {
+            return List.of();
+        }
+        return buckets.subMap(from, true, to, true).values();
+    }
+
+    /**
+     * Удаляет все корзины.
+     */
+    void clear() {
+        buckets.clear();
+    }
+}
@@ -0,0 +1,98 @@
+package com.financetracker.ledger;
+
+/**
+ * Дерево Фенвика (дерево префиксных сумм) по номерам дней от эпохи.
+ * Позволяет изменить сумму дня и получить сумму за любой диапазон дней за O(log d),
+ * где d — число дней между самой ранней и самой поздней датой.
+ * <p>
+ * Дерево покрывает окно дней [baseDay, baseDay + capacity), которое начинается
+ * с первого добавленного дня. Если добавляется день
+ * вне окна, окно расширяется в два раза и дерево перестраивается за O(d)
+ * по хранимым суммам отдельных дней.
+ */
+final class DayPrefixSums {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int baseDay;
+    private long[] tree = new long[1];
+
+    /**
+     * Суммы отдельных дней окна, нужны для перестройки дерева при расширении окна.
+     * Пустой массив, пока не добавлен первый день.
+     */
+    private long[] values = new long[0];
+
+    /**
+     * Прибавляет значение к сумме дня.
+     *
+     * @param day   номер дня от эпохи.
+     * @param delta изменение суммы в копейках (может быть отрицательным).
+     */
+    void add(int day, long delta) {
+        if (values.length == 0) {
+            baseDay = day;
+            values = new long[INITIAL_CAPACITY];
+            tree = new long[INITIAL_CAPACITY + 1];
+        } else if (day < baseDay || day >= baseDay + values.length) {
+            cover(day);
+        }
+        int index = day - baseDay;
+        values[index] += delta;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Возвращает сумму за дни из диапазона (границы включительно).
+     *
+     * @param from первый день.
+     * @param to   последний день.
+     * @return сумма в копейках; 0, если from больше to.
+     */
+    long sum(int from, int to) {
+        int first = Math.max(from, baseDay) - baseDay;
+        int last = (int) Math.min((long) to, (long) baseDay + values.length - 1) - baseDay;
+        if (first > last) {
+            return 0;
+        }
+        return prefix(last + 1) - prefix(first);
+    }
+
+    /**
+     * Возвращает сумму первых count дней окна.
+     */
+    private long prefix(int count) {
+        long sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Расширяет окно так, чтобы оно включало день, и перестраивает дерево.
+     */
+    private void cover(int day) {
+        int newBase = Math.min(baseDay, day);
+        long end = Math.max((long) baseDay + values.length, (long) day + 1);
+        int capacity = values.length;
+        while (newBase + (long) capacity < end) {
+            capacity *= 2;
+        }
+        long[] newValues = new long[capacity];
+        System.arraycopy(values, 0, newValues, baseDay - newBase, values.length);
+        long[] newTree = new long[capacity + 1];
+        // Построение за линейное время: каждый узел передаёт свою сумму родителю
+        for (int i = 1; i <= capacity; i++) {
+            newTree[i] += newValues[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                newTree[parent] += newTree[i];
+            }
+        }
+        baseDay = newBase;
+        values = newValues;
+        tree = newTree;
+    }
+}
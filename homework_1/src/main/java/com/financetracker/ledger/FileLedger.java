@@ -0,0 +1,306 @@
+package com.financetracker.ledger;
+
+import com.financetracker.model.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Хранилище транзакций одного пользователя в файлах на диске с кешем страниц.
+ * <p>
+ * Записи фиксированной ширины лежат в файле записей, идентификаторы и описания — в файле строк
+ * рядом с ним (имя с суффиксом ".strings"):
+ * <pre>
+ *  0  long amount       сумма в копейках
+ *  8  int  epochDay     дата как номер дня от эпохи
+ * 12  int  categoryId   номер категории в CategoryDictionary
+ * 16  long idOffset     смещение идентификатора в файле строк
+ * 24  long descOffset   смещение описания в файле строк
+ * 32  int  idLength     длина идентификатора в байтах UTF-8
+ * 36  int  descLength   длина описания в байтах UTF-8; -1 — описание равно null
+ * 40  int  idHash       хеш идентификатора (String.hashCode)
+ * 44  int  flags        бит 0 — признак дохода
+ * </pre>
+ * Оба файла читаются через PageCache, поэтому в памяти держится только заданное число страниц,
+ * индекс id → номер строки (RecordLedger, 16 байт на транзакцию) и суммы доходов и расходов. Объём хранилища
+ * ограничен диском, а не памятью. Запросы за период обходят записи по страницам подряд.
+ * PageCache не потокобезопасен, поэтому ParallelAggregator обходит файл в вызывающем потоке.
+ * <p>
+ * Файлы — рабочая область, а не постоянное хранилище: они создаются пустыми и открываются
+ * с DELETE_ON_CLOSE, поэтому не переживают close() или завершение процесса (в Linux имя файла
+ * удаляется сразу после открытия). Сохранность данных обеспечивает журнал.
+ * Место строк удалённых и перезаписанных транзакций не переиспользуется до clear().
+ */
+public class FileLedger extends RecordLedger implements Closeable {
+    /**
+     * Размер страницы по умолчанию.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 64 * 1024;
+
+    /**
+     * Количество страниц в кеше каждого файла по умолчанию (16 МБ при странице по умолчанию).
+     */
+    public static final int DEFAULT_CACHE_PAGES = 256;
+
+    private static final int RECORD_BYTES = 48;
+    private static final int AMOUNT = 0;
+    private static final int EPOCH_DAY = 8;
+    private static final int CATEGORY_ID = 12;
+    private static final int ID_OFFSET = 16;
+    private static final int DESC_OFFSET = 24;
+    private static final int ID_LENGTH = 32;
+    private static final int DESC_LENGTH = 36;
+    private static final int ID_HASH = 40;
+    private static final int FLAGS = 44;
+
+    private final PageCache records;
+    private final PageCache strings;
+    private final int recordsPerPage;
+
+    private long stringBytes;
+
+    /**
+     * Создаёт пустое хранилище с размером страницы и кешем по умолчанию.
+     *
+     * @param file файл записей; файл строк создаётся рядом.
+     * @throws IOException если файлы не удалось создать.
+     */
+    public FileLedger(Path file) throws IOException {
+        this(file, DEFAULT_PAGE_SIZE, DEFAULT_CACHE_PAGES);
+    }
+
+    /**
+     * Создаёт пустое хранилище. Существующие файлы перезаписываются.
+     *
+     * @param file       файл записей; файл строк создаётся рядом.
+     * @param pageSize   размер страницы в байтах; не меньше размера записи (48 байт).
+     * @param cachePages количество страниц в кеше каждого файла.
+     * @throws IOException если файлы не удалось создать.
+     * @throws IllegalArgumentException если размер страницы меньше записи или кеш не положителен.
+     */
+    public FileLedger(Path file, int pageSize, int cachePages) throws IOException {
+        if (pageSize < RECORD_BYTES || cachePages <= 0) {
+            throw new IllegalArgumentException("Page must hold a record and cache must have at least one page");
+        }
+        recordsPerPage = pageSize / RECORD_BYTES;
+        records = new PageCache(open(file), pageSize, cachePages);
+        try {
+            strings = new PageCache(open(file.resolveSibling(file.getFileName() + ".strings")), pageSize, cachePages);
+        } catch (IOException e) {
+            records.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Создаёт пустое хранилище, страницы обоих файлов которого лежат в общем наборе кадров pool.
+     * Так FileTransactionStore ограничивает память под кеш всех хранилищ одним числом страниц.
+     *
+     * @param file файл записей; файл строк создаётся рядом.
+     * @param pool общий набор кадров; размер страницы не меньше размера записи (48 байт).
+     * @throws IOException если файлы не удалось создать.
+     * @throws IllegalArgumentException если размер страницы меньше записи.
+     */
+    FileLedger(Path file, PagePool pool) throws IOException {
+        if (pool.pageSize() < RECORD_BYTES) {
+            throw new IllegalArgumentException("Page must hold a record");
+        }
+        recordsPerPage = pool.pageSize() / RECORD_BYTES;
+        records = new PageCache(open(file), pool);
+        try {
+            strings = new PageCache(open(file.resolveSibling(file.getFileName() + ".strings")), pool);
+        } catch (IOException e) {
+            records.close();
+            throw e;
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    @Override
+    public void forEachRow(int fromRow, int toRow, RowVisitor visitor) {
+        Objects.checkFromToIndex(fromRow, toRow, size());
+        int row = fromRow;
+        while (row < toRow) {
+            int page = row / recordsPerPage;
+            ByteBuffer buffer = records.page(page, false);
+            int end = Math.min(toRow, (page + 1) * recordsPerPage);
+            for (; row < end; row++) {
+                int offset = offsetIn(row);
+                visitor.visit(buffer.getInt(offset + EPOCH_DAY), buffer.getLong(offset + AMOUNT),
+                        buffer.getInt(offset + CATEGORY_ID), (buffer.getInt(offset + FLAGS) & INCOME_FLAG) != 0);
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество загрузок страниц с диска в кеш с момента создания хранилища.
+     *
+     * @return количество промахов кеша.
+     */
+    public long cacheMisses() {
+        return records.misses() + strings.misses();
+    }
+
+    /**
+     * Закрывает и удаляет файлы хранилища и отдаёт его страницы кеша. После закрытия хранилище
+     * пусто, а добавление транзакций завершается UncheckedIOException.
+     *
+     * @throws IOException если файлы не удалось закрыть.
+     */
+    @Override
+    public void close() throws IOException {
+        reset();
+        stringBytes = 0;
+        try {
+            records.close();
+        } finally {
+            strings.close();
+        }
+    }
+
+    @Override
+    public void clear() {
+        records.truncate();
+        strings.truncate();
+        reset();
+        stringBytes = 0;
+    }
+
+    private ByteBuffer recordPage(int row, boolean write) {
+        return records.page(row / recordsPerPage, write);
+    }
+
+    private int offsetIn(int row) {
+        return row % recordsPerPage * RECORD_BYTES;
+    }
+
+    @Override
+    long amount(int row) {
+        return recordPage(row, false).getLong(offsetIn(row) + AMOUNT);
+    }
+
+    @Override
+    int epochDay(int row) {
+        return recordPage(row, false).getInt(offsetIn(row) + EPOCH_DAY);
+    }
+
+    @Override
+    int categoryId(int row) {
+        return recordPage(row, false).getInt(offsetIn(row) + CATEGORY_ID);
+    }
+
+    @Override
+    boolean isIncome(int row) {
+        return (recordPage(row, false).getInt(offsetIn(row) + FLAGS) & INCOME_FLAG) != 0;
+    }
+
+    @Override
+    int idHash(int row) {
+        return recordPage(row, false).getInt(offsetIn(row) + ID_HASH);
+    }
+
+    @Override
+    void appendRecord(int row, byte[] idBytes, int hash, Transaction transaction) {
+        long idOffset = appendString(idBytes);
+        byte[] description = encode(transaction.getDescription());
+        long descOffset = description == null ? 0 : appendString(description);
+        ByteBuffer page = recordPage(row, true);
+        int offset = offsetIn(row);
+        page.putLong(offset + ID_OFFSET, idOffset);
+        page.putInt(offset + ID_LENGTH, idBytes.length);
+        page.putInt(offset + ID_HASH, hash);
+        page.putLong(offset + DESC_OFFSET, descOffset);
+        page.putInt(offset + DESC_LENGTH, description == null ? NULL_LENGTH : description.length);
+        writeFields(page, offset, transaction);
+    }
+
+    /**
+     * Новое описание дописывается в файл строк.
+     */
+    @Override
+    void rewriteRecord(int row, Transaction transaction) {
+        byte[] description = encode(transaction.getDescription());
+        long descOffset = description == null ? 0 : appendString(description);
+        ByteBuffer page = recordPage(row, true);
+        int offset = offsetIn(row);
+        page.putLong(offset + DESC_OFFSET, descOffset);
+        page.putInt(offset + DESC_LENGTH, description == null ? NULL_LENGTH : description.length);
+        writeFields(page, offset, transaction);
+    }
+
+    @Override
+    void removeRecord(int row, int last) {
+        if (row != last) {
+            byte[] record = new byte[RECORD_BYTES];
+            recordPage(last, false).get(offsetIn(last), record);
+            recordPage(row, true).put(offsetIn(row), record);
+        }
+    }
+
+    @Override
+    Transaction materialize(int row) {
+        ByteBuffer page = recordPage(row, false);
+        int offset = offsetIn(row);
+        long amount = page.getLong(offset + AMOUNT);
+        int epochDay = page.getInt(offset + EPOCH_DAY);
+        int categoryId = page.getInt(offset + CATEGORY_ID);
+        long idOffset = page.getLong(offset + ID_OFFSET);
+        int idLength = page.getInt(offset + ID_LENGTH);
+        long descOffset = page.getLong(offset + DESC_OFFSET);
+        int descLength = page.getInt(offset + DESC_LENGTH);
+        boolean income = (page.getInt(offset + FLAGS) & INCOME_FLAG) != 0;
+        return new Transaction(readString(idOffset, idLength), amount, categoryId, LocalDate.ofEpochDay(epochDay),
+                readString(descOffset, descLength), income);
+    }
+
+    private void writeFields(ByteBuffer page, int offset, Transaction transaction) {
+        page.putLong(offset + AMOUNT, transaction.getAmount());
+        page.putInt(offset + EPOCH_DAY, (int) transaction.getDate().toEpochDay());
+        page.putInt(offset + CATEGORY_ID, transaction.getCategoryId());
+        page.putInt(offset + FLAGS, transaction.isIncome() ? INCOME_FLAG : 0);
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Файл строк
+    // ---------------------------------------------------------------------------------------------
+
+    private String readString(long offset, int length) {
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        strings.read(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long appendString(byte[] bytes) {
+        long offset = stringBytes;
+        strings.write(offset, bytes);
+        stringBytes += bytes.length;
+        return offset;
+    }
+
+    @Override
+    boolean idEquals(int row, byte[] idBytes) {
+        ByteBuffer page = recordPage(row, false);
+        int offset = offsetIn(row);
+        if (page.getInt(offset + ID_LENGTH) != idBytes.length) {
+            return false;
+        }
+        byte[] stored = new byte[idBytes.length];
+        strings.read(page.getLong(offset + ID_OFFSET), stored);
+        return Arrays.equals(stored, idBytes);
+    }
+}
@@ -0,0 +1,106 @@
+package com.financetracker.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Движок хранения транзакций в файлах: каждому пользователю создаётся FileLedger в общем каталоге.
+ * Страницы всех хранилищ лежат в одном наборе кадров PagePool, поэтому память под кеш ограничена
+ * одним числом страниц на весь движок, сколько бы ни было пользователей; часто читаемые хранилища
+ * вытесняют страницы редко читаемых. Хранилища движка должны использоваться из одного потока.
+ * Файлы хранилища закрываются и удаляются, когда UserRepository освобождает его (release)
+ * при удалении или замене пользователя, остальные — при закрытии движка.
+ */
+public class FileTransactionStore implements TransactionStore {
+    private final Path directory;
+    private final PagePool pool;
+    private final Set<FileLedger> ledgers = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int next;
+
+    /**
+     * Создаёт движок с размером страницы и кешем FileLedger по умолчанию.
+     *
+     * @param directory каталог файлов хранилищ; создаётся, если его нет.
+     * @throws IOException если каталог не удалось создать.
+     */
+    public FileTransactionStore(Path directory) throws IOException {
+        this(directory, FileLedger.DEFAULT_PAGE_SIZE, FileLedger.DEFAULT_CACHE_PAGES);
+    }
+
+    /**
+     * Создаёт движок.
+     *
+     * @param directory  каталог файлов хранилищ; создаётся, если его нет.
+     * @param pageSize   размер страницы в байтах; не меньше размера записи FileLedger (48 байт).
+     * @param cachePages количество страниц в общем кеше всех хранилищ движка.
+     * @throws IOException если каталог не удалось создать.
+     * @throws IllegalArgumentException если размер страницы или кеш не положительны.
+     */
+    public FileTransactionStore(Path directory, int pageSize, int cachePages) throws IOException {
+        this.pool = new PagePool(pageSize, cachePages);
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public synchronized Ledger open() {
+        try {
+            FileLedger ledger = new FileLedger(directory.resolve(String.format("ledger-%08d.records", next++)), pool);
+            ledgers.add(ledger);
+            return ledger;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create ledger files in " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized boolean accepts(Ledger ledger) {
+        return ledger instanceof FileLedger fileLedger && ledgers.contains(fileLedger);
+    }
+
+    /**
+     * Закрывает и удаляет файлы хранилища, созданного движком; его страницы кеша переходят другим хранилищам.
+     *
+     * @param ledger хранилище, которое больше не используется.
+     * @throws UncheckedIOException если файлы не удалось закрыть.
+     */
+    @Override
+    public synchronized void release(Ledger ledger) {
+        if (ledger instanceof FileLedger fileLedger && ledgers.remove(fileLedger)) {
+            try {
+                fileLedger.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close ledger files in " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Закрывает и удаляет файлы всех созданных хранилищ.
+     *
+     * @throws IOException если какой-либо файл не удалось закрыть.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (FileLedger ledger : ledgers) {
+            try {
+                ledger.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        ledgers.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.financetracker.ledger;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Ограниченная куча номеров строк, первых в порядке даты и идентификатора.
+ * <p>
+ * Держит не больше limit строк в массивах примитивов, которые растут по мере отбора строк;
+ * в вершине — последняя из отобранных, поэтому строка более позднего дня отсекается одним
+ * сравнением номеров дней. Идентификаторы запрашиваются у idOf только при равных днях.
+ * Полный обход n строк стоит O(n log limit).
+ */
+final class FirstRows {
+    /**
+     * Количество строк, которое Ledger.page обходит за один вызов forEachRow.
+     */
+    static final int CHUNK = 1024;
+
+    private final int limit;
+    private final IntFunction<String> idOf;
+    private int[] rows;
+    private int[] days;
+    private int size;
+
+    /**
+     * @param limit наибольшее количество строк.
+     * @param idOf  идентификатор транзакции по номеру строки.
+     */
+    FirstRows(int limit, IntFunction<String> idOf) {
+        this.limit = limit;
+        this.idOf = idOf;
+        rows = new int[Math.min(limit, 16)];
+        days = new int[rows.length];
+    }
+
+    /**
+     * Предлагает строку. Каждую строку нужно предлагать не больше одного раза.
+     */
+    void offer(int row, int day) {
+        if (size < limit) {
+            if (size == rows.length) {
+                int capacity = (int) Math.min(limit, 2L * size);
+                rows = Arrays.copyOf(rows, capacity);
+                days = Arrays.copyOf(days, capacity);
+            }
+            rows[size] = row;
+            days[size] = day;
+            siftUp(size++);
+        } else if (size > 0 && (day < days[0]
+                || day == days[0] && idOf.apply(row).compareTo(idOf.apply(rows[0])) < 0)) {
+            rows[0] = row;
+            days[0] = day;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Возвращает отобранные строки в порядке даты и идентификатора. Куча после вызова пуста.
+     */
+    int[] drainAscending() {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = rows[0];
+            size--;
+            rows[0] = rows[size];
+            days[0] = days[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет, стоит ли элемент a в порядке списка после элемента b.
+     */
+    private boolean after(int a, int b) {
+        return days[a] > days[b] || days[a] == days[b] && idOf.apply(rows[a]).compareTo(idOf.apply(rows[b])) > 0;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!after(index, parent)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && after(child + 1, child)) {
+                child++;
+            }
+            if (!after(child, index)) {
+                return;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int row = rows[a];
+        rows[a] = rows[b];
+        rows[b] = row;
+        int day = days[a];
+        days[a] = days[b];
+        days[b] = day;
+    }
+}
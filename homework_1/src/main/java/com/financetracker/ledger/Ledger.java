@@ -0,0 +1,287 @@
+package com.financetracker.ledger;
+
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Хранилище транзакций одного пользователя с агрегирующими запросами.
+ * <p>
+ * Для остального кода хранилище — обычная Map идентификатор → Transaction
+ * (так его возвращает UserRepository.getTransactions). Объекты Transaction, полученные
+ * через Map, — копии, поэтому изменения записываются обратно методом update.
+ * Агрегирующие методы работают с внутренним представлением без создания объектов Transaction.
+ * <p>
+ * Реализации: TransactionLedger — колоночное хранилище в куче с индексами,
+ * OffHeapLedger — записи фиксированной ширины вне кучи.
+ */
+public interface Ledger extends Map<String, Transaction> {
+    /**
+     * Добавляет транзакцию или перезаписывает транзакцию с тем же идентификатором.
+     *
+     * @param transaction объект Transaction для добавления. Не может быть null.
+     * @throws IllegalArgumentException если transaction или её дата равны null.
+     */
+    void add(Transaction transaction);
+
+    /**
+     * Добавляет все строки пачки. Строки с уже существующим идентификатором перезаписываются.
+     * Реализация по умолчанию добавляет строки по одной через add.
+     *
+     * @param batch пачка транзакций. Не может быть null.
+     */
+    default void addAll(TransactionBatch batch) {
+        for (int row = 0; row < batch.size(); row++) {
+            add(batch.toTransaction(row));
+        }
+    }
+
+    /**
+     * Записывает изменённую транзакцию обратно в хранилище.
+     *
+     * @param transaction изменённый объект Transaction.
+     * @return true, если транзакция найдена и обновлена; false, если транзакции нет.
+     * @throws IllegalArgumentException если transaction или её дата равны null.
+     */
+    boolean update(Transaction transaction);
+
+    /**
+     * Удаляет транзакцию по идентификатору, не создавая объект Transaction.
+     *
+     * @param id идентификатор транзакции.
+     * @return true, если транзакция была удалена; false, если она не найдена.
+     */
+    boolean delete(String id);
+
+    /**
+     * Возвращает баланс: сумму доходов за вычетом суммы расходов.
+     *
+     * @return баланс в копейках.
+     */
+    long balance();
+
+    /**
+     * Возвращает сумму всех доходов.
+     *
+     * @return сумма доходов в копейках.
+     */
+    long totalIncome();
+
+    /**
+     * Возвращает сумму всех расходов.
+     *
+     * @return сумма расходов в копейках.
+     */
+    long totalExpense();
+
+    /**
+     * Проверяет поддерживаемые итоги полным обходом строк.
+     *
+     * @return true, если итоги совпадают с результатом обхода.
+     */
+    boolean verifyTotals();
+
+    /**
+     * Возвращает сумму доходов или расходов за период (границы включительно).
+     *
+     * @param income true — сумма доходов, false — сумма расходов.
+     * @param start  начальная дата периода.
+     * @param end    конечная дата периода.
+     * @return сумма в копейках.
+     */
+    long sumOfPeriod(boolean income, LocalDate start, LocalDate end);
+
+    /**
+     * Возвращает расходы по категориям за период (границы включительно).
+     *
+     * @param start начальная дата периода.
+     * @param end   конечная дата периода.
+     * @return Map<String, Long>, где ключ — категория, а значение — сумма расходов в копейках.
+     */
+    default Map<String, Long> expensesByCategory(LocalDate start, LocalDate end) {
+        CategoryTotals totals = new CategoryTotals();
+        expensesByCategory(start, end, totals);
+        return totals.toMap();
+    }
+
+    /**
+     * Прибавляет расходы за период (границы включительно) к накопителю по категориям.
+     *
+     * @param start  начальная дата периода.
+     * @param end    конечная дата периода.
+     * @param totals накопитель, в который добавляются суммы.
+     */
+    void expensesByCategory(LocalDate start, LocalDate end, CategoryTotals totals);
+
+    /**
+     * Заполняет итоги за период (границы включительно) за один проход.
+     *
+     * @param start   начальная дата периода.
+     * @param end     конечная дата периода.
+     * @param summary накопитель, к которому добавляются итоги.
+     */
+    void summarize(LocalDate start, LocalDate end, PeriodSummary summary);
+
+    /**
+     * Передаёт обработчику строки за период (границы включительно).
+     * Порядок строк определяется реализацией.
+     *
+     * @param start   начальная дата периода.
+     * @param end     конечная дата периода.
+     * @param visitor обработчик строк.
+     */
+    void forEachInPeriod(LocalDate start, LocalDate end, RowVisitor visitor);
+
+    /**
+     * Передаёт обработчику строки с номерами из диапазона [fromRow, toRow) в порядке хранения.
+     * Позволяет обрабатывать хранилище частями, например параллельно.
+     * Номера строк меняются при удалении транзакций.
+     *
+     * @param fromRow номер первой строки (включительно).
+     * @param toRow   номер последней строки (не включительно).
+     * @param visitor обработчик строк.
+     * @throws IndexOutOfBoundsException если диапазон выходит за пределы хранилища.
+     */
+    void forEachRow(int fromRow, int toRow, RowVisitor visitor);
+
+    /**
+     * Проверяет, выбирает ли хранилище строки за период по индексу дат, а не обходом всех строк.
+     * Такие хранилища ParallelAggregator не обходит: индекс и помесячные агрегаты быстрее
+     * параллельного полного обхода.
+     *
+     * @return true, если запросы за период не обходят всё хранилище; по умолчанию false.
+     */
+    default boolean hasDateIndex() {
+        return false;
+    }
+
+    /**
+     * Проверяет, можно ли вызывать forEachRow из нескольких потоков одновременно, пока хранилище не изменяется.
+     *
+     * @return true, если чтение строк потокобезопасно; по умолчанию false.
+     */
+    default boolean isConcurrentReadable() {
+        return false;
+    }
+
+    /**
+     * Возвращает транзакции за указанный день.
+     *
+     * @param date дата.
+     * @return список транзакций за день.
+     */
+    List<Transaction> byDate(LocalDate date);
+
+    /**
+     * Возвращает транзакции указанной категории.
+     *
+     * @param categoryId номер категории или CategoryDictionary.NO_CATEGORY.
+     * @return список транзакций категории.
+     */
+    List<Transaction> byCategory(int categoryId);
+
+    /**
+     * Возвращает транзакцию строки с указанным номером в порядке хранения.
+     *
+     * @param row номер строки.
+     * @return новый объект Transaction.
+     * @throws IndexOutOfBoundsException если номер выходит за пределы хранилища.
+     */
+    Transaction transactionAt(int row);
+
+    /**
+     * Возвращает не больше limit транзакций с наибольшими суммами, удовлетворяющих фильтрам,
+     * по убыванию сумм; при равных суммах раньше идёт транзакция, добавленная раньше.
+     * <p>
+     * Строки отбираются ограниченной кучей TopRows за один обход без создания объектов Transaction,
+     * объекты создаются только для результата. Стоимость — O(n log limit).
+     *
+     * @param limit      наибольшее количество транзакций; не меньше нуля.
+     * @param start      начальная дата периода (включительно); null — без ограничения.
+     * @param end        конечная дата периода (включительно); null — без ограничения.
+     * @param income     true — только доходы, false — только расходы, null — все транзакции.
+     * @param categoryId номер категории, CategoryDictionary.NO_CATEGORY или CategoryDictionary.ANY — любая категория.
+     * @return список транзакций по убыванию сумм.
+     * @throws IllegalArgumentException если limit отрицателен.
+     */
+    default List<Transaction> largest(int limit, LocalDate start, LocalDate end, Boolean income, int categoryId) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        int from = start == null ? Integer.MIN_VALUE : (int) start.toEpochDay();
+        int to = end == null ? Integer.MAX_VALUE : (int) end.toEpochDay();
+        TopRows top = new TopRows(limit);
+        int[] row = {0};
+        forEachRow(0, size(), (day, amount, category, isIncome) -> {
+            if (day >= from && day <= to && (income == null || isIncome == income)
+                    && (categoryId == CategoryDictionary.ANY || category == categoryId)) {
+                top.offer(row[0], amount);
+            }
+            row[0]++;
+        });
+        List<Transaction> result = new ArrayList<>(Math.min(limit, size()));
+        for (int selected : top.drainDescending()) {
+            result.add(transactionAt(selected));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает не больше limit транзакций, удовлетворяющих фильтрам, в порядке даты и идентификатора,
+     * начиная с дня fromDay; транзакции дня fromDay с идентификатором не больше afterId пропускаются.
+     * Так страница списка продолжается строго после последней транзакции предыдущей страницы.
+     * <p>
+     * Реализация по умолчанию обходит все строки частями по FirstRows.CHUNK и отбирает первые ограниченной
+     * кучей FirstRows; объекты Transaction создаются для результата и для сравнения идентификаторов
+     * строк одного дня.
+     *
+     * @param fromDay    номер дня от эпохи, с которого начинается выборка.
+     * @param afterId    идентификатор последней показанной транзакции дня fromDay; null — день fromDay целиком.
+     * @param limit      наибольшее количество транзакций; больше нуля.
+     * @param start      начальная дата периода (включительно); null — без ограничения.
+     * @param end        конечная дата периода (включительно); null — без ограничения.
+     * @param income     true — только доходы, false — только расходы, null — все транзакции.
+     * @param categoryId номер категории, CategoryDictionary.NO_CATEGORY или CategoryDictionary.ANY — любая категория.
+     * @return список транзакций в порядке даты и идентификатора.
+     * @throws IllegalArgumentException если limit не положителен.
+     */
+    default List<Transaction> page(int fromDay, String afterId, int limit, LocalDate start, LocalDate end,
+                                   Boolean income, int categoryId) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        int from = start == null ? fromDay : Math.max(fromDay, (int) start.toEpochDay());
+        int to = end == null ? Integer.MAX_VALUE : (int) end.toEpochDay();
+        FirstRows first = new FirstRows(limit, selected -> transactionAt(selected).getId());
+        int[] rows = new int[FirstRows.CHUNK];
+        int[] days = new int[FirstRows.CHUNK];
+        int[] count = new int[2];
+        // Строки отбираются частями: идентификаторы читаются после обхода части, а не из обработчика
+        for (int chunk = 0; chunk < size(); chunk += FirstRows.CHUNK) {
+            count[0] = chunk;
+            count[1] = 0;
+            forEachRow(chunk, Math.min(size(), chunk + FirstRows.CHUNK), (day, amount, category, isIncome) -> {
+                if (day >= from && day <= to && (income == null || isIncome == income)
+                        && (categoryId == CategoryDictionary.ANY || category == categoryId)) {
+                    rows[count[1]] = count[0];
+                    days[count[1]++] = day;
+                }
+                count[0]++;
+            });
+            for (int i = 0; i < count[1]; i++) {
+                if (days[i] != fromDay || afterId == null || transactionAt(rows[i]).getId().compareTo(afterId) > 0) {
+                    first.offer(rows[i], days[i]);
+                }
+            }
+        }
+        List<Transaction> result = new ArrayList<>(Math.min(limit, size()));
+        for (int selected : first.drainAscending()) {
+            result.add(transactionAt(selected));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package com.financetracker.ledger;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Помесячные агрегаты хранилища: доходы, расходы и расходы по категориям за каждый месяц.
+ * Обновляются при каждом изменении строки хранилища, поэтому запросы,
+ * покрывающие целые месяцы, читают готовые суммы вместо обхода транзакций.
+ */
+final class MonthlyRollup {
+    /**
+     * Агрегаты одного месяца.
+     */
+    static final class Cell {
+        long income;
+        long expense;
+        final CategoryTotals expensesByCategory = new CategoryTotals();
+        int rows;
+    }
+
+    /**
+     * Ячейки по месяцам.
+     * Ключ: месяц (YearMonth).
+     * Значение: агрегаты месяца (Cell).
+     */
+    private final NavigableMap<YearMonth, Cell> cells = new TreeMap<>();
+
+    /**
+     * Учитывает строку в агрегатах её месяца.
+     *
+     * @param day        номер дня от эпохи.
+     * @param categoryId номер категории.
+     * @param amount     сумма в копейках.
+     * @param income     true — доход, false — расход.
+     */
+    void add(int day, int categoryId, long amount, boolean income) {
+        Cell cell = cells.computeIfAbsent(monthOf(day), key -> new Cell());
+        if (income) {
+            cell.income += amount;
+        } else {
+            cell.expense += amount;
+            cell.expensesByCategory.add(categoryId, amount);
+        }
+        cell.rows++;
+    }
+
+    /**
+     * Исключает строку из агрегатов её месяца. Месяц без строк удаляется.
+     *
+     * @param day        номер дня от эпохи.
+     * @param categoryId номер категории.
+     * @param amount     сумма в копейках.
+     * @param income     true — доход, false — расход.
+     */
+    void remove(int day, int categoryId, long amount, boolean income) {
+        YearMonth month = monthOf(day);
+        Cell cell = cells.get(month);
+        if (income) {
+            cell.income -= amount;
+        } else {
+            cell.expense -= amount;
+            cell.expensesByCategory.subtract(categoryId, amount);
+        }
+        if (--cell.rows == 0) {
+            cells.remove(month);
+        }
+    }
+
+    /**
+     * Возвращает агрегаты месяцев из диапазона (границы включительно).
+     *
+     * @param from первый месяц.
+     * @param to   последний месяц.
+     * @return ячейки месяцев, в которых есть строки; пустая коллекция, если from позже to.
+     */
+    Collection<Cell> range(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        return cells.subMap(from, true, to, true).values();
+    }
+
+    /**
+     * Возвращает все ячейки.
+     *
+     * @return ячейки всех месяцев.
+     */
+    Collection<Cell> cells() {
+        return cells.values();
+    }
+
+    /**
+     * Удаляет все агрегаты.
+     */
+    void clear() {
+        cells.clear();
+    }
+
+    private static YearMonth monthOf(int day) {
+        return YearMonth.from(LocalDate.ofEpochDay(day));
+    }
+}
@@ -0,0 +1,295 @@
+package com.financetracker.ledger;
+
+import com.financetracker.model.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Хранилище транзакций одного пользователя вне кучи Java.
+ * <p>
+ * Каждая транзакция занимает запись фиксированной ширины в прямом буфере (ByteBuffer.allocateDirect):
+ * <pre>
+ *  0  long amount       сумма в копейках
+ *  8  int  epochDay     дата как номер дня от эпохи
+ * 12  int  categoryId   номер категории в CategoryDictionary
+ * 16  int  idOffset     смещение идентификатора в области строк
+ * 20  int  idLength     длина идентификатора в байтах UTF-8
+ * 24  int  descOffset   смещение описания в области строк
+ * 28  int  descLength   длина описания в байтах UTF-8; -1 — описание равно null
+ * 32  int  idHash       хеш идентификатора (String.hashCode)
+ * 36  int  flags        бит 0 — признак дохода
+ * </pre>
+ * Идентификаторы и описания лежат в отдельной области строк, а индекс id → номер строки
+ * (RecordLedger) также расположен вне кучи. Поэтому число объектов
+ * в куче не зависит от количества транзакций: сборщик мусора не обходит ни записи, ни строки.
+ * Объекты Transaction создаются только при чтении через интерфейс Map.
+ * <p>
+ * Индексов по датам и помесячных агрегатов нет: запросы за период обходят все записи,
+ * а баланс поддерживается при каждом изменении и возвращается без обхода.
+ * <p>
+ * Память вне кучи ограничена параметром JVM -XX:MaxDirectMemorySize.
+ * Буферы, заменённые при росте, освобождаются, когда сборщик мусора удаляет их объекты.
+ */
+public class OffHeapLedger extends RecordLedger {
+    private static final int RECORD_BYTES = 40;
+    private static final int AMOUNT = 0;
+    private static final int EPOCH_DAY = 8;
+    private static final int CATEGORY_ID = 12;
+    private static final int ID_OFFSET = 16;
+    private static final int ID_LENGTH = 20;
+    private static final int DESC_OFFSET = 24;
+    private static final int DESC_LENGTH = 28;
+    private static final int ID_HASH = 32;
+    private static final int FLAGS = 36;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_STRING_BYTES = 1024;
+
+    private ByteBuffer records;
+    private ByteBuffer strings;
+
+    /**
+     * Занятый объём области строк в байтах.
+     */
+    private int stringBytes;
+
+    /**
+     * Объём области строк, занятый строками удалённых и перезаписанных транзакций.
+     */
+    private int garbageBytes;
+
+    /**
+     * Создаёт пустое хранилище.
+     */
+    public OffHeapLedger() {
+        allocate();
+    }
+
+    @Override
+    public void forEachRow(int fromRow, int toRow, RowVisitor visitor) {
+        Objects.checkFromToIndex(fromRow, toRow, size());
+        for (int row = fromRow; row < toRow; row++) {
+            int offset = offsetOf(row);
+            visitor.visit(records.getInt(offset + EPOCH_DAY), records.getLong(offset + AMOUNT),
+                    records.getInt(offset + CATEGORY_ID), (records.getInt(offset + FLAGS) & INCOME_FLAG) != 0);
+        }
+    }
+
+    /**
+     * Записи читаются абсолютными методами буфера, которые не меняют его позицию,
+     * поэтому строки можно обходить из нескольких потоков.
+     */
+    @Override
+    public boolean isConcurrentReadable() {
+        return true;
+    }
+
+    /**
+     * Возвращает объём памяти вне кучи, выделенной под записи, строки и индекс.
+     *
+     * @return объём в байтах.
+     */
+    public long offHeapBytes() {
+        return (long) records.capacity() + strings.capacity() + indexBytes();
+    }
+
+    @Override
+    public void clear() {
+        allocate();
+        reset();
+    }
+
+    private void allocate() {
+        records = ByteBuffer.allocateDirect(INITIAL_CAPACITY * RECORD_BYTES).order(ByteOrder.nativeOrder());
+        strings = ByteBuffer.allocateDirect(INITIAL_STRING_BYTES);
+        stringBytes = 0;
+        garbageBytes = 0;
+    }
+
+    private static int offsetOf(int row) {
+        return row * RECORD_BYTES;
+    }
+
+    @Override
+    long amount(int row) {
+        return records.getLong(offsetOf(row) + AMOUNT);
+    }
+
+    @Override
+    int epochDay(int row) {
+        return records.getInt(offsetOf(row) + EPOCH_DAY);
+    }
+
+    @Override
+    int categoryId(int row) {
+        return records.getInt(offsetOf(row) + CATEGORY_ID);
+    }
+
+    @Override
+    boolean isIncome(int row) {
+        return (records.getInt(offsetOf(row) + FLAGS) & INCOME_FLAG) != 0;
+    }
+
+    @Override
+    int idHash(int row) {
+        return records.getInt(offsetOf(row) + ID_HASH);
+    }
+
+    @Override
+    void appendRecord(int row, byte[] idBytes, int hash, Transaction transaction) {
+        ensureCapacity(row + 1);
+        byte[] description = encode(transaction.getDescription());
+        ensureStrings(idBytes.length + (description == null ? 0 : description.length));
+        int offset = offsetOf(row);
+        records.putInt(offset + ID_OFFSET, appendString(idBytes));
+        records.putInt(offset + ID_LENGTH, idBytes.length);
+        records.putInt(offset + ID_HASH, hash);
+        writeDescription(offset, description);
+        writeFields(offset, transaction);
+    }
+
+    /**
+     * Новое описание дописывается в область строк, а прежнее становится мусором,
+     * который убирается при уплотнении.
+     */
+    @Override
+    void rewriteRecord(int row, Transaction transaction) {
+        byte[] description = encode(transaction.getDescription());
+        int offset = offsetOf(row);
+        garbageBytes += Math.max(records.getInt(offset + DESC_LENGTH), 0);
+        records.putInt(offset + DESC_LENGTH, NULL_LENGTH);
+        ensureStrings(description == null ? 0 : description.length);
+        writeDescription(offset, description);
+        writeFields(offset, transaction);
+    }
+
+    @Override
+    void removeRecord(int row, int last) {
+        int offset = offsetOf(row);
+        garbageBytes += records.getInt(offset + ID_LENGTH) + Math.max(records.getInt(offset + DESC_LENGTH), 0);
+        if (row != last) {
+            records.put(offset, records, offsetOf(last), RECORD_BYTES);
+        }
+    }
+
+    @Override
+    Transaction materialize(int row) {
+        int offset = offsetOf(row);
+        return new Transaction(readString(records.getInt(offset + ID_OFFSET), records.getInt(offset + ID_LENGTH)),
+                records.getLong(offset + AMOUNT), records.getInt(offset + CATEGORY_ID),
+                LocalDate.ofEpochDay(records.getInt(offset + EPOCH_DAY)),
+                readString(records.getInt(offset + DESC_OFFSET), records.getInt(offset + DESC_LENGTH)),
+                (records.getInt(offset + FLAGS) & INCOME_FLAG) != 0);
+    }
+
+    private void writeFields(int offset, Transaction transaction) {
+        records.putLong(offset + AMOUNT, transaction.getAmount());
+        records.putInt(offset + EPOCH_DAY, (int) transaction.getDate().toEpochDay());
+        records.putInt(offset + CATEGORY_ID, transaction.getCategoryId());
+        records.putInt(offset + FLAGS, transaction.isIncome() ? INCOME_FLAG : 0);
+    }
+
+    private void writeDescription(int offset, byte[] description) {
+        if (description == null) {
+            records.putInt(offset + DESC_OFFSET, 0);
+            records.putInt(offset + DESC_LENGTH, NULL_LENGTH);
+        } else {
+            records.putInt(offset + DESC_OFFSET, appendString(description));
+            records.putInt(offset + DESC_LENGTH, description.length);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        int rows = records.capacity() / RECORD_BYTES;
+        if (capacity > rows) {
+            int newRows = Math.max(capacity, rows + (rows >> 1));
+            ByteBuffer grown = ByteBuffer.allocateDirect(newRows * RECORD_BYTES).order(ByteOrder.nativeOrder());
+            grown.put(0, records, 0, size() * RECORD_BYTES);
+            records = grown;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Область строк
+    // ---------------------------------------------------------------------------------------------
+
+    private String readString(int offset, int length) {
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        strings.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int appendString(byte[] bytes) {
+        int offset = stringBytes;
+        strings.put(offset, bytes);
+        stringBytes += bytes.length;
+        return offset;
+    }
+
+    /**
+     * Освобождает в области строк место под extra байт: уплотняет область,
+     * если мусор занимает больше половины, иначе увеличивает её.
+     */
+    private void ensureStrings(int extra) {
+        if (stringBytes + extra <= strings.capacity()) {
+            return;
+        }
+        int live = stringBytes - garbageBytes;
+        int capacity = strings.capacity();
+        if (garbageBytes < live) {
+            capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) live + extra, (long) capacity * 2));
+        }
+        while (live + extra > capacity) {
+            capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) capacity * 2);
+        }
+        compactStrings(capacity);
+    }
+
+    /**
+     * Переносит строки живых записей в новую область заданного размера, отбрасывая мусор.
+     */
+    private void compactStrings(int capacity) {
+        ByteBuffer compacted = ByteBuffer.allocateDirect(capacity);
+        int used = 0;
+        for (int row = 0; row < size(); row++) {
+            int offset = offsetOf(row);
+            used = moveString(compacted, used, offset + ID_OFFSET, offset + ID_LENGTH);
+            used = moveString(compacted, used, offset + DESC_OFFSET, offset + DESC_LENGTH);
+        }
+        strings = compacted;
+        stringBytes = used;
+        garbageBytes = 0;
+    }
+
+    private int moveString(ByteBuffer target, int used, int offsetField, int lengthField) {
+        int length = records.getInt(lengthField);
+        if (length <= 0) {
+            return used;
+        }
+        target.put(used, strings, records.getInt(offsetField), length);
+        records.putInt(offsetField, used);
+        return used + length;
+    }
+
+    @Override
+    boolean idEquals(int row, byte[] idBytes) {
+        int offset = offsetOf(row);
+        if (records.getInt(offset + ID_LENGTH) != idBytes.length) {
+            return false;
+        }
+        int start = records.getInt(offset + ID_OFFSET);
+        for (int i = 0; i < idBytes.length; i++) {
+            if (strings.get(start + i) != idBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
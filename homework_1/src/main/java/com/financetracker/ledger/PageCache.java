@@ -0,0 +1,168 @@
+package com.financetracker.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Кеш страниц файла фиксированного размера.
+ * <p>
+ * Файл читается и пишется страницами по pageSize байт; страницы лежат в кадрах PagePool. Набор кадров
+ * может быть собственным или общим для нескольких файлов, тогда их общий объём ограничен набором.
+ * При нехватке места вытесняется страница по алгоритму «часы» (второй шанс), изменённая страница
+ * перед вытеснением записывается в файл. Страницы за концом файла читаются как нулевые.
+ * Ошибки ввода-вывода передаются как UncheckedIOException.
+ */
+final class PageCache implements Closeable {
+    private final FileChannel channel;
+    private final PagePool pool;
+    private final int pageSize;
+
+    /**
+     * Номер кадра + 1 для каждой страницы файла; 0 — страница не загружена.
+     */
+    private int[] frameOfPage = new int[64];
+    private long misses;
+
+    /**
+     * Создаёт кеш с собственным набором кадров.
+     */
+    PageCache(FileChannel channel, int pageSize, int frames) {
+        this(channel, new PagePool(pageSize, frames));
+    }
+
+    /**
+     * Создаёт кеш, страницы которого лежат в наборе кадров pool.
+     */
+    PageCache(FileChannel channel, PagePool pool) {
+        this.channel = channel;
+        this.pool = pool;
+        this.pageSize = pool.pageSize();
+    }
+
+    /**
+     * Возвращает буфер страницы. Буфер действителен до следующего обращения к кешу
+     * или к другому кешу того же набора кадров.
+     *
+     * @param page  номер страницы.
+     * @param write true, если страница будет изменена.
+     */
+    ByteBuffer page(int page, boolean write) {
+        int frame = page < frameOfPage.length ? frameOfPage[page] - 1 : -1;
+        if (frame < 0) {
+            if (page >= frameOfPage.length) {
+                frameOfPage = Arrays.copyOf(frameOfPage, Math.max(page + 1, frameOfPage.length * 2));
+            }
+            frame = pool.load(this, page);
+            frameOfPage[page] = frame + 1;
+            misses++;
+        }
+        return pool.use(frame, write);
+    }
+
+    /**
+     * Читает bytes.length байтов начиная с позиции position, в том числе через границы страниц.
+     */
+    void read(long position, byte[] bytes) {
+        int done = 0;
+        while (done < bytes.length) {
+            int offset = (int) (position % pageSize);
+            int length = Math.min(pageSize - offset, bytes.length - done);
+            page((int) (position / pageSize), false).get(offset, bytes, done, length);
+            done += length;
+            position += length;
+        }
+    }
+
+    /**
+     * Записывает байты начиная с позиции position, в том числе через границы страниц.
+     */
+    void write(long position, byte[] bytes) {
+        int done = 0;
+        while (done < bytes.length) {
+            int offset = (int) (position % pageSize);
+            int length = Math.min(pageSize - offset, bytes.length - done);
+            page((int) (position / pageSize), true).put(offset, bytes, done, length);
+            done += length;
+            position += length;
+        }
+    }
+
+    /**
+     * Возвращает количество загрузок страниц из файла.
+     */
+    long misses() {
+        return misses;
+    }
+
+    /**
+     * Отбрасывает все страницы без записи и обрезает файл до нулевой длины.
+     */
+    void truncate() {
+        pool.release(this);
+        Arrays.fill(frameOfPage, 0);
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot truncate ledger file", e);
+        }
+    }
+
+    /**
+     * Отдаёт кадры кеша набору без записи страниц и закрывает файл.
+     */
+    @Override
+    public void close() throws IOException {
+        pool.release(this);
+        Arrays.fill(frameOfPage, 0);
+        channel.close();
+    }
+
+    /**
+     * Читает страницу из файла в буфер кадра; недостающие до конца страницы байты заполняются нулями.
+     * Вызывается набором кадров при загрузке страницы.
+     */
+    void readPage(int page, ByteBuffer buffer) {
+        long position = (long) page * pageSize;
+        try {
+            int read = 0;
+            while (buffer.hasRemaining() && read >= 0) {
+                read = channel.read(buffer, position + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ledger page " + page, e);
+        }
+        while (buffer.remaining() >= Long.BYTES) {
+            buffer.putLong(0);
+        }
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Записывает изменённую страницу в файл. Вызывается набором кадров перед вытеснением страницы.
+     */
+    void writeBack(int page, ByteBuffer frame) {
+        ByteBuffer buffer = frame.duplicate().clear();
+        long position = (long) page * pageSize;
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write ledger page " + page, e);
+        }
+    }
+
+    /**
+     * Отмечает, что страница вытеснена из кадра. Вызывается набором кадров.
+     */
+    void unmap(int page) {
+        frameOfPage[page] = 0;
+    }
+}
@@ -0,0 +1,116 @@
+package com.financetracker.ledger;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Общий набор кадров страниц для нескольких кешей PageCache.
+ * <p>
+ * Держит не больше frames страниц в прямых буферах независимо от того, сколько файлов их читает,
+ * поэтому память под кеш файлового движка ограничена одним числом, а не числом пользователей.
+ * Место освобождается по алгоритму «часы» (второй шанс) сразу для всех файлов: редко читаемый
+ * файл отдаёт кадры часто читаемому. Изменённая страница перед вытеснением записывается в свой файл.
+ * <p>
+ * Буферы выделяются при первой загрузке в кадр и переиспользуются. Класс не потокобезопасен:
+ * кеши, разделяющие набор, должны использоваться из одного потока.
+ */
+final class PagePool {
+    private static final int NO_PAGE = -1;
+
+    private final int pageSize;
+    private final ByteBuffer[] frames;
+    private final PageCache[] owners;
+    private final int[] framePage;
+    private final boolean[] dirty;
+    private final boolean[] referenced;
+    private int hand;
+
+    /**
+     * @param pageSize размер страницы в байтах.
+     * @param frames   количество кадров.
+     * @throws IllegalArgumentException если размер страницы или количество кадров не положительны.
+     */
+    PagePool(int pageSize, int frames) {
+        if (pageSize <= 0 || frames <= 0) {
+            throw new IllegalArgumentException("Page size and frame count must be positive");
+        }
+        this.pageSize = pageSize;
+        this.frames = new ByteBuffer[frames];
+        this.owners = new PageCache[frames];
+        this.framePage = new int[frames];
+        this.dirty = new boolean[frames];
+        this.referenced = new boolean[frames];
+        Arrays.fill(framePage, NO_PAGE);
+    }
+
+    int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Возвращает буфер кадра и отмечает обращение к нему.
+     *
+     * @param frame номер кадра.
+     * @param write true, если страница будет изменена.
+     */
+    ByteBuffer use(int frame, boolean write) {
+        referenced[frame] = true;
+        if (write) {
+            dirty[frame] = true;
+        }
+        return frames[frame];
+    }
+
+    /**
+     * Загружает страницу кеша в свободный или вытесненный кадр.
+     *
+     * @return номер кадра.
+     */
+    int load(PageCache cache, int page) {
+        int frame = victim();
+        if (owners[frame] != null) {
+            if (dirty[frame]) {
+                owners[frame].writeBack(framePage[frame], frames[frame]);
+            }
+            owners[frame].unmap(framePage[frame]);
+            owners[frame] = null;
+            framePage[frame] = NO_PAGE;
+        }
+        if (frames[frame] == null) {
+            frames[frame] = ByteBuffer.allocateDirect(pageSize).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer buffer = frames[frame].clear();
+        cache.readPage(page, buffer);
+        owners[frame] = cache;
+        framePage[frame] = page;
+        dirty[frame] = false;
+        referenced[frame] = false;
+        return frame;
+    }
+
+    /**
+     * Освобождает все кадры кеша без записи изменённых страниц.
+     */
+    void release(PageCache cache) {
+        for (int frame = 0; frame < frames.length; frame++) {
+            if (owners[frame] == cache) {
+                owners[frame] = null;
+                framePage[frame] = NO_PAGE;
+                dirty[frame] = false;
+                referenced[frame] = false;
+            }
+        }
+    }
+
+    private int victim() {
+        while (true) {
+            int frame = hand;
+            hand = hand + 1 == frames.length ? 0 : hand + 1;
+            if (owners[frame] == null || !referenced[frame]) {
+                return frame;
+            }
+            referenced[frame] = false;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.financetracker.ledger;
+
+import com.financetracker.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Параллельный подсчёт баланса и итогов за период для больших наборов транзакций.
+ * <p>
+ * Транзакции делятся на части, которые обрабатываются задачами в собственном ForkJoinPool
+ * (общий пул ForkJoinPool.commonPool() не используется). Частичные суммы и суммы по категориям
+ * затем складываются. Все суммы целые (копейки), поэтому результат в точности совпадает
+ * с последовательным подсчётом.
+ * <p>
+ * Параллельный режим включается автоматически, если транзакций не меньше порога;
+ * меньшие наборы обрабатываются в вызывающем потоке. Ledger обходится частями через forEachRow,
+ * если он допускает чтение из нескольких потоков (Ledger.isConcurrentReadable); хранилища
+ * с индексом дат (Ledger.hasDateIndex) отвечают на запросы быстрее сами и параллельно не обходятся.
+ */
+public class ParallelAggregator {
+    /**
+     * Порог по умолчанию: количество транзакций, начиная с которого подсчёт выполняется параллельно.
+     * Может быть переопределён системным свойством "financetracker.parallel.threshold".
+     */
+    public static final int DEFAULT_THRESHOLD = 100_000;
+
+    /**
+     * Минимальный размер части, меньшие части не делятся.
+     */
+    private static final int MIN_CHUNK = 8_192;
+
+    private static volatile ParallelAggregator defaultAggregator;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Результат подсчёта: баланс по всем транзакциям и итоги за период.
+     */
+    public static class Result {
+        private long balance;
+        private final PeriodSummary summary = new PeriodSummary();
+
+        /**
+         * Возвращает баланс по всем транзакциям.
+         *
+         * @return баланс в копейках.
+         */
+        public long getBalance() {
+            return balance;
+        }
+
+        /**
+         * Возвращает итоги за период.
+         *
+         * @return доходы, расходы и расходы по категориям за период.
+         */
+        public PeriodSummary getSummary() {
+            return summary;
+        }
+
+        private void merge(Result other) {
+            balance += other.balance;
+            summary.merge(other.summary);
+        }
+    }
+
+    /**
+     * Создаёт агрегатор с собственным пулом потоков.
+     *
+     * @param parallelism количество потоков пула.
+     * @param threshold   количество транзакций, начиная с которого подсчёт выполняется параллельно.
+     * @throws IllegalArgumentException если parallelism или threshold меньше 1.
+     */
+    public ParallelAggregator(int parallelism, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.threshold = threshold;
+    }
+
+    /**
+     * Возвращает общий агрегатор приложения: по одному потоку на процессор
+     * и порог из системного свойства "financetracker.parallel.threshold" или DEFAULT_THRESHOLD.
+     * Агрегатор создаётся при первом обращении.
+     *
+     * @return агрегатор по умолчанию.
+     */
+    public static ParallelAggregator getDefault() {
+        ParallelAggregator aggregator = defaultAggregator;
+        if (aggregator == null) {
+            synchronized (ParallelAggregator.class) {
+                aggregator = defaultAggregator;
+                if (aggregator == null) {
+                    aggregator = new ParallelAggregator(Runtime.getRuntime().availableProcessors(),
+                            Integer.getInteger("financetracker.parallel.threshold", DEFAULT_THRESHOLD));
+                    defaultAggregator = aggregator;
+                }
+            }
+        }
+        return aggregator;
+    }
+
+    /**
+     * Проверяет, будет ли набор указанного размера обработан параллельно.
+     *
+     * @param size количество транзакций.
+     * @return true, если размер не меньше порога.
+     */
+    public boolean isParallel(int size) {
+        return size >= threshold;
+    }
+
+    /**
+     * Проверяет, будут ли транзакции обработаны параллельно и выгоднее ли это собственных
+     * запросов хранилища. Ledger с индексом дат и Ledger, не допускающий чтения из нескольких
+     * потоков, параллельно не обходятся.
+     *
+     * @param transactions транзакции пользователя.
+     * @return true, если транзакций не меньше порога и набор можно обойти частями.
+     */
+    public boolean isParallel(Map<String, Transaction> transactions) {
+        if (transactions instanceof Ledger ledger && (ledger.hasDateIndex() || !ledger.isConcurrentReadable())) {
+            return false;
+        }
+        return isParallel(transactions.size());
+    }
+
+    /**
+     * Считает баланс по всем транзакциям и итоги за период (границы включительно).
+     * Если start или end равны null, итоги за период не считаются.
+     *
+     * @param transactions транзакции пользователя.
+     * @param start        начальная дата периода или null.
+     * @param end          конечная дата периода или null.
+     * @return баланс и итоги за период.
+     */
+    public Result aggregate(Map<String, Transaction> transactions, LocalDate start, LocalDate end) {
+        boolean withPeriod = start != null && end != null;
+        int from = withPeriod ? (int) start.toEpochDay() : 0;
+        int to = withPeriod ? (int) end.toEpochDay() : -1;
+
+        Chunks chunks;
+        if (transactions instanceof Ledger ledger) {
+            chunks = (fromRow, toRow, visitor) -> ledger.forEachRow(fromRow, toRow, visitor);
+        } else {
+            Transaction[] array = transactions.values().toArray(new Transaction[0]);
+            chunks = (fromRow, toRow, visitor) -> {
+                for (int i = fromRow; i < toRow; i++) {
+                    Transaction transaction = array[i];
+                    visitor.visit((int) transaction.getDate().toEpochDay(), transaction.getAmount(),
+                            transaction.getCategoryId(), transaction.isIncome());
+                }
+            };
+        }
+
+        int size = transactions.size();
+        if (!isParallel(size) || transactions instanceof Ledger ledger && !ledger.isConcurrentReadable()) {
+            return new ChunkTask(chunks, 0, size, from, to, size).compute();
+        }
+        int chunkSize = Math.max(MIN_CHUNK, size / (pool.getParallelism() * 4));
+        return pool.invoke(new ChunkTask(chunks, 0, size, from, to, chunkSize));
+    }
+
+    /**
+     * Останавливает пул потоков агрегатора.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Источник транзакций, обрабатываемый по диапазонам номеров.
+     */
+    @FunctionalInterface
+    private interface Chunks {
+        void forEach(int fromRow, int toRow, RowVisitor visitor);
+    }
+
+    /**
+     * Задача подсчёта части транзакций; делит диапазон пополам, пока он больше chunkSize.
+     * Задачи не сериализуются, поэтому serialVersionUID не объявлен.
+     */
+    @SuppressWarnings("serial")
+    private static class ChunkTask extends RecursiveTask<Result> {
+        private final Chunks chunks;
+        private final int fromRow;
+        private final int toRow;
+        private final int fromDay;
+        private final int toDay;
+        private final int chunkSize;
+
+        ChunkTask(Chunks chunks, int fromRow, int toRow, int fromDay, int toDay, int chunkSize) {
+            this.chunks = chunks;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Result compute() {
+            if (toRow - fromRow <= chunkSize) {
+                Result result = new Result();
+                chunks.forEach(fromRow, toRow, (day, amount, categoryId, income) -> {
+                    result.balance += income ? amount : -amount;
+                    if (day >= fromDay && day <= toDay) {
+                        result.summary.add(categoryId, amount, income);
+                    }
+                });
+                return result;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            ChunkTask left = new ChunkTask(chunks, fromRow, middle, fromDay, toDay, chunkSize);
+            left.fork();
+            Result result = new ChunkTask(chunks, middle, toRow, fromDay, toDay, chunkSize).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.financetracker.ledger;
+
+/**
+ * Переиспользуемый накопитель итогов за период: сумма доходов, сумма расходов
+ * и расходы по категориям. Заполняется хранилищем за один проход
+ * или построчно через add.
+ */
+public class PeriodSummary {
+    private long income;
+    private long expense;
+    private final CategoryTotals expensesByCategory = new CategoryTotals();
+
+    /**
+     * Обнуляет итоги, сохраняя выделенную память.
+     */
+    public void reset() {
+        income = 0;
+        expense = 0;
+        expensesByCategory.reset();
+    }
+
+    /**
+     * Учитывает одну транзакцию.
+     *
+     * @param categoryId номер категории в CategoryDictionary.
+     * @param amount     сумма в копейках.
+     * @param income     true — доход, false — расход.
+     */
+    public void add(int categoryId, long amount, boolean income) {
+        if (income) {
+            this.income += amount;
+        } else {
+            expense += amount;
+            expensesByCategory.add(categoryId, amount);
+        }
+    }
+
+    /**
+     * Прибавляет итоги другого накопителя.
+     *
+     * @param other накопитель, итоги которого нужно прибавить.
+     */
+    public void merge(PeriodSummary other) {
+        income += other.income;
+        expense += other.expense;
+        expensesByCategory.merge(other.expensesByCategory);
+    }
+
+    /**
+     * Учитывает помесячные агрегаты целого месяца.
+     */
+    void addMonth(MonthlyRollup.Cell cell) {
+        income += cell.income;
+        expense += cell.expense;
+        expensesByCategory.merge(cell.expensesByCategory);
+    }
+
+    /**
+     * Возвращает сумму доходов за период.
+     *
+     * @return сумма в копейках.
+     */
+    public long getIncome() {
+        return income;
+    }
+
+    /**
+     * Возвращает сумму расходов за период.
+     *
+     * @return сумма в копейках.
+     */
+    public long getExpense() {
+        return expense;
+    }
+
+    /**
+     * Возвращает расходы за период по категориям.
+     *
+     * @return накопитель сумм по категориям.
+     */
+    public CategoryTotals getExpensesByCategory() {
+        return expensesByCategory;
+    }
+}
@@ -0,0 +1,487 @@
+package com.financetracker.ledger;
+
+import com.financetracker.model.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Общая часть хранилищ, в которых транзакция — запись фиксированной ширины с номером строки:
+ * индекс id → номер строки, суммы доходов и расходов, проверка аргументов, запросы обходом строк
+ * и представление в виде Map.
+ * <p>
+ * Наследник отвечает только за размещение записей и строк: OffHeapLedger держит их в прямых буферах,
+ * FileLedger — в файлах с кешем страниц. Строки плотные: удалённая запись заменяется последней.
+ * <p>
+ * Индекс — таблица с открытой адресацией и линейным пробированием вне кучи. В ячейке хранится
+ * хеш идентификатора в старших 32 битах и номер строки + 1 в младших; 0 — пустая ячейка.
+ * Хеш в ячейке позволяет отбросить чужие ячейки и перестроить таблицу без чтения записей.
+ */
+abstract class RecordLedger extends AbstractMap<String, Transaction> implements Ledger {
+    static final int INCOME_FLAG = 1;
+    static final int NULL_LENGTH = -1;
+
+    private static final int INITIAL_SLOTS = 32;
+
+    private LongBuffer slots = newSlots(INITIAL_SLOTS);
+    private int slotMask = INITIAL_SLOTS - 1;
+
+    private int size;
+    private long totalIncome;
+    private long totalExpense;
+
+    private EntrySet entrySet;
+
+    /**
+     * Добавляет транзакцию или перезаписывает запись транзакции с тем же идентификатором.
+     *
+     * @param transaction объект Transaction для добавления. Не может быть null.
+     * @throws IllegalArgumentException если transaction или её дата равны null.
+     */
+    @Override
+    public void add(Transaction transaction) {
+        validate(transaction);
+        String id = transaction.getId();
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int hash = id.hashCode();
+        int row = find(idBytes, hash);
+        if (row >= 0) {
+            rewriteRow(row, transaction);
+            return;
+        }
+        if ((size + 1) * 2 > slots.capacity()) {
+            rehash(slots.capacity() * 2);
+        }
+        appendRecord(size, idBytes, hash, transaction);
+        tally(transaction.getAmount(), transaction.isIncome(), 1);
+        insertSlot(hash, size);
+        size++;
+    }
+
+    /**
+     * Записывает изменённую транзакцию обратно в хранилище.
+     *
+     * @param transaction изменённый объект Transaction.
+     * @return true, если транзакция найдена и обновлена; false, если транзакции нет.
+     * @throws IllegalArgumentException если transaction или её дата равны null.
+     */
+    @Override
+    public boolean update(Transaction transaction) {
+        validate(transaction);
+        int row = find(transaction.getId());
+        if (row < 0) {
+            return false;
+        }
+        rewriteRow(row, transaction);
+        return true;
+    }
+
+    /**
+     * Удаляет транзакцию по идентификатору, не создавая объект Transaction.
+     *
+     * @param id идентификатор транзакции.
+     * @return true, если транзакция была удалена; false, если она не найдена.
+     */
+    @Override
+    public boolean delete(String id) {
+        int row = find(id);
+        if (row < 0) {
+            return false;
+        }
+        removeRow(row);
+        return true;
+    }
+
+    @Override
+    public long balance() {
+        return totalIncome - totalExpense;
+    }
+
+    @Override
+    public long totalIncome() {
+        return totalIncome;
+    }
+
+    @Override
+    public long totalExpense() {
+        return totalExpense;
+    }
+
+    /**
+     * Проверяет поддерживаемые суммы доходов и расходов полным обходом записей.
+     *
+     * @return true, если суммы совпадают с результатом обхода.
+     */
+    @Override
+    public boolean verifyTotals() {
+        long[] sums = new long[2];
+        forEachRow(0, size, (day, amount, categoryId, income) -> sums[income ? 0 : 1] += amount);
+        return sums[0] == totalIncome && sums[1] == totalExpense;
+    }
+
+    /**
+     * Возвращает сумму доходов или расходов за период (границы включительно) обходом всех записей.
+     *
+     * @param income true — сумма доходов, false — сумма расходов.
+     * @param start  начальная дата периода.
+     * @param end    конечная дата периода.
+     * @return сумма в копейках.
+     */
+    @Override
+    public long sumOfPeriod(boolean income, LocalDate start, LocalDate end) {
+        long[] sum = new long[1];
+        forEachInPeriod(start, end, (day, amount, categoryId, rowIncome) -> {
+            if (rowIncome == income) {
+                sum[0] += amount;
+            }
+        });
+        return sum[0];
+    }
+
+    @Override
+    public void expensesByCategory(LocalDate start, LocalDate end, CategoryTotals totals) {
+        forEachInPeriod(start, end, (day, amount, categoryId, income) -> {
+            if (!income) {
+                totals.add(categoryId, amount);
+            }
+        });
+    }
+
+    @Override
+    public void summarize(LocalDate start, LocalDate end, PeriodSummary summary) {
+        forEachInPeriod(start, end, (day, amount, categoryId, income) -> summary.add(categoryId, amount, income));
+    }
+
+    /**
+     * Передаёт обработчику записи за период (границы включительно) в порядке хранения.
+     *
+     * @param start   начальная дата периода.
+     * @param end     конечная дата периода.
+     * @param visitor обработчик строк.
+     */
+    @Override
+    public void forEachInPeriod(LocalDate start, LocalDate end, RowVisitor visitor) {
+        int from = (int) start.toEpochDay();
+        int to = (int) end.toEpochDay();
+        forEachRow(0, size, (day, amount, categoryId, income) -> {
+            if (day >= from && day <= to) {
+                visitor.visit(day, amount, categoryId, income);
+            }
+        });
+    }
+
+    @Override
+    public List<Transaction> byDate(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        List<Transaction> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (epochDay(row) == day) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Transaction> byCategory(int categoryId) {
+        List<Transaction> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (categoryId(row) == categoryId) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Transaction transactionAt(int row) {
+        Objects.checkIndex(row, size);
+        return materialize(row);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String id && find(id) >= 0;
+    }
+
+    @Override
+    public Transaction get(Object key) {
+        if (!(key instanceof String id)) {
+            return null;
+        }
+        int row = find(id);
+        return row < 0 ? null : materialize(row);
+    }
+
+    @Override
+    public Transaction put(String key, Transaction transaction) {
+        if (transaction != null && !transaction.getId().equals(key)) {
+            throw new IllegalArgumentException("Key must match transaction id");
+        }
+        Transaction previous = get(key);
+        add(transaction);
+        return previous;
+    }
+
+    @Override
+    public Transaction remove(Object key) {
+        if (!(key instanceof String id)) {
+            return null;
+        }
+        int row = find(id);
+        if (row < 0) {
+            return null;
+        }
+        Transaction previous = materialize(row);
+        removeRow(row);
+        return previous;
+    }
+
+    @Override
+    public Set<Entry<String, Transaction>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Размещение записей
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Записывает новую транзакцию в строку row, равную текущему размеру.
+     */
+    abstract void appendRecord(int row, byte[] idBytes, int hash, Transaction transaction);
+
+    /**
+     * Перезаписывает описание и числовые поля строки row; идентификатор не меняется.
+     */
+    abstract void rewriteRecord(int row, Transaction transaction);
+
+    /**
+     * Освобождает строки записи row и, если row не последняя, переносит на её место запись last.
+     */
+    abstract void removeRecord(int row, int last);
+
+    abstract Transaction materialize(int row);
+
+    abstract boolean idEquals(int row, byte[] idBytes);
+
+    abstract int idHash(int row);
+
+    abstract long amount(int row);
+
+    abstract int epochDay(int row);
+
+    abstract int categoryId(int row);
+
+    abstract boolean isIncome(int row);
+
+    /**
+     * Делает хранилище пустым: сбрасывает индекс, размер и суммы. Записи и строки наследник освобождает сам.
+     */
+    final void reset() {
+        slots = newSlots(INITIAL_SLOTS);
+        slotMask = INITIAL_SLOTS - 1;
+        size = 0;
+        totalIncome = 0;
+        totalExpense = 0;
+    }
+
+    /**
+     * Возвращает объём памяти вне кучи, занятой индексом.
+     */
+    long indexBytes() {
+        return (long) slots.capacity() * Long.BYTES;
+    }
+
+    static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void validate(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        if (transaction.getDate() == null) {
+            throw new IllegalArgumentException("Transaction date cannot be null");
+        }
+    }
+
+    private void rewriteRow(int row, Transaction transaction) {
+        tally(amount(row), isIncome(row), -1);
+        rewriteRecord(row, transaction);
+        tally(transaction.getAmount(), transaction.isIncome(), 1);
+    }
+
+    /**
+     * Удаляет запись, перенося на её место последнюю.
+     */
+    private void removeRow(int row) {
+        int last = size - 1;
+        tally(amount(row), isIncome(row), -1);
+        deleteSlot(slotOf(idHash(row), row));
+        if (row != last) {
+            int lastHash = idHash(last);
+            slots.put(slotOf(lastHash, last), slotValue(lastHash, row));
+        }
+        removeRecord(row, last);
+        size--;
+    }
+
+    private void tally(long amount, boolean income, int sign) {
+        if (income) {
+            totalIncome += sign * amount;
+        } else {
+            totalExpense += sign * amount;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Индекс id → номер строки
+    // ---------------------------------------------------------------------------------------------
+
+    private static LongBuffer newSlots(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static long slotValue(int hash, int row) {
+        return (long) hash << 32 | (row + 1L);
+    }
+
+    private static int rowOf(long value) {
+        return (int) value - 1;
+    }
+
+    private static int hashOf(long value) {
+        return (int) (value >>> 32);
+    }
+
+    private int find(String id) {
+        return find(id.getBytes(StandardCharsets.UTF_8), id.hashCode());
+    }
+
+    private int find(byte[] idBytes, int hash) {
+        for (int slot = mix(hash) & slotMask; ; slot = (slot + 1) & slotMask) {
+            long value = slots.get(slot);
+            if (value == 0) {
+                return -1;
+            }
+            if (hashOf(value) == hash && idEquals(rowOf(value), idBytes)) {
+                return rowOf(value);
+            }
+        }
+    }
+
+    private void insertSlot(int hash, int row) {
+        int slot = mix(hash) & slotMask;
+        while (slots.get(slot) != 0) {
+            slot = (slot + 1) & slotMask;
+        }
+        slots.put(slot, slotValue(hash, row));
+    }
+
+    /**
+     * Возвращает ячейку индекса, указывающую на строку row.
+     */
+    private int slotOf(int hash, int row) {
+        long value = slotValue(hash, row);
+        int slot = mix(hash) & slotMask;
+        while (slots.get(slot) != value) {
+            slot = (slot + 1) & slotMask;
+        }
+        return slot;
+    }
+
+    /**
+     * Освобождает ячейку, сдвигая назад следующие за ней ячейки цепочки,
+     * чтобы поиск не прерывался на образовавшейся пустой ячейке.
+     */
+    private void deleteSlot(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & slotMask; ; next = (next + 1) & slotMask) {
+            long value = slots.get(next);
+            if (value == 0) {
+                break;
+            }
+            int home = mix(hashOf(value)) & slotMask;
+            boolean reachable = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!reachable) {
+                slots.put(hole, value);
+                hole = next;
+            }
+        }
+        slots.put(hole, 0);
+    }
+
+    private void rehash(int capacity) {
+        LongBuffer previous = slots;
+        slots = newSlots(capacity);
+        slotMask = capacity - 1;
+        for (int slot = 0; slot < previous.capacity(); slot++) {
+            long value = previous.get(slot);
+            if (value != 0) {
+                insertSlot(hashOf(value), rowOf(value));
+            }
+        }
+    }
+
+    /**
+     * Представление записей хранилища в виде множества записей Map.
+     */
+    private class EntrySet extends AbstractSet<Entry<String, Transaction>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Entry<String, Transaction>> iterator() {
+            return new Iterator<>() {
+                private int next;
+                private int current = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Entry<String, Transaction> next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    current = next++;
+                    Transaction transaction = materialize(current);
+                    return new SimpleImmutableEntry<>(transaction.getId(), transaction);
+                }
+
+                @Override
+                public void remove() {
+                    if (current < 0) {
+                        throw new IllegalStateException();
+                    }
+                    removeRow(current);
+                    // На место удалённой записи перенесена последняя — её нужно обойти
+                    next = current;
+                    current = -1;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.financetracker.ledger;
+
+/**
+ * Обработчик строк хранилища транзакций.
+ * Получает поля строки в виде примитивов, поэтому обход не создаёт объектов Transaction.
+ */
+@FunctionalInterface
+public interface RowVisitor {
+    /**
+     * Обрабатывает одну строку.
+     *
+     * @param epochDay   дата транзакции как номер дня от эпохи.
+     * @param amount     сумма в копейках.
+     * @param categoryId номер категории в CategoryDictionary.
+     * @param income     true — доход, false — расход.
+     */
+    void visit(int epochDay, long amount, int categoryId, boolean income);
+}
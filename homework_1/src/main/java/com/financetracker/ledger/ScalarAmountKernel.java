@@ -0,0 +1,50 @@
+package com.financetracker.ledger;
+
+/**
+ * Скалярная реализация AmountKernel: обычный цикл по строкам.
+ */
+final class ScalarAmountKernel implements AmountKernel {
+    static final ScalarAmountKernel INSTANCE = new ScalarAmountKernel();
+
+    private ScalarAmountKernel() {
+    }
+
+    @Override
+    public long sum(long[] amounts, long[] incomeBits, int size, boolean income) {
+        return sum(amounts, incomeBits, 0, size, income);
+    }
+
+    @Override
+    public long sumInRange(long[] amounts, int[] epochDays, long[] incomeBits, int size,
+                           boolean income, int fromDay, int toDay) {
+        return sumInRange(amounts, epochDays, incomeBits, 0, size, income, fromDay, toDay);
+    }
+
+    /**
+     * Суммирует строки [from, to) указанного типа. Используется векторным ядром для хвоста.
+     */
+    static long sum(long[] amounts, long[] incomeBits, int from, int to, boolean income) {
+        long sum = 0;
+        for (int row = from; row < to; row++) {
+            if (((incomeBits[row >>> 6] & (1L << row)) != 0) == income) {
+                sum += amounts[row];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Суммирует строки [from, to) указанного типа из диапазона дней. Используется векторным ядром для хвоста.
+     */
+    static long sumInRange(long[] amounts, int[] epochDays, long[] incomeBits, int from, int to,
+                           boolean income, int fromDay, int toDay) {
+        long sum = 0;
+        for (int row = from; row < to; row++) {
+            int day = epochDays[row];
+            if (((incomeBits[row >>> 6] & (1L << row)) != 0) == income && day >= fromDay && day <= toDay) {
+                sum += amounts[row];
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,104 @@
+package com.financetracker.ledger;
+
+import java.util.Arrays;
+
+/**
+ * Ограниченная куча номеров строк с наибольшими суммами.
+ * <p>
+ * Держит не больше limit строк в массивах примитивов, которые растут по мере отбора строк, поэтому
+ * память зависит от количества отобранных строк, а не от limit; в вершине — наименьшая из отобранных,
+ * поэтому строка, не попадающая в первые limit, отсекается одним сравнением, а вставка стоит
+ * O(log limit). Полный обход n строк стоит O(n log limit) без сортировки и копирования хранилища.
+ * При равных суммах выше стоит строка с меньшим номером.
+ */
+final class TopRows {
+    private final int limit;
+    private int[] rows;
+    private long[] amounts;
+    private int size;
+
+    TopRows(int limit) {
+        this.limit = limit;
+        rows = new int[Math.min(limit, 16)];
+        amounts = new long[rows.length];
+    }
+
+    /**
+     * Предлагает строку. Каждую строку нужно предлагать не больше одного раза.
+     */
+    void offer(int row, long amount) {
+        if (size < limit) {
+            if (size == rows.length) {
+                int capacity = (int) Math.min(limit, 2L * size);
+                rows = Arrays.copyOf(rows, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+            }
+            rows[size] = row;
+            amounts[size] = amount;
+            siftUp(size++);
+        } else if (size > 0 && (amount > amounts[0] || amount == amounts[0] && row < rows[0])) {
+            rows[0] = row;
+            amounts[0] = amount;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Возвращает отобранные строки по убыванию сумм. Куча после вызова пуста.
+     */
+    int[] drainDescending() {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = rows[0];
+            size--;
+            rows[0] = rows[size];
+            amounts[0] = amounts[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет, стоит ли элемент a ниже элемента b: меньшая сумма или та же сумма и больший номер строки.
+     */
+    private boolean below(int a, int b) {
+        return amounts[a] < amounts[b] || amounts[a] == amounts[b] && rows[a] > rows[b];
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!below(index, parent)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && below(child + 1, child)) {
+                child++;
+            }
+            if (!below(child, index)) {
+                return;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int row = rows[a];
+        rows[a] = rows[b];
+        rows[b] = row;
+        long amount = amounts[a];
+        amounts[a] = amounts[b];
+        amounts[b] = amount;
+    }
+}
@@ -0,0 +1,186 @@
+package com.financetracker.ledger;
+
+import com.financetracker.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Пачка транзакций для массового добавления в хранилище.
+ * <p>
+ * Строки хранятся в параллельных массивах примитивов, как в TransactionLedger,
+ * поэтому заполнение пачки не создаёт объектов Transaction и LocalDate.
+ * Пачку можно переиспользовать: после clear массивы остаются выделенными.
+ */
+public class TransactionBatch {
+    private String[] ids;
+    private int[] epochDays;
+    private long[] amounts;
+    private int[] categoryIds;
+    private String[] descriptions;
+    private boolean[] incomes;
+    private int size;
+
+    /**
+     * Создаёт пустую пачку.
+     *
+     * @param capacity начальная ёмкость пачки.
+     * @throws IllegalArgumentException если ёмкость не положительна.
+     */
+    public TransactionBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Batch capacity must be positive");
+        }
+        ids = new String[capacity];
+        epochDays = new int[capacity];
+        amounts = new long[capacity];
+        categoryIds = new int[capacity];
+        descriptions = new String[capacity];
+        incomes = new boolean[capacity];
+    }
+
+    /**
+     * Добавляет строку в пачку.
+     *
+     * @param id          идентификатор транзакции.
+     * @param epochDay    дата транзакции как номер дня от эпохи.
+     * @param amount      сумма в копейках.
+     * @param categoryId  номер категории в CategoryDictionary или CategoryDictionary.NO_CATEGORY.
+     * @param description описание транзакции.
+     * @param income      true — доход, false — расход.
+     */
+    public void add(String id, int epochDay, long amount, int categoryId, String description, boolean income) {
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        epochDays[size] = epochDay;
+        amounts[size] = amount;
+        categoryIds[size] = categoryId;
+        descriptions[size] = description;
+        incomes[size] = income;
+        size++;
+    }
+
+    /**
+     * Добавляет транзакцию в пачку.
+     *
+     * @param transaction объект Transaction. Не может быть null.
+     * @throws IllegalArgumentException если transaction или её дата равны null.
+     */
+    public void add(Transaction transaction) {
+        if (transaction == null || transaction.getDate() == null) {
+            throw new IllegalArgumentException("Transaction and its date cannot be null");
+        }
+        add(transaction.getId(), (int) transaction.getDate().toEpochDay(), transaction.getAmount(),
+                transaction.getCategoryId(), transaction.getDescription(), transaction.isIncome());
+    }
+
+    /**
+     * Возвращает количество строк в пачке.
+     *
+     * @return количество строк.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, пуста ли пачка.
+     *
+     * @return true, если строк нет.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Удаляет все строки, сохраняя выделенные массивы.
+     */
+    public void clear() {
+        Arrays.fill(ids, 0, size, null);
+        Arrays.fill(descriptions, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Возвращает идентификатор транзакции в строке.
+     *
+     * @param row номер строки.
+     * @return идентификатор транзакции.
+     */
+    public String id(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Возвращает дату транзакции в строке как номер дня от эпохи.
+     *
+     * @param row номер строки.
+     * @return номер дня от эпохи.
+     */
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    /**
+     * Возвращает сумму транзакции в строке.
+     *
+     * @param row номер строки.
+     * @return сумма в копейках.
+     */
+    public long amount(int row) {
+        return amounts[row];
+    }
+
+    /**
+     * Возвращает номер категории транзакции в строке.
+     *
+     * @param row номер строки.
+     * @return номер категории или CategoryDictionary.NO_CATEGORY.
+     */
+    public int categoryId(int row) {
+        return categoryIds[row];
+    }
+
+    /**
+     * Возвращает описание транзакции в строке.
+     *
+     * @param row номер строки.
+     * @return описание транзакции.
+     */
+    public String description(int row) {
+        return descriptions[row];
+    }
+
+    /**
+     * Проверяет, является ли транзакция в строке доходом.
+     *
+     * @param row номер строки.
+     * @return true — доход, false — расход.
+     */
+    public boolean isIncome(int row) {
+        return incomes[row];
+    }
+
+    /**
+     * Создаёт объект Transaction для строки пачки.
+     *
+     * @param row номер строки.
+     * @return новый объект Transaction.
+     */
+    public Transaction toTransaction(int row) {
+        return new Transaction(ids[row], amounts[row], categoryIds[row],
+                LocalDate.ofEpochDay(epochDays[row]), descriptions[row], incomes[row]);
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1) + 1;
+        ids = Arrays.copyOf(ids, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        incomes = Arrays.copyOf(incomes, capacity);
+    }
+}
@@ -0,0 +1,833 @@
+package com.financetracker.ledger;
+
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Колоночное хранилище транзакций одного пользователя.
+ * <p>
+ * Вместо отдельного объекта Transaction на каждую запись данные хранятся
+ * в параллельных массивах примитивов:
+ * - даты — как номера дней от эпохи (int);
+ * - суммы — в копейках (long);
+ * - категории — как номера в общем словаре CategoryDictionary (int);
+ * - признак дохода — как битовая маска.
+ * <p>
+ * Строка таблицы находится по идентификатору транзакции через индекс id → номер строки.
+ * При удалении на место удаляемой строки переносится последняя, поэтому порядок строк
+ * не сохраняется. Объекты Transaction создаются только при чтении через интерфейс Map,
+ * а агрегирующие методы работают напрямую с массивами.
+ * <p>
+ * Запросы за период используют DateIndex — индекс строк по дням,
+ * поэтому обходят только строки, попадающие в период.
+ * Суммы всех доходов и расходов поддерживаются при каждом изменении,
+ * поэтому баланс возвращается без обхода строк.
+ */
+public class TransactionLedger extends AbstractMap<String, Transaction> implements Ledger {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int[] categoryIds = new int[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private long[] incomeBits = new long[wordsFor(INITIAL_CAPACITY)];
+    private int size;
+
+    /**
+     * Сумма всех доходов в копейках.
+     */
+    private long totalIncome;
+
+    /**
+     * Сумма всех расходов в копейках.
+     */
+    private long totalExpense;
+
+    /**
+     * Индекс строк по идентификатору транзакции.
+     * Ключ: идентификатор транзакции (String).
+     * Значение: номер строки (Integer).
+     */
+    private final Map<String, Integer> rowById = new HashMap<>();
+
+    private final DateIndex dateIndex = new DateIndex();
+
+    private final MonthlyRollup rollup = new MonthlyRollup();
+
+    /**
+     * Деревья префиксных сумм доходов и расходов по дням.
+     * Необязательны: null, пока не включены через setPrefixSumsEnabled.
+     */
+    private DayPrefixSums incomeByDay;
+    private DayPrefixSums expenseByDay;
+
+    /**
+     * Ядро для полного обхода колонки сумм: векторное, если доступно, иначе скалярное.
+     */
+    private final AmountKernel kernel;
+
+    private EntrySet entrySet;
+
+    /**
+     * Создаёт пустое хранилище с самым быстрым доступным ядром суммирования.
+     */
+    public TransactionLedger() {
+        this(AmountKernel.best());
+    }
+
+    /**
+     * Создаёт пустое хранилище с заданным ядром суммирования.
+     *
+     * @param kernel ядро, используемое при полном обходе колонки сумм.
+     */
+    public TransactionLedger(AmountKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    /**
+     * Добавляет транзакцию или перезаписывает строку транзакции с тем же идентификатором.
+     *
+     * @param transaction объект Transaction для добавления. Не может быть null.
+     * @throws IllegalArgumentException если transaction или её дата равны null.
+     */
+    @Override
+    public void add(Transaction transaction) {
+        validate(transaction);
+        Integer row = rowById.get(transaction.getId());
+        if (row != null) {
+            rewriteRow(row, transaction);
+            return;
+        }
+        ensureCapacity(size + 1);
+        ids[size] = transaction.getId();
+        dateIndex.add((int) transaction.getDate().toEpochDay(), size);
+        writeRow(size, transaction);
+        rowById.put(transaction.getId(), size);
+        size++;
+    }
+
+    /**
+     * Добавляет все строки пачки, резервируя место в колонках один раз на всю пачку.
+     * Новые строки записываются в колонки напрямую, без создания объектов Transaction.
+     *
+     * @param batch пачка транзакций. Не может быть null.
+     */
+    @Override
+    public void addAll(TransactionBatch batch) {
+        ensureCapacity(size + batch.size());
+        for (int row = 0; row < batch.size(); row++) {
+            String id = batch.id(row);
+            Integer existing = rowById.get(id);
+            if (existing != null) {
+                rewriteRow(existing, batch.toTransaction(row));
+                continue;
+            }
+            ids[size] = id;
+            dateIndex.add(batch.epochDay(row), size);
+            writeRow(size, batch.epochDay(row), batch.amount(row), batch.categoryId(row),
+                    batch.description(row), batch.isIncome(row));
+            rowById.put(id, size);
+            size++;
+        }
+    }
+
+    /**
+     * Записывает изменённую транзакцию обратно в хранилище.
+     *
+     * @param transaction изменённый объект Transaction.
+     * @return true, если транзакция найдена и обновлена; false, если транзакции нет.
+     * @throws IllegalArgumentException если transaction или её дата равны null.
+     */
+    @Override
+    public boolean update(Transaction transaction) {
+        validate(transaction);
+        Integer row = rowById.get(transaction.getId());
+        if (row == null) {
+            return false;
+        }
+        rewriteRow(row, transaction);
+        return true;
+    }
+
+    /**
+     * Удаляет транзакцию по идентификатору, не создавая объект Transaction.
+     *
+     * @param id идентификатор транзакции.
+     * @return true, если транзакция была удалена; false, если она не найдена.
+     */
+    @Override
+    public boolean delete(String id) {
+        Integer row = rowById.remove(id);
+        if (row == null) {
+            return false;
+        }
+        removeRow(row);
+        return true;
+    }
+
+    /**
+     * Возвращает баланс: сумму доходов за вычетом суммы расходов.
+     *
+     * @return баланс в копейках.
+     */
+    @Override
+    public long balance() {
+        return totalIncome - totalExpense;
+    }
+
+    /**
+     * Возвращает сумму всех доходов.
+     *
+     * @return сумма доходов в копейках.
+     */
+    @Override
+    public long totalIncome() {
+        return totalIncome;
+    }
+
+    /**
+     * Возвращает сумму всех расходов.
+     *
+     * @return сумма расходов в копейках.
+     */
+    @Override
+    public long totalExpense() {
+        return totalExpense;
+    }
+
+    /**
+     * Проверяет поддерживаемые суммы доходов и расходов и помесячные агрегаты полным обходом строк.
+     *
+     * @return true, если суммы совпадают с результатом обхода.
+     */
+    @Override
+    public boolean verifyTotals() {
+        long income = kernel.sum(amounts, incomeBits, size, true);
+        long expense = kernel.sum(amounts, incomeBits, size, false);
+        long rollupIncome = 0;
+        long rollupExpense = 0;
+        for (MonthlyRollup.Cell cell : rollup.cells()) {
+            rollupIncome += cell.income;
+            rollupExpense += cell.expense;
+        }
+        return income == totalIncome && expense == totalExpense
+                && rollupIncome == totalIncome && rollupExpense == totalExpense;
+    }
+
+    /**
+     * Включает или отключает деревья префиксных сумм по дням.
+     * Когда они включены, сумма доходов или расходов за любой период вычисляется за O(log d),
+     * где d — число дней истории, ценой дополнительной работы при каждом изменении.
+     * При включении деревья строятся по текущим строкам.
+     *
+     * @param enabled true — включить, false — отключить.
+     */
+    public void setPrefixSumsEnabled(boolean enabled) {
+        if (!enabled) {
+            incomeByDay = null;
+            expenseByDay = null;
+            return;
+        }
+        if (incomeByDay != null) {
+            return;
+        }
+        incomeByDay = new DayPrefixSums();
+        expenseByDay = new DayPrefixSums();
+        for (int row = 0; row < size; row++) {
+            (isIncome(row) ? incomeByDay : expenseByDay).add(epochDays[row], amounts[row]);
+        }
+    }
+
+    /**
+     * Проверяет, включены ли деревья префиксных сумм по дням.
+     *
+     * @return true, если деревья включены.
+     */
+    public boolean isPrefixSumsEnabled() {
+        return incomeByDay != null;
+    }
+
+    /**
+     * Возвращает сумму доходов или расходов за период (границы включительно).
+     * Если включены деревья префиксных сумм, сумма берётся из них. Иначе целые месяцы
+     * периода берутся из помесячных агрегатов, а остальные дни — из индекса дат.
+     *
+     * @param income true — сумма доходов, false — сумма расходов.
+     * @param start  начальная дата периода.
+     * @param end    конечная дата периода.
+     * @return сумма в копейках.
+     */
+    @Override
+    public long sumOfPeriod(boolean income, LocalDate start, LocalDate end) {
+        if (incomeByDay != null) {
+            return (income ? incomeByDay : expenseByDay).sum((int) start.toEpochDay(), (int) end.toEpochDay());
+        }
+        LocalDate firstWhole = firstWholeMonthDay(start);
+        LocalDate lastWhole = lastWholeMonthDay(end);
+        if (firstWhole.isAfter(lastWhole)) {
+            return scanSum(income, (int) start.toEpochDay(), (int) end.toEpochDay());
+        }
+        long sum = scanSum(income, (int) start.toEpochDay(), (int) firstWhole.toEpochDay() - 1)
+                + scanSum(income, (int) lastWhole.toEpochDay() + 1, (int) end.toEpochDay());
+        for (MonthlyRollup.Cell cell : rollup.range(YearMonth.from(firstWhole), YearMonth.from(lastWhole))) {
+            sum += income ? cell.income : cell.expense;
+        }
+        return sum;
+    }
+
+    /**
+     * Возвращает сумму доходов или расходов за период (границы включительно) полным обходом
+     * колонок без использования индексов и агрегатов. Выполняется ядром AmountKernel,
+     * поэтому при доступном Vector API обрабатывает несколько строк за инструкцию.
+     *
+     * @param income true — сумма доходов, false — сумма расходов.
+     * @param start  начальная дата периода.
+     * @param end    конечная дата периода.
+     * @return сумма в копейках.
+     */
+    public long scanSumOfPeriod(boolean income, LocalDate start, LocalDate end) {
+        return kernel.sumInRange(amounts, epochDays, incomeBits, size, income,
+                (int) start.toEpochDay(), (int) end.toEpochDay());
+    }
+
+    /**
+     * Возвращает сумму доходов или расходов за дни из диапазона, обходя строки индекса дат.
+     */
+    private long scanSum(boolean income, int from, int to) {
+        long sum = 0;
+        for (DateIndex.Bucket bucket : dateIndex.range(from, to)) {
+            for (int i = 0; i < bucket.size; i++) {
+                int row = bucket.rows[i];
+                if (isIncome(row) == income) {
+                    sum += amounts[row];
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Прибавляет расходы за период (границы включительно) к накопителю по категориям.
+     * Суммы накапливаются в массиве, индексированном номером категории,
+     * поэтому при переиспользовании накопителя память не выделяется.
+     * Целые месяцы периода берутся из помесячных агрегатов, остальные дни — из индекса дат.
+     *
+     * @param start  начальная дата периода.
+     * @param end    конечная дата периода.
+     * @param totals накопитель, в который добавляются суммы.
+     */
+    @Override
+    public void expensesByCategory(LocalDate start, LocalDate end, CategoryTotals totals) {
+        LocalDate firstWhole = firstWholeMonthDay(start);
+        LocalDate lastWhole = lastWholeMonthDay(end);
+        if (firstWhole.isAfter(lastWhole)) {
+            scanExpensesByCategory((int) start.toEpochDay(), (int) end.toEpochDay(), totals);
+            return;
+        }
+        scanExpensesByCategory((int) start.toEpochDay(), (int) firstWhole.toEpochDay() - 1, totals);
+        scanExpensesByCategory((int) lastWhole.toEpochDay() + 1, (int) end.toEpochDay(), totals);
+        for (MonthlyRollup.Cell cell : rollup.range(YearMonth.from(firstWhole), YearMonth.from(lastWhole))) {
+            totals.merge(cell.expensesByCategory);
+        }
+    }
+
+    /**
+     * Прибавляет расходы за дни из диапазона к накопителю, обходя строки индекса дат.
+     */
+    private void scanExpensesByCategory(int from, int to, CategoryTotals totals) {
+        for (DateIndex.Bucket bucket : dateIndex.range(from, to)) {
+            for (int i = 0; i < bucket.size; i++) {
+                int row = bucket.rows[i];
+                if (!isIncome(row)) {
+                    totals.add(categoryIds[row], amounts[row]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Заполняет итоги за период (границы включительно) за один проход.
+     * Целые месяцы берутся из помесячных агрегатов, остальные дни — из индекса дат.
+     *
+     * @param start   начальная дата периода.
+     * @param end     конечная дата периода.
+     * @param summary накопитель, к которому добавляются итоги.
+     */
+    @Override
+    public void summarize(LocalDate start, LocalDate end, PeriodSummary summary) {
+        RowVisitor visitor = (day, amount, categoryId, income) -> summary.add(categoryId, amount, income);
+        LocalDate firstWhole = firstWholeMonthDay(start);
+        LocalDate lastWhole = lastWholeMonthDay(end);
+        if (firstWhole.isAfter(lastWhole)) {
+            forEachInPeriod((int) start.toEpochDay(), (int) end.toEpochDay(), visitor);
+            return;
+        }
+        forEachInPeriod((int) start.toEpochDay(), (int) firstWhole.toEpochDay() - 1, visitor);
+        forEachInPeriod((int) lastWhole.toEpochDay() + 1, (int) end.toEpochDay(), visitor);
+        for (MonthlyRollup.Cell cell : rollup.range(YearMonth.from(firstWhole), YearMonth.from(lastWhole))) {
+            summary.addMonth(cell);
+        }
+    }
+
+    /**
+     * Передаёт обработчику строки за период (границы включительно) в порядке возрастания дат.
+     *
+     * @param start   начальная дата периода.
+     * @param end     конечная дата периода.
+     * @param visitor обработчик строк.
+     */
+    @Override
+    public void forEachInPeriod(LocalDate start, LocalDate end, RowVisitor visitor) {
+        forEachInPeriod((int) start.toEpochDay(), (int) end.toEpochDay(), visitor);
+    }
+
+    private void forEachInPeriod(int from, int to, RowVisitor visitor) {
+        for (DateIndex.Bucket bucket : dateIndex.range(from, to)) {
+            for (int i = 0; i < bucket.size; i++) {
+                int row = bucket.rows[i];
+                visitor.visit(epochDays[row], amounts[row], categoryIds[row], isIncome(row));
+            }
+        }
+    }
+
+    /**
+     * Передаёт обработчику строки с номерами из диапазона [fromRow, toRow) в порядке хранения.
+     * Позволяет обрабатывать хранилище частями, например параллельно.
+     * Номера строк меняются при удалении транзакций.
+     *
+     * @param fromRow номер первой строки (включительно).
+     * @param toRow   номер последней строки (не включительно).
+     * @param visitor обработчик строк.
+     * @throws IndexOutOfBoundsException если диапазон выходит за пределы хранилища.
+     */
+    @Override
+    public void forEachRow(int fromRow, int toRow, RowVisitor visitor) {
+        Objects.checkFromToIndex(fromRow, toRow, size);
+        for (int row = fromRow; row < toRow; row++) {
+            visitor.visit(epochDays[row], amounts[row], categoryIds[row], isIncome(row));
+        }
+    }
+
+    /**
+     * Запросы за период отвечаются по индексу дат и помесячным агрегатам.
+     */
+    @Override
+    public boolean hasDateIndex() {
+        return true;
+    }
+
+    /**
+     * Колонки читаются без изменения состояния, поэтому строки можно обходить из нескольких потоков.
+     */
+    @Override
+    public boolean isConcurrentReadable() {
+        return true;
+    }
+
+    /**
+     * Возвращает транзакции за указанный день.
+     * Обходятся только строки этого дня.
+     *
+     * @param date дата.
+     * @return список транзакций за день.
+     */
+    @Override
+    public List<Transaction> byDate(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        List<Transaction> result = new ArrayList<>();
+        for (DateIndex.Bucket bucket : dateIndex.range(day, day)) {
+            for (int i = 0; i < bucket.size; i++) {
+                result.add(materialize(bucket.rows[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает транзакции указанной категории.
+     * Категории сравниваются по номеру, объекты Transaction создаются только для подходящих строк.
+     *
+     * @param categoryId номер категории или CategoryDictionary.NO_CATEGORY.
+     * @return список транзакций категории.
+     */
+    @Override
+    public List<Transaction> byCategory(int categoryId) {
+        List<Transaction> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (categoryIds[row] == categoryId) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Transaction transactionAt(int row) {
+        Objects.checkIndex(row, size);
+        return materialize(row);
+    }
+
+    /**
+     * Возвращает не больше limit транзакций с наибольшими суммами, удовлетворяющих фильтрам.
+     * Если задан период, обходятся только строки его дней из индекса дат, иначе — все строки.
+     * Фильтры проверяются по колонкам, объекты Transaction создаются только для результата.
+     *
+     * @param limit      наибольшее количество транзакций; не меньше нуля.
+     * @param start      начальная дата периода (включительно); null — без ограничения.
+     * @param end        конечная дата периода (включительно); null — без ограничения.
+     * @param income     true — только доходы, false — только расходы, null — все транзакции.
+     * @param categoryId номер категории, CategoryDictionary.NO_CATEGORY или CategoryDictionary.ANY — любая категория.
+     * @return список транзакций по убыванию сумм.
+     * @throws IllegalArgumentException если limit отрицателен.
+     */
+    @Override
+    public List<Transaction> largest(int limit, LocalDate start, LocalDate end, Boolean income, int categoryId) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        TopRows top = new TopRows(limit);
+        if (start != null && end != null) {
+            for (DateIndex.Bucket bucket : dateIndex.range((int) start.toEpochDay(), (int) end.toEpochDay())) {
+                for (int i = 0; i < bucket.size; i++) {
+                    offerIfMatches(top, bucket.rows[i], income, categoryId);
+                }
+            }
+        } else {
+            int from = start == null ? Integer.MIN_VALUE : (int) start.toEpochDay();
+            int to = end == null ? Integer.MAX_VALUE : (int) end.toEpochDay();
+            for (int row = 0; row < size; row++) {
+                if (epochDays[row] >= from && epochDays[row] <= to) {
+                    offerIfMatches(top, row, income, categoryId);
+                }
+            }
+        }
+        int[] rows = top.drainDescending();
+        List<Transaction> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(materialize(row));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает не больше limit транзакций, удовлетворяющих фильтрам, в порядке даты и идентификатора,
+     * начиная с дня fromDay. Дни обходятся по индексу дат начиная с fromDay, строки дня сортируются
+     * по идентификатору, обход останавливается, как только набрано limit транзакций, поэтому стоимость
+     * страницы не зависит от того, сколько транзакций было до неё.
+     *
+     * @param fromDay    номер дня от эпохи, с которого начинается выборка.
+     * @param afterId    идентификатор последней показанной транзакции дня fromDay; null — день fromDay целиком.
+     * @param limit      наибольшее количество транзакций; больше нуля.
+     * @param start      начальная дата периода (включительно); null — без ограничения.
+     * @param end        конечная дата периода (включительно); null — без ограничения.
+     * @param income     true — только доходы, false — только расходы, null — все транзакции.
+     * @param categoryId номер категории, CategoryDictionary.NO_CATEGORY или CategoryDictionary.ANY — любая категория.
+     * @return список транзакций в порядке даты и идентификатора.
+     * @throws IllegalArgumentException если limit не положителен.
+     */
+    @Override
+    public List<Transaction> page(int fromDay, String afterId, int limit, LocalDate start, LocalDate end,
+                                  Boolean income, int categoryId) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        int from = start == null ? fromDay : Math.max(fromDay, (int) start.toEpochDay());
+        int to = end == null ? Integer.MAX_VALUE : (int) end.toEpochDay();
+        List<Transaction> result = new ArrayList<>(Math.min(limit, 64));
+        int[] dayRows = new int[INITIAL_CAPACITY];
+        for (DateIndex.Bucket bucket : dateIndex.range(from, to)) {
+            int count = 0;
+            for (int i = 0; i < bucket.size; i++) {
+                int row = bucket.rows[i];
+                if ((income == null || isIncome(row) == income)
+                        && (categoryId == CategoryDictionary.ANY || categoryIds[row] == categoryId)
+                        && (epochDays[row] != fromDay || afterId == null || ids[row].compareTo(afterId) > 0)) {
+                    if (count == dayRows.length) {
+                        dayRows = Arrays.copyOf(dayRows, count * 2);
+                    }
+                    dayRows[count++] = row;
+                }
+            }
+            sortById(dayRows, count);
+            for (int i = 0; i < count && result.size() < limit; i++) {
+                result.add(materialize(dayRows[i]));
+            }
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Сортирует первые count строк по идентификатору вставками с двоичным поиском места.
+     * Строк одного дня немного, поэтому сдвиги System.arraycopy дешевле сортировки упакованных номеров.
+     */
+    private void sortById(int[] rows, int count) {
+        for (int i = 1; i < count; i++) {
+            int row = rows[i];
+            int low = 0;
+            int high = i;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ids[rows[middle]].compareTo(ids[row]) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            System.arraycopy(rows, low, rows, low + 1, i - low);
+            rows[low] = row;
+        }
+    }
+
+    private void offerIfMatches(TopRows top, int row, Boolean income, int categoryId) {
+        if ((income == null || isIncome(row) == income)
+                && (categoryId == CategoryDictionary.ANY || categoryIds[row] == categoryId)) {
+            top.offer(row, amounts[row]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return rowById.containsKey(key);
+    }
+
+    @Override
+    public Transaction get(Object key) {
+        Integer row = rowById.get(key);
+        return row == null ? null : materialize(row);
+    }
+
+    @Override
+    public Transaction put(String key, Transaction transaction) {
+        if (transaction != null && !transaction.getId().equals(key)) {
+            throw new IllegalArgumentException("Key must match transaction id");
+        }
+        Transaction previous = get(key);
+        add(transaction);
+        return previous;
+    }
+
+    @Override
+    public Transaction remove(Object key) {
+        Integer row = rowById.remove(key);
+        if (row == null) {
+            return null;
+        }
+        Transaction previous = materialize(row);
+        removeRow(row);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(ids, 0, size, null);
+        Arrays.fill(descriptions, 0, size, null);
+        Arrays.fill(incomeBits, 0L);
+        totalIncome = 0;
+        totalExpense = 0;
+        rollup.clear();
+        if (incomeByDay != null) {
+            incomeByDay = new DayPrefixSums();
+            expenseByDay = new DayPrefixSums();
+        }
+        rowById.clear();
+        dateIndex.clear();
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<String, Transaction>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private boolean isIncome(int row) {
+        return (incomeBits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private void setIncome(int row, boolean income) {
+        if (income) {
+            incomeBits[row >>> 6] |= 1L << row;
+        } else {
+            incomeBits[row >>> 6] &= ~(1L << row);
+        }
+    }
+
+    private void validate(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null");
+        }
+        if (transaction.getDate() == null) {
+            throw new IllegalArgumentException("Transaction date cannot be null");
+        }
+    }
+
+    /**
+     * Записывает поля транзакции в строку и учитывает её в суммах и помесячных агрегатах.
+     */
+    private void writeRow(int row, Transaction transaction) {
+        writeRow(row, (int) transaction.getDate().toEpochDay(), transaction.getAmount(),
+                transaction.getCategoryId(), transaction.getDescription(), transaction.isIncome());
+    }
+
+    private void writeRow(int row, int epochDay, long amount, int categoryId, String description, boolean income) {
+        epochDays[row] = epochDay;
+        amounts[row] = amount;
+        categoryIds[row] = categoryId;
+        descriptions[row] = description;
+        setIncome(row, income);
+        tally(row);
+    }
+
+    /**
+     * Перезаписывает существующую строку. Прежнее содержимое исключается из сумм и агрегатов,
+     * а при изменении даты строка переносится в корзину нового дня индекса дат.
+     */
+    private void rewriteRow(int row, Transaction transaction) {
+        untally(row);
+        int day = (int) transaction.getDate().toEpochDay();
+        if (day != epochDays[row]) {
+            dateIndex.remove(epochDays[row], row);
+            dateIndex.add(day, row);
+        }
+        writeRow(row, transaction);
+    }
+
+    private void tally(int row) {
+        rollup.add(epochDays[row], categoryIds[row], amounts[row], isIncome(row));
+        if (incomeByDay != null) {
+            (isIncome(row) ? incomeByDay : expenseByDay).add(epochDays[row], amounts[row]);
+        }
+        if (isIncome(row)) {
+            totalIncome += amounts[row];
+        } else {
+            totalExpense += amounts[row];
+        }
+    }
+
+    private void untally(int row) {
+        rollup.remove(epochDays[row], categoryIds[row], amounts[row], isIncome(row));
+        if (incomeByDay != null) {
+            (isIncome(row) ? incomeByDay : expenseByDay).add(epochDays[row], -amounts[row]);
+        }
+        if (isIncome(row)) {
+            totalIncome -= amounts[row];
+        } else {
+            totalExpense -= amounts[row];
+        }
+    }
+
+    private Transaction materialize(int row) {
+        return new Transaction(ids[row], amounts[row], categoryIds[row],
+                LocalDate.ofEpochDay(epochDays[row]), descriptions[row], isIncome(row));
+    }
+
+    private void removeRow(int row) {
+        int last = size - 1;
+        untally(row);
+        dateIndex.remove(epochDays[row], row);
+        if (row != last) {
+            dateIndex.move(epochDays[last], last, row);
+            ids[row] = ids[last];
+            epochDays[row] = epochDays[last];
+            amounts[row] = amounts[last];
+            categoryIds[row] = categoryIds[last];
+            descriptions[row] = descriptions[last];
+            setIncome(row, isIncome(last));
+            rowById.put(ids[row], row);
+        }
+        ids[last] = null;
+        descriptions[last] = null;
+        setIncome(last, false);
+        size--;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        epochDays = Arrays.copyOf(epochDays, newCapacity);
+        amounts = Arrays.copyOf(amounts, newCapacity);
+        categoryIds = Arrays.copyOf(categoryIds, newCapacity);
+        descriptions = Arrays.copyOf(descriptions, newCapacity);
+        incomeBits = Arrays.copyOf(incomeBits, wordsFor(newCapacity));
+    }
+
+    /**
+     * Возвращает первый день первого месяца, целиком входящего в период, начинающийся с start.
+     */
+    private static LocalDate firstWholeMonthDay(LocalDate start) {
+        return start.getDayOfMonth() == 1 ? start : start.withDayOfMonth(1).plusMonths(1);
+    }
+
+    /**
+     * Возвращает последний день последнего месяца, целиком входящего в период, заканчивающийся в end.
+     */
+    private static LocalDate lastWholeMonthDay(LocalDate end) {
+        return end.getDayOfMonth() == end.lengthOfMonth() ? end : end.withDayOfMonth(1).minusDays(1);
+    }
+
+    private static int wordsFor(int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+
+    /**
+     * Представление строк хранилища в виде множества записей Map.
+     */
+    private class EntrySet extends AbstractSet<Entry<String, Transaction>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Entry<String, Transaction>> iterator() {
+            return new Iterator<>() {
+                private int next;
+                private int current = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Entry<String, Transaction> next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    current = next++;
+                    return new SimpleImmutableEntry<>(ids[current], materialize(current));
+                }
+
+                @Override
+                public void remove() {
+                    if (current < 0) {
+                        throw new IllegalStateException();
+                    }
+                    rowById.remove(ids[current]);
+                    removeRow(current);
+                    // На место удалённой строки перенесена последняя — её нужно обойти
+                    next = current;
+                    current = -1;
+                }
+            };
+        }
+    }
+}
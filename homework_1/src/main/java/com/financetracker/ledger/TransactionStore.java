@@ -0,0 +1,91 @@
+package com.financetracker.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Движок хранения транзакций: создаёт хранилище Ledger для каждого пользователя.
+ * <p>
+ * Все операции с транзакциями идут через Ledger: обход (forEachRow), выборка за период
+ * (forEachInPeriod, sumOfPeriod), поиск по идентификатору (get) и добавление (add, addAll).
+ * Движок задаёт только, где лежат данные. Он выбирается при создании UserRepository,
+ * в приложении — в FinanceTrackerApp.main.
+ * <p>
+ * Движки: heap() — колоночное хранилище TransactionLedger в куче, offHeap() — OffHeapLedger
+ * вне кучи, FileTransactionStore — FileLedger в файлах с кешем страниц для данных больше памяти.
+ */
+public interface TransactionStore extends Closeable {
+    /**
+     * Создаёт пустое хранилище транзакций.
+     *
+     * @return новое хранилище.
+     * @throws java.io.UncheckedIOException если хранилище не удалось создать.
+     */
+    Ledger open();
+
+    /**
+     * Проверяет, можно ли оставить пользователю это хранилище без переноса транзакций.
+     *
+     * @param ledger текущее хранилище пользователя.
+     * @return true, если хранилище подходит движку.
+     */
+    boolean accepts(Ledger ledger);
+
+    /**
+     * Освобождает хранилище, которое больше не нужно: например, хранилище удалённого пользователя.
+     * Реализация по умолчанию ничего не делает, память хранилища освобождается сборщиком мусора.
+     * Хранилище после освобождения использовать нельзя.
+     *
+     * @param ledger хранилище, созданное этим движком; хранилища других движков не затрагиваются.
+     */
+    default void release(Ledger ledger) {
+    }
+
+    /**
+     * Освобождает ресурсы движка. Хранилища, созданные движком, после этого недоступны.
+     *
+     * @throws IOException если ресурсы не удалось освободить.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * Возвращает движок с хранилищами TransactionLedger в куче. Движок оставляет пользователю
+     * любое хранилище, заданное при его создании.
+     *
+     * @return движок хранения в куче.
+     */
+    static TransactionStore heap() {
+        return new TransactionStore() {
+            @Override
+            public Ledger open() {
+                return new TransactionLedger();
+            }
+
+            @Override
+            public boolean accepts(Ledger ledger) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Возвращает движок с хранилищами OffHeapLedger вне кучи.
+     *
+     * @return движок хранения вне кучи.
+     */
+    static TransactionStore offHeap() {
+        return new TransactionStore() {
+            @Override
+            public Ledger open() {
+                return new OffHeapLedger();
+            }
+
+            @Override
+            public boolean accepts(Ledger ledger) {
+                return ledger instanceof OffHeapLedger;
+            }
+        };
+    }
+}
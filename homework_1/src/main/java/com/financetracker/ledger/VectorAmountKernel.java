@@ -0,0 +1,66 @@
+package com.financetracker.ledger;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Векторная реализация AmountKernel на Vector API (jdk.incubator.vector).
+ * <p>
+ * Суммы обрабатываются блоками по LONGS.length() строк: маска типа берётся прямо из битовой
+ * маски доходов, маска диапазона — из сравнения дней, а суммирование выполняется
+ * маскированным сложением векторов. Хвост, не кратный длине вектора, досчитывается скалярно.
+ * Загружается только после проверки в AmountKernels, что модуль доступен.
+ */
+final class VectorAmountKernel implements AmountKernel {
+    static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Вид векторов int с тем же количеством элементов, что и LONGS.
+     */
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    private static final long LANE_MASK = (1L << LONGS.length()) - 1;
+
+    @Override
+    public long sum(long[] amounts, long[] incomeBits, int size, boolean income) {
+        int lanes = LONGS.length();
+        int bound = LONGS.loopBound(size);
+        LongVector acc = LongVector.zero(LONGS);
+        for (int row = 0; row < bound; row += lanes) {
+            acc = acc.add(LongVector.fromArray(LONGS, amounts, row), typeMask(incomeBits, row, income));
+        }
+        return acc.reduceLanes(VectorOperators.ADD) + ScalarAmountKernel.sum(amounts, incomeBits, bound, size, income);
+    }
+
+    @Override
+    public long sumInRange(long[] amounts, int[] epochDays, long[] incomeBits, int size,
+                           boolean income, int fromDay, int toDay) {
+        int lanes = LONGS.length();
+        int bound = LONGS.loopBound(size);
+        LongVector acc = LongVector.zero(LONGS);
+        for (int row = 0; row < bound; row += lanes) {
+            LongVector days = (LongVector) IntVector.fromArray(INTS, epochDays, row)
+                    .convertShape(VectorOperators.I2L, LONGS, 0);
+            VectorMask<Long> mask = typeMask(incomeBits, row, income)
+                    .and(days.compare(VectorOperators.GE, fromDay))
+                    .and(days.compare(VectorOperators.LE, toDay));
+            acc = acc.add(LongVector.fromArray(LONGS, amounts, row), mask);
+        }
+        return acc.reduceLanes(VectorOperators.ADD)
+                + ScalarAmountKernel.sumInRange(amounts, epochDays, incomeBits, bound, size, income, fromDay, toDay);
+    }
+
+    /**
+     * Возвращает маску строк нужного типа для блока, начинающегося с row.
+     * Длина вектора делит 64, поэтому блок не пересекает границу слова битовой маски.
+     */
+    private static VectorMask<Long> typeMask(long[] incomeBits, int row, boolean income) {
+        long bits = incomeBits[row >>> 6] >>> (row & 63);
+        return VectorMask.fromLong(LONGS, (income ? bits : ~bits) & LANE_MASK);
+    }
+}
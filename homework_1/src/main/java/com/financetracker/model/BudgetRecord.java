@@ -4,16 +4,16 @@ package com.financetracker.model;
  */
 public class BudgetRecord {
     private String month;
-    private double budget;
-    private double express;
+    private long budget;
+    private long express;
 
     /**
      * Создаёт новую запись о бюджете.
      *
      * @param month  Месяц и год в формате "yyyy-MM".
-     * @param budget Установленный бюджет.
+     * @param budget Установленный бюджет в копейках.
      */
-    public BudgetRecord(String month, double budget) {
+    public BudgetRecord(String month, long budget) {
         this.month = month;
         this.budget = budget;
         this.express = 0;
@@ -22,19 +22,19 @@ public class BudgetRecord {
 
     /**
      * Добавляет расходы
-     * @param express - новый расход
+     * @param express - новый расход в копейках
      */
 
-    public void addExpress(double express) {
+    public void addExpress(long express) {
         this.express += express;
     }
 
     /**
      * Возвращает расходы за установленный месяц.
      *
-     * @return Расходы.
+     * @return Расходы в копейках.
      */
-    public double getExpress() {
+    public long getExpress() {
         return express;
     }
 
@@ -50,9 +50,9 @@ public class BudgetRecord {
     /**
      * Возвращает установленный бюджет.
      *
-     * @return Бюджет.
+     * @return Бюджет в копейках.
      */
-    public double getBudget() {
+    public long getBudget() {
         return budget;
     }
 }
@@ -0,0 +1,128 @@
+package com.financetracker.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Общий словарь категорий транзакций.
+ * Каждому названию категории сопоставляется небольшой целочисленный номер,
+ * поэтому транзакции хранят номер категории вместо строки, а группировка
+ * по категориям выполняется по индексу массива.
+ * <p>
+ * Номера выдаются подряд начиная с нуля и никогда не переиспользуются.
+ * Чтение названия по номеру выполняется без блокировок.
+ */
+public final class CategoryDictionary {
+    /**
+     * Номер, обозначающий отсутствие категории (null).
+     */
+    public static final int NO_CATEGORY = -1;
+
+    /**
+     * Номер, возвращаемый при поиске категории, которой нет в словаре.
+     */
+    public static final int UNKNOWN = -2;
+
+    /**
+     * Номер, обозначающий в запросах любую категорию, в том числе отсутствие категории.
+     */
+    public static final int ANY = -3;
+
+    private static final CategoryDictionary INSTANCE = new CategoryDictionary();
+
+    /**
+     * Карта для поиска номера категории по названию.
+     * Ключ: название категории (String).
+     * Значение: номер категории (Integer).
+     */
+    private final Map<String, Integer> idByName = new ConcurrentHashMap<>();
+
+    private volatile String[] names = new String[16];
+    private volatile int size;
+
+    private CategoryDictionary() {
+    }
+
+    /**
+     * Возвращает общий словарь категорий приложения.
+     *
+     * @return экземпляр CategoryDictionary.
+     */
+    public static CategoryDictionary getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Возвращает номер категории, добавляя её в словарь при первом обращении.
+     *
+     * @param name название категории.
+     * @return номер категории; NO_CATEGORY, если name равно null.
+     */
+    public int idOf(String name) {
+        if (name == null) {
+            return NO_CATEGORY;
+        }
+        Integer id = idByName.get(name);
+        return id != null ? id : register(name);
+    }
+
+    /**
+     * Возвращает номер категории, не добавляя её в словарь.
+     *
+     * @param name название категории.
+     * @return номер категории; NO_CATEGORY, если name равно null; UNKNOWN, если категории нет в словаре.
+     */
+    public int find(String name) {
+        if (name == null) {
+            return NO_CATEGORY;
+        }
+        Integer id = idByName.get(name);
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Возвращает название категории по её номеру.
+     *
+     * @param id номер категории.
+     * @return название категории; null, если id равен NO_CATEGORY.
+     * @throws IllegalArgumentException если категории с таким номером нет.
+     */
+    public String nameOf(int id) {
+        if (id == NO_CATEGORY) {
+            return null;
+        }
+        String[] current = names;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            throw new IllegalArgumentException("Unknown category id " + id);
+        }
+        return current[id];
+    }
+
+    /**
+     * Возвращает количество категорий в словаре.
+     * Все выданные номера меньше этого значения.
+     *
+     * @return количество категорий.
+     */
+    public int size() {
+        return size;
+    }
+
+    private synchronized int register(String name) {
+        Integer existing = idByName.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        String[] current = names;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, id * 2);
+        }
+        current[id] = name;
+        names = current;
+        size = id + 1;
+        idByName.put(name, id);
+        return id;
+    }
+}
@@ -5,15 +5,15 @@ package com.financetracker.model;
  */
 public class Goal {
     private String goalName;
-    private double targetAmount;
-    private double currentAmount;
+    private long targetAmount;
+    private long currentAmount;
 
     /**
      * Создаёт новую финансовую цель.
      * @param goalName         Название цели.
-     * @param targetAmount Целевая сумма.
+     * @param targetAmount Целевая сумма в копейках.
      */
-    public Goal(double targetAmount, String goalName) {
+    public Goal(long targetAmount, String goalName) {
         this.targetAmount = targetAmount;
         this.goalName = goalName;
         this.currentAmount = 0;
@@ -31,37 +31,40 @@ public class Goal {
     /**
      * Возвращает целевую сумму.
      *
-     * @return Целевая сумма.
+     * @return Целевая сумма в копейках.
      */
-    public double getTargetAmount() {
+    public long getTargetAmount() {
         return targetAmount;
     }
 
     /**
      * Возвращает текущую сумму.
      *
-     * @return Текущая сумма.
+     * @return Текущая сумма в копейках.
      */
-    public double getCurrentAmount() {
+    public long getCurrentAmount() {
         return currentAmount;
     }
 
     /**
      * Добавляет сумму к текущему прогрессу.
      *
-     * @param amount Сумма для добавления.
+     * @param amount Сумма для добавления в копейках.
      */
-    public void addCurrentAmount(double amount) {
+    public void addCurrentAmount(long amount) {
         this.currentAmount += amount;
     }
 
     /**
      * Возвращает прогресс в процентах.
      *
-     * @return Прогресс в процентах.
+     * @return Прогресс в процентах; 0, если целевая сумма равна нулю.
      */
     public int getProgress() {
-        return (int) (currentAmount * 100/targetAmount) ;
+        if (targetAmount == 0) {
+            return 0;
+        }
+        return (int) (currentAmount * 100 / targetAmount);
     }
 
 }
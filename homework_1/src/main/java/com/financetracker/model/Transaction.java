@@ -1,15 +1,20 @@
 package com.financetracker.model;
 
+import com.financetracker.utils.Ids;
+
 import java.time.LocalDate;
-import java.util.UUID;
+import java.util.Objects;
 
 /**
  * Класс, представляющий финансовую транзакцию (доход или расход).
  */
 public class Transaction {
     private String id;
-    private double amount;
-    private String category;
+    private long amount;
+    /**
+     * Номер категории в общем словаре CategoryDictionary.
+     */
+    private int categoryId;
     private LocalDate date;
     private String description;
     private boolean isIncome;
@@ -17,17 +22,49 @@ public class Transaction {
     /**
      * Создаёт новую транзакцию.
      *
-     * @param amount      Сумма транзакции.
+     * @param amount      Сумма транзакции в копейках.
+     * @param category    Категория транзакции.
+     * @param date        Дата транзакции.
+     * @param description Описание транзакции.
+     * @param isIncome    Тип транзакции (true — доход, false — расход).
+     */
+    public Transaction(long amount, String category, LocalDate date,
+                       String description, boolean isIncome) {
+        this(Ids.next(), amount, category, date, description, isIncome);
+    }
+
+    /**
+     * Создаёт транзакцию с заданным идентификатором.
+     * Используется хранилищами при восстановлении транзакции из сохранённых данных.
+     *
+     * @param id          Идентификатор транзакции.
+     * @param amount      Сумма транзакции в копейках.
      * @param category    Категория транзакции.
      * @param date        Дата транзакции.
      * @param description Описание транзакции.
      * @param isIncome    Тип транзакции (true — доход, false — расход).
      */
-    public Transaction(double amount, String category, LocalDate date,
+    public Transaction(String id, long amount, String category, LocalDate date,
+                       String description, boolean isIncome) {
+        this(id, amount, CategoryDictionary.getInstance().idOf(category), date, description, isIncome);
+    }
+
+    /**
+     * Создаёт транзакцию с заданным идентификатором и номером категории из CategoryDictionary.
+     * Используется хранилищами, которые держат категории в виде номеров.
+     *
+     * @param id          Идентификатор транзакции.
+     * @param amount      Сумма транзакции в копейках.
+     * @param categoryId  Номер категории или CategoryDictionary.NO_CATEGORY.
+     * @param date        Дата транзакции.
+     * @param description Описание транзакции.
+     * @param isIncome    Тип транзакции (true — доход, false — расход).
+     */
+    public Transaction(String id, long amount, int categoryId, LocalDate date,
                        String description, boolean isIncome) {
-        this.id = UUID.randomUUID().toString().substring(0,8);
+        this.id = id;
         this.amount = amount;
-        this.category = category;
+        this.categoryId = categoryId;
         this.date = date;
         this.description = description;
         this.isIncome = isIncome;
@@ -45,9 +82,9 @@ public class Transaction {
     /**
      * Возвращает сумму транзакции.
      *
-     * @return Сумма.
+     * @return Сумма в копейках.
      */
-    public double getAmount() {
+    public long getAmount() {
         return amount;
     }
 
@@ -57,7 +94,16 @@ public class Transaction {
      * @return Категория.
      */
     public String getCategory() {
-        return category;
+        return CategoryDictionary.getInstance().nameOf(categoryId);
+    }
+
+    /**
+     * Возвращает номер категории транзакции в общем словаре CategoryDictionary.
+     *
+     * @return Номер категории или CategoryDictionary.NO_CATEGORY.
+     */
+    public int getCategoryId() {
+        return categoryId;
     }
 
     /**
@@ -90,10 +136,10 @@ public class Transaction {
     /**
      * Устанавливает сумму транзакции.
      *
-     * @param amount сумма транзакции. Должна быть положительным числом.
+     * @param amount сумма транзакции в копейках. Должна быть положительным числом.
      * @throws IllegalArgumentException если передано отрицательное значение.
      */
-    public void setAmount(double amount) {
+    public void setAmount(long amount) {
         if (amount < 0) {
             throw new IllegalArgumentException("Amount cannot be negative");
         }
@@ -110,7 +156,7 @@ public class Transaction {
         if (category == null || category.trim().isEmpty()) {
             throw new IllegalArgumentException("Category cannot be null or empty");
         }
-        this.category = category;
+        this.categoryId = CategoryDictionary.getInstance().idOf(category);
     }
 
     /**
@@ -121,4 +167,26 @@ public class Transaction {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    /**
+     * Сравнивает транзакции по идентификатору.
+     *
+     * @param o объект для сравнения.
+     * @return true, если у транзакций совпадают идентификаторы.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Transaction)) {
+            return false;
+        }
+        return Objects.equals(id, ((Transaction) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
 }
@@ -1,18 +1,23 @@
 package com.financetracker.model;
 
+import com.financetracker.ledger.Ledger;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.utils.Ids;
+
 import java.util.*;
 
 /**
  * Класс, представляющий пользователя приложения.
  */
 public class User {
-    private String id;
+    private final String id;
     private String email;
     private String password;
     private String name;
     private String role; // admin or user
     private String status; // active or banned
-    private HashMap<String,Transaction> transactions;
+    private Ledger transactions;
 
     /**
      * Создаёт нового пользователя.
@@ -24,13 +29,53 @@ public class User {
      * @param role Роль пользователя (admin/user)
      */
     public User(String email, String password, String name, String role) {
-        this.id = UUID.randomUUID().toString().substring(0,8);
+        this(Ids.next(), email, password, name, role, "active", new TransactionLedger());
+    }
+
+    /**
+     * Создаёт нового пользователя с заданным хранилищем транзакций.
+     *
+     * @param email Email пользователя.
+     * @param password Пароль пользователя
+     * @param name  Имя пользователя.
+     * @param role Роль пользователя (admin/user)
+     * @param transactions хранилище транзакций, например OffHeapLedger.
+     */
+    public User(String email, String password, String name, String role, Ledger transactions) {
+        this(Ids.next(), email, password, name, role, "active", requireLedger(transactions));
+    }
+
+    /**
+     * Создаёт пользователя с заданным идентификатором и статусом.
+     * Используется при восстановлении пользователя из сохранённых данных.
+     *
+     * @param id идентификатор пользователя.
+     * @param email Email пользователя.
+     * @param password Пароль пользователя
+     * @param name  Имя пользователя.
+     * @param role Роль пользователя (admin/user)
+     * @param status Статус пользователя (active/banned)
+     */
+    public User(String id, String email, String password, String name, String role, String status) {
+        this(id, email, password, name, role, status, new TransactionLedger());
+    }
+
+    private User(String id, String email, String password, String name, String role, String status,
+                 Ledger transactions) {
+        this.id = id;
         this.email = email;
         this.password = password;
         this.name = name;
         this.role = role;
-        this.status = "active";
-        this.transactions = new HashMap<>();
+        this.status = status;
+        this.transactions = transactions;
+    }
+
+    private static Ledger requireLedger(Ledger transactions) {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Transactions ledger cannot be null");
+        }
+        return transactions;
     }
 
     /**
@@ -83,12 +128,29 @@ public class User {
      * Возвращает все транзакции пользователя.
      *
      * @return Map<String, Transaction>, где ключом является идентификатор транзакции,
-     * а значением — объект Transaction.
+     * а значением — объект Transaction. Транзакции хранятся в колоночном хранилище
+     * Ledger, поэтому изменения полученных объектов нужно сохранять через updateTransaction.
      */
     public Map<String,Transaction> getTransactions() {
         return transactions;
     }
 
+    /**
+     * Переносит транзакции пользователя в другое хранилище и дальше хранит их там.
+     *
+     * @param ledger новое хранилище транзакций. Не может быть null.
+     * @throws IllegalArgumentException если ledger равен null.
+     */
+    public void moveTransactions(Ledger ledger) {
+        if (ledger == null) {
+            throw new IllegalArgumentException("Transactions ledger cannot be null");
+        }
+        for (Transaction transaction : transactions.values()) {
+            ledger.add(transaction);
+        }
+        transactions = ledger;
+    }
+
     /**
      * Устанавливает адрес электронной почты пользователя.
      *
@@ -138,7 +200,30 @@ public class User {
         if (transaction == null) {
             throw new IllegalArgumentException("Transaction cannot be null");
         }
-        transactions.put(transaction.getId(), transaction);
+        transactions.add(transaction);
+    }
+
+    /**
+     * Добавляет пачку транзакций в хранилище транзакций пользователя.
+     *
+     * @param batch пачка транзакций. Не может быть null.
+     * @throws IllegalArgumentException если batch равен null.
+     */
+    public void addTransactions(TransactionBatch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        transactions.addAll(batch);
+    }
+
+    /**
+     * Сохраняет изменения транзакции, полученной через getTransaction.
+     *
+     * @param transaction изменённый объект Transaction. Не может быть null.
+     * @throws IllegalArgumentException если transaction равен null.
+     */
+    public void updateTransaction(Transaction transaction) {
+        transactions.update(transaction);
     }
 
     /**
@@ -148,7 +233,7 @@ public class User {
      * @throws IllegalArgumentException если transaction равен null.
      */
     public void removeTransaction(String id) {
-        transactions.remove(id);
+        transactions.delete(id);
     }
 
     /**
@@ -0,0 +1,13 @@
+package com.financetracker.report;
+
+import com.financetracker.utils.Money;
+
+/**
+ * Раздел отчёта с текущим балансом пользователя.
+ */
+public class BalanceSection implements ReportSection {
+    @Override
+    public void appendTo(StringBuilder report, ReportContext context) {
+        report.append(String.format("Текущий баланс: %.2f \n", Money.toDecimal(context.getBalance())));
+    }
+}
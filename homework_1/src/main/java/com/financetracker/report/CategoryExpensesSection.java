@@ -0,0 +1,15 @@
+package com.financetracker.report;
+
+import com.financetracker.utils.Money;
+
+/**
+ * Раздел отчёта с расходами за период по категориям.
+ */
+public class CategoryExpensesSection implements ReportSection {
+    @Override
+    public void appendTo(StringBuilder report, ReportContext context) {
+        report.append("Расходы по категориям:\n");
+        context.getSummary().getExpensesByCategory().forEach((category, amount) ->
+                report.append(String.format("- %s: %.2f \n", category, Money.toDecimal(amount))));
+    }
+}
@@ -0,0 +1,14 @@
+package com.financetracker.report;
+
+import com.financetracker.utils.Money;
+
+/**
+ * Раздел отчёта с суммами доходов и расходов за период.
+ */
+public class PeriodTotalsSection implements ReportSection {
+    @Override
+    public void appendTo(StringBuilder report, ReportContext context) {
+        report.append(String.format("Доход за период: %.2f \n", Money.toDecimal(context.getSummary().getIncome())));
+        report.append(String.format("Расход за период: %.2f \n", Money.toDecimal(context.getSummary().getExpense())));
+    }
+}
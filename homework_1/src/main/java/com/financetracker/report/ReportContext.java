@@ -0,0 +1,69 @@
+package com.financetracker.report;
+
+import com.financetracker.ledger.PeriodSummary;
+
+import java.time.LocalDate;
+
+/**
+ * Общие итоги, доступные всем разделам отчёта: текущий баланс и итоги за период.
+ * Принадлежит ReportEngine и переиспользуется от отчёта к отчёту.
+ */
+public class ReportContext {
+    private LocalDate start;
+    private LocalDate end;
+    private final PeriodSummary summary = new PeriodSummary();
+    private long balance;
+
+    ReportContext() {
+    }
+
+    /**
+     * Подготавливает контекст к отчёту за новый период, обнуляя итоги.
+     */
+    void begin(LocalDate start, LocalDate end) {
+        this.start = start;
+        this.end = end;
+        this.balance = 0;
+        summary.reset();
+    }
+
+    /**
+     * Возвращает начальную дату периода.
+     *
+     * @return дата начала периода.
+     */
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * Возвращает конечную дату периода.
+     *
+     * @return дата окончания периода.
+     */
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    /**
+     * Возвращает текущий баланс пользователя.
+     *
+     * @return баланс в копейках.
+     */
+    public long getBalance() {
+        return balance;
+    }
+
+    /**
+     * Возвращает итоги за период: доходы, расходы и расходы по категориям.
+     *
+     * @return итоги периода.
+     */
+    public PeriodSummary getSummary() {
+        return summary;
+    }
+
+    void setBalance(long balance) {
+        this.balance = balance;
+    }
+}
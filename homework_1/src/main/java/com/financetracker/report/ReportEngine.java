@@ -0,0 +1,119 @@
+package com.financetracker.report;
+
+import com.financetracker.ledger.ParallelAggregator;
+import com.financetracker.ledger.RowVisitor;
+import com.financetracker.ledger.Ledger;
+import com.financetracker.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Формирует финансовый отчёт за один проход по транзакциям пользователя.
+ * <p>
+ * Баланс и итоги периода (доходы, расходы, расходы по категориям) накапливаются
+ * в переиспользуемом ReportContext, после чего каждый раздел дописывает свой текст.
+ * Для колоночного хранилища баланс берётся из поддерживаемых счётчиков, а итоги периода —
+ * из помесячных агрегатов и индекса дат; обход строк периода выполняется только тогда,
+ * когда он нужен хотя бы одному разделу, и только один раз для всех разделов.
+ * Для прочих коллекций все транзакции обходятся ровно один раз; если разделам не нужны
+ * отдельные строки, а транзакций больше порога ParallelAggregator, проход выполняется параллельно,
+ * в том числе для Ledger без индекса дат (ParallelAggregator.isParallel).
+ * <p>
+ * Новые разделы добавляются через конструктор и не требуют дополнительных проходов.
+ * Движок хранит состояние между вызовами, поэтому generate синхронизирован.
+ */
+public class ReportEngine {
+    private final ReportSection[] sections;
+    private final ReportSection[] rowSections;
+    private final ParallelAggregator aggregator;
+    private final ReportContext context = new ReportContext();
+    private final RowVisitor periodVisitor = this::visitPeriodRow;
+
+    /**
+     * Создаёт движок со стандартными разделами: баланс, доходы и расходы за период,
+     * расходы по категориям.
+     */
+    public ReportEngine() {
+        this(List.of(new BalanceSection(), new PeriodTotalsSection(), new CategoryExpensesSection()));
+    }
+
+    /**
+     * Создаёт движок с заданными разделами.
+     *
+     * @param sections разделы отчёта в порядке вывода.
+     */
+    public ReportEngine(List<ReportSection> sections) {
+        this(sections, ParallelAggregator.getDefault());
+    }
+
+    /**
+     * Создаёт движок с заданными разделами и агрегатором для больших наборов транзакций.
+     *
+     * @param sections   разделы отчёта в порядке вывода.
+     * @param aggregator агрегатор, используемый для параллельного прохода.
+     */
+    public ReportEngine(List<ReportSection> sections, ParallelAggregator aggregator) {
+        this.aggregator = aggregator;
+        this.sections = sections.toArray(new ReportSection[0]);
+        this.rowSections = Arrays.stream(this.sections)
+                .filter(ReportSection::needsRows)
+                .toArray(ReportSection[]::new);
+    }
+
+    /**
+     * Формирует отчёт по транзакциям за период.
+     *
+     * @param transactions транзакции пользователя.
+     * @param start        начальная дата периода.
+     * @param end          конечная дата периода.
+     * @return строка, содержащая финансовый отчёт.
+     */
+    public synchronized String generate(Map<String, Transaction> transactions, LocalDate start, LocalDate end) {
+        context.begin(start, end);
+        for (ReportSection section : sections) {
+            section.reset();
+        }
+
+        if (rowSections.length == 0 && aggregator.isParallel(transactions)) {
+            ParallelAggregator.Result result = aggregator.aggregate(transactions, start, end);
+            context.setBalance(result.getBalance());
+            context.getSummary().merge(result.getSummary());
+        } else if (transactions instanceof Ledger ledger) {
+            context.setBalance(ledger.balance());
+            if (rowSections.length > 0) {
+                ledger.forEachInPeriod(start, end, periodVisitor);
+            } else {
+                ledger.summarize(start, end, context.getSummary());
+            }
+        } else {
+            int from = (int) start.toEpochDay();
+            int to = (int) end.toEpochDay();
+            long balance = 0;
+            for (Transaction transaction : transactions.values()) {
+                balance += transaction.isIncome() ? transaction.getAmount() : -transaction.getAmount();
+                int day = (int) transaction.getDate().toEpochDay();
+                if (day >= from && day <= to) {
+                    visitPeriodRow(day, transaction.getAmount(), transaction.getCategoryId(), transaction.isIncome());
+                }
+            }
+            context.setBalance(balance);
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append("=== Финансовый отчёт ===\n");
+        for (ReportSection section : sections) {
+            section.appendTo(report, context);
+        }
+        return report.toString();
+    }
+
+    private void visitPeriodRow(int epochDay, long amount, int categoryId, boolean income) {
+        context.getSummary().add(categoryId, amount, income);
+        for (ReportSection section : rowSections) {
+            section.visit(epochDay, amount, categoryId, income);
+        }
+    }
+}
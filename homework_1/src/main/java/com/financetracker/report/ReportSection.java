@@ -0,0 +1,41 @@
+package com.financetracker.report;
+
+import com.financetracker.ledger.RowVisitor;
+
+/**
+ * Раздел финансового отчёта.
+ * <p>
+ * Разделы формируются ReportEngine за один проход по транзакциям.
+ * Раздел, которому достаточно общих итогов периода, читает их из ReportContext.
+ * Раздел, которому нужны отдельные транзакции, возвращает true из needsRows
+ * и получает строки периода через visit в том же проходе.
+ * Экземпляр раздела хранит состояние между reset и appendTo и переиспользуется.
+ */
+public interface ReportSection extends RowVisitor {
+    /**
+     * Подготавливает раздел к новому отчёту.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Сообщает, нужны ли разделу отдельные транзакции периода.
+     *
+     * @return true, если раздел должен получать строки через visit.
+     */
+    default boolean needsRows() {
+        return false;
+    }
+
+    @Override
+    default void visit(int epochDay, long amount, int categoryId, boolean income) {
+    }
+
+    /**
+     * Добавляет текст раздела в отчёт.
+     *
+     * @param report  формируемый отчёт.
+     * @param context общие итоги отчёта.
+     */
+    void appendTo(StringBuilder report, ReportContext context);
+}
@@ -2,6 +2,7 @@ package com.financetracker.repository;
 
 import com.financetracker.model.BudgetRecord;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -45,4 +46,13 @@ public class BudgetRepository {
     public void deleteBudget(String id) {
         budgets.remove(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает все бюджеты пользователей.
+     *
+     * @return неизменяемое представление карты, где ключ — идентификатор пользователя, а значение — объект BudgetRecord.
+     */
+    public Map<String, BudgetRecord> getBudgets() {
+        return Collections.unmodifiableMap(budgets);
+    }
+}
@@ -0,0 +1,268 @@
+package com.financetracker.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Инвертированный индекс описаний транзакций одного пользователя: слово → транзакции.
+ * <p>
+ * Описание разбивается на слова из букв и цифр, слова приводятся к нижнему регистру, «ё» заменяется на «е».
+ * Каждой версии описания транзакции выдаётся новый номер документа, номера растут, поэтому списки
+ * документов слов (posting lists) хранятся отсортированными массивами int и только дописываются.
+ * При изменении описания или удалении транзакции старый документ помечается удалённым и пропускается
+ * при поиске; когда удалённых документов становится больше живых, индекс перестраивается.
+ * <p>
+ * Запрос — слова через пробел, все должны встречаться в описании (AND). Слово со звёздочкой на конце
+ * ищется по префиксу: запрос "кофе* мол*" найдёт описание «Кофейня, молоко».
+ * Пересечение начинается с самого короткого списка, поэтому стоимость запроса определяется
+ * самым редким словом, а не количеством транзакций. Класс не потокобезопасен.
+ */
+public class DescriptionIndex {
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<String, Integer> docOfId = new HashMap<>();
+    private String[] idOfDoc = new String[64];
+    private final BitSet deleted = new BitSet();
+    private int docs;
+    private int live;
+
+    /**
+     * Индексирует описание транзакции. Если транзакция уже проиндексирована, старое описание заменяется.
+     *
+     * @param id          идентификатор транзакции.
+     * @param description описание; null — транзакция без слов.
+     */
+    public void put(String id, String description) {
+        remove(id);
+        List<String> tokens = tokenize(description);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        int doc = docs++;
+        if (doc == idOfDoc.length) {
+            idOfDoc = Arrays.copyOf(idOfDoc, doc * 2);
+        }
+        idOfDoc[doc] = id;
+        docOfId.put(id, doc);
+        live++;
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> new Postings()).add(doc);
+        }
+    }
+
+    /**
+     * Удаляет транзакцию из индекса.
+     *
+     * @param id идентификатор транзакции.
+     */
+    public void remove(String id) {
+        Integer doc = docOfId.remove(id);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        idOfDoc[doc] = null;
+        live--;
+        if (docs - live > Math.max(live, 1024)) {
+            compact();
+        }
+    }
+
+    /**
+     * Удаляет все транзакции из индекса.
+     */
+    public void clear() {
+        postings.clear();
+        docOfId.clear();
+        idOfDoc = new String[64];
+        deleted.clear();
+        docs = 0;
+        live = 0;
+    }
+
+    /**
+     * Возвращает количество проиндексированных транзакций.
+     *
+     * @return количество транзакций с непустым описанием.
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Ищет транзакции, в описании которых есть все слова запроса.
+     *
+     * @param query слова через пробел; слово со звёздочкой на конце ищется по префиксу.
+     * @param limit наибольшее количество результатов.
+     * @return идентификаторы транзакций в порядке индексации описаний; пустой список, если в запросе нет слов.
+     * @throws IllegalArgumentException если limit отрицателен.
+     */
+    public List<String> search(String query, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (String term : query == null ? new String[0] : query.trim().split("\\s+")) {
+            boolean prefix = term.endsWith("*");
+            List<String> tokens = tokenize(prefix ? term.substring(0, term.length() - 1) : term);
+            for (int i = 0; i < tokens.size(); i++) {
+                lists.add(prefix && i == tokens.size() - 1 ? docsWithPrefix(tokens.get(i)) : docsOf(tokens.get(i)));
+            }
+        }
+        List<String> result = new ArrayList<>();
+        if (lists.isEmpty() || limit == 0) {
+            return result;
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] cursors = new int[lists.size()];
+        Postings first = lists.get(0);
+        candidates:
+        for (int c = 0; c < first.size; c++) {
+            int doc = first.docs[c];
+            if (deleted.get(doc)) {
+                continue;
+            }
+            for (int i = 1; i < lists.size(); i++) {
+                Postings list = lists.get(i);
+                cursors[i] = advance(list, cursors[i], doc);
+                if (cursors[i] == list.size) {
+                    break candidates;
+                }
+                if (list.docs[cursors[i]] != doc) {
+                    continue candidates;
+                }
+            }
+            result.add(idOfDoc[doc]);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Разбивает текст на нормализованные слова.
+     *
+     * @param text текст; null — нет слов.
+     * @return слова в порядке появления, без повторов.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c == 'ё' || c == 'Ё' ? 'е' : Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                String word = token.toString();
+                if (!tokens.contains(word)) {
+                    tokens.add(word);
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private Postings docsOf(String token) {
+        Postings list = postings.get(token);
+        return list == null ? new Postings() : list;
+    }
+
+    /**
+     * Объединяет списки документов всех слов с префиксом. Документы собираются в BitSet,
+     * поэтому объединение стоит столько, сколько документов в объединяемых списках.
+     */
+    private Postings docsWithPrefix(String prefix) {
+        NavigableMap<String, Postings> matching = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (matching.size() <= 1) {
+            return matching.isEmpty() ? new Postings() : matching.firstEntry().getValue();
+        }
+        BitSet union = new BitSet(docs);
+        for (Postings list : matching.values()) {
+            for (int i = 0; i < list.size; i++) {
+                union.set(list.docs[i]);
+            }
+        }
+        Postings result = new Postings();
+        result.docs = union.stream().toArray();
+        result.size = result.docs.length;
+        return result;
+    }
+
+    /**
+     * Возвращает позицию первого документа не меньше doc, начиная с from. Шаг удваивается
+     * (galloping search), затем документ ищется двоичным поиском в найденном отрезке.
+     */
+    private static int advance(Postings list, int from, int doc) {
+        int step = 1;
+        int high = from;
+        while (high < list.size && list.docs[high] < doc) {
+            from = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        int position = Arrays.binarySearch(list.docs, from, Math.min(high + 1, list.size), doc);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * Перестраивает индекс без удалённых документов, заново нумеруя живые документы по порядку.
+     */
+    private void compact() {
+        int[] newDoc = new int[docs];
+        String[] ids = new String[Math.max(64, live * 2)];
+        int next = 0;
+        for (int doc = 0; doc < docs; doc++) {
+            if (!deleted.get(doc)) {
+                newDoc[doc] = next;
+                ids[next] = idOfDoc[doc];
+                docOfId.put(idOfDoc[doc], next);
+                next++;
+            }
+        }
+        postings.values().removeIf(list -> list.retain(deleted, newDoc));
+        idOfDoc = ids;
+        docs = next;
+        deleted.clear();
+    }
+
+    /**
+     * Отсортированный по возрастанию список документов слова.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        /**
+         * Оставляет живые документы с новыми номерами.
+         *
+         * @return true, если список стал пустым.
+         */
+        boolean retain(BitSet deleted, int[] newDoc) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!deleted.get(docs[i])) {
+                    docs[kept++] = newDoc[docs[i]];
+                }
+            }
+            size = kept;
+            return size == 0;
+        }
+    }
+}
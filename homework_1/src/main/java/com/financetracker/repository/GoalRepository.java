@@ -3,6 +3,7 @@ package com.financetracker.repository;
 import com.financetracker.model.Goal;
 
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -46,4 +47,13 @@ public class GoalRepository {
     public void deleteGoal(String id) {
         goals.remove(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает все финансовые цели пользователей.
+     *
+     * @return неизменяемое представление карты, где ключ — идентификатор пользователя, а значение — объект Goal.
+     */
+    public Map<String, Goal> getGoals() {
+        return Collections.unmodifiableMap(goals);
+    }
+}
@@ -1,9 +1,13 @@
 package com.financetracker.repository;
 
 
+import com.financetracker.ledger.Ledger;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.ledger.TransactionStore;
 import com.financetracker.model.Transaction;
 import com.financetracker.model.User;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -23,13 +27,66 @@ public class UserRepository {
      */
     private Map<String, User> users = new HashMap<>();
 
+    /**
+     * Вторичный индекс для поиска пользователей по email.
+     * Ключ: email пользователя (String).
+     * Значение: идентификатор пользователя (String).
+     */
+    private Map<String, String> emailIndex = new HashMap<>();
+
+    /**
+     * Вторичные индексы описаний транзакций для полнотекстового поиска.
+     * Ключ: идентификатор пользователя (String).
+     * Значение: индекс описаний его транзакций. Индекс строится при первом поиске
+     * и дальше обновляется при добавлении, изменении и удалении транзакций.
+     */
+    private Map<String, DescriptionIndex> descriptionIndexes = new HashMap<>();
+
+    /**
+     * Движок, в хранилищах которого лежат транзакции пользователей.
+     */
+    private final TransactionStore store;
+
+    /**
+     * Создаёт репозиторий, в котором транзакции хранятся в куче.
+     */
+    public UserRepository() {
+        this(TransactionStore.heap());
+    }
+
+    /**
+     * Создаёт репозиторий с заданным движком хранения транзакций.
+     *
+     * @param store движок хранения транзакций. Не может быть null.
+     * @throws IllegalArgumentException если store равен null.
+     */
+    public UserRepository(TransactionStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("Transaction store cannot be null");
+        }
+        this.store = store;
+    }
+
     /**
      * Сохраняет пользователя в репозитории.
+     * Если хранилище транзакций пользователя не подходит движку репозитория,
+     * транзакции переносятся в новое хранилище движка. Если пользователь с тем же
+     * идентификатором заменяется другим объектом, хранилище прежнего освобождается движком.
      *
      * @param user объект User, который нужно сохранить.
      */
     public void saveUser(User user) {
-        users.put(user.getId(), user);
+        if (!(user.getTransactions() instanceof Ledger ledger) || !store.accepts(ledger)) {
+            user.moveTransactions(store.open());
+        }
+        User previous = users.put(user.getId(), user);
+        if (previous != user) {
+            descriptionIndexes.remove(user.getId());
+            if (previous != null) {
+                release(previous, user.getTransactions());
+            }
+        }
+        emailIndex.put(user.getEmail(), user.getId());
     }
 
     /**
@@ -49,19 +106,43 @@ public class UserRepository {
      * @return объект User, если пользователь найден; null, если пользователь не найден.
      */
     public User findUserByEmail(String email) {
-        return users.values().stream()
-                .filter(user -> user.getEmail().equals(email))
-                .findFirst()
-                .orElse(null);
+        String id = emailIndex.get(email);
+        if (id == null) {
+            return null;
+        }
+        User user = users.get(id);
+        if (user == null || !user.getEmail().equals(email)) {
+            // Email был изменён в обход репозитория — запись индекса устарела
+            emailIndex.remove(email, id);
+            return null;
+        }
+        return user;
     }
 
     /**
      * Удаляет пользователя из репозитория по его идентификатору.
+     * Хранилище транзакций пользователя освобождается движком: в файловом движке его файлы
+     * закрываются и удаляются, поэтому транзакции удалённого пользователя больше не доступны.
+     * Чтобы изменить поля пользователя, его не удаляют, а сохраняют заново через saveUser.
      *
      * @param id идентификатор пользователя, которого нужно удалить.
      */
     public void deleteUser(String id) {
-        users.remove(id);
+        User user = users.remove(id);
+        descriptionIndexes.remove(id);
+        if (user != null) {
+            emailIndex.remove(user.getEmail(), id);
+            release(user, null);
+        }
+    }
+
+    /**
+     * Освобождает хранилище транзакций пользователя, если оно не используется как хранилище kept.
+     */
+    private void release(User user, Map<String, Transaction> kept) {
+        if (user.getTransactions() instanceof Ledger ledger && ledger != kept) {
+            store.release(ledger);
+        }
     }
 
     /**
@@ -82,6 +163,28 @@ public class UserRepository {
     public void addTransaction(String userId, Transaction transaction) {
         if (users.containsKey(userId)) {
             users.get(userId).addTransaction(transaction);
+            DescriptionIndex index = descriptionIndexes.get(userId);
+            if (index != null) {
+                index.put(transaction.getId(), transaction.getDescription());
+            }
+        }
+    }
+
+    /**
+     * Добавляет пачку транзакций пользователю по его идентификатору.
+     *
+     * @param userId идентификатор пользователя.
+     * @param batch  пачка транзакций, которую нужно добавить.
+     */
+    public void addTransactions(String userId, TransactionBatch batch) {
+        if (users.containsKey(userId)) {
+            users.get(userId).addTransactions(batch);
+            DescriptionIndex index = descriptionIndexes.get(userId);
+            if (index != null) {
+                for (int row = 0; row < batch.size(); row++) {
+                    index.put(batch.id(row), batch.description(row));
+                }
+            }
         }
     }
 
@@ -109,6 +212,22 @@ public class UserRepository {
         return users.get(userId).getTransaction(transactionId);
     }
 
+    /**
+     * Сохраняет изменения транзакции пользователя.
+     *
+     * @param userId      идентификатор пользователя.
+     * @param transaction изменённый объект Transaction.
+     */
+    public void updateTransaction(String userId, Transaction transaction) {
+        if (users.containsKey(userId)) {
+            users.get(userId).updateTransaction(transaction);
+            DescriptionIndex index = descriptionIndexes.get(userId);
+            if (index != null) {
+                index.put(transaction.getId(), transaction.getDescription());
+            }
+        }
+    }
+
     /**
      * Удаляет транзакцию пользователя по её идентификатору.
      *
@@ -118,6 +237,43 @@ public class UserRepository {
     public void removeTransaction(String userId, String transactionId) {
         if (users.containsKey(userId)) {
             users.get(userId).removeTransaction(transactionId);
+            DescriptionIndex index = descriptionIndexes.get(userId);
+            if (index != null) {
+                index.remove(transactionId);
+            }
+        }
+    }
+
+    /**
+     * Ищет транзакции пользователя, в описании которых есть все слова запроса.
+     * При первом поиске по пользователю строится индекс описаний его транзакций,
+     * дальше запросы выполняются по индексу без обхода транзакций.
+     *
+     * @param userId идентификатор пользователя.
+     * @param query  слова через пробел; слово со звёздочкой на конце ищется по префиксу.
+     * @param limit  наибольшее количество результатов.
+     * @return список найденных транзакций; пустой список, если пользователь не найден.
+     * @throws IllegalArgumentException если limit отрицателен.
+     */
+    public List<Transaction> searchTransactions(String userId, String query, int limit) {
+        User user = users.get(userId);
+        if (user == null) {
+            return List.of();
+        }
+        DescriptionIndex index = descriptionIndexes.computeIfAbsent(userId, id -> {
+            DescriptionIndex created = new DescriptionIndex();
+            for (Transaction transaction : user.getTransactions().values()) {
+                created.put(transaction.getId(), transaction.getDescription());
+            }
+            return created;
+        });
+        List<Transaction> result = new ArrayList<>();
+        for (String transactionId : index.search(query, limit)) {
+            Transaction transaction = user.getTransaction(transactionId);
+            if (transaction != null) {
+                result.add(transaction);
+            }
         }
+        return result;
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.financetracker.service;
 import com.financetracker.model.BudgetRecord;
 import com.financetracker.model.Transaction;
 import com.financetracker.repository.BudgetRepository;
+import com.financetracker.utils.Money;
 
 import java.util.Map;
 
@@ -33,10 +34,10 @@ public class BudgetService {
      *
      * @param id уникальный идентификатор пользователя.
      * @param month месяц для которого устанавливается бюджет.
-     * @param budget сумма бюджета.
+     * @param budget сумма бюджета в копейках.
      * @throws IllegalArgumentException если месяц или сумма бюджета некорректны.
      */
-    public void addBudget(String id, String month, double budget) {
+    public void addBudget(String id, String month, long budget) {
         if (month == null || month.trim().isEmpty() || budget < 0) {
             throw new IllegalArgumentException("Month cannot be null or empty, and budget must be non-negative");
         }
@@ -57,10 +58,10 @@ public class BudgetService {
      * Возвращает месячный бюджет пользователя.
      *
      * @param id уникальный идентификатор пользователя.
-     * @return сумма месячного бюджета.
+     * @return сумма месячного бюджета в копейках.
      * @throws IllegalArgumentException если бюджет для пользователя не установлен.
      */
-    public double getMonthlyBudget(String id) {
+    public long getMonthlyBudget(String id) {
         if (budgetRepository.findBudget(id) == null) {
             throw new IllegalArgumentException("Budget for user with id " + id + " is not set");
         }
@@ -71,10 +72,10 @@ public class BudgetService {
      * Возвращает сумму расходов пользователя за текущий месяц.
      *
      * @param id уникальный идентификатор пользователя.
-     * @return сумма расходов.
+     * @return сумма расходов в копейках.
      * @throws IllegalArgumentException если бюджет для пользователя не установлен.
      */
-    public double getMonthlyExpress(String id) {
+    public long getMonthlyExpress(String id) {
         if (budgetRepository.findBudget(id) == null) {
             throw new IllegalArgumentException("Budget for user with id " + id + " is not set");
         }
@@ -85,10 +86,10 @@ public class BudgetService {
      * Добавляет сумму к расходам пользователя за текущий месяц.
      *
      * @param id уникальный идентификатор пользователя.
-     * @param express сумма расходов.
+     * @param express сумма расходов в копейках.
      * @throws IllegalArgumentException если бюджет для пользователя не установлен.
      */
-    public void addMonthlyExpress(String id, double express) {
+    public void addMonthlyExpress(String id, long express) {
         if (budgetRepository.findBudget(id) == null) {
             throw new IllegalArgumentException("Budget for user with id " + id + " is not set");
         }
@@ -99,10 +100,10 @@ public class BudgetService {
      * Возвращает оставшуюся сумму бюджета пользователя.
      *
      * @param id уникальный идентификатор пользователя.
-     * @return оставшаяся сумма бюджета.
+     * @return оставшаяся сумма бюджета в копейках.
      * @throws IllegalArgumentException если бюджет для пользователя не установлен.
      */
-    public double getRemaining(String id) {
+    public long getRemaining(String id) {
         if (budgetRepository.findBudget(id) == null) {
             throw new IllegalArgumentException("Budget for user with id " + id + " is not set");
         }
@@ -122,10 +123,12 @@ public class BudgetService {
         if (!isBudgetSet(id)) {
             budgetReport.append("Месячный бюджет не установлен\n");
         } else {
-            budgetReport.append("Месячный бюджет: ").append(getMonthlyBudget(id)).append("\nРасходы за месяц: ")
-                    .append(getMonthlyExpress(id)).append("\nОстаток бюджета: ").append(getRemaining(id)).append("\n");
+            budgetReport.append("Месячный бюджет: ").append(Money.format(getMonthlyBudget(id))).append("\nРасходы за месяц: ")
+                    .append(Money.format(getMonthlyExpress(id))).append("\nОстаток бюджета: ")
+                    .append(Money.format(getRemaining(id))).append("\n");
             if (getRemaining(id) < 0) {
-                budgetReport.append("Внимание! Вы превысили месячный бюджет на ").append(Math.abs(getRemaining(id))).append("\n");
+                budgetReport.append("Внимание! Вы превысили месячный бюджет на ")
+                        .append(Money.format(Math.abs(getRemaining(id)))).append("\n");
             }
         }
         return budgetReport.toString();
@@ -1,12 +1,22 @@
 package com.financetracker.service;
 
+import com.financetracker.io.ExportFormat;
+import com.financetracker.io.ImportResult;
+import com.financetracker.journal.Journal;
+import com.financetracker.ledger.TransactionBatch;
 import com.financetracker.model.BudgetRecord;
 import com.financetracker.model.Goal;
 import com.financetracker.model.Transaction;
 import com.financetracker.model.User;
+import com.financetracker.utils.Money;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Класс FinanceTracker представляет собой систему управления финансами,
@@ -35,6 +45,11 @@ public class FinanceTracker {
     private BudgetService budgetService;
     private GoalService goalService;
 
+    /**
+     * Журнал, в который записывается каждое изменение состояния.
+     */
+    private final Journal journal;
+
     /**
      * Результат попытки входа пользователя.
      */
@@ -57,12 +72,30 @@ public class FinanceTracker {
      */
     public FinanceTracker(UserService userService, TransactionService transactionService, BudgetService budgetService,
                           GoalService goalService, NotificationService notificationService) {
+        this(userService, transactionService, budgetService, goalService, notificationService, Journal.DISABLED);
+    }
+
+    /**
+     * Конструктор класса FinanceTracker с журналом изменений.
+     * Каждое изменение пользователей, транзакций, бюджетов и целей записывается в журнал.
+     * Администратор по умолчанию создаётся и журналируется, только если его нет среди восстановленных пользователей.
+     *
+     * @param userService сервис для работы с пользователями.
+     * @param transactionService сервис для работы с транзакциями.
+     * @param budgetService сервис для работы с бюджетами.
+     * @param goalService сервис для работы с финансовыми целями.
+     * @param notificationService сервис уведомлений, который будет использоваться для отправки уведомлений.
+     * @param journal журнал изменений; Journal.DISABLED, если журнал не нужен.
+     */
+    public FinanceTracker(UserService userService, TransactionService transactionService, BudgetService budgetService,
+                          GoalService goalService, NotificationService notificationService, Journal journal) {
+        this.journal = journal;
         this.userService = userService;
         this.transactionService = transactionService;
         this.budgetService = budgetService;
         this.goalService = goalService;
         this.notificationService = notificationService;
-        userService.registerUser("admin@example.com", "admin123", "Admin", "admin");
+        register("admin@example.com", "admin123", "Admin", "admin");
     }
 
     /**
@@ -76,7 +109,20 @@ public class FinanceTracker {
      * @throws IllegalArgumentException если любой из параметров равен null или пустой строке.
      */
     public boolean registerUser(String email, String password, String name, String role) {
-        return userService.registerUser(email, password, name, role);
+        return register(email, password, name, role);
+    }
+
+    /**
+     * Регистрирует пользователя и записывает его в журнал, чтобы после восстановления
+     * он сохранил свой идентификатор. Администратор по умолчанию создаётся так же,
+     * поэтому при повторном запуске он берётся из журнала, а не создаётся заново.
+     */
+    private boolean register(String email, String password, String name, String role) {
+        boolean registered = userService.registerUser(email, password, name, role);
+        if (registered && journal != Journal.DISABLED) {
+            journal.userSaved(userService.getUserByEmail(email));
+        }
+        return registered;
     }
 
     /**
@@ -116,6 +162,7 @@ public class FinanceTracker {
      */
     public void deleteUser(String id) {
         userService.deleteUser(id);
+        journal.userDeleted(id);
         if (currentUser != null && currentUser.getId().equals(id)) {
             logoutUser();
         }
@@ -128,6 +175,7 @@ public class FinanceTracker {
      */
     public void banUser(String id) {
         userService.banUser(id);
+        journalUser(id);
     }
 
     /**
@@ -174,29 +222,99 @@ public class FinanceTracker {
      * Если транзакция является доходом и у пользователя установлена финансовая цель,
      * сумма транзакции добавляется к цели.
      *
-     * @param amount сумма транзакции.
+     * @param amount сумма транзакции в копейках.
      * @param category категория транзакции.
      * @param date дата транзакции.
      * @param description описание транзакции.
      * @param isIncome true, если транзакция является доходом; false, если расходом.
      * @throws IllegalStateException если текущий пользователь не аутентифицирован.
      */
-    public void addTransaction(double amount, String category, LocalDate date,
+    public void addTransaction(long amount, String category, LocalDate date,
                                String description, boolean isIncome) {
         if (currentUser == null) {
             throw new IllegalStateException("No user is currently logged in");
         }
         String id = getId();
 
-        transactionService.addTransaction(id, amount, category, date, description, isIncome);
-        if (budgetService.isBudgetSet(id)) {
-            if (!isIncome && date.toString().substring(0, 7).equals(budgetService.getMonth(id))) {
-                budgetService.addMonthlyExpress(id, amount);
-            }
+        Transaction transaction = transactionService.addTransaction(id, amount, category, date, description, isIncome);
+        if (transaction != null) {
+            journal.transactionSaved(id, transaction);
+        }
+        if (!isIncome && budgetService.isBudgetSet(id) && isInMonth(date, budgetService.getMonth(id))) {
+            budgetService.addMonthlyExpress(id, amount);
+            journalBudget(id);
         }
         if (goalService.isGoalSet(id) && isIncome) {
             goalService.addAmount(id, amount);
+            journalGoal(id);
+        }
+    }
+
+    /**
+     * Добавляет пачку транзакций для текущего пользователя.
+     * Пачка проверяется целиком до добавления: при ошибке не меняются ни транзакции, ни бюджет, ни цель.
+     * Расходы за месяц бюджета и доходы суммируются по всей пачке и учитываются
+     * в бюджете и финансовой цели одним обновлением.
+     *
+     * @param batch пачка транзакций.
+     * @throws IllegalArgumentException если пачка некорректна (см. TransactionService.addTransactions).
+     * @throws IllegalStateException если текущий пользователь не аутентифицирован.
+     */
+    public void addTransactions(TransactionBatch batch) {
+        if (currentUser == null) {
+            throw new IllegalStateException("No user is currently logged in");
+        }
+        String id = getId();
+        transactionService.addTransactions(id, batch);
+        BatchTotals totals = new BatchTotals(budgetService.isBudgetSet(id) ? budgetService.getMonth(id) : null);
+        totals.add(batch);
+        journalBatch(id, batch);
+        applyTotals(id, totals);
+    }
+
+    /**
+     * Импортирует транзакции текущего пользователя из файла CSV (формат описан в CsvImporter)
+     * или из двоичного экспорта с расширением ExportFormat.BINARY_EXTENSION.
+     * Расходы за месяц бюджета и доходы суммируются по всему файлу и учитываются
+     * в бюджете и финансовой цели один раз в конце импорта, в том числе если импорт прервался ошибкой:
+     * пачки, добавленные до ошибки, учитываются.
+     *
+     * @param file файл CSV или двоичный экспорт.
+     * @return итог импорта.
+     * @throws IOException если файл не удалось прочитать.
+     * @throws IllegalStateException если текущий пользователь не аутентифицирован.
+     */
+    public ImportResult importTransactions(Path file) throws IOException {
+        if (currentUser == null) {
+            throw new IllegalStateException("No user is currently logged in");
+        }
+        String id = getId();
+        BatchTotals totals = new BatchTotals(budgetService.isBudgetSet(id) ? budgetService.getMonth(id) : null);
+        try {
+            return transactionService.importTransactions(id, file, batch -> {
+                totals.add(batch);
+                journalBatch(id, batch);
+            });
+        } finally {
+            // Пачки, добавленные до ошибки, остаются в хранилище и должны быть учтены в бюджете и цели
+            applyTotals(id, totals);
+        }
+    }
+
+    /**
+     * Экспортирует все транзакции текущего пользователя в файл.
+     *
+     * @param file   файл, в который пишутся транзакции; его содержимое заменяется.
+     * @param format формат экспорта.
+     * @return количество экспортированных транзакций.
+     * @throws IOException если файл не удалось записать.
+     * @throws IllegalStateException если текущий пользователь не аутентифицирован.
+     */
+    public long exportTransactions(Path file, ExportFormat format) throws IOException {
+        if (currentUser == null) {
+            throw new IllegalStateException("No user is currently logged in");
         }
+        return transactionService.exportTransactions(currentUser.getId(), format, file);
     }
 
     /**
@@ -210,7 +328,11 @@ public class FinanceTracker {
         if (currentUser == null) {
             throw new IllegalStateException("No user is currently logged in");
         }
-        return transactionService.removeTransaction(currentUser.getId(), id);
+        boolean removed = transactionService.removeTransaction(currentUser.getId(), id);
+        if (removed) {
+            journal.transactionRemoved(currentUser.getId(), id);
+        }
+        return removed;
     }
 
     /**
@@ -227,10 +349,11 @@ public class FinanceTracker {
      * Устанавливает новую сумму для транзакции.
      *
      * @param id уникальный идентификатор транзакции.
-     * @param amount новая сумма транзакции.
+     * @param amount новая сумма транзакции в копейках.
      */
-    public void setTransactionAmount(String id, double amount) {
+    public void setTransactionAmount(String id, long amount) {
         transactionService.setTransactionAmount(currentUser.getId(), id, amount);
+        journalTransaction(currentUser.getId(), id);
     }
 
     /**
@@ -241,6 +364,7 @@ public class FinanceTracker {
      */
     public void setTransactionCategory(String id, String category) {
         transactionService.setTransactionCategory(currentUser.getId(), id, category);
+        journalTransaction(currentUser.getId(), id);
     }
 
     /**
@@ -251,6 +375,7 @@ public class FinanceTracker {
      */
     public void setTransactionDescription(String id, String description) {
         transactionService.setTransactionDescription(currentUser.getId(), id, description);
+        journalTransaction(currentUser.getId(), id);
     }
 
     /**
@@ -296,6 +421,74 @@ public class FinanceTracker {
         return transactionService.viewTransactionsIsIncomeFilter(id, isIncomeFilter);
     }
 
+    /**
+     * Возвращает страницу транзакций пользователя, удовлетворяющих фильтрам, в порядке даты и идентификатора.
+     * Для хранилища транзакций страница выбирается начиная с дня курсора, без обхода предыдущих страниц.
+     *
+     * @param id       уникальный идентификатор пользователя.
+     * @param start    начальная дата периода (включительно); null — без ограничения.
+     * @param end      конечная дата периода (включительно); null — без ограничения.
+     * @param income   true — только доходы, false — только расходы, null — все транзакции.
+     * @param category категория; null — любая категория.
+     * @param cursor   курсор из TransactionPage.getNextCursor; null — первая страница.
+     * @param limit    наибольшее количество транзакций на странице.
+     * @return страница транзакций.
+     * @throws IllegalArgumentException если limit не положителен или курсор некорректен.
+     */
+    public TransactionPage getTransactionsPage(String id, LocalDate start, LocalDate end, Boolean income,
+                                               String category, String cursor, int limit) {
+        return transactionService.getTransactionsPage(id, start, end, income, category, cursor, limit);
+    }
+
+    /**
+     * Возвращает страницу транзакций пользователя, удовлетворяющих фильтру, в порядке даты и идентификатора.
+     *
+     * @param id     уникальный идентификатор пользователя.
+     * @param filter условие отбора транзакций.
+     * @param cursor курсор из TransactionPage.getNextCursor; null — первая страница.
+     * @param limit  наибольшее количество транзакций на странице.
+     * @return страница транзакций.
+     * @throws IllegalArgumentException если limit не положителен или курсор некорректен.
+     */
+    public TransactionPage getTransactionsPage(String id, Predicate<Transaction> filter, String cursor, int limit) {
+        return transactionService.getTransactionsPage(id, filter, cursor, limit);
+    }
+
+    /**
+     * Форматирует страницу транзакций в строку.
+     *
+     * @param page   страница транзакций.
+     * @param header заголовок для списка транзакций.
+     * @return строка, содержащая отформатированный список транзакций страницы.
+     */
+    public String formatTransactionPage(TransactionPage page, String header) {
+        return transactionService.formatTransactionPage(page, header);
+    }
+
+    /**
+     * Выводит страницу транзакций потоково, по одной строке на транзакцию.
+     *
+     * @param page   страница транзакций.
+     * @param header заголовок для списка транзакций.
+     * @param out    приёмник текста. Приёмник не закрывается.
+     * @throws IOException если запись в приёмник не удалась.
+     */
+    public void writeTransactionPage(TransactionPage page, String header, Appendable out) throws IOException {
+        transactionService.writeTransactionPage(page, header, out);
+    }
+
+    /**
+     * Выводит все транзакции пользователя потоково, не собирая текст всего списка в памяти.
+     *
+     * @param id  уникальный идентификатор пользователя.
+     * @param out приёмник текста. Приёмник не закрывается.
+     * @return количество выведенных транзакций.
+     * @throws IOException если запись в приёмник не удалась.
+     */
+    public long writeTransactions(String id, Appendable out) throws IOException {
+        return transactionService.writeTransactions(id, out);
+    }
+
     /**
      * Изменяет email текущего пользователя.
      *
@@ -308,6 +501,7 @@ public class FinanceTracker {
             throw new IllegalStateException("No user is currently logged in");
         }
         userService.changeEmail(currentUser.getId(), email);
+        journalUser(currentUser.getId());
     }
 
     /**
@@ -322,6 +516,7 @@ public class FinanceTracker {
             throw new IllegalStateException("No user is currently logged in");
         }
         userService.changePassword(currentUser.getId(), password);
+        journalUser(currentUser.getId());
     }
 
     /**
@@ -336,6 +531,7 @@ public class FinanceTracker {
             throw new IllegalStateException("No user is currently logged in");
         }
         userService.changeName(currentUser.getId(), name);
+        journalUser(currentUser.getId());
     }
 
     /**
@@ -378,13 +574,14 @@ public class FinanceTracker {
      * Если у пользователя есть транзакции за этот месяц, они учитываются в расходах.
      *
      * @param month месяц для которого устанавливается бюджет.
-     * @param budget сумма бюджета.
+     * @param budget сумма бюджета в копейках.
      * @throws IllegalArgumentException если месяц или сумма бюджета некорректны.
      */
-    public void addBudget(String month, double budget) {
+    public void addBudget(String month, long budget) {
         budgetService.addBudget(currentUser.getId(), month, budget);
         budgetService.addMonthlyExpress(currentUser.getId(),
                 transactionService.calculateMonthlyExpress(currentUser.getId(), month));
+        journalBudget(currentUser.getId());
     }
 
     /**
@@ -401,10 +598,10 @@ public class FinanceTracker {
      * Возвращает месячный бюджет пользователя.
      *
      * @param id уникальный идентификатор пользователя.
-     * @return сумма месячного бюджета.
+     * @return сумма месячного бюджета в копейках.
      * @throws IllegalArgumentException если бюджет для пользователя не установлен.
      */
-    public double getMonthlyBudget(String id) {
+    public long getMonthlyBudget(String id) {
         return budgetService.getMonthlyBudget(id);
     }
 
@@ -412,10 +609,10 @@ public class FinanceTracker {
      * Возвращает сумму расходов пользователя за текущий месяц.
      *
      * @param id уникальный идентификатор пользователя.
-     * @return сумма расходов.
+     * @return сумма расходов в копейках.
      * @throws IllegalArgumentException если бюджет для пользователя не установлен.
      */
-    public double getMonthlyExpress(String id) {
+    public long getMonthlyExpress(String id) {
         return budgetService.getMonthlyExpress(id);
     }
 
@@ -423,21 +620,22 @@ public class FinanceTracker {
      * Добавляет сумму к расходам пользователя за текущий месяц.
      *
      * @param id уникальный идентификатор пользователя.
-     * @param express сумма расходов.
+     * @param express сумма расходов в копейках.
      * @throws IllegalArgumentException если бюджет для пользователя не установлен.
      */
-    public void addMonthlyExpress(String id, double express) {
+    public void addMonthlyExpress(String id, long express) {
         budgetService.addMonthlyExpress(id, express);
+        journalBudget(id);
     }
 
     /**
      * Возвращает оставшуюся сумму бюджета пользователя.
      *
      * @param id уникальный идентификатор пользователя.
-     * @return оставшаяся сумма бюджета.
+     * @return оставшаяся сумма бюджета в копейках.
      * @throws IllegalArgumentException если бюджет для пользователя не установлен.
      */
-    public double getRemaining(String id) {
+    public long getRemaining(String id) {
         return budgetService.getRemaining(id);
     }
 
@@ -454,21 +652,23 @@ public class FinanceTracker {
      * Устанавливает финансовую цель для пользователя.
      *
      * @param name название цели.
-     * @param target целевая сумма.
+     * @param target целевая сумма в копейках.
      * @throws IllegalArgumentException если название цели или целевая сумма некорректны.
      */
-    public void setGoal(String name, double target) {
+    public void setGoal(String name, long target) {
         goalService.setGoal(currentUser.getId(), name, target);
+        journalGoal(currentUser.getId());
     }
 
     /**
      * Добавляет сумму к текущему прогрессу финансовой цели пользователя.
      *
-     * @param amount сумма для добавления.
+     * @param amount сумма для добавления в копейках.
      * @throws IllegalArgumentException если цель для пользователя не установлена.
      */
-    public void addAmount(double amount) {
+    public void addAmount(long amount) {
         goalService.addAmount(currentUser.getId(), amount);
+        journalGoal(currentUser.getId());
     }
 
     /**
@@ -496,10 +696,10 @@ public class FinanceTracker {
      * Возвращает целевую сумму финансовой цели пользователя.
      *
      * @param id уникальный идентификатор пользователя.
-     * @return целевая сумма.
+     * @return целевая сумма в копейках.
      * @throws IllegalArgumentException если цель для пользователя не установлена.
      */
-    public double getTargetAmount(String id) {
+    public long getTargetAmount(String id) {
         return goalService.getTargetAmount(id);
     }
 
@@ -527,20 +727,49 @@ public class FinanceTracker {
      * Возвращает текущий баланс пользователя.
      * Баланс рассчитывается как сумма всех доходов за вычетом всех расходов.
      *
-     * @return текущий баланс пользователя.
+     * @return текущий баланс пользователя в копейках.
      */
-    public double getBalance() {
+    public long getBalance() {
         return transactionService.getBalance(currentUser.getId());
     }
 
+    /**
+     * Ищет транзакции пользователя по словам описания.
+     *
+     * @param id    уникальный идентификатор пользователя.
+     * @param query слова через пробел; слово со звёздочкой на конце ищется по префиксу.
+     * @param limit наибольшее количество результатов.
+     * @return список найденных транзакций.
+     * @throws IllegalArgumentException если limit отрицателен.
+     */
+    public List<Transaction> searchTransactions(String id, String query, int limit) {
+        return transactionService.searchTransactions(id, query, limit);
+    }
+
+    /**
+     * Возвращает не больше limit транзакций текущего пользователя с наибольшими суммами по убыванию сумм.
+     *
+     * @param limit    наибольшее количество транзакций.
+     * @param start    начальная дата периода (включительно); null — без ограничения.
+     * @param end      конечная дата периода (включительно); null — без ограничения.
+     * @param income   true — только доходы, false — только расходы, null — все транзакции.
+     * @param category категория; null — любая категория.
+     * @return список транзакций по убыванию сумм.
+     * @throws IllegalArgumentException если limit отрицателен.
+     */
+    public List<Transaction> getLargestTransactions(int limit, LocalDate start, LocalDate end,
+                                                    Boolean income, String category) {
+        return transactionService.getLargestTransactions(currentUser.getId(), limit, start, end, income, category);
+    }
+
     /**
      * Возвращает сумму доходов пользователя за указанный период.
      *
      * @param start начальная дата периода.
      * @param end конечная дата периода.
-     * @return сумма доходов за период.
+     * @return сумма доходов за период в копейках.
      */
-    public double getIncomeOfPeriod(LocalDate start, LocalDate end) {
+    public long getIncomeOfPeriod(LocalDate start, LocalDate end) {
         return transactionService.getIncomeOfPeriod(currentUser.getId(), start, end);
     }
 
@@ -549,9 +778,9 @@ public class FinanceTracker {
      *
      * @param start начальная дата периода.
      * @param end конечная дата периода.
-     * @return сумма расходов за период.
+     * @return сумма расходов за период в копейках.
      */
-    public double getExpensesOfPeriod(LocalDate start, LocalDate end) {
+    public long getExpensesOfPeriod(LocalDate start, LocalDate end) {
         return transactionService.getExpensesOfPeriod(currentUser.getId(), start, end);
     }
 
@@ -563,11 +792,11 @@ public class FinanceTracker {
      * @return строка, содержащая расходы по категориям.
      */
     public String getExpensesByCategoryAsString(LocalDate start, LocalDate end) {
-        Map<String, Double> expensesByCategory = transactionService.getExpensesByCategory(currentUser.getId(), start, end);
+        Map<String, Long> expensesByCategory = transactionService.getExpensesByCategory(currentUser.getId(), start, end);
 
         StringBuilder result = new StringBuilder("Расходы по категориям за период:\n");
         expensesByCategory.forEach((category, amount) ->
-                result.append(String.format("- %s: %.2f\n", category, amount)));
+                result.append(String.format("- %s: %.2f\n", category, Money.toDecimal(amount))));
 
         return result.toString();
     }
@@ -595,12 +824,144 @@ public class FinanceTracker {
         if (!budgetService.isBudgetSet(id)) {
             return;
         }
-        double expenseLimit = budgetService.getMonthlyBudget(id);
-        double totalExpenses = budgetService.getMonthlyExpress(id);
+        long expenseLimit = budgetService.getMonthlyBudget(id);
+        long totalExpenses = budgetService.getMonthlyExpress(id);
         if (totalExpenses > expenseLimit) {
             String message = String.format("Превышен лимит расходов! Текущие расходы: %.2f, Лимит: %.2f",
-                    totalExpenses, expenseLimit);
+                    Money.toDecimal(totalExpenses), Money.toDecimal(expenseLimit));
             notificationService.sendNotification(recipient, message);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Учитывает накопленные суммы пачек в бюджете и финансовой цели пользователя.
+     */
+    private void applyTotals(String id, BatchTotals totals) {
+        if (totals.budgetExpense != 0 && budgetService.isBudgetSet(id)) {
+            budgetService.addMonthlyExpress(id, totals.budgetExpense);
+            journalBudget(id);
+        }
+        if (totals.income != 0 && goalService.isGoalSet(id)) {
+            goalService.addAmount(id, totals.income);
+            journalGoal(id);
+        }
+    }
+
+    /**
+     * Записывает в журнал текущее состояние пользователя.
+     * Без журнала состояние не читается.
+     */
+    private void journalUser(String id) {
+        if (journal == Journal.DISABLED) {
+            return;
+        }
+        User user = userService.getUserById(id);
+        if (user != null) {
+            journal.userSaved(user);
+        }
+    }
+
+    /**
+     * Записывает в журнал текущее состояние транзакции.
+     */
+    private void journalTransaction(String userId, String transactionId) {
+        if (journal == Journal.DISABLED) {
+            return;
+        }
+        Transaction transaction = transactionService.getTransaction(userId, transactionId);
+        if (transaction != null) {
+            journal.transactionSaved(userId, transaction);
+        }
+    }
+
+    /**
+     * Записывает в журнал все транзакции пачки; журнал подтверждает пачку одним сбросом на диск.
+     */
+    private void journalBatch(String userId, TransactionBatch batch) {
+        if (journal == Journal.DISABLED || batch.isEmpty()) {
+            return;
+        }
+        journal.transactionsSaved(userId, batch);
+    }
+
+    /**
+     * Проверяет, относится ли дата к месяцу бюджета в формате "yyyy-MM", без разбора строк и выделения памяти.
+     */
+    private static boolean isInMonth(LocalDate date, String month) {
+        if (month == null || month.length() != 7 || month.charAt(4) != '-') {
+            return false;
+        }
+        int year = 0;
+        for (int i = 0; i < 4; i++) {
+            char c = month.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            year = year * 10 + (c - '0');
+        }
+        char tens = month.charAt(5);
+        char units = month.charAt(6);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return false;
+        }
+        return year == date.getYear() && (tens - '0') * 10 + (units - '0') == date.getMonthValue();
+    }
+
+    /**
+     * Записывает в журнал текущее состояние бюджета пользователя.
+     */
+    private void journalBudget(String id) {
+        if (journal == Journal.DISABLED || !budgetService.isBudgetSet(id)) {
+            return;
+        }
+        journal.budgetSaved(id, budgetService.getMonth(id), budgetService.getMonthlyBudget(id),
+                budgetService.getMonthlyExpress(id));
+    }
+
+    /**
+     * Записывает в журнал текущее состояние финансовой цели пользователя.
+     */
+    private void journalGoal(String id) {
+        if (journal == Journal.DISABLED || !goalService.isGoalSet(id)) {
+            return;
+        }
+        journal.goalSaved(id, goalService.getGoalName(id), goalService.getTargetAmount(id),
+                goalService.getCurrentAmount(id));
+    }
+
+    /**
+     * Суммы по пачкам транзакций: расходы за месяц бюджета и все доходы.
+     */
+    private static final class BatchTotals {
+        private final long monthStart;
+        private final long monthEnd;
+        private long budgetExpense;
+        private long income;
+
+        /**
+         * @param month месяц бюджета в формате "yyyy-MM"; null или некорректный месяц — расходы не суммируются.
+         */
+        BatchTotals(String month) {
+            YearMonth yearMonth = null;
+            if (month != null) {
+                try {
+                    yearMonth = YearMonth.parse(month);
+                } catch (DateTimeParseException e) {
+                    yearMonth = null;
+                }
+            }
+            monthStart = yearMonth == null ? 1 : yearMonth.atDay(1).toEpochDay();
+            monthEnd = yearMonth == null ? 0 : yearMonth.atEndOfMonth().toEpochDay();
+        }
+
+        void add(TransactionBatch batch) {
+            for (int row = 0; row < batch.size(); row++) {
+                if (batch.isIncome(row)) {
+                    income += batch.amount(row);
+                } else if (batch.epochDay(row) >= monthStart && batch.epochDay(row) <= monthEnd) {
+                    budgetExpense += batch.amount(row);
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.financetracker.service;
 
 import com.financetracker.model.Goal;
 import com.financetracker.repository.GoalRepository;
+import com.financetracker.utils.Money;
 
 public class GoalService {
     private GoalRepository goalRepository;
@@ -15,10 +16,10 @@ public class GoalService {
      *
      * @param id уникальный идентификатор пользователя.
      * @param name название цели.
-     * @param target целевая сумма.
+     * @param target целевая сумма в копейках.
      * @throws IllegalArgumentException если название цели или целевая сумма некорректны.
      */
-    public void setGoal(String id, String name, double target) {
+    public void setGoal(String id, String name, long target) {
         if (name == null || name.trim().isEmpty() || target < 0) {
             throw new IllegalArgumentException("Goal name cannot be null or empty, and target must be non-negative");
         }
@@ -30,10 +31,10 @@ public class GoalService {
      * Добавляет сумму к текущему прогрессу финансовой цели пользователя.
      *
      * @param id уникальный идентификатор пользователя.
-     * @param amount сумма для добавления.
+     * @param amount сумма для добавления в копейках.
      * @throws IllegalArgumentException если цель для пользователя не установлена.
      */
-    public void addAmount(String id, double amount) {
+    public void addAmount(String id, long amount) {
         if (goalRepository.findGoal(id) == null) {
             throw new IllegalArgumentException("Goal for user with id " + id + " is not set");
         }
@@ -68,16 +69,30 @@ public class GoalService {
      * Возвращает целевую сумму финансовой цели пользователя.
      *
      * @param id уникальный идентификатор пользователя.
-     * @return целевая сумма.
+     * @return целевая сумма в копейках.
      * @throws IllegalArgumentException если цель для пользователя не установлена.
      */
-    public double getTargetAmount(String id) {
+    public long getTargetAmount(String id) {
         if (goalRepository.findGoal(id) == null) {
             throw new IllegalArgumentException("Goal for user with id " + id + " is not set");
         }
         return goalRepository.findGoal(id).getTargetAmount();
     }
 
+    /**
+     * Возвращает накопленную сумму финансовой цели пользователя.
+     *
+     * @param id уникальный идентификатор пользователя.
+     * @return накопленная сумма в копейках.
+     * @throws IllegalArgumentException если цель для пользователя не установлена.
+     */
+    public long getCurrentAmount(String id) {
+        if (goalRepository.findGoal(id) == null) {
+            throw new IllegalArgumentException("Goal for user with id " + id + " is not set");
+        }
+        return goalRepository.findGoal(id).getCurrentAmount();
+    }
+
     /**
      * Возвращает название финансовой цели пользователя.
      *
@@ -106,7 +121,7 @@ public class GoalService {
             System.out.println("Цель не установлена\n");
         } else {
             goalReport.append("Цель: ").append(getGoalName(id)).append("\n");
-            goalReport.append("Целевая сумма: ").append(getTargetAmount(id)).append("\n");
+            goalReport.append("Целевая сумма: ").append(Money.format(getTargetAmount(id))).append("\n");
             goalReport.append("Прогресс по цели: ").append(getProgress(id)).append("%\n");
             if (getProgress(id) >= 100) {
                 goalReport.append("Вы достигли своей цели!\n");
@@ -0,0 +1,123 @@
+package com.financetracker.service;
+
+import com.financetracker.model.Transaction;
+import com.financetracker.utils.Money;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.time.LocalDate;
+
+/**
+ * Потоковый вывод списка транзакций в текстовом виде.
+ * <p>
+ * Каждая строка собирается в буфере, который переиспользуется для всех строк, и сразу передаётся
+ * в приёмник, поэтому ни конкатенации строк, ни текста всего списка в памяти не создаётся.
+ * Writer и PrintStream получают символы буфера без промежуточной строки; в StringBuilder строки
+ * пишутся напрямую, без буфера. Экземпляр не потокобезопасен: буфер принадлежит одному выводу.
+ */
+public final class TransactionFormatter {
+    /**
+     * Текст, который выводится вместо списка, если транзакций нет.
+     */
+    public static final String EMPTY = "Список транзакций пуст\n";
+
+    private final StringBuilder row = new StringBuilder(160);
+    private char[] chars = new char[160];
+
+    /**
+     * Выводит заголовок и транзакции по одной строке на транзакцию.
+     * Заголовок выводится перед первой транзакцией; если транзакций нет, выводится EMPTY.
+     *
+     * @param transactions транзакции для вывода; обходятся один раз.
+     * @param header       заголовок списка.
+     * @param out          приёмник текста. Приёмник не закрывается.
+     * @return количество выведенных транзакций.
+     * @throws IOException если запись в приёмник не удалась.
+     */
+    public long write(Iterable<Transaction> transactions, String header, Appendable out) throws IOException {
+        if (out instanceof PrintStream stream) {
+            // Кодирование через собственный буфер OutputStreamWriter: PrintStream.append создаёт строку на каждую запись
+            Writer writer = new OutputStreamWriter(stream, stream.charset());
+            long rows = write(transactions, header, writer);
+            writer.flush();
+            return rows;
+        }
+        long rows = 0;
+        for (Transaction transaction : transactions) {
+            if (rows == 0) {
+                out.append(header).append('\n');
+            }
+            if (out instanceof StringBuilder builder) {
+                appendRow(builder, transaction);
+            } else {
+                row.setLength(0);
+                appendRow(row, transaction);
+                flushRow(out);
+            }
+            rows++;
+        }
+        if (rows == 0) {
+            out.append(EMPTY);
+        }
+        return rows;
+    }
+
+    /**
+     * Форматирует транзакции в строку.
+     *
+     * @param transactions транзакции для вывода.
+     * @param header       заголовок списка.
+     * @return строка, содержащая отформатированный список транзакций.
+     */
+    public String format(Iterable<Transaction> transactions, String header) {
+        StringBuilder text = new StringBuilder();
+        try {
+            write(transactions, header, text);
+        } catch (IOException e) {
+            throw new IllegalStateException("StringBuilder cannot fail", e);
+        }
+        return text.toString();
+    }
+
+    private void flushRow(Appendable out) throws IOException {
+        if (out instanceof Writer writer) {
+            if (chars.length < row.length()) {
+                chars = new char[Math.max(row.length(), chars.length * 2)];
+            }
+            row.getChars(0, row.length(), chars, 0);
+            writer.write(chars, 0, row.length());
+        } else {
+            out.append(row);
+        }
+    }
+
+    private static void appendRow(StringBuilder target, Transaction transaction) {
+        target.append("ID: ").append(transaction.getId()).append(", Сумма: ");
+        Money.appendTo(target, transaction.getAmount()).append(", Категория: ").append(transaction.getCategory())
+                .append(", Дата: ");
+        appendDate(target, transaction.getDate());
+        target.append(", Описание: ").append(transaction.getDescription())
+                .append(", Тип: ").append(transaction.isIncome() ? "Доход" : "Расход").append('\n');
+    }
+
+    /**
+     * Дописывает дату в формате ISO, как LocalDate.toString.
+     */
+    private static void appendDate(StringBuilder target, LocalDate date) {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            target.append(date);
+            return;
+        }
+        target.append(year).append('-');
+        appendTwoDigits(target, date.getMonthValue());
+        target.append('-');
+        appendTwoDigits(target, date.getDayOfMonth());
+    }
+
+    private static void appendTwoDigits(StringBuilder target, int value) {
+        target.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
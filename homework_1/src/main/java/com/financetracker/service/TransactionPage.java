@@ -0,0 +1,121 @@
+package com.financetracker.service;
+
+import com.financetracker.model.Transaction;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Страница списка транзакций и курсор следующей страницы.
+ * <p>
+ * Транзакции упорядочены по дате, а при равной дате — по идентификатору. Курсор указывает
+ * на последнюю транзакцию страницы в этом порядке, поэтому добавление и удаление транзакций
+ * между запросами страниц не приводит к пропускам и повторам уже показанных строк.
+ */
+public class TransactionPage {
+    /**
+     * Порядок транзакций в списке.
+     */
+    static final Comparator<Transaction> ORDER =
+            Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId);
+
+    private final List<Transaction> transactions;
+    private final String nextCursor;
+
+    /**
+     * Создаёт страницу.
+     *
+     * @param transactions транзакции страницы в порядке списка.
+     * @param nextCursor   курсор следующей страницы; null, если страница последняя.
+     */
+    public TransactionPage(List<Transaction> transactions, String nextCursor) {
+        this.transactions = List.copyOf(transactions);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Возвращает транзакции страницы.
+     *
+     * @return неизменяемый список транзакций.
+     */
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Возвращает курсор, по которому запрашивается следующая страница.
+     *
+     * @return курсор или null, если страница последняя.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Проверяет, есть ли следующая страница.
+     *
+     * @return true, если после этой страницы есть транзакции.
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Возвращает курсор, указывающий на транзакцию: "номер дня от эпохи:идентификатор".
+     */
+    static String cursorOf(Transaction transaction) {
+        return transaction.getDate().toEpochDay() + ":" + transaction.getId();
+    }
+
+    /**
+     * Позиция в списке, после которой начинается страница.
+     */
+    static final class Cursor {
+        private final long epochDay;
+        private final String id;
+
+        private Cursor(long epochDay, String id) {
+            this.epochDay = epochDay;
+            this.id = id;
+        }
+
+        /**
+         * Разбирает курсор, полученный из getNextCursor.
+         *
+         * @throws IllegalArgumentException если строка не является курсором.
+         */
+        static Cursor parse(String cursor) {
+            int separator = cursor.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                return new Cursor(Long.parseLong(cursor.substring(0, separator)), cursor.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+
+        /**
+         * Возвращает номер дня от эпохи транзакции, на которую указывает курсор.
+         */
+        long getEpochDay() {
+            return epochDay;
+        }
+
+        /**
+         * Возвращает идентификатор транзакции, на которую указывает курсор.
+         */
+        String getId() {
+            return id;
+        }
+
+        /**
+         * Проверяет, стоит ли транзакция в списке после курсора.
+         */
+        boolean isBefore(Transaction transaction) {
+            int order = Long.compare(epochDay, transaction.getDate().toEpochDay());
+            return order < 0 || order == 0 && id.compareTo(transaction.getId()) < 0;
+        }
+    }
+}
@@ -1,12 +1,36 @@
 package com.financetracker.service;
 
+import com.financetracker.io.BinaryImporter;
+import com.financetracker.io.CsvImporter;
+import com.financetracker.io.ExportFormat;
+import com.financetracker.io.ImportResult;
+import com.financetracker.io.TransactionExporter;
+import com.financetracker.ledger.CategoryTotals;
+import com.financetracker.ledger.Ledger;
+import com.financetracker.ledger.ParallelAggregator;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.CategoryDictionary;
 import com.financetracker.model.Transaction;
+import com.financetracker.report.ReportEngine;
 import com.financetracker.repository.UserRepository;
+import com.financetracker.utils.Money;
 
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Сервис для управления транзакциями пользователей.
@@ -14,6 +38,8 @@ import java.util.Map;
  */
 public class TransactionService {
     private UserRepository userRepository;
+    private final ReportEngine reportEngine;
+    private final ParallelAggregator aggregator;
 
     /**
      * Конструктор класса TransactionService.
@@ -21,22 +47,129 @@ public class TransactionService {
      * @param userRepository репозиторий пользователей, используемый для доступа к данным транзакций.
      */
     public TransactionService(UserRepository userRepository) {
+        this(userRepository, new ReportEngine());
+    }
+
+    /**
+     * Конструктор класса TransactionService с заданным движком отчётов.
+     *
+     * @param userRepository репозиторий пользователей, используемый для доступа к данным транзакций.
+     * @param reportEngine   движок, формирующий финансовые отчёты.
+     */
+    public TransactionService(UserRepository userRepository, ReportEngine reportEngine) {
+        this(userRepository, reportEngine, ParallelAggregator.getDefault());
+    }
+
+    /**
+     * Конструктор класса TransactionService с заданными движком отчётов и параллельным агрегатором.
+     * Агрегатор используется для подсчётов по транзакциям, хранящимся не в Ledger,
+     * если их количество не меньше порога агрегатора.
+     *
+     * @param userRepository репозиторий пользователей, используемый для доступа к данным транзакций.
+     * @param reportEngine   движок, формирующий финансовые отчёты.
+     * @param aggregator     агрегатор для параллельного подсчёта.
+     */
+    public TransactionService(UserRepository userRepository, ReportEngine reportEngine,
+                              ParallelAggregator aggregator) {
         this.userRepository = userRepository;
+        this.reportEngine = reportEngine;
+        this.aggregator = aggregator;
     }
 
     /**
      * Добавляет транзакцию для указанного пользователя.
      *
      * @param id          уникальный идентификатор пользователя.
-     * @param amount      сумма транзакции.
+     * @param amount      сумма транзакции в копейках.
      * @param category    категория транзакции.
      * @param date        дата транзакции.
      * @param description описание транзакции.
      * @param isIncome    true, если транзакция является доходом; false, если расходом.
+     * @return созданная транзакция.
+     */
+    public Transaction addTransaction(String id, long amount, String category, LocalDate date,
+                                      String description, boolean isIncome) {
+        Transaction transaction = new Transaction(amount, category, date, description, isIncome);
+        userRepository.addTransaction(id, transaction);
+        return transaction;
+    }
+
+    /**
+     * Добавляет пачку транзакций для указанного пользователя.
+     * Пачка сначала проверяется целиком и добавляется, только если все строки корректны,
+     * поэтому при ошибке хранилище не меняется.
+     *
+     * @param id    уникальный идентификатор пользователя.
+     * @param batch пачка транзакций. Не может быть null.
+     * @throws IllegalArgumentException если batch равен null, у строки нет идентификатора,
+     *                                  сумма не положительна или идентификатор повторяется
+     *                                  в пачке либо уже есть у пользователя.
+     */
+    public void addTransactions(String id, TransactionBatch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        Map<String, Transaction> existing = userRepository.getTransactions(id);
+        Set<String> ids = new HashSet<>(batch.size() * 4 / 3 + 1);
+        for (int row = 0; row < batch.size(); row++) {
+            String transactionId = batch.id(row);
+            if (transactionId == null || batch.amount(row) <= 0) {
+                throw new IllegalArgumentException("Row " + row + " must have an id and a positive amount");
+            }
+            if (!ids.add(transactionId) || existing.containsKey(transactionId)) {
+                throw new IllegalArgumentException("Duplicate transaction id " + transactionId + " in row " + row);
+            }
+        }
+        userRepository.addTransactions(id, batch);
+    }
+
+    /**
+     * Импортирует транзакции пользователя из файла CSV (формат описан в CsvImporter)
+     * или из двоичного экспорта, если у файла расширение ExportFormat.BINARY_EXTENSION.
+     * Транзакции добавляются в хранилище пользователя пачками.
+     *
+     * @param id       уникальный идентификатор пользователя.
+     * @param file     файл CSV или двоичный экспорт.
+     * @param listener получает каждую пачку после её добавления в хранилище.
+     * @return итог импорта.
+     * @throws IOException если файл не удалось прочитать.
+     */
+    public ImportResult importTransactions(String id, Path file, Consumer<TransactionBatch> listener)
+            throws IOException {
+        Consumer<TransactionBatch> sink = batch -> {
+            userRepository.addTransactions(id, batch);
+            listener.accept(batch);
+        };
+        return switch (ExportFormat.of(file)) {
+            case CSV -> new CsvImporter().importFile(file, sink);
+            case BINARY -> new BinaryImporter().importFile(file, sink);
+        };
+    }
+
+    /**
+     * Экспортирует все транзакции пользователя в файл потоково, через буфер постоянного размера.
+     *
+     * @param id     уникальный идентификатор пользователя.
+     * @param format формат экспорта.
+     * @param file   файл, в который пишутся транзакции; его содержимое заменяется.
+     * @return количество экспортированных транзакций.
+     * @throws IOException если файл не удалось записать.
+     */
+    public long exportTransactions(String id, ExportFormat format, Path file) throws IOException {
+        return new TransactionExporter().export(userRepository.getTransactions(id).values(), format, file);
+    }
+
+    /**
+     * Экспортирует все транзакции пользователя в канал потоково, через буфер постоянного размера.
+     *
+     * @param id     уникальный идентификатор пользователя.
+     * @param format формат экспорта.
+     * @param target канал, в который пишутся транзакции. Канал не закрывается.
+     * @return количество экспортированных транзакций.
+     * @throws IOException если запись в канал не удалась.
      */
-    public void addTransaction(String id, double amount, String category, LocalDate date,
-                               String description, boolean isIncome) {
-        userRepository.addTransaction(id, new Transaction(amount, category, date, description, isIncome));
+    public long exportTransactions(String id, ExportFormat format, WritableByteChannel target) throws IOException {
+        return new TransactionExporter().export(userRepository.getTransactions(id).values(), format, target);
     }
 
     /**
@@ -91,10 +224,12 @@ public class TransactionService {
      *
      * @param userId        уникальный идентификатор пользователя.
      * @param transactionId уникальный идентификатор транзакции.
-     * @param amount        новая сумма транзакции.
+     * @param amount        новая сумма транзакции в копейках.
      */
-    public void setTransactionAmount(String userId, String transactionId, double amount) {
-        userRepository.getTransaction(userId, transactionId).setAmount(amount);
+    public void setTransactionAmount(String userId, String transactionId, long amount) {
+        Transaction transaction = userRepository.getTransaction(userId, transactionId);
+        transaction.setAmount(amount);
+        userRepository.updateTransaction(userId, transaction);
     }
 
     /**
@@ -105,7 +240,9 @@ public class TransactionService {
      * @param category      новая категория транзакции.
      */
     public void setTransactionCategory(String userId, String transactionId, String category) {
-        userRepository.getTransaction(userId, transactionId).setCategory(category);
+        Transaction transaction = userRepository.getTransaction(userId, transactionId);
+        transaction.setCategory(category);
+        userRepository.updateTransaction(userId, transaction);
     }
 
     /**
@@ -116,7 +253,38 @@ public class TransactionService {
      * @param description   новое описание транзакции.
      */
     public void setTransactionDescription(String userId, String transactionId, String description) {
-        userRepository.getTransaction(userId, transactionId).setDescription(description);
+        Transaction transaction = userRepository.getTransaction(userId, transactionId);
+        transaction.setDescription(description);
+        userRepository.updateTransaction(userId, transaction);
+    }
+
+    /**
+     * Включает или отключает индекс префиксных сумм по дням для транзакций пользователя.
+     * С включённым индексом суммы доходов и расходов за любой период вычисляются
+     * за O(log d), где d — число дней истории. Имеет смысл для пользователей
+     * с большим количеством транзакций и частыми запросами за произвольные периоды.
+     *
+     * @param id      уникальный идентификатор пользователя.
+     * @param enabled true — включить индекс, false — отключить.
+     */
+    public void setPrefixSumIndexEnabled(String id, boolean enabled) {
+        if (userRepository.getTransactions(id) instanceof TransactionLedger ledger) {
+            ledger.setPrefixSumsEnabled(enabled);
+        }
+    }
+
+    /**
+     * Проверяет поддерживаемые итоги транзакций пользователя (баланс, суммы доходов и расходов,
+     * помесячные агрегаты) полным обходом. Обход выполняется векторным ядром, если оно доступно.
+     *
+     * @param id уникальный идентификатор пользователя.
+     * @return true, если итоги согласованы или транзакции хранятся без поддерживаемых итогов.
+     */
+    public boolean verifyTotals(String id) {
+        if (userRepository.getTransactions(id) instanceof Ledger ledger) {
+            return ledger.verifyTotals();
+        }
+        return true;
     }
 
     /**
@@ -124,11 +292,18 @@ public class TransactionService {
      * Баланс рассчитывается как сумма всех доходов за вычетом всех расходов.
      *
      * @param id уникальный идентификатор пользователя.
-     * @return текущий баланс пользователя.
+     * @return текущий баланс пользователя в копейках.
      */
-    public double getBalance(String id) {
-        return userRepository.getTransactions(id).values().stream()
-                .mapToDouble(transaction -> transaction.isIncome() ? transaction.getAmount() : -transaction.getAmount())
+    public long getBalance(String id) {
+        Map<String, Transaction> transactions = userRepository.getTransactions(id);
+        if (transactions instanceof Ledger ledger) {
+            return ledger.balance();
+        }
+        if (aggregator.isParallel(transactions)) {
+            return aggregator.aggregate(transactions, null, null).getBalance();
+        }
+        return transactions.values().stream()
+                .mapToLong(transaction -> transaction.isIncome() ? transaction.getAmount() : -transaction.getAmount())
                 .sum();
     }
 
@@ -138,11 +313,18 @@ public class TransactionService {
      * @param id    уникальный идентификатор пользователя.
      * @param start начальная дата периода.
      * @param end   конечная дата периода.
-     * @return сумма доходов за период.
+     * @return сумма доходов за период в копейках.
      */
-    public double getIncomeOfPeriod(String id, LocalDate start, LocalDate end) {
-        return userRepository.getTransactions(id).values().stream()
-                .mapToDouble(transaction -> transaction.isIncome() && transaction.getDate().isAfter(start.minusDays(1))
+    public long getIncomeOfPeriod(String id, LocalDate start, LocalDate end) {
+        Map<String, Transaction> transactions = userRepository.getTransactions(id);
+        if (aggregator.isParallel(transactions)) {
+            return aggregator.aggregate(transactions, start, end).getSummary().getIncome();
+        }
+        if (transactions instanceof Ledger ledger) {
+            return ledger.sumOfPeriod(true, start, end);
+        }
+        return transactions.values().stream()
+                .mapToLong(transaction -> transaction.isIncome() && transaction.getDate().isAfter(start.minusDays(1))
                         && transaction.getDate().isBefore(end.plusDays(1)) ? transaction.getAmount() : 0)
                 .sum();
     }
@@ -153,11 +335,18 @@ public class TransactionService {
      * @param id    уникальный идентификатор пользователя.
      * @param start начальная дата периода.
      * @param end   конечная дата периода.
-     * @return сумма расходов за период.
+     * @return сумма расходов за период в копейках.
      */
-    public double getExpensesOfPeriod(String id, LocalDate start, LocalDate end) {
-        return userRepository.getTransactions(id).values().stream()
-                .mapToDouble(transaction -> !transaction.isIncome() && transaction.getDate().isAfter(start.minusDays(1))
+    public long getExpensesOfPeriod(String id, LocalDate start, LocalDate end) {
+        Map<String, Transaction> transactions = userRepository.getTransactions(id);
+        if (aggregator.isParallel(transactions)) {
+            return aggregator.aggregate(transactions, start, end).getSummary().getExpense();
+        }
+        if (transactions instanceof Ledger ledger) {
+            return ledger.sumOfPeriod(false, start, end);
+        }
+        return transactions.values().stream()
+                .mapToLong(transaction -> !transaction.isIncome() && transaction.getDate().isAfter(start.minusDays(1))
                         && transaction.getDate().isBefore(end.plusDays(1)) ? transaction.getAmount() : 0)
                 .sum();
     }
@@ -168,22 +357,25 @@ public class TransactionService {
      * @param id    уникальный идентификатор пользователя.
      * @param start начальная дата периода.
      * @param end   конечная дата периода.
-     * @return Map<String, Double>, где ключ — категория, а значение — сумма расходов по этой категории.
+     * @return Map<String, Long>, где ключ — категория, а значение — сумма расходов по этой категории в копейках.
      */
-    public Map<String, Double> getExpensesByCategory(String id, LocalDate start, LocalDate end) {
-        List<Transaction> transactions = userRepository.getTransactions(id).values().stream().toList();
-
-        Map<String, Double> expensesByCategory = new HashMap<>();
-
-        transactions.stream()
-                .filter(transaction -> !transaction.isIncome())
-                .filter(transaction -> !transaction.getDate().isBefore(start) &&
-                        !transaction.getDate().isAfter(end)) // Только расходы
-                .forEach(transaction -> {
-                    expensesByCategory.merge(transaction.getCategory(), transaction.getAmount(), Double::sum);
-                });
+    public Map<String, Long> getExpensesByCategory(String id, LocalDate start, LocalDate end) {
+        Map<String, Transaction> transactionMap = userRepository.getTransactions(id);
+        if (aggregator.isParallel(transactionMap)) {
+            return aggregator.aggregate(transactionMap, start, end).getSummary().getExpensesByCategory().toMap();
+        }
+        if (transactionMap instanceof Ledger ledger) {
+            return ledger.expensesByCategory(start, end);
+        }
 
-        return expensesByCategory;
+        CategoryTotals totals = new CategoryTotals();
+        for (Transaction transaction : transactionMap.values()) {
+            if (!transaction.isIncome() && !transaction.getDate().isBefore(start) &&
+                    !transaction.getDate().isAfter(end)) { // Только расходы
+                totals.add(transaction.getCategoryId(), transaction.getAmount());
+            }
+        }
+        return totals.toMap();
     }
 
     /**
@@ -191,18 +383,36 @@ public class TransactionService {
      *
      * @param id    уникальный идентификатор пользователя.
      * @param month месяц в формате "yyyy-MM".
-     * @return сумма расходов за месяц.
+     * @return сумма расходов за месяц в копейках.
      */
-    public double calculateMonthlyExpress(String id, String month) {
-        return userRepository.getTransactions(id).values().stream()
-                .mapToDouble(transaction -> !transaction.isIncome() && transaction.getDate().toString().substring(0, 7).equals(month) ?
-                        transaction.getAmount() : 0)
+    public long calculateMonthlyExpress(String id, String month) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+        Map<String, Transaction> transactions = userRepository.getTransactions(id);
+        if (aggregator.isParallel(transactions)) {
+            return aggregator.aggregate(transactions, yearMonth.atDay(1), yearMonth.atEndOfMonth())
+                    .getSummary().getExpense();
+        }
+        if (transactions instanceof Ledger ledger) {
+            // Месяц целиком читается из помесячных агрегатов хранилища
+            return ledger.sumOfPeriod(false, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+        }
+        return transactions.values().stream()
+                .filter(transaction -> !transaction.isIncome() &&
+                        transaction.getDate().getYear() == yearMonth.getYear() &&
+                        transaction.getDate().getMonthValue() == yearMonth.getMonthValue())
+                .mapToLong(Transaction::getAmount)
                 .sum();
     }
 
     /**
      * Генерирует финансовый отчёт для пользователя за указанный период.
-     * Отчёт включает текущий баланс, доходы, расходы и расходы по категориям.
+     * Отчёт включает текущий баланс, доходы, расходы и расходы по категориям
+     * и формируется ReportEngine за один проход по транзакциям.
      *
      * @param id    уникальный идентификатор пользователя.
      * @param start начальная дата периода.
@@ -210,20 +420,7 @@ public class TransactionService {
      * @return строка, содержащая финансовый отчёт.
      */
     public String generateReport(String id, LocalDate start, LocalDate end) {
-        double balance = getBalance(id);
-        double income = getIncomeOfPeriod(id, start, end);
-        double expense = getExpensesOfPeriod(id, start, end);
-        Map<String, Double> expensesByCategory = getExpensesByCategory(id, start, end);
-
-        StringBuilder report = new StringBuilder();
-        report.append("=== Финансовый отчёт ===\n");
-        report.append(String.format("Текущий баланс: %.2f \n", balance));
-        report.append(String.format("Доход за период: %.2f \n", income));
-        report.append(String.format("Расход за период: %.2f \n", expense));
-        report.append("Расходы по категориям:\n");
-        expensesByCategory.forEach((category, amount) ->
-                report.append(String.format("- %s: %.2f \n", category, amount)));
-        return report.toString();
+        return reportEngine.generate(userRepository.getTransactions(id), start, end);
     }
 
     /**
@@ -233,7 +430,21 @@ public class TransactionService {
      * @return строка, содержащая список транзакций.
      */
     public String viewTransactionNoFilter(String id) {
-        return formatTransactions(userRepository.getTransactions(id).values().stream().toList(), "Список транзакций:");
+        return new TransactionFormatter().format(userRepository.getTransactions(id).values(), "Список транзакций:");
+    }
+
+    /**
+     * Выводит все транзакции пользователя без фильтрации потоково, по одной строке на транзакцию.
+     * Текст всего списка в памяти не собирается, поэтому подходит для вывода больших хранилищ
+     * в консоль или файл.
+     *
+     * @param id  уникальный идентификатор пользователя.
+     * @param out приёмник текста, например, System.out или Writer файла. Приёмник не закрывается.
+     * @return количество выведенных транзакций.
+     * @throws IOException если запись в приёмник не удалась.
+     */
+    public long writeTransactions(String id, Appendable out) throws IOException {
+        return new TransactionFormatter().write(userRepository.getTransactions(id).values(), "Список транзакций:", out);
     }
 
     /**
@@ -244,9 +455,15 @@ public class TransactionService {
      * @return строка, содержащая список транзакций.
      */
     public String viewTransactionsDateFilter(String id, LocalDate dateFilter) {
-        List<Transaction> filteredTransactions = userRepository.getTransactions(id).values().stream()
-                .filter(transaction -> transaction.getDate().isEqual(dateFilter))
-                .toList();
+        Map<String, Transaction> transactions = userRepository.getTransactions(id);
+        List<Transaction> filteredTransactions;
+        if (transactions instanceof Ledger ledger) {
+            filteredTransactions = ledger.byDate(dateFilter);
+        } else {
+            filteredTransactions = transactions.values().stream()
+                    .filter(transaction -> transaction.getDate().isEqual(dateFilter))
+                    .toList();
+        }
         return formatTransactions(filteredTransactions, "Список транзакций по дате " + dateFilter + ":");
     }
 
@@ -258,9 +475,18 @@ public class TransactionService {
      * @return строка, содержащая список транзакций.
      */
     public String viewTransactionsCategoryFilter(String id, String categoryFilter) {
-        List<Transaction> filteredTransactions = userRepository.getTransactions(id).values().stream()
-                .filter(transaction -> transaction.getCategory().equals(categoryFilter))
-                .toList();
+        int categoryId = CategoryDictionary.getInstance().find(categoryFilter);
+        Map<String, Transaction> transactions = userRepository.getTransactions(id);
+        List<Transaction> filteredTransactions;
+        if (categoryId == CategoryDictionary.UNKNOWN) {
+            filteredTransactions = List.of();
+        } else if (transactions instanceof Ledger ledger) {
+            filteredTransactions = ledger.byCategory(categoryId);
+        } else {
+            filteredTransactions = transactions.values().stream()
+                    .filter(transaction -> transaction.getCategoryId() == categoryId)
+                    .toList();
+        }
         return formatTransactions(filteredTransactions, "Список транзакций по категории " + categoryFilter + ":");
     }
 
@@ -279,6 +505,201 @@ public class TransactionService {
         return formatTransactions(filteredTransactions, "Список транзакций (" + type + "):");
     }
 
+    /**
+     * Ищет транзакции пользователя по словам описания. Все слова запроса должны встречаться
+     * в описании; слово со звёздочкой на конце ищется по префиксу, например "кофе* молоко".
+     * Регистр и различие «е»/«ё» не учитываются. Поиск идёт по инвертированному индексу
+     * описаний, поэтому не зависит от количества транзакций без искомых слов.
+     *
+     * @param id    уникальный идентификатор пользователя.
+     * @param query строка запроса.
+     * @param limit наибольшее количество результатов.
+     * @return список найденных транзакций в порядке их добавления или последнего изменения описания.
+     * @throws IllegalArgumentException если limit отрицателен.
+     */
+    public List<Transaction> searchTransactions(String id, String query, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        return userRepository.searchTransactions(id, query, limit);
+    }
+
+    /**
+     * Возвращает не больше limit транзакций пользователя с наибольшими суммами по убыванию сумм,
+     * например, десять крупнейших расходов за месяц. Транзакции отбираются ограниченной кучей
+     * за один обход, без сортировки и копирования всех транзакций: стоимость — O(n log limit).
+     *
+     * @param id       уникальный идентификатор пользователя.
+     * @param limit    наибольшее количество транзакций.
+     * @param start    начальная дата периода (включительно); null — без ограничения.
+     * @param end      конечная дата периода (включительно); null — без ограничения.
+     * @param income   true — только доходы, false — только расходы, null — все транзакции.
+     * @param category категория; null — любая категория.
+     * @return список транзакций по убыванию сумм.
+     * @throws IllegalArgumentException если limit отрицателен.
+     */
+    public List<Transaction> getLargestTransactions(String id, int limit, LocalDate start, LocalDate end,
+                                                    Boolean income, String category) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        int categoryId = category == null ? CategoryDictionary.ANY : CategoryDictionary.getInstance().find(category);
+        if (categoryId == CategoryDictionary.UNKNOWN || limit == 0) {
+            return List.of();
+        }
+        Map<String, Transaction> transactions = userRepository.getTransactions(id);
+        if (transactions instanceof Ledger ledger) {
+            return ledger.largest(limit, start, end, income, categoryId);
+        }
+        // Куча с наименьшей из отобранных транзакций в вершине
+        PriorityQueue<Transaction> selected = new PriorityQueue<>(Math.max(1, Math.min(limit, transactions.size())),
+                Comparator.comparingLong(Transaction::getAmount));
+        for (Transaction transaction : transactions.values()) {
+            if (start != null && transaction.getDate().isBefore(start) || end != null && transaction.getDate().isAfter(end)
+                    || income != null && transaction.isIncome() != income
+                    || categoryId != CategoryDictionary.ANY && transaction.getCategoryId() != categoryId) {
+                continue;
+            }
+            if (selected.size() < limit) {
+                selected.add(transaction);
+            } else if (transaction.getAmount() > selected.peek().getAmount()) {
+                selected.poll();
+                selected.add(transaction);
+            }
+        }
+        Transaction[] result = new Transaction[selected.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = selected.poll();
+        }
+        return List.of(result);
+    }
+
+    /**
+     * Возвращает страницу транзакций пользователя, удовлетворяющих фильтрам, в порядке даты и идентификатора.
+     * <p>
+     * Для Ledger страница выбирается методом Ledger.page начиная с дня курсора: колоночное хранилище
+     * обходит по индексу дат только дни страницы, объекты Transaction создаются только для строк
+     * страницы, поэтому просмотр всего списка страницами стоит O(n), а не O(n²/limit).
+     * Для прочих коллекций транзакции обходятся, как в getTransactionsPage с условием отбора.
+     *
+     * @param id       уникальный идентификатор пользователя.
+     * @param start    начальная дата периода (включительно); null — без ограничения.
+     * @param end      конечная дата периода (включительно); null — без ограничения.
+     * @param income   true — только доходы, false — только расходы, null — все транзакции.
+     * @param category категория; null — любая категория.
+     * @param cursor   курсор из TransactionPage.getNextCursor; null — первая страница.
+     * @param limit    наибольшее количество транзакций на странице.
+     * @return страница транзакций.
+     * @throws IllegalArgumentException если limit не положителен или курсор некорректен.
+     */
+    public TransactionPage getTransactionsPage(String id, LocalDate start, LocalDate end, Boolean income,
+                                               String category, String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        TransactionPage.Cursor after = cursor == null ? null : TransactionPage.Cursor.parse(cursor);
+        int categoryId = category == null ? CategoryDictionary.ANY : CategoryDictionary.getInstance().find(category);
+        if (categoryId == CategoryDictionary.UNKNOWN) {
+            return new TransactionPage(List.of(), null);
+        }
+        Map<String, Transaction> transactions = userRepository.getTransactions(id);
+        if (!(transactions instanceof Ledger ledger)) {
+            return getTransactionsPage(id, transaction ->
+                    (start == null || !transaction.getDate().isBefore(start))
+                            && (end == null || !transaction.getDate().isAfter(end))
+                            && (income == null || transaction.isIncome() == income)
+                            && (categoryId == CategoryDictionary.ANY || transaction.getCategoryId() == categoryId),
+                    cursor, limit);
+        }
+        int fromDay = after == null ? Integer.MIN_VALUE : (int) Math.max(Integer.MIN_VALUE,
+                Math.min(Integer.MAX_VALUE, after.getEpochDay()));
+        // Одна лишняя транзакция показывает, есть ли следующая страница
+        return toPage(ledger.page(fromDay, after == null ? null : after.getId(), pageCapacity(limit),
+                start, end, income, categoryId), limit);
+    }
+
+    /**
+     * Возвращает страницу транзакций пользователя, удовлетворяющих фильтру, в порядке даты и идентификатора.
+     * Транзакции обходятся один раз, в памяти держится не больше limit + 1 транзакций,
+     * поэтому расход памяти не зависит от количества транзакций пользователя. Условие отбора
+     * проверяется на объектах Transaction, поэтому каждая страница обходит все транзакции;
+     * для фильтров по дате, категории и типу быстрее перегрузка с фильтрами.
+     *
+     * @param id     уникальный идентификатор пользователя.
+     * @param filter условие отбора транзакций.
+     * @param cursor курсор из TransactionPage.getNextCursor; null — первая страница.
+     * @param limit  наибольшее количество транзакций на странице.
+     * @return страница транзакций.
+     * @throws IllegalArgumentException если limit не положителен или курсор некорректен.
+     */
+    public TransactionPage getTransactionsPage(String id, Predicate<Transaction> filter, String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        TransactionPage.Cursor after = cursor == null ? null : TransactionPage.Cursor.parse(cursor);
+        Map<String, Transaction> transactions = userRepository.getTransactions(id);
+        int capacity = pageCapacity(limit);
+        // Куча с наибольшей из отобранных транзакций в вершине
+        PriorityQueue<Transaction> selected = new PriorityQueue<>(Math.max(1, Math.min(capacity, transactions.size())),
+                TransactionPage.ORDER.reversed());
+        for (Transaction transaction : transactions.values()) {
+            if (after != null && !after.isBefore(transaction) || !filter.test(transaction)) {
+                continue;
+            }
+            if (selected.size() < capacity) {
+                selected.add(transaction);
+            } else if (TransactionPage.ORDER.compare(transaction, selected.peek()) < 0) {
+                selected.poll();
+                selected.add(transaction);
+            }
+        }
+        List<Transaction> rows = new ArrayList<>(selected);
+        rows.sort(TransactionPage.ORDER);
+        return toPage(rows, limit);
+    }
+
+    /**
+     * Возвращает количество транзакций, которое нужно отобрать для страницы: limit и ещё одну,
+     * показывающую, есть ли следующая страница. Для Integer.MAX_VALUE следующей страницы быть не может.
+     */
+    private static int pageCapacity(int limit) {
+        return limit == Integer.MAX_VALUE ? limit : limit + 1;
+    }
+
+    /**
+     * Собирает страницу из отобранных по порядку транзакций; если их больше limit, лишняя отбрасывается.
+     */
+    private static TransactionPage toPage(List<Transaction> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> page = rows.subList(0, limit);
+        return new TransactionPage(page, TransactionPage.cursorOf(page.get(limit - 1)));
+    }
+
+    /**
+     * Форматирует страницу транзакций в строку.
+     *
+     * @param page   страница транзакций.
+     * @param header заголовок для списка транзакций.
+     * @return строка, содержащая отформатированный список транзакций страницы.
+     */
+    public String formatTransactionPage(TransactionPage page, String header) {
+        return formatTransactions(page.getTransactions(), header);
+    }
+
+    /**
+     * Выводит страницу транзакций потоково, по одной строке на транзакцию.
+     *
+     * @param page   страница транзакций.
+     * @param header заголовок для списка транзакций.
+     * @param out    приёмник текста. Приёмник не закрывается.
+     * @throws IOException если запись в приёмник не удалась.
+     */
+    public void writeTransactionPage(TransactionPage page, String header, Appendable out) throws IOException {
+        new TransactionFormatter().write(page.getTransactions(), header, out);
+    }
+
     /**
      * Форматирует список транзакций в строку.
      *
@@ -287,22 +708,6 @@ public class TransactionService {
      * @return строка, содержащая отформатированный список транзакций.
      */
     private String formatTransactions(List<Transaction> transactions, String header) {
-        StringBuilder transactionList = new StringBuilder();
-
-        if (transactions.isEmpty()) {
-            transactionList.append("Список транзакций пуст\n");
-        } else {
-            transactionList.append(header + "\n");
-            for (Transaction transaction : transactions) {
-                transactionList.append("ID: " + transaction.getId() +
-                        ", Сумма: " + transaction.getAmount() +
-                        ", Категория: " + transaction.getCategory() +
-                        ", Дата: " + transaction.getDate().toString() +
-                        ", Описание: " + transaction.getDescription() +
-                        ", Тип: " + (transaction.isIncome() ? "Доход" : "Расход") + "\n");
-            }
-        }
-
-        return transactionList.toString();
+        return new TransactionFormatter().format(transactions, header);
     }
-}
\ No newline at end of file
+}
@@ -142,8 +142,8 @@ public class UserService {
      */
     public void changeEmail(String id, String email) {
         User user = userRepository.findUserById(id);
-        userRepository.deleteUser(id);
         user.setEmail(email);
+        // Запись индекса со старым email устаревает и удаляется репозиторием при поиске по нему
         userRepository.saveUser(user);
     }
 
@@ -0,0 +1,15 @@
+package com.financetracker.utils;
+
+/**
+ * Генератор уникальных идентификаторов.
+ * Идентификатор представляется числом long, которое можно использовать как ключ
+ * без обращения к строкам, и при необходимости кодируется в компактную строку.
+ */
+public interface IdGenerator {
+    /**
+     * Возвращает следующий уникальный идентификатор.
+     *
+     * @return идентификатор в виде неотрицательного числа.
+     */
+    long nextId();
+}
@@ -0,0 +1,60 @@
+package com.financetracker.utils;
+
+/**
+ * Точка доступа к генератору идентификаторов пользователей и транзакций.
+ * По умолчанию используется SnowflakeIdGenerator с номером узла из системного
+ * свойства "financetracker.node" (0, если свойство не задано).
+ * Идентификаторы кодируются в строку в системе счисления по основанию 36.
+ */
+public final class Ids {
+    private static final int RADIX = 36;
+
+    private static volatile IdGenerator generator =
+            new SnowflakeIdGenerator(Integer.getInteger("financetracker.node", 0));
+
+    private Ids() {
+    }
+
+    /**
+     * Возвращает следующий идентификатор в виде строки.
+     *
+     * @return строковый идентификатор.
+     */
+    public static String next() {
+        return encode(generator.nextId());
+    }
+
+    /**
+     * Заменяет используемый генератор идентификаторов.
+     *
+     * @param idGenerator новый генератор. Не может быть null.
+     * @throws IllegalArgumentException если idGenerator равен null.
+     */
+    public static void setGenerator(IdGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Id generator cannot be null");
+        }
+        generator = idGenerator;
+    }
+
+    /**
+     * Кодирует числовой идентификатор в строку.
+     *
+     * @param id неотрицательный идентификатор.
+     * @return строковое представление идентификатора.
+     */
+    public static String encode(long id) {
+        return Long.toString(id, RADIX);
+    }
+
+    /**
+     * Декодирует строковый идентификатор в число.
+     *
+     * @param id строковое представление идентификатора.
+     * @return числовой идентификатор.
+     * @throws NumberFormatException если строка не является закодированным идентификатором.
+     */
+    public static long decode(String id) {
+        return Long.parseLong(id, RADIX);
+    }
+}
@@ -53,6 +53,25 @@ public class InputValidator {
         }
     }
 
+    /**
+     * Запрашивает у пользователя ввод денежной суммы и проверяет её корректность.
+     * Сумма разбирается точно, без промежуточного преобразования в double.
+     *
+     * @param prompt Сообщение, которое будет показано пользователю.
+     * @return Сумма в копейках, введённая пользователем.
+     */
+    public long getMoneyInput(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            String input = inputProvider.nextLine();
+            try {
+                return Money.parse(input);
+            } catch (NumberFormatException e) {
+                System.out.println("Ошибка: введите сумму, например 100 или 99.50.");
+            }
+        }
+    }
+
     /**
      * Запрашивает у пользователя ввод даты и проверяет её корректность.
      *
@@ -0,0 +1,119 @@
+package com.financetracker.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Вспомогательный класс для работы с денежными суммами.
+ * Все суммы в приложении хранятся в копейках в виде long,
+ * поэтому сложение сумм выполняется точно, без ошибок округления.
+ */
+public final class Money {
+    /**
+     * Количество копеек в одном рубле.
+     */
+    public static final long CENTS_PER_UNIT = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Разбирает строку с суммой в копейки.
+     * Допускаются точка или запятая в качестве разделителя и не более двух знаков после него,
+     * например: "100", "99.5", "1234,56", "-10.00".
+     *
+     * @param text строка с суммой.
+     * @return сумма в копейках.
+     * @throws NumberFormatException если строка не является корректной суммой.
+     */
+    public static long parse(String text) {
+        if (text == null) {
+            throw new NumberFormatException("Amount cannot be null");
+        }
+        String value = text.trim();
+        int index = 0;
+        boolean negative = false;
+        if (index < value.length() && (value.charAt(index) == '-' || value.charAt(index) == '+')) {
+            negative = value.charAt(index) == '-';
+            index++;
+        }
+
+        long units = 0;
+        int unitDigits = 0;
+        while (index < value.length() && isDigit(value.charAt(index))) {
+            if (units > (Long.MAX_VALUE - 9) / 10) {
+                throw new NumberFormatException("Amount is too large: " + text);
+            }
+            units = units * 10 + (value.charAt(index) - '0');
+            unitDigits++;
+            index++;
+        }
+
+        long cents = 0;
+        int centDigits = 0;
+        if (index < value.length() && (value.charAt(index) == '.' || value.charAt(index) == ',')) {
+            index++;
+            while (index < value.length() && isDigit(value.charAt(index))) {
+                if (centDigits == 2) {
+                    throw new NumberFormatException("Amount cannot have more than two decimal places: " + text);
+                }
+                cents = cents * 10 + (value.charAt(index) - '0');
+                centDigits++;
+                index++;
+            }
+            if (centDigits == 1) {
+                cents *= 10;
+            }
+        }
+        if (index != value.length() || unitDigits + centDigits == 0) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+
+        if (units > (Long.MAX_VALUE - cents) / CENTS_PER_UNIT) {
+            throw new NumberFormatException("Amount is too large: " + text);
+        }
+        long result = units * CENTS_PER_UNIT + cents;
+        return negative ? -result : result;
+    }
+
+    /**
+     * Форматирует сумму в копейках в виде строки с двумя знаками после точки.
+     *
+     * @param cents сумма в копейках.
+     * @return строка вида "1234.56".
+     */
+    public static String format(long cents) {
+        return toDecimal(cents).toPlainString();
+    }
+
+    /**
+     * Дописывает сумму в копейках в том же виде, что и format, но без создания промежуточных объектов.
+     *
+     * @param target строка, в которую дописывается сумма.
+     * @param cents  сумма в копейках.
+     * @return target.
+     */
+    public static StringBuilder appendTo(StringBuilder target, long cents) {
+        long units = cents / CENTS_PER_UNIT;
+        long rest = cents % CENTS_PER_UNIT;
+        if (cents < 0) {
+            target.append('-');
+            units = -units;
+            rest = -rest;
+        }
+        return target.append(units).append('.').append((char) ('0' + rest / 10)).append((char) ('0' + rest % 10));
+    }
+
+    /**
+     * Переводит сумму в копейках в BigDecimal для форматирования через String.format.
+     *
+     * @param cents сумма в копейках.
+     * @return сумма с масштабом 2.
+     */
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,80 @@
+package com.financetracker.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Генератор 64-битных идентификаторов из времени, номера узла и счётчика.
+ * <p>
+ * Раскладка битов идентификатора (от старших к младшим):
+ * - 1 бит — всегда 0, идентификатор неотрицателен;
+ * - 41 бит — миллисекунды от EPOCH_MILLIS (хватает примерно на 69 лет);
+ * - 10 бит — номер узла;
+ * - 12 бит — порядковый номер внутри миллисекунды.
+ * <p>
+ * Состояние генератора — одно число AtomicLong, обновляемое через CAS, поэтому
+ * генерация не использует блокировок. Если за миллисекунду выдано больше 4096
+ * идентификаторов или системные часы пошли назад, генератор продолжает отсчёт
+ * от последнего выданного значения, и идентификаторы остаются уникальными и возрастающими.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+    /**
+     * Начало отсчёта времени: 2024-01-01T00:00:00Z.
+     */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    /**
+     * Максимальный номер узла.
+     */
+    public static final int MAX_NODE = (1 << 10) - 1;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+
+    private final long node;
+    private final LongSupplier clock;
+
+    /**
+     * Последнее выданное значение: время в старших битах и порядковый номер в младших SEQUENCE_BITS.
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * Создаёт генератор для указанного узла с системными часами.
+     *
+     * @param node номер узла от 0 до MAX_NODE.
+     * @throws IllegalArgumentException если номер узла вне допустимого диапазона.
+     */
+    public SnowflakeIdGenerator(int node) {
+        this(node, System::currentTimeMillis);
+    }
+
+    /**
+     * Создаёт генератор для указанного узла с заданным источником времени.
+     *
+     * @param node  номер узла от 0 до MAX_NODE.
+     * @param clock источник текущего времени в миллисекундах от эпохи Unix.
+     * @throws IllegalArgumentException если номер узла вне допустимого диапазона.
+     */
+    public SnowflakeIdGenerator(int node, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node must be between 0 and " + MAX_NODE);
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = last.get();
+            next = Math.max(current + 1, now);
+        } while (!last.compareAndSet(current, next));
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+}
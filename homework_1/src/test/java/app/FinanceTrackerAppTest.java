@@ -81,6 +81,70 @@ class FinanceTrackerAppTest {
         assertTrue(output.contains("100"));
     }
 
+    @Test
+    void testViewTransactionsPages() {
+        StringBuilder input = new StringBuilder("1\ntest@example.com\npassword123\npassword123\nTest User\n" + // Регистрация
+                "2\ntest@example.com\npassword123\n" + // Вход
+                "1\n");
+        for (int i = 1; i <= 25; i++) {
+            input.append("1\n100\nFood\n2023-10-").append(String.format("%02d", i)).append("\nПокупка ").append(i)
+                    .append("\nfalse\n"); // Добавление транзакции
+        }
+        input.append("4\n1\ntrue\n0\n" + // Просмотр транзакций: две страницы
+                "0\n0\n0\n"); // Выход
+        prepareInput(input.toString());
+
+        FinanceTrackerApp.main(new String[]{});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Показать следующую страницу?"));
+        assertTrue(output.contains("Покупка 20,"));
+        assertTrue(output.contains("Покупка 25,"));
+        assertTrue(output.indexOf("Покупка 20,") < output.indexOf("Показать следующую страницу?"));
+        assertTrue(output.indexOf("Покупка 21,") > output.indexOf("Показать следующую страницу?"));
+    }
+
+    @Test
+    void testLargestExpenses() {
+        String input = "1\ntest@example.com\npassword123\npassword123\nTest User\n" + // Регистрация
+                "2\ntest@example.com\npassword123\n" + // Вход
+                "1\n1\n100\nFood\n2023-10-01\nLunch\nfalse\n" + // Добавление транзакций
+                "1\n900\nRent\n2023-10-02\nFlat\nfalse\n" +
+                "1\n300\nFood\n2023-10-03\nDinner\nfalse\n0\n" +
+                "4\n5\n2023-10-01\n2023-10-31\n2\n" + // Крупнейшие расходы
+                "5\n2023-10-01\n2023-10-31\n2147483647\n0\n" + // Все расходы за период
+                "0\n0\n";
+        prepareInput(input);
+
+        FinanceTrackerApp.main(new String[]{});
+
+        String output = outputStream.toString();
+        int second = output.lastIndexOf("Крупнейшие расходы за период:");
+        String top = output.substring(output.indexOf("Крупнейшие расходы за период:"), second);
+        String all = output.substring(second);
+        assertTrue(top.indexOf("Описание: Flat") < top.indexOf("Описание: Dinner"));
+        assertFalse(top.contains("Описание: Lunch"));
+        assertTrue(all.indexOf("Описание: Dinner") < all.indexOf("Описание: Lunch"));
+    }
+
+    @Test
+    void testSearchTransactionsByDescription() {
+        String input = "1\ntest@example.com\npassword123\npassword123\nTest User\n" + // Регистрация
+                "2\ntest@example.com\npassword123\n" + // Вход
+                "1\n1\n100\nFood\n2023-10-01\nКофе с молоком\nfalse\n" + // Добавление транзакций
+                "1\n200\nFood\n2023-10-02\nХлеб\nfalse\n" +
+                "4\n5\nкоф*\n0\n" + // Поиск по описанию
+                "0\n0\n0\n"; // Выход
+        prepareInput(input);
+
+        FinanceTrackerApp.main(new String[]{});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Найденные транзакции:"));
+        assertTrue(output.contains("Описание: Кофе с молоком"));
+        assertFalse(output.contains("Описание: Хлеб"));
+    }
+
     @Test
     void testViewTransactionsDateFilter() {
         String input = "1\ntest@example.com\npassword123\npassword123\nTest User\n" + // Регистрация
@@ -257,6 +321,19 @@ class FinanceTrackerAppTest {
         assertTrue(output.contains("admin@example.com"));
     }
 
+    @Test
+    void testAdminDumpUserTransactions() {
+        String input =
+                "2\nadmin@example.com\nadmin123\n" + // Вход администратора
+                "6\n4\nwrongID\n0\n0\n0\n"; // Вывод транзакций неизвестного пользователя и выход
+        prepareInput(input);
+        FinanceTrackerApp.main(new String[]{});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("4. Вывести все транзакции пользователя"));
+        assertTrue(output.contains("Пользователь с таким id не найден!"));
+    }
+
     @Test
     void testAdminDeleteOrBanUser() {
 
@@ -0,0 +1,137 @@
+package io;
+
+import com.financetracker.io.CsvImporter;
+import com.financetracker.io.ImportResult;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testImportParsesRows() throws IOException {
+        String csv = "\uFEFFdate,amount,category,description\r\n"
+                + "2024-02-29,1500.5,Зарплата,Аванс\r\n"
+                + "01.03.2024,-250,Еда,\"Кафе, \"\"Ромашка\"\"\"\r\n"
+                + "\n"
+                + "2024-03-02,-99.99,,\"Две\nстроки\"\n"
+                + "2024-03-03,+10,Еда\n"
+                + "2024-03-04,-0.01";
+        List<Transaction> rows = importRows(new CsvImporter(), csv);
+
+        assertEquals(5, rows.size());
+        assertTransaction(rows.get(0), LocalDate.of(2024, 2, 29), 150050, "Зарплата", "Аванс", true);
+        assertTransaction(rows.get(1), LocalDate.of(2024, 3, 1), 25000, "Еда", "Кафе, \"Ромашка\"", false);
+        assertTransaction(rows.get(2), LocalDate.of(2024, 3, 2), 9999, null, "Две\nстроки", false);
+        assertTransaction(rows.get(3), LocalDate.of(2024, 3, 3), 1000, "Еда", "", true);
+        assertTransaction(rows.get(4), LocalDate.of(2024, 3, 4), 1, null, "", false);
+    }
+
+    @Test
+    void testInvalidRowsAreRejected() throws IOException {
+        String csv = "2024-01-01,100\n"
+                + "2023-02-29,100\n"
+                + "2024-13-01,100\n"
+                + "2024-01-01,1.234\n"
+                + "2024-01-01,0\n"
+                + "2024-01-01,abc\n"
+                + "2024-01-01\n"
+                + "\"2024-01-01\"x,100\n"
+                + "2024-01-02,-5\n";
+        List<Transaction> rows = new ArrayList<>();
+
+        ImportResult result = new CsvImporter().importFrom(channel(csv), batch -> collect(batch, rows));
+
+        assertEquals(2, result.getImported());
+        assertEquals(7, result.getRejected());
+        assertEquals(2, result.getFirstRejectedLine());
+        assertEquals(LocalDate.of(2024, 1, 2), rows.get(1).getDate());
+    }
+
+    @Test
+    void testSmallBufferAndBatches() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            csv.append("2024-05-").append(String.format("%02d", i % 31 + 1)).append(";-").append(i + 1)
+                    .append(",5;Категория ").append(i % 7).append(";\"Описание; номер ").append(i).append("\"\n");
+        }
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Transaction> rows = new ArrayList<>();
+
+        ImportResult result = new CsvImporter(';', 16, 64).importFrom(channel(csv.toString()), batch -> {
+            batchSizes.add(batch.size());
+            collect(batch, rows);
+        });
+
+        assertEquals(1000, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertEquals(16, batchSizes.size());
+        assertEquals(40, batchSizes.get(15));
+        assertTransaction(rows.get(999), LocalDate.of(2024, 5, 8), 100050, "Категория 5", "Описание; номер 999", false);
+    }
+
+    @Test
+    void testImportFileIntoLedger() throws IOException {
+        Path file = directory.resolve("transactions.csv");
+        Files.writeString(file, "2024-01-10,-300,Еда,Обед\n2024-01-15,1000,Зарплата,\n2024-02-01,-200,Еда,Ужин\n");
+        TransactionLedger ledger = new TransactionLedger();
+
+        ImportResult result = new CsvImporter().importFile(file, ledger::addAll);
+
+        assertEquals(3, result.getImported());
+        assertEquals(50000, ledger.balance());
+        assertEquals(30000, ledger.sumOfPeriod(false, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)));
+    }
+
+    @Test
+    void testInvalidSettingsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvImporter('"', 16, 16));
+        assertThrows(IllegalArgumentException.class, () -> new CsvImporter(',', 0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new CsvImporter(',', 16, 0));
+    }
+
+    private static List<Transaction> importRows(CsvImporter importer, String csv) throws IOException {
+        List<Transaction> rows = new ArrayList<>();
+        ImportResult result = importer.importFrom(channel(csv), batch -> collect(batch, rows));
+        assertEquals(0, result.getRejected());
+        return rows;
+    }
+
+    private static void collect(TransactionBatch batch, List<Transaction> rows) {
+        for (int row = 0; row < batch.size(); row++) {
+            rows.add(batch.toTransaction(row));
+        }
+    }
+
+    private static ReadableByteChannel channel(String csv) {
+        return Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertTransaction(Transaction transaction, LocalDate date, long amount, String category,
+                                          String description, boolean income) {
+        assertEquals(date, transaction.getDate());
+        assertEquals(amount, transaction.getAmount());
+        assertEquals(category, transaction.getCategory());
+        assertEquals(description, transaction.getDescription());
+        assertEquals(income, transaction.isIncome());
+        assertNotNull(transaction.getId());
+    }
+}
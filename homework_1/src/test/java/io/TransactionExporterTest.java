@@ -0,0 +1,154 @@
+package io;
+
+import com.financetracker.io.BinaryImporter;
+import com.financetracker.io.CsvImporter;
+import com.financetracker.io.ExportFormat;
+import com.financetracker.io.ImportResult;
+import com.financetracker.io.TransactionExporter;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCsvExport() throws IOException {
+        List<Transaction> transactions = List.of(
+                new Transaction("a", 150050, "Зарплата", LocalDate.of(2024, 2, 29), "Аванс", true),
+                new Transaction("b", 5, "Еда", LocalDate.of(2024, 3, 1), "Кафе, \"Ромашка\"", false),
+                new Transaction("c", 1000, (String) null, LocalDate.of(2024, 3, 2), null, false));
+
+        String csv = exportCsv(new TransactionExporter(), transactions);
+
+        assertEquals("date,amount,category,description,id\n"
+                + "2024-02-29,1500.50,Зарплата,Аванс,a\n"
+                + "2024-03-01,-0.05,Еда,\"Кафе, \"\"Ромашка\"\"\",b\n"
+                + "2024-03-02,-10.00,,,c\n", csv);
+    }
+
+    @Test
+    void testCsvExportIsReadByCsvImporter() throws IOException {
+        List<Transaction> transactions = sample(500);
+        List<Transaction> rows = new ArrayList<>();
+
+        String csv = exportCsv(new TransactionExporter(), transactions);
+        ImportResult result = new CsvImporter().importFrom(
+                Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))),
+                batch -> collect(batch, rows));
+
+        assertEquals(500, result.getImported());
+        assertEquals(0, result.getRejected());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction expected = transactions.get(i);
+            Transaction actual = rows.get(i);
+            assertEquals(expected.getDate(), actual.getDate());
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.isIncome(), actual.isIncome());
+            assertEquals(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.getDescription(), actual.getDescription());
+        }
+    }
+
+    @Test
+    void testBinaryExportIsReadByBinaryImporter() throws IOException {
+        List<Transaction> transactions = new ArrayList<>(sample(500));
+        transactions.add(new Transaction("без категории", 100, (String) null, LocalDate.of(2024, 1, 1), null, true));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<Transaction> rows = new ArrayList<>();
+
+        long exported = new TransactionExporter(64).export(transactions, ExportFormat.BINARY, Channels.newChannel(bytes));
+        ImportResult result = new BinaryImporter(8, 64).importFrom(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), batch -> collect(batch, rows));
+
+        assertEquals(501, exported);
+        assertEquals(501, result.getImported());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction expected = transactions.get(i);
+            Transaction actual = rows.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getDate(), actual.getDate());
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.isIncome(), actual.isIncome());
+            assertEquals(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.getDescription(), actual.getDescription());
+        }
+    }
+
+    @Test
+    void testChunkSizeDoesNotChangeOutput() throws IOException {
+        List<Transaction> transactions = sample(300);
+
+        assertEquals(exportCsv(new TransactionExporter(), transactions), exportCsv(new TransactionExporter(64), transactions));
+    }
+
+    @Test
+    void testExportFileReplacesContentAndIsReadBack() throws IOException {
+        TransactionLedger ledger = new TransactionLedger();
+        for (Transaction transaction : sample(100)) {
+            ledger.put(transaction.getId(), transaction);
+        }
+        Path file = directory.resolve("transactions.bin");
+        Files.writeString(file, "старое содержимое, которое длиннее нового файла".repeat(1000));
+
+        long exported = new TransactionExporter().export(ledger.values(), ExportFormat.BINARY, file);
+        TransactionLedger restored = new TransactionLedger();
+        new BinaryImporter().importFile(file, restored::addAll);
+
+        assertEquals(100, exported);
+        assertEquals(ledger.balance(), restored.balance());
+        assertEquals(ledger.keySet(), restored.keySet());
+    }
+
+    @Test
+    void testCorruptedBinaryThrows() {
+        byte[] data = "not an export".getBytes(StandardCharsets.US_ASCII);
+
+        assertThrows(IOException.class, () -> new BinaryImporter().importFrom(
+                Channels.newChannel(new ByteArrayInputStream(data)), batch -> { }));
+    }
+
+    @Test
+    void testInvalidChunkSizeThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new TransactionExporter(16));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryImporter(4, 16));
+    }
+
+    private static String exportCsv(TransactionExporter exporter, List<Transaction> transactions) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        exporter.export(transactions, ExportFormat.CSV, Channels.newChannel(bytes));
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<Transaction> sample(int count) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transactions.add(new Transaction("t" + i, i * 137L + 1, "Категория " + i % 7,
+                    LocalDate.of(2024, 1, 1).plusDays(i), "Описание, номер " + i, i % 3 == 0));
+        }
+        return transactions;
+    }
+
+    private static void collect(TransactionBatch batch, List<Transaction> rows) {
+        for (int row = 0; row < batch.size(); row++) {
+            rows.add(batch.toTransaction(row));
+        }
+    }
+}
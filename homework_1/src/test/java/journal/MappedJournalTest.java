@@ -0,0 +1,162 @@
+package journal;
+
+import com.financetracker.journal.Journal;
+import com.financetracker.journal.JournalReader;
+import com.financetracker.journal.MappedJournal;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordsAreReadBack() throws IOException {
+        User user = new User("u1", "test@example.com", "пароль", "Имя 😀", "user", "banned");
+        Transaction transaction = new Transaction("t1", 12345, "Еда", LocalDate.of(2024, 2, 29), null, true);
+        try (MappedJournal journal = new MappedJournal(directory)) {
+            journal.userSaved(user);
+            journal.transactionSaved("u1", transaction);
+            journal.transactionRemoved("u1", "t1");
+            journal.budgetSaved("u1", "2024-02", 50000, 1200);
+            journal.goalSaved("u1", "Отпуск \uD800", 100000, 2500);
+            journal.userDeleted("u1");
+        }
+
+        List<String> records = read(directory);
+
+        assertEquals(List.of(
+                "user u1 test@example.com пароль Имя 😀 user banned",
+                "transaction u1 t1 12345 2024-02-29 Еда null true",
+                "removed u1 t1",
+                "budget u1 2024-02 50000 1200",
+                "goal u1 Отпуск ? 100000 2500",
+                "deleted u1"), records);
+    }
+
+    @Test
+    void testSegmentRollover() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, 4096)) {
+            for (int i = 0; i < 500; i++) {
+                journal.transactionSaved("u1", new Transaction("t" + i, i, "Food",
+                        LocalDate.of(2024, 1, 1), "Description " + i, false));
+            }
+            assertTrue(journal.position() >>> 32 > 0);
+        }
+
+        List<String> records = read(directory);
+
+        assertEquals(500, records.size());
+        assertEquals("transaction u1 t499 499 2024-01-01 Food Description 499 false", records.get(499));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 1);
+        }
+    }
+
+    @Test
+    void testReopenAppendsAfterLastRecord() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory)) {
+            journal.userDeleted("u1");
+        }
+        try (MappedJournal journal = new MappedJournal(directory)) {
+            journal.userDeleted("u2");
+        }
+
+        assertEquals(List.of("deleted u1", "deleted u2"), read(directory));
+    }
+
+    @Test
+    void testTornRecordIsIgnored() throws IOException {
+        long end;
+        try (MappedJournal journal = new MappedJournal(directory, 4096)) {
+            journal.userDeleted("u1");
+            end = journal.position();
+            journal.userDeleted("u2");
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // Портим последний байт тела второй записи
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), (int) end + 8 + 1 + 4 + 1);
+        }
+
+        assertEquals(List.of("deleted u1"), read(directory));
+        try (MappedJournal journal = new MappedJournal(directory, 4096)) {
+            assertEquals(end, journal.position());
+            journal.userDeleted("u3");
+        }
+        assertEquals(List.of("deleted u1", "deleted u3"), read(directory));
+    }
+
+    @Test
+    void testClosedJournalThrows() throws IOException {
+        MappedJournal journal = new MappedJournal(directory);
+        journal.close();
+        journal.close();
+
+        assertThrows(IllegalStateException.class, () -> journal.userDeleted("u1"));
+        assertThrows(IllegalArgumentException.class, () -> new MappedJournal(directory, 100));
+    }
+
+    private static List<String> read(Path directory) throws IOException {
+        List<String> records = new ArrayList<>();
+        new JournalReader(directory).replay(new Journal() {
+            @Override
+            public void userSaved(User user) {
+                records.add(String.join(" ", "user", user.getId(), user.getEmail(), user.getPassword(),
+                        user.getName(), user.getRole(), user.getStatus()));
+            }
+
+            @Override
+            public void userDeleted(String userId) {
+                records.add("deleted " + userId);
+            }
+
+            @Override
+            public void transactionSaved(String userId, Transaction transaction) {
+                records.add(String.join(" ", "transaction", userId, transaction.getId(),
+                        String.valueOf(transaction.getAmount()), transaction.getDate().toString(),
+                        transaction.getCategory(), String.valueOf(transaction.getDescription()),
+                        String.valueOf(transaction.isIncome())));
+            }
+
+            @Override
+            public void transactionRemoved(String userId, String transactionId) {
+                records.add("removed " + userId + " " + transactionId);
+            }
+
+            @Override
+            public void budgetSaved(String userId, String month, long budget, long express) {
+                records.add("budget " + userId + " " + month + " " + budget + " " + express);
+            }
+
+            @Override
+            public void goalSaved(String userId, String name, long target, long current) {
+                records.add("goal " + userId + " " + name + " " + target + " " + current);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return records;
+    }
+}
@@ -0,0 +1,128 @@
+package journal;
+
+import com.financetracker.journal.Checkpointer;
+import com.financetracker.journal.MappedJournal;
+import com.financetracker.journal.Recovery;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.GoalRepository;
+import com.financetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private UserRepository userRepository;
+    private BudgetRepository budgetRepository;
+    private GoalRepository goalRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new UserRepository();
+        budgetRepository = new BudgetRepository();
+        goalRepository = new GoalRepository();
+    }
+
+    @Test
+    void testRecoveryLoadsSnapshotAndReplaysTail() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, 4096)) {
+            journal.userSaved(new User("u1", "test@example.com", "пароль", "Имя", "user", "active"));
+            for (int i = 0; i < 200; i++) {
+                journal.transactionSaved("u1", new Transaction("t" + i, i, i % 2 == 0 ? "Еда" : null,
+                        LocalDate.of(2024, 1, 1).plusDays(i), "Описание " + i, i % 3 == 0));
+            }
+            journal.budgetSaved("u1", "2024-01", 50000, 1200);
+            journal.goalSaved("u1", "Отпуск", 100000, 2500);
+
+            Path snapshot = new Checkpointer(directory, journal).checkpoint();
+            assertNotNull(snapshot);
+            assertEquals(1, count(".journal"));
+
+            journal.transactionRemoved("u1", "t0");
+            journal.transactionSaved("u1", new Transaction("t200", 777, "Транспорт",
+                    LocalDate.of(2024, 8, 1), "Такси", false));
+            journal.goalSaved("u1", "Отпуск", 100000, 5000);
+            journal.userSaved(new User("u1", "new@example.com", "пароль", "Имя", "user", "banned"));
+        }
+
+        long records = Recovery.recover(directory, userRepository, budgetRepository, goalRepository);
+
+        assertEquals(4, records);
+        User user = userRepository.findUserById("u1");
+        assertEquals("new@example.com", user.getEmail());
+        assertEquals("banned", user.getStatus());
+        assertEquals(200, user.getTransactions().size());
+        assertNull(user.getTransaction("t0"));
+        Transaction restored = user.getTransaction("t1");
+        assertEquals(1, restored.getAmount());
+        assertNull(restored.getCategory());
+        assertEquals(LocalDate.of(2024, 1, 2), restored.getDate());
+        assertEquals("Описание 1", restored.getDescription());
+        assertEquals("Еда", user.getTransaction("t2").getCategory());
+        assertTrue(user.getTransaction("t3").isIncome());
+        assertEquals("Транспорт", user.getTransaction("t200").getCategory());
+        assertEquals(1200, budgetRepository.findBudget("u1").getExpress());
+        assertEquals(5000, goalRepository.findGoal("u1").getCurrentAmount());
+    }
+
+    @Test
+    void testCheckpointReplacesPreviousSnapshot() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory)) {
+            Checkpointer checkpointer = new Checkpointer(directory, journal);
+            assertNull(checkpointer.checkpoint());
+
+            journal.goalSaved("u1", "Отпуск", 100000, 0);
+            Path first = checkpointer.checkpoint();
+            assertEquals(first, checkpointer.checkpoint());
+
+            journal.goalSaved("u1", "Отпуск", 100000, 300);
+            Path second = checkpointer.checkpoint();
+            assertNotEquals(first, second);
+            assertFalse(Files.exists(first));
+            assertEquals(1, count(".snapshot"));
+        }
+
+        assertEquals(0, Recovery.recover(directory, userRepository, budgetRepository, goalRepository));
+        assertEquals(300, goalRepository.findGoal("u1").getCurrentAmount());
+    }
+
+    @Test
+    void testRecoveryWithoutSnapshotReplaysJournal() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory)) {
+            journal.userSaved(new User("u1", "test@example.com", "пароль", "Имя", "user", "active"));
+            journal.budgetSaved("u1", "2024-01", 50000, 0);
+        }
+
+        assertEquals(2, Recovery.recover(directory, userRepository, budgetRepository, goalRepository));
+        assertNotNull(userRepository.findUserById("u1"));
+        assertEquals(50000, budgetRepository.findBudget("u1").getBudget());
+    }
+
+    @Test
+    void testCheckpointerRejectsInvalidInterval() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory);
+             Checkpointer checkpointer = new Checkpointer(directory, journal)) {
+            assertThrows(IllegalArgumentException.class, () -> checkpointer.start(Duration.ZERO));
+        }
+    }
+
+    private long count(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(suffix)).count();
+        }
+    }
+}
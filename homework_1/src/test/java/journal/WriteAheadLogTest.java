@@ -0,0 +1,156 @@
+package journal;
+
+import com.financetracker.journal.Journal;
+import com.financetracker.journal.JournalReader;
+import com.financetracker.journal.MappedJournal;
+import com.financetracker.journal.WriteAheadLog;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSyncPersistsConcurrentWrites() throws Exception {
+        writeConcurrently(WriteAheadLog.Durability.SYNC);
+    }
+
+    @Test
+    void testGroupCommitPersistsConcurrentWrites() throws Exception {
+        writeConcurrently(WriteAheadLog.Durability.GROUP_COMMIT);
+    }
+
+    @Test
+    void testAsyncPersistsConcurrentWrites() throws Exception {
+        writeConcurrently(WriteAheadLog.Durability.ASYNC);
+    }
+
+    private void writeConcurrently(WriteAheadLog.Durability durability) throws Exception {
+        MappedJournal journal = new MappedJournal(directory, 64 * 1024);
+        WriteAheadLog log = WriteAheadLog.open(journal, durability, Duration.ofMillis(1));
+        List<Thread> writers = new ArrayList<>();
+        AtomicInteger notDurable = new AtomicInteger();
+        for (int t = 0; t < 4; t++) {
+            String userId = "u" + t;
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    log.transactionSaved(userId, new Transaction(userId + "-" + i, i, "Food",
+                            LocalDate.of(2024, 1, 1), "Description", false));
+                    if (durability != WriteAheadLog.Durability.ASYNC && log.durablePosition() <= 8) {
+                        notDurable.incrementAndGet();
+                    }
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        log.close();
+        log.close();
+
+        assertEquals(0, notDurable.get());
+        assertEquals(1000, count(directory));
+        assertThrows(IllegalStateException.class, () -> log.userDeleted("u0"));
+    }
+
+    @Test
+    void testGroupCommitWaitsForOwnRecord() throws IOException {
+        MappedJournal journal = new MappedJournal(directory);
+        try (WriteAheadLog log = WriteAheadLog.open(journal, WriteAheadLog.Durability.GROUP_COMMIT, Duration.ZERO)) {
+            log.userDeleted("u1");
+            assertEquals(journal.position(), log.durablePosition());
+            log.goalSaved("u1", "Отпуск", 100000, 0);
+            assertEquals(journal.position(), log.durablePosition());
+            assertEquals(WriteAheadLog.Durability.GROUP_COMMIT, log.getDurability());
+        }
+    }
+
+    @Test
+    void testGroupCommitConfirmsBatchWithOneForce() throws IOException {
+        AtomicInteger forces = new AtomicInteger();
+        MappedJournal journal = new MappedJournal(directory, 64 * 1024) {
+            @Override
+            public long force() {
+                forces.incrementAndGet();
+                return super.force();
+            }
+        };
+        TransactionBatch batch = new TransactionBatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            batch.add(new Transaction("t" + i, i, i % 2 == 0 ? "Food" : null, LocalDate.of(2024, 1, 1),
+                    "Description " + i, i % 3 == 0));
+        }
+
+        try (WriteAheadLog log = WriteAheadLog.open(journal, WriteAheadLog.Durability.GROUP_COMMIT, Duration.ZERO)) {
+            log.transactionsSaved("u1", batch);
+            assertEquals(journal.position(), log.durablePosition());
+            assertEquals(1, forces.get());
+        }
+        assertEquals(1000, count(directory));
+    }
+
+    @Test
+    void testInvalidWindowThrows() throws IOException {
+        MappedJournal journal = new MappedJournal(directory);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> WriteAheadLog.open(journal, WriteAheadLog.Durability.ASYNC, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> WriteAheadLog.open(journal, WriteAheadLog.Durability.SYNC, Duration.ofMillis(-1)));
+        journal.close();
+    }
+
+    private static long count(Path directory) throws IOException {
+        AtomicLong transactions = new AtomicLong();
+        long records = new JournalReader(directory).replay(new Journal() {
+            @Override
+            public void userSaved(User user) {
+            }
+
+            @Override
+            public void userDeleted(String userId) {
+            }
+
+            @Override
+            public void transactionSaved(String userId, Transaction transaction) {
+                transactions.incrementAndGet();
+            }
+
+            @Override
+            public void transactionRemoved(String userId, String transactionId) {
+            }
+
+            @Override
+            public void budgetSaved(String userId, String month, long budget, long express) {
+            }
+
+            @Override
+            public void goalSaved(String userId, String name, long target, long current) {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        assertEquals(records, transactions.get());
+        return records;
+    }
+}
@@ -0,0 +1,54 @@
+package ledger;
+
+import com.financetracker.ledger.AmountKernel;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmountKernelTest {
+
+    @Test
+    void testBestKernelMatchesScalar() {
+        Random random = new Random(11);
+        int size = 1003; // не кратно длине вектора, чтобы проверить хвост
+        long[] amounts = new long[size];
+        int[] epochDays = new int[size];
+        long[] incomeBits = new long[(size + 63) / 64];
+        for (int row = 0; row < size; row++) {
+            amounts[row] = random.nextInt(1_000_000);
+            epochDays[row] = 19000 + random.nextInt(365);
+            if (random.nextBoolean()) {
+                incomeBits[row >>> 6] |= 1L << row;
+            }
+        }
+
+        AmountKernel scalar = AmountKernel.scalar();
+        AmountKernel best = AmountKernel.best();
+        for (boolean income : new boolean[]{true, false}) {
+            assertEquals(scalar.sum(amounts, incomeBits, size, income), best.sum(amounts, incomeBits, size, income));
+            assertEquals(scalar.sumInRange(amounts, epochDays, incomeBits, size, income, 19100, 19200),
+                    best.sumInRange(amounts, epochDays, incomeBits, size, income, 19100, 19200));
+        }
+    }
+
+    @Test
+    void testScanSumMatchesIndexedSum() {
+        TransactionLedger ledger = new TransactionLedger();
+        Random random = new Random(5);
+        for (int i = 0; i < 500; i++) {
+            ledger.add(new Transaction(random.nextInt(10_000), "Food",
+                    LocalDate.of(2023, 1, 1).plusDays(random.nextInt(365)), "Operation " + i, random.nextBoolean()));
+        }
+        LocalDate start = LocalDate.of(2023, 2, 10);
+        LocalDate end = LocalDate.of(2023, 9, 5);
+
+        assertEquals(ledger.sumOfPeriod(true, start, end), ledger.scanSumOfPeriod(true, start, end));
+        assertEquals(ledger.sumOfPeriod(false, start, end), ledger.scanSumOfPeriod(false, start, end));
+        assertTrue(ledger.verifyTotals());
+    }
+}
@@ -0,0 +1,243 @@
+package ledger;
+
+import com.financetracker.ledger.CategoryTotals;
+import com.financetracker.ledger.FileLedger;
+import com.financetracker.ledger.FileTransactionStore;
+import com.financetracker.ledger.Ledger;
+import com.financetracker.ledger.PeriodSummary;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileLedgerTest {
+
+    @TempDir
+    Path directory;
+
+    private FileLedger ledger;
+    private Transaction food;
+    private Transaction salary;
+    private Transaction transport;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Страница на 5 записей и кеш из двух страниц: почти каждое обращение вытесняет страницу
+        ledger = new FileLedger(directory.resolve("ledger"), 256, 2);
+        food = new Transaction(10000, "Food", LocalDate.of(2023, 5, 15), "Продукты", false);
+        salary = new Transaction(20000, "Salary", LocalDate.of(2023, 6, 1), null, true);
+        transport = new Transaction(5050, "Transport", LocalDate.of(2023, 6, 2), "Bus fare", false);
+        ledger.add(food);
+        ledger.add(salary);
+        ledger.add(transport);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        ledger.close();
+    }
+
+    @Test
+    void testGetMaterializesTransaction() {
+        Transaction result = ledger.get(food.getId());
+
+        assertEquals(food, result);
+        assertEquals(10000, result.getAmount());
+        assertEquals("Food", result.getCategory());
+        assertEquals(LocalDate.of(2023, 5, 15), result.getDate());
+        assertEquals("Продукты", result.getDescription());
+        assertFalse(result.isIncome());
+        assertNull(ledger.get(salary.getId()).getDescription());
+        assertNull(ledger.get("nonexistent-id"));
+        assertFalse(ledger.containsKey(42));
+    }
+
+    @Test
+    void testPeriodQueries() {
+        LocalDate start = LocalDate.of(2023, 6, 1);
+        LocalDate end = LocalDate.of(2023, 6, 30);
+
+        assertEquals(20000, ledger.sumOfPeriod(true, start, end));
+        assertEquals(5050, ledger.sumOfPeriod(false, start, end));
+        assertEquals(Map.of("Transport", 5050L), ledger.expensesByCategory(start, end));
+        assertEquals(List.of(transport), ledger.byDate(LocalDate.of(2023, 6, 2)));
+        assertEquals(List.of(food), ledger.byCategory(CategoryDictionary.getInstance().find("Food")));
+
+        PeriodSummary summary = new PeriodSummary();
+        ledger.summarize(start, end, summary);
+        assertEquals(20000, summary.getIncome());
+        assertEquals(5050, summary.getExpense());
+    }
+
+    @Test
+    void testIteratorRemove() {
+        Iterator<Map.Entry<String, Transaction>> iterator = ledger.entrySet().iterator();
+        int visited = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<String, Transaction> entry = iterator.next();
+            assertEquals(entry.getKey(), entry.getValue().getId());
+            iterator.remove();
+            visited++;
+        }
+
+        assertEquals(3, visited);
+        assertTrue(ledger.isEmpty());
+        assertEquals(0, ledger.balance());
+    }
+
+    @Test
+    void testMatchesTransactionLedger() {
+        TransactionLedger expected = new TransactionLedger();
+        expected.putAll(ledger);
+        Random random = new Random(7);
+        List<String> ids = new ArrayList<>(ledger.keySet());
+        String[] categories = {"Food", "Transport", "Rent", null};
+
+        for (int i = 0; i < 5000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 5 || ids.isEmpty()) {
+                Transaction transaction = new Transaction(1 + random.nextInt(100_000),
+                        categories[random.nextInt(categories.length)],
+                        LocalDate.of(2023, 1, 1).plusDays(random.nextInt(365)),
+                        random.nextBoolean() ? null : "Операция " + "x".repeat(random.nextInt(400)),
+                        random.nextInt(10) < 3);
+                ledger.add(transaction);
+                expected.add(transaction);
+                ids.add(transaction.getId());
+            } else if (operation < 8) {
+                Transaction transaction = expected.get(ids.get(random.nextInt(ids.size())));
+                transaction.setAmount(1 + random.nextInt(100_000));
+                transaction.setDescription("Изменено " + i);
+                assertTrue(ledger.update(transaction));
+                expected.update(transaction);
+            } else {
+                String id = ids.remove(random.nextInt(ids.size()));
+                assertTrue(ledger.delete(id));
+                expected.delete(id);
+            }
+        }
+
+        assertEquals(expected, ledger);
+        assertEquals(expected.balance(), ledger.balance());
+        assertTrue(ledger.verifyTotals());
+        assertTrue(ledger.cacheMisses() > ledger.size());
+        LocalDate start = LocalDate.of(2023, 3, 10);
+        LocalDate end = LocalDate.of(2023, 8, 20);
+        assertEquals(expected.sumOfPeriod(false, start, end), ledger.sumOfPeriod(false, start, end));
+        assertEquals(expected.expensesByCategory(start, end), ledger.expensesByCategory(start, end));
+        CategoryTotals totals = new CategoryTotals();
+        ledger.expensesByCategory(start, end, totals);
+        assertEquals(expected.expensesByCategory(start, end), totals.toMap());
+    }
+
+    @Test
+    void testClearResetsLedger() {
+        for (int i = 0; i < 1000; i++) {
+            ledger.add(new Transaction(100, "Food", LocalDate.of(2023, 1, 1), "Описание " + i, false));
+        }
+
+        ledger.clear();
+
+        assertTrue(ledger.isEmpty());
+        assertNull(ledger.get(food.getId()));
+        ledger.add(food);
+        assertEquals(food, ledger.get(food.getId()));
+        assertEquals(-10000, ledger.balance());
+    }
+
+    @Test
+    void testStoreDeletesFilesOnClose() throws IOException {
+        Path storeDirectory = directory.resolve("store");
+        FileTransactionStore store = new FileTransactionStore(storeDirectory, 1024, 4);
+        Ledger first = store.open();
+        Ledger second = store.open();
+        first.add(food);
+
+        assertTrue(store.accepts(first));
+        assertTrue(store.accepts(second));
+        assertFalse(store.accepts(ledger));
+        assertFalse(store.accepts(new TransactionLedger()));
+        assertEquals(food, first.get(food.getId()));
+
+        store.close();
+
+        try (var files = Files.list(storeDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testStoreLedgersShareCacheAndReleaseFiles() throws IOException {
+        Path storeDirectory = directory.resolve("shared");
+        // Четыре страницы на все хранилища: хранилища постоянно вытесняют страницы друг друга
+        try (FileTransactionStore store = new FileTransactionStore(storeDirectory, 256, 4)) {
+            List<Ledger> ledgers = List.of(store.open(), store.open(), store.open());
+            List<TransactionLedger> expected = List.of(new TransactionLedger(), new TransactionLedger(),
+                    new TransactionLedger());
+            for (int i = 0; i < 300; i++) {
+                Transaction transaction = new Transaction(100L + i, "Food", LocalDate.of(2023, 1, 1).plusDays(i),
+                        "Описание " + i, i % 2 == 0);
+                ledgers.get(i % 3).add(transaction);
+                expected.get(i % 3).add(transaction);
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals(expected.get(i), ledgers.get(i));
+                assertEquals(expected.get(i).balance(), ledgers.get(i).balance());
+            }
+
+            store.release(ledgers.get(0));
+
+            assertFalse(store.accepts(ledgers.get(0)));
+            assertTrue(ledgers.get(0).isEmpty());
+            assertThrows(UncheckedIOException.class, () -> ledgers.get(0).add(food));
+            assertEquals(expected.get(1), ledgers.get(1));
+            assertEquals(expected.get(2), ledgers.get(2));
+            store.release(ledger);
+            assertEquals(3, ledger.size());
+        }
+    }
+
+    @Test
+    void testInvalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> ledger.add(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.add(new Transaction(100, "Food", null, "No date", false)));
+        assertThrows(IllegalArgumentException.class, () -> new FileLedger(directory.resolve("small"), 16, 4));
+        assertThrows(IllegalArgumentException.class, () -> new FileLedger(directory.resolve("empty"), 4096, 0));
+    }
+
+    @Test
+    void testPageMatchesTransactionLedger() {
+        TransactionLedger reference = new TransactionLedger();
+        reference.putAll(ledger);
+        for (int i = 0; i < 50; i++) {
+            Transaction transaction = new Transaction(String.format("t%02d", (i * 17) % 50), 100L + i,
+                    i % 3 == 0 ? "Food" : "Transport", LocalDate.of(2023, 6, 1 + i % 6), "Покупка " + i, i % 4 == 0);
+            ledger.add(transaction);
+            reference.add(transaction);
+        }
+        int fromDay = (int) LocalDate.of(2023, 6, 2).toEpochDay();
+        int foodId = CategoryDictionary.getInstance().find("Food");
+
+        assertEquals(reference.page(Integer.MIN_VALUE, null, 9, null, null, null, CategoryDictionary.ANY),
+                ledger.page(Integer.MIN_VALUE, null, 9, null, null, null, CategoryDictionary.ANY));
+        assertEquals(reference.page(fromDay, "t20", 9, null, null, null, CategoryDictionary.ANY),
+                ledger.page(fromDay, "t20", 9, null, null, null, CategoryDictionary.ANY));
+        assertEquals(reference.page(fromDay, "t20", 4, null, LocalDate.of(2023, 6, 4), false, foodId),
+                ledger.page(fromDay, "t20", 4, null, LocalDate.of(2023, 6, 4), false, foodId));
+        assertEquals(reference.page(fromDay, null, Integer.MAX_VALUE, null, null, null, CategoryDictionary.ANY),
+                ledger.page(fromDay, null, Integer.MAX_VALUE, null, null, null, CategoryDictionary.ANY));
+    }
+}
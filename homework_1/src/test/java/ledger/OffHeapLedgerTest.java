@@ -0,0 +1,217 @@
+package ledger;
+
+import com.financetracker.ledger.CategoryTotals;
+import com.financetracker.ledger.OffHeapLedger;
+import com.financetracker.ledger.PeriodSummary;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapLedgerTest {
+
+    private OffHeapLedger ledger;
+    private Transaction food;
+    private Transaction salary;
+    private Transaction transport;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new OffHeapLedger();
+        food = new Transaction(10000, "Food", LocalDate.of(2023, 5, 15), "Продукты", false);
+        salary = new Transaction(20000, "Salary", LocalDate.of(2023, 6, 1), null, true);
+        transport = new Transaction(5050, "Transport", LocalDate.of(2023, 6, 2), "Bus fare", false);
+        ledger.add(food);
+        ledger.add(salary);
+        ledger.add(transport);
+    }
+
+    @Test
+    void testGetMaterializesTransaction() {
+        Transaction result = ledger.get(food.getId());
+
+        assertEquals(food, result);
+        assertEquals(10000, result.getAmount());
+        assertEquals("Food", result.getCategory());
+        assertEquals(LocalDate.of(2023, 5, 15), result.getDate());
+        assertEquals("Продукты", result.getDescription());
+        assertFalse(result.isIncome());
+        assertNull(ledger.get(salary.getId()).getDescription());
+        assertNull(ledger.get("nonexistent-id"));
+        assertFalse(ledger.containsKey(42));
+    }
+
+    @Test
+    void testUpdateAndDelete() {
+        Transaction transaction = ledger.get(food.getId());
+        transaction.setAmount(15000);
+        transaction.setDescription("Рынок");
+
+        assertTrue(ledger.update(transaction));
+        assertEquals("Рынок", ledger.get(food.getId()).getDescription());
+        assertFalse(ledger.update(new Transaction(100, "Food", LocalDate.now(), "Other", false)));
+
+        assertTrue(ledger.delete(food.getId()));
+        assertFalse(ledger.delete(food.getId()));
+        assertEquals(2, ledger.size());
+        assertEquals(5050, ledger.get(transport.getId()).getAmount());
+        assertTrue(ledger.get(salary.getId()).isIncome());
+        assertEquals(14950, ledger.balance());
+        assertTrue(ledger.verifyTotals());
+    }
+
+    @Test
+    void testIteratorRemove() {
+        Iterator<Map.Entry<String, Transaction>> iterator = ledger.entrySet().iterator();
+        int visited = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<String, Transaction> entry = iterator.next();
+            assertEquals(entry.getKey(), entry.getValue().getId());
+            iterator.remove();
+            visited++;
+        }
+
+        assertEquals(3, visited);
+        assertTrue(ledger.isEmpty());
+        assertEquals(0, ledger.balance());
+    }
+
+    @Test
+    void testPeriodQueries() {
+        LocalDate start = LocalDate.of(2023, 6, 1);
+        LocalDate end = LocalDate.of(2023, 6, 30);
+
+        assertEquals(20000, ledger.sumOfPeriod(true, start, end));
+        assertEquals(5050, ledger.sumOfPeriod(false, start, end));
+        assertEquals(Map.of("Transport", 5050L), ledger.expensesByCategory(start, end));
+        assertEquals(List.of(transport), ledger.byDate(LocalDate.of(2023, 6, 2)));
+        assertEquals(List.of(food), ledger.byCategory(CategoryDictionary.getInstance().find("Food")));
+
+        PeriodSummary summary = new PeriodSummary();
+        ledger.summarize(start, end, summary);
+        assertEquals(20000, summary.getIncome());
+        assertEquals(5050, summary.getExpense());
+    }
+
+    @Test
+    void testMatchesTransactionLedger() {
+        TransactionLedger expected = new TransactionLedger();
+        expected.putAll(ledger);
+        Random random = new Random(7);
+        List<String> ids = new ArrayList<>(ledger.keySet());
+        String[] categories = {"Food", "Transport", "Rent", null};
+
+        for (int i = 0; i < 5000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 5 || ids.isEmpty()) {
+                Transaction transaction = new Transaction(1 + random.nextInt(100_000),
+                        categories[random.nextInt(categories.length)],
+                        LocalDate.of(2023, 1, 1).plusDays(random.nextInt(365)),
+                        random.nextBoolean() ? null : "Операция " + "x".repeat(random.nextInt(40)),
+                        random.nextInt(10) < 3);
+                ledger.add(transaction);
+                expected.add(transaction);
+                ids.add(transaction.getId());
+            } else if (operation < 8) {
+                Transaction transaction = expected.get(ids.get(random.nextInt(ids.size())));
+                transaction.setAmount(1 + random.nextInt(100_000));
+                transaction.setDescription("Изменено " + i);
+                assertTrue(ledger.update(transaction));
+                expected.update(transaction);
+            } else {
+                String id = ids.remove(random.nextInt(ids.size()));
+                assertTrue(ledger.delete(id));
+                expected.delete(id);
+            }
+        }
+
+        assertEquals(expected, ledger);
+        assertEquals(expected.balance(), ledger.balance());
+        assertTrue(ledger.verifyTotals());
+        LocalDate start = LocalDate.of(2023, 3, 10);
+        LocalDate end = LocalDate.of(2023, 8, 20);
+        assertEquals(expected.sumOfPeriod(false, start, end), ledger.sumOfPeriod(false, start, end));
+        assertEquals(expected.expensesByCategory(start, end), ledger.expensesByCategory(start, end));
+        CategoryTotals totals = new CategoryTotals();
+        ledger.expensesByCategory(start, end, totals);
+        assertEquals(expected.expensesByCategory(start, end), totals.toMap());
+    }
+
+    @Test
+    void testClearReleasesStorage() {
+        long initial = new OffHeapLedger().offHeapBytes();
+        for (int i = 0; i < 1000; i++) {
+            ledger.add(new Transaction(100, "Food", LocalDate.of(2023, 1, 1), "Описание " + i, false));
+        }
+        assertTrue(ledger.offHeapBytes() > initial);
+
+        ledger.clear();
+
+        assertTrue(ledger.isEmpty());
+        assertEquals(initial, ledger.offHeapBytes());
+        assertNull(ledger.get(food.getId()));
+        ledger.add(food);
+        assertEquals(food, ledger.get(food.getId()));
+    }
+
+    @Test
+    void testAddThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> ledger.add(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.add(new Transaction(100, "Food", null, "No date", false)));
+    }
+
+    @Test
+    void testLargestMatchesTransactionLedger() {
+        TransactionLedger reference = new TransactionLedger();
+        reference.add(food);
+        reference.add(salary);
+        reference.add(transport);
+        for (int i = 0; i < 50; i++) {
+            Transaction transaction = new Transaction((i * 37L) % 1000, i % 3 == 0 ? "Food" : "Transport",
+                    LocalDate.of(2023, 6, 1 + i % 28), "Покупка " + i, i % 4 == 0);
+            ledger.add(transaction);
+            reference.add(transaction);
+        }
+        LocalDate start = LocalDate.of(2023, 6, 3);
+        LocalDate end = LocalDate.of(2023, 6, 20);
+        int foodId = CategoryDictionary.getInstance().find("Food");
+
+        assertEquals(reference.largest(7, start, end, false, CategoryDictionary.ANY),
+                ledger.largest(7, start, end, false, CategoryDictionary.ANY));
+        assertEquals(reference.largest(5, null, null, null, foodId), ledger.largest(5, null, null, null, foodId));
+        assertEquals(reference.largest(Integer.MAX_VALUE, null, null, null, CategoryDictionary.ANY),
+                ledger.largest(Integer.MAX_VALUE, null, null, null, CategoryDictionary.ANY));
+        assertEquals(salary, ledger.transactionAt(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> ledger.transactionAt(ledger.size()));
+    }
+
+    @Test
+    void testPageMatchesTransactionLedger() {
+        TransactionLedger reference = new TransactionLedger();
+        reference.putAll(ledger);
+        for (int i = 0; i < 50; i++) {
+            Transaction transaction = new Transaction(String.format("t%02d", (i * 17) % 50), 100L + i,
+                    i % 3 == 0 ? "Food" : "Transport", LocalDate.of(2023, 6, 1 + i % 6), "Покупка " + i, i % 4 == 0);
+            ledger.add(transaction);
+            reference.add(transaction);
+        }
+        int fromDay = (int) LocalDate.of(2023, 6, 2).toEpochDay();
+        int foodId = CategoryDictionary.getInstance().find("Food");
+
+        assertEquals(reference.page(Integer.MIN_VALUE, null, 9, null, null, null, CategoryDictionary.ANY),
+                ledger.page(Integer.MIN_VALUE, null, 9, null, null, null, CategoryDictionary.ANY));
+        assertEquals(reference.page(fromDay, "t20", 9, null, null, null, CategoryDictionary.ANY),
+                ledger.page(fromDay, "t20", 9, null, null, null, CategoryDictionary.ANY));
+        assertEquals(reference.page(fromDay, "t20", 4, null, LocalDate.of(2023, 6, 4), false, foodId),
+                ledger.page(fromDay, "t20", 4, null, LocalDate.of(2023, 6, 4), false, foodId));
+        assertEquals(reference.page(fromDay, null, Integer.MAX_VALUE, null, null, null, CategoryDictionary.ANY),
+                ledger.page(fromDay, null, Integer.MAX_VALUE, null, null, null, CategoryDictionary.ANY));
+    }
+}
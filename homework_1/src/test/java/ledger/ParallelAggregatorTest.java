@@ -0,0 +1,111 @@
+package ledger;
+
+import com.financetracker.ledger.OffHeapLedger;
+import com.financetracker.ledger.ParallelAggregator;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelAggregatorTest {
+
+    private static final String[] CATEGORIES = {"Food", "Transport", "Rent", "Health", "Salary"};
+
+    private final LocalDate start = LocalDate.of(2022, 3, 15);
+    private final LocalDate end = LocalDate.of(2023, 8, 20);
+
+    private ParallelAggregator parallel;
+    private ParallelAggregator sequential;
+    private TransactionLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        parallel = new ParallelAggregator(4, 1);
+        sequential = new ParallelAggregator(1, Integer.MAX_VALUE);
+        ledger = new TransactionLedger();
+        Random random = new Random(7);
+        LocalDate first = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 50_000; i++) {
+            ledger.add(new Transaction(1 + random.nextInt(100_000), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    first.plusDays(random.nextInt(2000)), "Operation " + i, random.nextInt(10) < 3));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallel.shutdown();
+        sequential.shutdown();
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        Map<String, Transaction> map = new HashMap<>(ledger);
+
+        ParallelAggregator.Result expected = sequential.aggregate(map, start, end);
+        for (Map<String, Transaction> transactions : List.of(ledger, map)) {
+            ParallelAggregator.Result result = parallel.aggregate(transactions, start, end);
+
+            assertEquals(expected.getBalance(), result.getBalance());
+            assertEquals(expected.getSummary().getIncome(), result.getSummary().getIncome());
+            assertEquals(expected.getSummary().getExpense(), result.getSummary().getExpense());
+            assertEquals(expected.getSummary().getExpensesByCategory().toMap(),
+                    result.getSummary().getExpensesByCategory().toMap());
+        }
+    }
+
+    @Test
+    void testMatchesLedgerIndexes() {
+        ParallelAggregator.Result result = parallel.aggregate(ledger, start, end);
+
+        assertEquals(ledger.balance(), result.getBalance());
+        assertEquals(ledger.sumOfPeriod(true, start, end), result.getSummary().getIncome());
+        assertEquals(ledger.sumOfPeriod(false, start, end), result.getSummary().getExpense());
+        assertEquals(ledger.expensesByCategory(start, end), result.getSummary().getExpensesByCategory().toMap());
+    }
+
+    @Test
+    void testWithoutPeriod() {
+        ParallelAggregator.Result result = parallel.aggregate(ledger, null, null);
+
+        assertEquals(ledger.balance(), result.getBalance());
+        assertEquals(0, result.getSummary().getIncome());
+        assertEquals(0, result.getSummary().getExpense());
+    }
+
+    @Test
+    void testOffHeapLedgerAggregatedInChunks() {
+        OffHeapLedger offHeap = new OffHeapLedger();
+        offHeap.putAll(ledger);
+
+        assertTrue(parallel.isParallel(offHeap));
+        ParallelAggregator.Result result = parallel.aggregate(offHeap, start, end);
+
+        assertEquals(ledger.balance(), result.getBalance());
+        assertEquals(ledger.sumOfPeriod(true, start, end), result.getSummary().getIncome());
+        assertEquals(ledger.sumOfPeriod(false, start, end), result.getSummary().getExpense());
+        assertEquals(ledger.expensesByCategory(start, end), result.getSummary().getExpensesByCategory().toMap());
+    }
+
+    @Test
+    void testIndexedLedgerNotParallel() {
+        assertFalse(parallel.isParallel(ledger));
+        assertTrue(parallel.isParallel(new HashMap<>(ledger)));
+        assertFalse(sequential.isParallel(new OffHeapLedger()));
+    }
+
+    @Test
+    void testThreshold() {
+        assertTrue(parallel.isParallel(1));
+        assertFalse(sequential.isParallel(1_000_000));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelAggregator(2, 0));
+    }
+}
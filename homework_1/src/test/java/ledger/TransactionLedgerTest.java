@@ -0,0 +1,308 @@
+package ledger;
+
+import com.financetracker.ledger.CategoryTotals;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionLedgerTest {
+
+    private TransactionLedger ledger;
+    private Transaction food;
+    private Transaction salary;
+    private Transaction transport;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new TransactionLedger();
+        food = new Transaction(10000, "Food", LocalDate.of(2023, 5, 15), "Groceries", false);
+        salary = new Transaction(20000, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true);
+        transport = new Transaction(5050, "Transport", LocalDate.of(2023, 6, 2), "Bus fare", false);
+        ledger.add(food);
+        ledger.add(salary);
+        ledger.add(transport);
+    }
+
+    @Test
+    void testGetMaterializesTransaction() {
+        Transaction result = ledger.get(food.getId());
+
+        assertEquals(food, result);
+        assertEquals(10000, result.getAmount());
+        assertEquals("Food", result.getCategory());
+        assertEquals(LocalDate.of(2023, 5, 15), result.getDate());
+        assertEquals("Groceries", result.getDescription());
+        assertFalse(result.isIncome());
+        assertNull(ledger.get("nonexistent-id"));
+    }
+
+    @Test
+    void testAddAllAppendsBatchAndOverwritesExistingIds() {
+        TransactionBatch batch = new TransactionBatch(1);
+        batch.add("b1", (int) LocalDate.of(2023, 6, 10).toEpochDay(), 3000,
+                CategoryDictionary.getInstance().idOf("Food"), "Cafe", false);
+        batch.add("b2", (int) LocalDate.of(2023, 7, 1).toEpochDay(), 40000,
+                CategoryDictionary.NO_CATEGORY, "Bonus", true);
+        batch.add(new Transaction(food.getId(), 12000, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
+
+        ledger.addAll(batch);
+
+        assertEquals(5, ledger.size());
+        assertEquals(3000, ledger.get("b1").getAmount());
+        assertEquals("Food", ledger.get("b1").getCategory());
+        assertEquals("Cafe", ledger.get("b1").getDescription());
+        assertNull(ledger.get("b2").getCategory());
+        assertEquals(12000, ledger.get(food.getId()).getAmount());
+        assertEquals(60000, ledger.totalIncome());
+        assertEquals(12000 + 5050 + 3000, ledger.totalExpense());
+        assertEquals(8050, ledger.sumOfPeriod(false, LocalDate.of(2023, 6, 1), LocalDate.of(2023, 6, 30)));
+        assertEquals(List.of(ledger.get("b1")), ledger.byDate(LocalDate.of(2023, 6, 10)));
+        assertTrue(ledger.verifyTotals());
+    }
+
+    @Test
+    void testUpdate() {
+        Transaction transaction = ledger.get(food.getId());
+        transaction.setAmount(15000);
+        transaction.setCategory("Cafe");
+
+        assertTrue(ledger.update(transaction));
+        assertEquals(15000, ledger.get(food.getId()).getAmount());
+        assertEquals("Cafe", ledger.get(food.getId()).getCategory());
+        assertFalse(ledger.update(new Transaction(100, "Food", LocalDate.now(), "Other", false)));
+    }
+
+    @Test
+    void testDeleteMovesLastRow() {
+        assertTrue(ledger.delete(food.getId()));
+        assertFalse(ledger.delete(food.getId()));
+
+        assertEquals(2, ledger.size());
+        assertNull(ledger.get(food.getId()));
+        assertEquals(5050, ledger.get(transport.getId()).getAmount());
+        assertTrue(ledger.get(salary.getId()).isIncome());
+        assertFalse(ledger.get(transport.getId()).isIncome());
+    }
+
+    @Test
+    void testIteratorRemove() {
+        Iterator<Map.Entry<String, Transaction>> iterator = ledger.entrySet().iterator();
+        int visited = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            visited++;
+        }
+
+        assertEquals(3, visited);
+        assertTrue(ledger.isEmpty());
+    }
+
+    @Test
+    void testBalance() {
+        assertEquals(4950, ledger.balance()); // 200 - 100 - 50.50 = 49.50
+    }
+
+    @Test
+    void testTotalsFollowChanges() {
+        Transaction transaction = ledger.get(food.getId());
+        transaction.setAmount(30000);
+        ledger.update(transaction);
+        ledger.add(new Transaction(salary.getId(), 25000, "Salary", LocalDate.of(2023, 6, 1), "Bonus", true));
+        ledger.delete(transport.getId());
+
+        assertEquals(25000, ledger.totalIncome());
+        assertEquals(30000, ledger.totalExpense());
+        assertEquals(-5000, ledger.balance());
+        assertTrue(ledger.verifyTotals());
+
+        ledger.clear();
+        assertEquals(0, ledger.balance());
+        assertTrue(ledger.verifyTotals());
+    }
+
+    @Test
+    void testSumOfPeriod() {
+        LocalDate start = LocalDate.of(2023, 6, 1);
+        LocalDate end = LocalDate.of(2023, 6, 30);
+
+        assertEquals(20000, ledger.sumOfPeriod(true, start, end));
+        assertEquals(5050, ledger.sumOfPeriod(false, start, end));
+    }
+
+    @Test
+    void testExpensesByCategory() {
+        ledger.add(new Transaction(2000, "Food", LocalDate.of(2023, 5, 20), "Snack", false));
+
+        Map<String, Long> expensesByCategory = ledger.expensesByCategory(
+                LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
+
+        assertEquals(2, expensesByCategory.size());
+        assertEquals(12000, expensesByCategory.get("Food"));
+        assertEquals(5050, expensesByCategory.get("Transport"));
+    }
+
+    @Test
+    void testExpensesByCategoryReusesTotals() {
+        CategoryTotals totals = new CategoryTotals();
+        ledger.expensesByCategory(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31), totals);
+        totals.reset();
+        ledger.expensesByCategory(LocalDate.of(2023, 6, 1), LocalDate.of(2023, 6, 30), totals);
+
+        CategoryDictionary dictionary = CategoryDictionary.getInstance();
+        assertEquals(0, totals.get(dictionary.find("Food")));
+        assertEquals(5050, totals.get(dictionary.find("Transport")));
+        assertEquals(Map.of("Transport", 5050L), totals.toMap());
+    }
+
+    @Test
+    void testByCategory() {
+        List<Transaction> result = ledger.byCategory(CategoryDictionary.getInstance().find("Food"));
+
+        assertEquals(List.of(food), result);
+        assertTrue(ledger.byCategory(CategoryDictionary.NO_CATEGORY).isEmpty());
+    }
+
+    @Test
+    void testPeriodQueriesAfterDeleteAndDateChange() {
+        ledger.delete(food.getId());
+        ledger.add(new Transaction(transport.getId(), 5050, "Transport", LocalDate.of(2023, 7, 1), "Bus fare", false));
+
+        assertEquals(0, ledger.sumOfPeriod(false, LocalDate.of(2023, 5, 1), LocalDate.of(2023, 6, 30)));
+        assertEquals(5050, ledger.sumOfPeriod(false, LocalDate.of(2023, 7, 1), LocalDate.of(2023, 7, 1)));
+        assertEquals(20000, ledger.sumOfPeriod(true, LocalDate.of(2023, 6, 1), LocalDate.of(2023, 6, 1)));
+        assertEquals(0, ledger.sumOfPeriod(true, LocalDate.of(2023, 6, 30), LocalDate.of(2023, 6, 1)));
+    }
+
+    @Test
+    void testWholeMonthsUseRollup() {
+        ledger.add(new Transaction(3000, "Food", LocalDate.of(2023, 5, 31), "Dinner", false));
+        ledger.add(new Transaction(4000, "Food", LocalDate.of(2023, 7, 1), "Lunch", false));
+        Transaction transaction = ledger.get(transport.getId());
+        transaction.setCategory("Taxi");
+        ledger.update(transaction);
+
+        LocalDate start = LocalDate.of(2023, 5, 20);
+        LocalDate end = LocalDate.of(2023, 7, 1);
+        assertEquals(12050, ledger.sumOfPeriod(false, start, end)); // 30.00 + 50.50 + 40.00
+        assertEquals(20000, ledger.sumOfPeriod(true, start, end));
+        assertEquals(Map.of("Food", 7000L, "Taxi", 5050L), ledger.expensesByCategory(start, end));
+        assertEquals(18050, ledger.sumOfPeriod(false, LocalDate.of(2023, 5, 1), LocalDate.of(2023, 6, 30)));
+        assertTrue(ledger.verifyTotals());
+    }
+
+    @Test
+    void testPrefixSumsMatchScan() {
+        ledger.setPrefixSumsEnabled(true);
+        ledger.add(new Transaction(3000, "Food", LocalDate.of(2020, 1, 1), "Old dinner", false));
+        ledger.add(new Transaction(4000, "Food", LocalDate.of(2030, 12, 31), "Future lunch", false));
+        ledger.delete(transport.getId());
+        Transaction transaction = ledger.get(salary.getId());
+        transaction.setAmount(25000);
+        ledger.update(transaction);
+
+        assertTrue(ledger.isPrefixSumsEnabled());
+        LocalDate[][] periods = {
+                {LocalDate.of(2019, 1, 1), LocalDate.of(2031, 1, 1)},
+                {LocalDate.of(2023, 5, 15), LocalDate.of(2023, 6, 1)},
+                {LocalDate.of(2023, 5, 16), LocalDate.of(2023, 5, 31)},
+                {LocalDate.of(2030, 12, 31), LocalDate.of(2020, 1, 1)}
+        };
+        long[][] sums = new long[periods.length][];
+        for (int i = 0; i < periods.length; i++) {
+            sums[i] = new long[]{ledger.sumOfPeriod(true, periods[i][0], periods[i][1]),
+                    ledger.sumOfPeriod(false, periods[i][0], periods[i][1])};
+        }
+        ledger.setPrefixSumsEnabled(false);
+        for (int i = 0; i < periods.length; i++) {
+            assertEquals(ledger.sumOfPeriod(true, periods[i][0], periods[i][1]), sums[i][0]);
+            assertEquals(ledger.sumOfPeriod(false, periods[i][0], periods[i][1]), sums[i][1]);
+        }
+        assertEquals(17000, sums[0][1]);
+        assertEquals(25000, sums[1][0]);
+    }
+
+    @Test
+    void testByDate() {
+        ledger.add(new Transaction(700, "Food", LocalDate.of(2023, 6, 2), "Coffee", false));
+
+        assertEquals(2, ledger.byDate(LocalDate.of(2023, 6, 2)).size());
+        assertEquals(List.of(food), ledger.byDate(LocalDate.of(2023, 5, 15)));
+        assertTrue(ledger.byDate(LocalDate.of(2024, 1, 1)).isEmpty());
+    }
+
+    @Test
+    void testAddThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> ledger.add(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.add(new Transaction(100, "Food", null, "No date", false)));
+    }
+
+    @Test
+    void testPageContinuesAfterCursor() {
+        for (int i = 0; i < 40; i++) {
+            ledger.add(new Transaction(String.format("t%02d", (i * 17) % 40), 100L + i, i % 3 == 0 ? "Food" : "Transport",
+                    LocalDate.of(2023, 7, 1 + i % 4), "Покупка " + i, i % 5 == 0));
+        }
+        int foodId = CategoryDictionary.getInstance().find("Food");
+        LocalDate start = LocalDate.of(2023, 6, 1);
+
+        for (int categoryId : new int[]{CategoryDictionary.ANY, foodId}) {
+            List<Transaction> expected = new ArrayList<>(ledger.values().stream()
+                    .filter(transaction -> !transaction.isIncome() && !transaction.getDate().isBefore(start)
+                            && (categoryId == CategoryDictionary.ANY || transaction.getCategoryId() == categoryId))
+                    .toList());
+            expected.sort(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId));
+
+            List<Transaction> seen = new ArrayList<>();
+            int fromDay = Integer.MIN_VALUE;
+            String afterId = null;
+            List<Transaction> page;
+            do {
+                page = ledger.page(fromDay, afterId, 7, start, null, false, categoryId);
+                seen.addAll(page);
+                if (!page.isEmpty()) {
+                    fromDay = (int) page.get(page.size() - 1).getDate().toEpochDay();
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == 7);
+
+            assertEquals(expected, seen);
+            assertEquals(expected, ledger.page(Integer.MIN_VALUE, null, Integer.MAX_VALUE, start, null, false,
+                    categoryId));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.page(Integer.MIN_VALUE, null, 0, null, null, null, CategoryDictionary.ANY));
+    }
+
+    @Test
+    void testLargestFiltersByPeriodTypeAndCategory() {
+        Transaction taxi = new Transaction(5050, "Transport", LocalDate.of(2023, 6, 20), "Taxi", false);
+        Transaction rent = new Transaction(50000, null, LocalDate.of(2023, 6, 5), "Rent", false);
+        ledger.add(taxi);
+        ledger.add(rent);
+        int transportId = CategoryDictionary.getInstance().find("Transport");
+
+        assertEquals(List.of(rent, transport, taxi),
+                ledger.largest(10, LocalDate.of(2023, 6, 1), LocalDate.of(2023, 6, 30), false, CategoryDictionary.ANY));
+        assertEquals(List.of(rent, salary), ledger.largest(2, null, null, null, CategoryDictionary.ANY));
+        assertEquals(List.of(transport), ledger.largest(1, null, null, false, transportId));
+        assertEquals(List.of(rent), ledger.largest(5, null, LocalDate.of(2023, 6, 30), null, CategoryDictionary.NO_CATEGORY));
+        assertEquals(List.of(), ledger.largest(0, null, null, null, CategoryDictionary.ANY));
+        assertEquals(List.of(rent, salary, food, transport, taxi),
+                ledger.largest(Integer.MAX_VALUE, null, null, null, CategoryDictionary.ANY));
+        assertThrows(IllegalArgumentException.class, () -> ledger.largest(-1, null, null, null, CategoryDictionary.ANY));
+    }
+}
@@ -12,32 +12,32 @@ class BudgetRecordTest {
     @BeforeEach
     void setUp() {
         // Создаём объект BudgetRecord перед каждым тестом
-        budgetRecord = new BudgetRecord("2023-10", 1000.0);
+        budgetRecord = new BudgetRecord("2023-10", 100000);
     }
 
     @Test
     void testConstructor() {
         // Проверяем, что объект создаётся корректно
         assertEquals("2023-10", budgetRecord.getMonth());
-        assertEquals(1000.0, budgetRecord.getBudget());
-        assertEquals(0.0, budgetRecord.getExpress(), 0.001); // Расходы должны быть 0 при создании
+        assertEquals(100000, budgetRecord.getBudget());
+        assertEquals(0, budgetRecord.getExpress()); // Расходы должны быть 0 при создании
     }
 
     @Test
     void testAddExpress() {
         // Добавляем расходы и проверяем, что они корректно суммируются
-        budgetRecord.addExpress(200.0);
-        assertEquals(200.0, budgetRecord.getExpress(), 0.001);
+        budgetRecord.addExpress(20000);
+        assertEquals(20000, budgetRecord.getExpress());
 
-        budgetRecord.addExpress(300.0);
-        assertEquals(500.0, budgetRecord.getExpress(), 0.001);
+        budgetRecord.addExpress(30000);
+        assertEquals(50000, budgetRecord.getExpress());
     }
 
     @Test
     void testGetExpress() {
         // Проверяем метод getExpress
-        budgetRecord.addExpress(150.0);
-        assertEquals(150.0, budgetRecord.getExpress(), 0.001);
+        budgetRecord.addExpress(15000);
+        assertEquals(15000, budgetRecord.getExpress());
     }
 
     @Test
@@ -49,23 +49,23 @@ class BudgetRecordTest {
     @Test
     void testGetBudget() {
         // Проверяем метод getBudget
-        assertEquals(1000.0, budgetRecord.getBudget(), 0.001);
+        assertEquals(100000, budgetRecord.getBudget());
     }
 
     @Test
     void testAddExpressWithNegativeValue() {
         // Проверяем, что метод addExpress корректно обрабатывает отрицательные значения
-        budgetRecord.addExpress(-100.0);
-        assertEquals(-100.0, budgetRecord.getExpress(), 0.001);
+        budgetRecord.addExpress(-10000);
+        assertEquals(-10000, budgetRecord.getExpress());
 
-        budgetRecord.addExpress(-200.0);
-        assertEquals(-300.0, budgetRecord.getExpress(), 0.001);
+        budgetRecord.addExpress(-20000);
+        assertEquals(-30000, budgetRecord.getExpress());
     }
 
     @Test
     void testAddExpressWithZero() {
         // Проверяем, что добавление нуля не изменяет значение расходов
-        budgetRecord.addExpress(0.0);
-        assertEquals(0.0, budgetRecord.getExpress(), 0.001);
+        budgetRecord.addExpress(0);
+        assertEquals(0, budgetRecord.getExpress());
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package model;
+
+import com.financetracker.model.CategoryDictionary;
+import com.financetracker.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryDictionaryTest {
+    private final CategoryDictionary dictionary = CategoryDictionary.getInstance();
+
+    @Test
+    void testIdOfReturnsSameIdForSameName() {
+        int id = dictionary.idOf("Подарки");
+
+        assertEquals(id, dictionary.idOf("Подарки"));
+        assertEquals(id, dictionary.find("Подарки"));
+        assertEquals("Подарки", dictionary.nameOf(id));
+        assertTrue(id < dictionary.size());
+    }
+
+    @Test
+    void testFindDoesNotRegister() {
+        int size = dictionary.size();
+
+        assertEquals(CategoryDictionary.UNKNOWN, dictionary.find("Несуществующая категория"));
+        assertEquals(size, dictionary.size());
+    }
+
+    @Test
+    void testNullCategory() {
+        assertEquals(CategoryDictionary.NO_CATEGORY, dictionary.idOf(null));
+        assertNull(dictionary.nameOf(CategoryDictionary.NO_CATEGORY));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.nameOf(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testTransactionsShareCategoryId() {
+        Transaction first = new Transaction(100, "Кафе", LocalDate.of(2023, 10, 1), "Кофе", false);
+        Transaction second = new Transaction(200, "Кафе", LocalDate.of(2023, 10, 2), "Обед", false);
+
+        assertEquals(first.getCategoryId(), second.getCategoryId());
+        assertEquals("Кафе", second.getCategory());
+    }
+}
@@ -12,15 +12,15 @@ class GoalTest {
     @BeforeEach
     void setUp() {
         // Создаём объект Goal перед каждым тестом
-        goal = new Goal(1000.0, "Накопить на отпуск");
+        goal = new Goal(100000, "Накопить на отпуск");
     }
 
     @Test
     void testConstructor() {
         // Проверяем, что объект создаётся корректно
         assertEquals("Накопить на отпуск", goal.getGoalName());
-        assertEquals(1000.0, goal.getTargetAmount(), 0.001);
-        assertEquals(0.0, goal.getCurrentAmount(), 0.001); // Текущая сумма должна быть 0 при создании
+        assertEquals(100000, goal.getTargetAmount());
+        assertEquals(0, goal.getCurrentAmount()); // Текущая сумма должна быть 0 при создании
     }
 
     @Test
@@ -32,66 +32,66 @@ class GoalTest {
     @Test
     void testGetTargetAmount() {
         // Проверяем метод getTargetAmount
-        assertEquals(1000.0, goal.getTargetAmount(), 0.001);
+        assertEquals(100000, goal.getTargetAmount());
     }
 
     @Test
     void testGetCurrentAmount() {
         // Проверяем метод getCurrentAmount
-        assertEquals(0.0, goal.getCurrentAmount(), 0.001);
+        assertEquals(0, goal.getCurrentAmount());
     }
 
     @Test
     void testAddCurrentAmount() {
         // Добавляем сумму и проверяем, что текущая сумма обновляется корректно
-        goal.addCurrentAmount(200.0);
-        assertEquals(200.0, goal.getCurrentAmount(), 0.001);
+        goal.addCurrentAmount(20000);
+        assertEquals(20000, goal.getCurrentAmount());
 
-        goal.addCurrentAmount(300.0);
-        assertEquals(500.0, goal.getCurrentAmount(), 0.001);
+        goal.addCurrentAmount(30000);
+        assertEquals(50000, goal.getCurrentAmount());
     }
 
     @Test
     void testAddCurrentAmountWithNegativeValue() {
         // Проверяем, что метод addCurrentAmount корректно обрабатывает отрицательные значения
-        goal.addCurrentAmount(-100.0);
-        assertEquals(-100.0, goal.getCurrentAmount(), 0.001);
+        goal.addCurrentAmount(-10000);
+        assertEquals(-10000, goal.getCurrentAmount());
 
-        goal.addCurrentAmount(-200.0);
-        assertEquals(-300.0, goal.getCurrentAmount(), 0.001);
+        goal.addCurrentAmount(-20000);
+        assertEquals(-30000, goal.getCurrentAmount());
     }
 
     @Test
     void testAddCurrentAmountWithZero() {
         // Проверяем, что добавление нуля не изменяет текущую сумму
-        goal.addCurrentAmount(0.0);
-        assertEquals(0.0, goal.getCurrentAmount(), 0.001);
+        goal.addCurrentAmount(0);
+        assertEquals(0, goal.getCurrentAmount());
     }
 
     @Test
     void testGetProgress() {
         // Проверяем метод getProgress
-        goal.addCurrentAmount(250.0);
+        goal.addCurrentAmount(25000);
         assertEquals(25, goal.getProgress()); // 250 / 1000 = 25%
 
-        goal.addCurrentAmount(500.0);
+        goal.addCurrentAmount(50000);
         assertEquals(75, goal.getProgress()); // 750 / 1000 = 75%
 
-        goal.addCurrentAmount(250.0);
+        goal.addCurrentAmount(25000);
         assertEquals(100, goal.getProgress()); // 1000 / 1000 = 100%
     }
 
     @Test
     void testGetProgressWithZeroTarget() {
         // Проверяем, что метод getProgress корректно обрабатывает случай, когда целевая сумма равна 0
-        Goal zeroTargetGoal = new Goal(0.0, "Бесплатная цель");
+        Goal zeroTargetGoal = new Goal(0, "Бесплатная цель");
         assertEquals(0, zeroTargetGoal.getProgress()); // Прогресс должен быть 0, если целевая сумма равна 0
     }
 
     @Test
     void testGetProgressWithNegativeCurrentAmount() {
         // Проверяем, что метод getProgress корректно обрабатывает отрицательную текущую сумму
-        goal.addCurrentAmount(-500.0);
+        goal.addCurrentAmount(-50000);
         assertEquals(-50, goal.getProgress()); // -500 / 1000 = -50%
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package model;
 
 import com.financetracker.model.Transaction;
 import com.financetracker.model.User;
+import com.financetracker.utils.Ids;
 
 
 import org.junit.jupiter.api.BeforeEach;
@@ -20,13 +21,14 @@ class UserTest {
     @BeforeEach
     void setUp() {
         user = new User("test@example.com", "password123", "John Doe", "user");
-        transaction = new Transaction( 10000.0,"Job", LocalDate.parse("2023-10-01") , "Salary", true);
+        transaction = new Transaction( 1000000,"Job", LocalDate.parse("2023-10-01") , "Salary", true);
     }
 
     @Test
     void testGetId() {
         assertNotNull(user.getId());
-        assertEquals(8, user.getId().length());
+        assertTrue(Ids.decode(user.getId()) > 0);
+        assertNotEquals(user.getId(), new User("other@example.com", "password", "Jane Doe", "user").getId());
     }
 
     @Test
@@ -0,0 +1,95 @@
+package report;
+
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.model.Transaction;
+import com.financetracker.report.ReportContext;
+import com.financetracker.report.ReportEngine;
+import com.financetracker.report.ReportSection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportEngineTest {
+
+    private final LocalDate start = LocalDate.of(2023, 5, 10);
+    private final LocalDate end = LocalDate.of(2023, 7, 31);
+
+    private TransactionLedger ledger;
+    private Map<String, Transaction> map;
+
+    /**
+     * Раздел, считающий количество транзакций за период.
+     */
+    private static class CountSection implements ReportSection {
+        private int count;
+
+        @Override
+        public void reset() {
+            count = 0;
+        }
+
+        @Override
+        public boolean needsRows() {
+            return true;
+        }
+
+        @Override
+        public void visit(int epochDay, long amount, int categoryId, boolean income) {
+            count++;
+        }
+
+        @Override
+        public void appendTo(StringBuilder report, ReportContext context) {
+            report.append("Количество операций: ").append(count).append('\n');
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ledger = new TransactionLedger();
+        ledger.add(new Transaction(10000, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
+        ledger.add(new Transaction(20000, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true));
+        ledger.add(new Transaction(5050, "Transport", LocalDate.of(2023, 6, 20), "Bus fare", false));
+        ledger.add(new Transaction(3000, "Food", LocalDate.of(2023, 7, 1), "Lunch", false));
+        ledger.add(new Transaction(7000, "Food", LocalDate.of(2023, 1, 1), "Before period", false));
+        map = new HashMap<>(ledger);
+    }
+
+    @Test
+    void testDefaultSections() {
+        String report = new ReportEngine().generate(ledger, start, end);
+
+        assertTrue(report.startsWith("=== Финансовый отчёт ===\n"));
+        assertTrue(report.contains("Текущий баланс: -50,50"));
+        assertTrue(report.contains("Доход за период: 200,00"));
+        assertTrue(report.contains("Расход за период: 180,50"));
+        assertTrue(report.contains("- Food: 130,00"));
+        assertTrue(report.contains("- Transport: 50,50"));
+    }
+
+    @Test
+    void testLedgerAndMapProduceSameReport() {
+        ReportEngine engine = new ReportEngine();
+
+        assertEquals(engine.generate(ledger, start, end), engine.generate(map, start, end));
+    }
+
+    @Test
+    void testCustomSectionRidesSamePass() {
+        ReportEngine engine = new ReportEngine(List.of(new CountSection(),
+                (report, context) -> report.append("Расход: ").append(context.getSummary().getExpense())));
+
+        String ledgerReport = engine.generate(ledger, start, end);
+        // Повторный вызов должен начинать с обнулённого состояния
+        String mapReport = engine.generate(map, start, end);
+
+        assertEquals("=== Финансовый отчёт ===\nКоличество операций: 4\nРасход: 18050", ledgerReport);
+        assertEquals(ledgerReport, mapReport);
+    }
+}
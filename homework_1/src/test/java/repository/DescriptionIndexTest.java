@@ -0,0 +1,83 @@
+package repository;
+
+import com.financetracker.repository.DescriptionIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DescriptionIndexTest {
+
+    private DescriptionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DescriptionIndex();
+        index.put("t1", "Кофе и молоко");
+        index.put("t2", "Кофейня у дома, капучино");
+        index.put("t3", "Молоко, хлеб");
+        index.put("t4", null);
+        index.put("t5", "Ёлка на Новый год");
+    }
+
+    @Test
+    void testSearchMatchesAllTerms() {
+        assertEquals(List.of("t1", "t3"), index.search("молоко", 10));
+        assertEquals(List.of("t1"), index.search("МОЛОКО  кофе", 10));
+        assertEquals(List.of(), index.search("молоко капучино", 10));
+        assertEquals(List.of(), index.search("чай", 10));
+        assertEquals(List.of(), index.search("   ", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void testSearchNormalizesText() {
+        assertEquals(List.of("t5"), index.search("елка", 10));
+        assertEquals(List.of("t5"), index.search("новый-год", 10));
+    }
+
+    @Test
+    void testPrefixSearch() {
+        assertEquals(List.of("t1", "t2"), index.search("коф*", 10));
+        assertEquals(List.of("t1"), index.search("коф* мол*", 10));
+        assertEquals(List.of("t2"), index.search("кофейня*", 10));
+        assertEquals(List.of("t1"), index.search("коф*", 1));
+        assertEquals(List.of(), index.search("чай*", 10));
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDeletes() {
+        index.put("t1", "Чай");
+        index.remove("t3");
+        index.remove("unknown");
+
+        assertEquals(List.of(), index.search("молоко", 10));
+        assertEquals(List.of("t1"), index.search("чай", 10));
+        assertEquals(List.of("t2"), index.search("коф*", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testSearchAfterCompaction() {
+        for (int i = 0; i < 5000; i++) {
+            index.put("x" + i, "Покупка " + (i % 2 == 0 ? "чётная" : "нечётная"));
+        }
+        for (int i = 0; i < 5000; i++) {
+            if (i % 10 != 0) {
+                index.remove("x" + i);
+            }
+        }
+
+        assertEquals(504, index.size());
+        assertEquals(500, index.search("покупка", 1000).size());
+        assertEquals(List.of("x0", "x10", "x20"), index.search("покупка четная", 3));
+        assertEquals(List.of("t1", "t3"), index.search("молоко", 10));
+    }
+
+    @Test
+    void testSearchRejectsNegativeLimit() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("молоко", -1));
+    }
+}
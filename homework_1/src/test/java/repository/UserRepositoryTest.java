@@ -0,0 +1,146 @@
+package repository;
+
+import com.financetracker.ledger.FileTransactionStore;
+import com.financetracker.ledger.Ledger;
+import com.financetracker.ledger.OffHeapLedger;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.ledger.TransactionStore;
+import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+import com.financetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRepositoryTest {
+
+    private UserRepository userRepository;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new UserRepository();
+        user = new User("test@example.com", "password123", "John Doe", "user");
+        userRepository.saveUser(user);
+    }
+
+    @Test
+    void testFindUserByEmail() {
+        assertEquals(user, userRepository.findUserByEmail("test@example.com"));
+        assertNull(userRepository.findUserByEmail("unknown@example.com"));
+    }
+
+    @Test
+    void testFindUserByEmailAfterDelete() {
+        userRepository.deleteUser(user.getId());
+
+        assertNull(userRepository.findUserByEmail("test@example.com"));
+    }
+
+    @Test
+    void testFindUserByEmailAfterChangeEmail() {
+        // Так же, как это делает UserService.changeEmail
+        user.setEmail("new@example.com");
+        userRepository.saveUser(user);
+
+        assertNull(userRepository.findUserByEmail("test@example.com"));
+        assertEquals(user, userRepository.findUserByEmail("new@example.com"));
+    }
+
+    @Test
+    void testFindUserByEmailIgnoresStaleEntry() {
+        // Email изменён без пересохранения пользователя
+        user.setEmail("new@example.com");
+
+        assertNull(userRepository.findUserByEmail("test@example.com"));
+    }
+
+    @Test
+    void testSaveUserMovesTransactionsIntoStore() {
+        UserRepository offHeapRepository = new UserRepository(TransactionStore.offHeap());
+        User other = new User("other@example.com", "password123", "Jane Doe", "user");
+        Transaction transaction = new Transaction(10000, "Food", LocalDate.of(2024, 1, 1), "Обед", false);
+        other.addTransaction(transaction);
+
+        offHeapRepository.saveUser(other);
+        Map<String, Transaction> moved = other.getTransactions();
+        offHeapRepository.deleteUser(other.getId());
+        offHeapRepository.saveUser(other);
+
+        assertInstanceOf(OffHeapLedger.class, moved);
+        assertSame(moved, other.getTransactions());
+        assertEquals(transaction, offHeapRepository.getTransaction(other.getId(), transaction.getId()));
+        assertInstanceOf(TransactionLedger.class, user.getTransactions());
+    }
+
+    @Test
+    void testSearchTransactionsFollowsChanges() {
+        Transaction coffee = new Transaction("t1", 300, "Food", LocalDate.of(2024, 1, 1), "Кофе с молоком", false);
+        Transaction bread = new Transaction("t2", 100, "Food", LocalDate.of(2024, 1, 2), "Хлеб", false);
+        userRepository.addTransaction(user.getId(), coffee);
+
+        assertEquals(List.of(coffee), userRepository.searchTransactions(user.getId(), "кофе", 10));
+
+        userRepository.addTransaction(user.getId(), bread);
+        TransactionBatch batch = new TransactionBatch(1);
+        batch.add(new Transaction("t3", 200, "Food", LocalDate.of(2024, 1, 3), "Молоко", false));
+        userRepository.addTransactions(user.getId(), batch);
+        assertEquals(List.of("t1", "t3"), ids(userRepository.searchTransactions(user.getId(), "молок*", 10)));
+
+        Transaction changed = userRepository.getTransaction(user.getId(), "t2");
+        changed.setDescription("Хлеб и молоко");
+        userRepository.updateTransaction(user.getId(), changed);
+        userRepository.removeTransaction(user.getId(), "t1");
+        assertEquals(List.of("t3", "t2"), ids(userRepository.searchTransactions(user.getId(), "молоко", 10)));
+        assertEquals(List.of(), userRepository.searchTransactions(user.getId(), "кофе", 10));
+        assertEquals(List.of(), userRepository.searchTransactions("unknown", "молоко", 10));
+    }
+
+    private static List<String> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+
+    @Test
+    void testFileLedgersReleasedOnDeleteAndReplace(@TempDir Path directory) throws IOException {
+        try (FileTransactionStore store = new FileTransactionStore(directory, 1024, 4)) {
+            UserRepository fileRepository = new UserRepository(store);
+            Transaction transaction = new Transaction(10000, "Food", LocalDate.of(2024, 1, 1), "Обед", false);
+            User first = new User("first@example.com", "password123", "Jane Doe", "user");
+            User second = new User("second@example.com", "password123", "John Roe", "user");
+            fileRepository.saveUser(first);
+            fileRepository.saveUser(second);
+            fileRepository.addTransaction(first.getId(), transaction);
+            fileRepository.addTransaction(second.getId(), transaction);
+            Ledger firstLedger = (Ledger) first.getTransactions();
+            Ledger secondLedger = (Ledger) second.getTransactions();
+
+            // Пересохранение того же объекта, как при смене email, сохраняет транзакции
+            first.setEmail("renamed@example.com");
+            fileRepository.saveUser(first);
+            assertTrue(store.accepts(firstLedger));
+            assertEquals(transaction, fileRepository.getTransaction(first.getId(), transaction.getId()));
+
+            fileRepository.deleteUser(second.getId());
+            assertFalse(store.accepts(secondLedger));
+            assertTrue(secondLedger.isEmpty());
+            assertThrows(UncheckedIOException.class, () -> secondLedger.add(transaction));
+
+            User replacement = new User(first.getId(), "first@example.com", "password123", "Jane Doe", "user", "active");
+            fileRepository.saveUser(replacement);
+            assertFalse(store.accepts(firstLedger));
+            assertTrue(firstLedger.isEmpty());
+            assertTrue(store.accepts((Ledger) replacement.getTransactions()));
+            assertTrue(fileRepository.getTransactions(first.getId()).isEmpty());
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package service;
 
+import com.financetracker.io.ImportResult;
+import com.financetracker.journal.Journal;
+import com.financetracker.journal.MappedJournal;
+import com.financetracker.journal.Recovery;
+import com.financetracker.ledger.TransactionBatch;
 import com.financetracker.model.*;
+import com.financetracker.repository.BudgetRepository;
+import com.financetracker.repository.GoalRepository;
+import com.financetracker.repository.UserRepository;
 import com.financetracker.service.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -92,10 +104,10 @@ class FinanceTrackerTest {
         when(budgetService.getMonth(user.getId())).thenReturn(LocalDate.now().toString().substring(0,7));
         when(goalService.isGoalSet(user.getId())).thenReturn(true);
 
-        financeTracker.addTransaction(100.0, "Food", LocalDate.now(), "Groceries", false);
+        financeTracker.addTransaction(10000L, "Food", LocalDate.now(), "Groceries", false);
 
-        verify(transactionService, times(1)).addTransaction(user.getId(), 100.0, "Food", LocalDate.now(), "Groceries", false);
-        verify(budgetService, times(1)).addMonthlyExpress(user.getId(), 100.0);
+        verify(transactionService, times(1)).addTransaction(user.getId(), 10000L, "Food", LocalDate.now(), "Groceries", false);
+        verify(budgetService, times(1)).addMonthlyExpress(user.getId(), 10000L);
     }
 
     @Test
@@ -127,11 +139,11 @@ class FinanceTrackerTest {
         financeTracker.registerUser("test@example.com", "password", "Test Name", "user");
         financeTracker.loginUser("test@example.com", "password");
 
-        when(transactionService.getBalance(user.getId())).thenReturn(500.0);
+        when(transactionService.getBalance(user.getId())).thenReturn(50000L);
 
-        double balance = financeTracker.getBalance();
+        long balance = financeTracker.getBalance();
 
-        assertEquals(500.0, balance);
+        assertEquals(50000L, balance);
         verify(transactionService, times(1)).getBalance(user.getId());
     }
 
@@ -229,14 +241,14 @@ class FinanceTrackerTest {
         when(userService.registerUser("test@example.com", "password", "Test Name", "user")).thenReturn(true);
         when(userService.loginUser("test@example.com", "password")).thenReturn(true);
         when(userService.getUserByEmail("test@example.com")).thenReturn(user);
-        when(goalService.getTargetAmount(user.getId())).thenReturn(10000.0);
+        when(goalService.getTargetAmount(user.getId())).thenReturn(1000000L);
 
         financeTracker.registerUser("test@example.com", "password", "Test Name", "user");
         financeTracker.loginUser("test@example.com", "password");
 
-        double targetAmount = financeTracker.getTargetAmount(user.getId());
+        long targetAmount = financeTracker.getTargetAmount(user.getId());
 
-        assertEquals(10000.0, targetAmount);
+        assertEquals(1000000L, targetAmount);
         verify(goalService, times(1)).getTargetAmount(user.getId());
     }
 
@@ -280,14 +292,14 @@ class FinanceTrackerTest {
         when(userService.registerUser("test@example.com", "password", "Test Name", "user")).thenReturn(true);
         when(userService.loginUser("test@example.com", "password")).thenReturn(true);
         when(userService.getUserByEmail("test@example.com")).thenReturn(user);
-        when(budgetService.getRemaining(user.getId())).thenReturn(500.0);
+        when(budgetService.getRemaining(user.getId())).thenReturn(50000L);
 
         financeTracker.registerUser("test@example.com", "password", "Test Name", "user");
         financeTracker.loginUser("test@example.com", "password");
 
-        double remaining = financeTracker.getRemaining(user.getId());
+        long remaining = financeTracker.getRemaining(user.getId());
 
-        assertEquals(500.0, remaining);
+        assertEquals(50000L, remaining);
         verify(budgetService, times(1)).getRemaining(user.getId());
     }
 
@@ -297,14 +309,14 @@ class FinanceTrackerTest {
         when(userService.registerUser("test@example.com", "password", "Test Name", "user")).thenReturn(true);
         when(userService.loginUser("test@example.com", "password")).thenReturn(true);
         when(userService.getUserByEmail("test@example.com")).thenReturn(user);
-        when(budgetService.getMonthlyExpress(user.getId())).thenReturn(300.0);
+        when(budgetService.getMonthlyExpress(user.getId())).thenReturn(30000L);
 
         financeTracker.registerUser("test@example.com", "password", "Test Name", "user");
         financeTracker.loginUser("test@example.com", "password");
 
-        double monthlyExpress = financeTracker.getMonthlyExpress(user.getId());
+        long monthlyExpress = financeTracker.getMonthlyExpress(user.getId());
 
-        assertEquals(300.0, monthlyExpress);
+        assertEquals(30000L, monthlyExpress);
         verify(budgetService, times(1)).getMonthlyExpress(user.getId());
     }
 
@@ -314,14 +326,14 @@ class FinanceTrackerTest {
         when(userService.registerUser("test@example.com", "password", "Test Name", "user")).thenReturn(true);
         when(userService.loginUser("test@example.com", "password")).thenReturn(true);
         when(userService.getUserByEmail("test@example.com")).thenReturn(user);
-        when(budgetService.getMonthlyBudget(user.getId())).thenReturn(1000.0);
+        when(budgetService.getMonthlyBudget(user.getId())).thenReturn(100000L);
 
         financeTracker.registerUser("test@example.com", "password", "Test Name", "user");
         financeTracker.loginUser("test@example.com", "password");
 
-        double monthlyBudget = financeTracker.getMonthlyBudget(user.getId());
+        long monthlyBudget = financeTracker.getMonthlyBudget(user.getId());
 
-        assertEquals(1000.0, monthlyBudget);
+        assertEquals(100000L, monthlyBudget);
         verify(budgetService, times(1)).getMonthlyBudget(user.getId());
     }
 
@@ -384,9 +396,9 @@ class FinanceTrackerTest {
         financeTracker.registerUser("test@example.com", "password", "Test Name", "user");
         financeTracker.loginUser("test@example.com", "password");
 
-        financeTracker.addMonthlyExpress(user.getId(), 200.0);
+        financeTracker.addMonthlyExpress(user.getId(), 20000L);
 
-        verify(budgetService, times(1)).addMonthlyExpress(user.getId(), 200.0);
+        verify(budgetService, times(1)).addMonthlyExpress(user.getId(), 20000L);
     }
 
     @Test
@@ -399,9 +411,9 @@ class FinanceTrackerTest {
         financeTracker.registerUser("test@example.com", "password", "Test Name", "user");
         financeTracker.loginUser("test@example.com", "password");
 
-        financeTracker.addAmount(500.0);
+        financeTracker.addAmount(50000L);
 
-        verify(goalService, times(1)).addAmount(user.getId(), 500.0);
+        verify(goalService, times(1)).addAmount(user.getId(), 50000L);
     }
 
     @Test
@@ -461,9 +473,176 @@ class FinanceTrackerTest {
         financeTracker.registerUser("test@example.com", "password", "Test Name", "user");
         financeTracker.loginUser("test@example.com", "password");
 
-        financeTracker.setTransactionAmount("txn123", 150.0);
+        financeTracker.setTransactionAmount("txn123", 15000L);
 
-        verify(transactionService, times(1)).setTransactionAmount(user.getId(), "txn123", 150.0);
+        verify(transactionService, times(1)).setTransactionAmount(user.getId(), "txn123", 15000L);
     }
 
-}
\ No newline at end of file
+    @Test
+    void testMutationsAreJournaled() {
+        Journal journal = mock(Journal.class);
+        financeTracker = new FinanceTracker(userService, transactionService, budgetService, goalService,
+                notificationService, journal);
+        User user = new User("test@example.com", "password", "Test Name", "user");
+        when(userService.registerUser("test@example.com", "password", "Test Name", "user")).thenReturn(true);
+        when(userService.loginUser("test@example.com", "password")).thenReturn(true);
+        when(userService.getUserByEmail("test@example.com")).thenReturn(user);
+        financeTracker.registerUser("test@example.com", "password", "Test Name", "user");
+        financeTracker.loginUser("test@example.com", "password");
+
+        Transaction transaction = new Transaction(10000L, "Food", LocalDate.now(), "Groceries", false);
+        when(transactionService.addTransaction(user.getId(), 10000L, "Food", LocalDate.now(), "Groceries", false))
+                .thenReturn(transaction);
+        when(budgetService.isBudgetSet(user.getId())).thenReturn(true);
+        when(budgetService.getMonth(user.getId())).thenReturn(LocalDate.now().toString().substring(0, 7));
+        when(budgetService.getMonthlyBudget(user.getId())).thenReturn(50000L);
+        when(budgetService.getMonthlyExpress(user.getId())).thenReturn(10000L);
+        when(transactionService.removeTransaction(user.getId(), transaction.getId())).thenReturn(true);
+
+        financeTracker.addTransaction(10000L, "Food", LocalDate.now(), "Groceries", false);
+        financeTracker.removeTransaction(transaction.getId());
+
+        verify(journal).userSaved(user);
+        verify(journal).transactionSaved(user.getId(), transaction);
+        verify(journal).budgetSaved(user.getId(), LocalDate.now().toString().substring(0, 7), 50000L, 10000L);
+        verify(journal).transactionRemoved(user.getId(), transaction.getId());
+        verify(journal, never()).goalSaved(anyString(), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testImportTransactionsUpdatesBudgetAndGoalOnce() throws IOException {
+        Journal journal = mock(Journal.class);
+        financeTracker = new FinanceTracker(userService, transactionService, budgetService, goalService,
+                notificationService, journal);
+        User user = new User("test@example.com", "password", "Test Name", "user");
+        when(userService.loginUser("test@example.com", "password")).thenReturn(true);
+        when(userService.getUserByEmail("test@example.com")).thenReturn(user);
+        financeTracker.loginUser("test@example.com", "password");
+
+        Path file = Path.of("transactions.csv");
+        TransactionBatch batch = new TransactionBatch(4);
+        batch.add("t1", (int) LocalDate.of(2024, 3, 5).toEpochDay(), 1000, CategoryDictionary.NO_CATEGORY, "", false);
+        batch.add("t2", (int) LocalDate.of(2024, 4, 1).toEpochDay(), 2000, CategoryDictionary.NO_CATEGORY, "", false);
+        batch.add("t3", (int) LocalDate.of(2024, 3, 31).toEpochDay(), 3000, CategoryDictionary.NO_CATEGORY, "", false);
+        batch.add("t4", (int) LocalDate.of(2024, 1, 1).toEpochDay(), 5000, CategoryDictionary.NO_CATEGORY, "", true);
+        when(transactionService.importTransactions(eq(user.getId()), eq(file), any())).thenAnswer(invocation -> {
+            Consumer<TransactionBatch> listener = invocation.getArgument(2);
+            listener.accept(batch);
+            listener.accept(batch);
+            return new ImportResult(8, 0, 0);
+        });
+        when(budgetService.isBudgetSet(user.getId())).thenReturn(true);
+        when(budgetService.getMonth(user.getId())).thenReturn("2024-03");
+        when(goalService.isGoalSet(user.getId())).thenReturn(true);
+
+        ImportResult result = financeTracker.importTransactions(file);
+
+        assertEquals(8, result.getImported());
+        verify(budgetService, times(1)).addMonthlyExpress(user.getId(), 8000L);
+        verify(goalService, times(1)).addAmount(user.getId(), 10000L);
+        verify(journal, times(2)).transactionsSaved(user.getId(), batch);
+        verify(journal, never()).transactionSaved(eq(user.getId()), any(Transaction.class));
+    }
+
+    @Test
+    void testImportTransactionsFailingAfterFirstBatchAppliesImportedTotals() throws IOException {
+        User user = new User("test@example.com", "password", "Test Name", "user");
+        when(userService.loginUser("test@example.com", "password")).thenReturn(true);
+        when(userService.getUserByEmail("test@example.com")).thenReturn(user);
+        financeTracker.loginUser("test@example.com", "password");
+
+        Path file = Path.of("transactions.csv");
+        TransactionBatch batch = new TransactionBatch(2);
+        batch.add("t1", (int) LocalDate.of(2024, 3, 5).toEpochDay(), 1000, CategoryDictionary.NO_CATEGORY, "", false);
+        batch.add("t2", (int) LocalDate.of(2024, 3, 6).toEpochDay(), 5000, CategoryDictionary.NO_CATEGORY, "", true);
+        when(transactionService.importTransactions(eq(user.getId()), eq(file), any())).thenAnswer(invocation -> {
+            Consumer<TransactionBatch> listener = invocation.getArgument(2);
+            listener.accept(batch);
+            throw new IOException("Channel failed");
+        });
+        when(budgetService.isBudgetSet(user.getId())).thenReturn(true);
+        when(budgetService.getMonth(user.getId())).thenReturn("2024-03");
+        when(goalService.isGoalSet(user.getId())).thenReturn(true);
+
+        assertThrows(IOException.class, () -> financeTracker.importTransactions(file));
+
+        verify(budgetService, times(1)).addMonthlyExpress(user.getId(), 1000L);
+        verify(goalService, times(1)).addAmount(user.getId(), 5000L);
+    }
+
+    @Test
+    void testAddTransactionsUpdatesBudgetAndGoalOnce() {
+        Journal journal = mock(Journal.class);
+        financeTracker = new FinanceTracker(userService, transactionService, budgetService, goalService,
+                notificationService, journal);
+        User user = new User("test@example.com", "password", "Test Name", "user");
+        when(userService.loginUser("test@example.com", "password")).thenReturn(true);
+        when(userService.getUserByEmail("test@example.com")).thenReturn(user);
+        financeTracker.loginUser("test@example.com", "password");
+        TransactionBatch batch = new TransactionBatch(4);
+        batch.add("t1", (int) LocalDate.of(2024, 3, 5).toEpochDay(), 1000, CategoryDictionary.NO_CATEGORY, "", false);
+        batch.add("t2", (int) LocalDate.of(2024, 4, 1).toEpochDay(), 2000, CategoryDictionary.NO_CATEGORY, "", false);
+        batch.add("t3", (int) LocalDate.of(2024, 3, 31).toEpochDay(), 3000, CategoryDictionary.NO_CATEGORY, "", false);
+        batch.add("t4", (int) LocalDate.of(2024, 1, 1).toEpochDay(), 5000, CategoryDictionary.NO_CATEGORY, "", true);
+        when(budgetService.isBudgetSet(user.getId())).thenReturn(true);
+        when(budgetService.getMonth(user.getId())).thenReturn("2024-03");
+        when(goalService.isGoalSet(user.getId())).thenReturn(true);
+
+        financeTracker.addTransactions(batch);
+
+        verify(transactionService, times(1)).addTransactions(user.getId(), batch);
+        verify(budgetService, times(1)).addMonthlyExpress(user.getId(), 4000L);
+        verify(goalService, times(1)).addAmount(user.getId(), 5000L);
+        verify(journal, times(1)).transactionsSaved(user.getId(), batch);
+        verify(journal, never()).transactionSaved(eq(user.getId()), any(Transaction.class));
+    }
+
+    @Test
+    void testAddTransactionsInvalidBatchChangesNothing() {
+        User user = new User("test@example.com", "password", "Test Name", "user");
+        when(userService.loginUser("test@example.com", "password")).thenReturn(true);
+        when(userService.getUserByEmail("test@example.com")).thenReturn(user);
+        financeTracker.loginUser("test@example.com", "password");
+        TransactionBatch batch = new TransactionBatch(1);
+        batch.add("t1", (int) LocalDate.of(2024, 3, 5).toEpochDay(), 0, CategoryDictionary.NO_CATEGORY, "", false);
+        doThrow(new IllegalArgumentException("invalid")).when(transactionService).addTransactions(user.getId(), batch);
+
+        assertThrows(IllegalArgumentException.class, () -> financeTracker.addTransactions(batch));
+
+        verify(budgetService, never()).addMonthlyExpress(anyString(), anyLong());
+        verify(goalService, never()).addAmount(anyString(), anyLong());
+    }
+
+    @Test
+    void testAddTransactionsWithoutLoginThrows() {
+        assertThrows(IllegalStateException.class, () -> financeTracker.addTransactions(new TransactionBatch(1)));
+    }
+
+    @Test
+    void testAdminKeepsIdAndTransactionsAfterRestart(@TempDir Path directory) throws IOException {
+        String adminId;
+        try (MappedJournal journal = new MappedJournal(directory)) {
+            FinanceTracker tracker = startTracker(new UserRepository(), journal);
+            assertEquals(FinanceTracker.LoginResult.SUCCESS, tracker.loginUser("admin@example.com", "admin123"));
+            adminId = tracker.getId();
+            tracker.addTransaction(10000L, "Food", LocalDate.of(2024, 3, 5), "Groceries", false);
+        }
+
+        UserRepository userRepository = new UserRepository();
+        try (MappedJournal journal = new MappedJournal(directory)) {
+            Recovery.recover(directory, userRepository, new BudgetRepository(), new GoalRepository());
+            FinanceTracker tracker = startTracker(userRepository, journal);
+            assertEquals(FinanceTracker.LoginResult.SUCCESS, tracker.loginUser("admin@example.com", "admin123"));
+
+            assertEquals(adminId, tracker.getId());
+            assertEquals(1, userRepository.findUserById(adminId).getTransactions().size());
+            assertEquals(1, userRepository.getUsers().size());
+        }
+    }
+
+    private FinanceTracker startTracker(UserRepository userRepository, Journal journal) {
+        return new FinanceTracker(new UserService(userRepository), new TransactionService(userRepository),
+                new BudgetService(new BudgetRepository()), new GoalService(new GoalRepository()),
+                notificationService, journal);
+    }
+}
@@ -0,0 +1,65 @@
+package service;
+
+import com.financetracker.model.Transaction;
+import com.financetracker.service.TransactionFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionFormatterTest {
+    private final List<Transaction> transactions = List.of(
+            new Transaction("t1", 10050L, "Food", LocalDate.of(2023, 5, 7), "Groceries", false),
+            new Transaction("t2", 5L, "Salary", LocalDate.of(2023, 12, 25), null, true));
+
+    private static final String EXPECTED = "Список транзакций:\n" +
+            "ID: t1, Сумма: 100.50, Категория: Food, Дата: 2023-05-07, Описание: Groceries, Тип: Расход\n" +
+            "ID: t2, Сумма: 0.05, Категория: Salary, Дата: 2023-12-25, Описание: null, Тип: Доход\n";
+
+    @Test
+    void testFormat() {
+        assertEquals(EXPECTED, new TransactionFormatter().format(transactions, "Список транзакций:"));
+    }
+
+    @Test
+    void testFormatEmpty() {
+        assertEquals(TransactionFormatter.EMPTY, new TransactionFormatter().format(List.of(), "Список транзакций:"));
+    }
+
+    @Test
+    void testWriteToWriter() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        long rows = new TransactionFormatter().write(transactions, "Список транзакций:", writer);
+
+        assertEquals(2, rows);
+        assertEquals(EXPECTED, writer.toString());
+    }
+
+    @Test
+    void testWriteToPrintStream() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream stream = new PrintStream(bytes, false, StandardCharsets.UTF_8);
+
+        long rows = new TransactionFormatter().write(transactions, "Список транзакций:", stream);
+
+        assertEquals(2, rows);
+        assertEquals(EXPECTED, bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteKeepsDatesOutsideFourDigitYears() {
+        Transaction transaction = new Transaction("t3", 100L, "Food", LocalDate.of(12024, 1, 2), "Future", false);
+
+        String result = new TransactionFormatter().format(List.of(transaction), "Список транзакций:");
+
+        assertTrue(result.contains("Дата: " + LocalDate.of(12024, 1, 2) + ","));
+    }
+}
@@ -1,15 +1,34 @@
 package service;
 
+import com.financetracker.io.ExportFormat;
+import com.financetracker.io.ImportResult;
+import com.financetracker.io.TransactionExporter;
+import com.financetracker.ledger.Ledger;
+import com.financetracker.ledger.ParallelAggregator;
+import com.financetracker.ledger.TransactionBatch;
+import com.financetracker.ledger.TransactionLedger;
+import com.financetracker.ledger.TransactionStore;
+import com.financetracker.model.CategoryDictionary;
 import com.financetracker.model.Transaction;
+import com.financetracker.model.User;
+import com.financetracker.report.ReportEngine;
 import com.financetracker.repository.UserRepository;
+import com.financetracker.service.TransactionPage;
 import com.financetracker.service.TransactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -33,17 +52,44 @@ class TransactionServiceTest {
     void testAddTransaction() {
         String userId = "user123";
 
-        transactionService.addTransaction(userId, 100.0, "Food", LocalDate.now(), "Groceries", false);
+        transactionService.addTransaction(userId, 10000L, "Food", LocalDate.now(), "Groceries", false);
 
         verify(userRepository, times(1)).addTransaction(eq(userId), any(Transaction.class));
     }
 
+    @Test
+    void testImportTransactionsReadsBinaryExport(@TempDir Path directory) throws IOException {
+        String userId = "user123";
+        Path file = directory.resolve("transactions" + ExportFormat.BINARY_EXTENSION);
+        new TransactionExporter().export(List.of(
+                new Transaction("t1", 1000L, "Food", LocalDate.of(2024, 3, 5), "Cafe", false),
+                new Transaction("t2", 5000L, (String) null, LocalDate.of(2024, 3, 6), null, true)),
+                ExportFormat.BINARY, file);
+        List<Transaction> added = new ArrayList<>();
+        doAnswer(invocation -> {
+            TransactionBatch batch = invocation.getArgument(1);
+            for (int row = 0; row < batch.size(); row++) {
+                added.add(batch.toTransaction(row));
+            }
+            return null;
+        }).when(userRepository).addTransactions(eq(userId), any(TransactionBatch.class));
+
+        ImportResult result = transactionService.importTransactions(userId, file, batch -> { });
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, added.size());
+        assertEquals("t1", added.get(0).getId());
+        assertEquals("Food", added.get(0).getCategory());
+        assertEquals("t2", added.get(1).getId());
+        assertTrue(added.get(1).isIncome());
+    }
+
     @Test
     void testGetTransactions() {
         String userId = "user123";
         Map<String, Transaction> transactions = new HashMap<>();
-        transactions.put("transaction1", new Transaction(100.0, "Food", LocalDate.now(), "Groceries", false));
-        transactions.put("transaction2", new Transaction(200.0, "Salary", LocalDate.now(), "Monthly salary", true));
+        transactions.put("transaction1", new Transaction(10000L, "Food", LocalDate.now(), "Groceries", false));
+        transactions.put("transaction2", new Transaction(20000L, "Salary", LocalDate.now(), "Monthly salary", true));
 
         when(userRepository.getTransactions(userId)).thenReturn(transactions);
 
@@ -58,14 +104,14 @@ class TransactionServiceTest {
     void testGetTransaction() {
         String userId = "user123";
         String transactionId = "transaction1";
-        Transaction transaction = new Transaction(100.0, "Food", LocalDate.now(), "Groceries", false);
+        Transaction transaction = new Transaction(10000L, "Food", LocalDate.now(), "Groceries", false);
 
         when(userRepository.getTransaction(userId, transactionId)).thenReturn(transaction);
 
         Transaction result = transactionService.getTransaction(userId, transactionId);
 
         assertNotNull(result);
-        assertEquals(100.0, result.getAmount());
+        assertEquals(10000L, result.getAmount());
         assertEquals("Food", result.getCategory());
     }
 
@@ -73,7 +119,7 @@ class TransactionServiceTest {
     void testRemoveTransaction() {
         String userId = "user123";
         String transactionId = "transaction1";
-        Transaction transaction = new Transaction(100.0, "Food", LocalDate.now(), "Groceries", false);
+        Transaction transaction = new Transaction(10000L, "Food", LocalDate.now(), "Groceries", false);
 
         when(userRepository.getTransaction(userId, transactionId)).thenReturn(transaction);
 
@@ -100,7 +146,7 @@ class TransactionServiceTest {
     void testIsTransactionThere() {
         String userId = "user123";
         String transactionId = "transaction1";
-        Transaction transaction = new Transaction(100.0, "Food", LocalDate.now(), "Groceries", false);
+        Transaction transaction = new Transaction(10000L, "Food", LocalDate.now(), "Groceries", false);
 
         when(userRepository.getTransaction(userId, transactionId)).thenReturn(transaction);
 
@@ -125,20 +171,20 @@ class TransactionServiceTest {
     void testSetTransactionAmount() {
         String userId = "user123";
         String transactionId = "transaction1";
-        Transaction transaction = new Transaction(100.0, "Food", LocalDate.now(), "Groceries", false);
+        Transaction transaction = new Transaction(10000L, "Food", LocalDate.now(), "Groceries", false);
 
         when(userRepository.getTransaction(userId, transactionId)).thenReturn(transaction);
 
-        transactionService.setTransactionAmount(userId, transactionId, 200.0);
+        transactionService.setTransactionAmount(userId, transactionId, 20000L);
 
-        assertEquals(200.0, transaction.getAmount());
+        assertEquals(20000L, transaction.getAmount());
     }
 
     @Test
     void testSetTransactionCategory() {
         String userId = "user123";
         String transactionId = "transaction1";
-        Transaction transaction = new Transaction(100.0, "Food", LocalDate.now(), "Groceries", false);
+        Transaction transaction = new Transaction(10000L, "Food", LocalDate.now(), "Groceries", false);
 
         when(userRepository.getTransaction(userId, transactionId)).thenReturn(transaction);
 
@@ -151,7 +197,7 @@ class TransactionServiceTest {
     void testSetTransactionDescription() {
         String userId = "user123";
         String transactionId = "transaction1";
-        Transaction transaction = new Transaction(100.0, "Food", LocalDate.now(), "Groceries", false);
+        Transaction transaction = new Transaction(10000L, "Food", LocalDate.now(), "Groceries", false);
 
         when(userRepository.getTransaction(userId, transactionId)).thenReturn(transaction);
 
@@ -164,14 +210,14 @@ class TransactionServiceTest {
     void testGetBalance() {
         String userId = "user123";
         Map<String, Transaction> transactions = new HashMap<>();
-        transactions.put("transaction1", new Transaction(100.0, "Food", LocalDate.now(), "Groceries", false));
-        transactions.put("transaction2", new Transaction(200.0, "Salary", LocalDate.now(), "Monthly salary", true));
+        transactions.put("transaction1", new Transaction(10000L, "Food", LocalDate.now(), "Groceries", false));
+        transactions.put("transaction2", new Transaction(20000L, "Salary", LocalDate.now(), "Monthly salary", true));
 
         when(userRepository.getTransactions(userId)).thenReturn(transactions);
 
-        double balance = transactionService.getBalance(userId);
+        long balance = transactionService.getBalance(userId);
 
-        assertEquals(100.0, balance); // 200 (доход) - 100 (расход) = 100
+        assertEquals(10000L, balance); // 200 (доход) - 100 (расход) = 100
     }
 
     @Test
@@ -181,14 +227,14 @@ class TransactionServiceTest {
         LocalDate end = LocalDate.of(2023, 12, 31);
 
         Map<String, Transaction> transactions = new HashMap<>();
-        transactions.put("transaction1", new Transaction(100.0, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
-        transactions.put("transaction2", new Transaction(200.0, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true));
+        transactions.put("transaction1", new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
+        transactions.put("transaction2", new Transaction(20000L, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true));
 
         when(userRepository.getTransactions(userId)).thenReturn(transactions);
 
-        double income = transactionService.getIncomeOfPeriod(userId, start, end);
+        long income = transactionService.getIncomeOfPeriod(userId, start, end);
 
-        assertEquals(200.0, income); // Только доходы за период
+        assertEquals(20000L, income); // Только доходы за период
     }
 
     @Test
@@ -198,14 +244,14 @@ class TransactionServiceTest {
         LocalDate end = LocalDate.of(2023, 12, 31);
 
         Map<String, Transaction> transactions = new HashMap<>();
-        transactions.put("transaction1", new Transaction(100.0, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
-        transactions.put("transaction2", new Transaction(200.0, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true));
+        transactions.put("transaction1", new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
+        transactions.put("transaction2", new Transaction(20000L, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true));
 
         when(userRepository.getTransactions(userId)).thenReturn(transactions);
 
-        double expenses = transactionService.getExpensesOfPeriod(userId, start, end);
+        long expenses = transactionService.getExpensesOfPeriod(userId, start, end);
 
-        assertEquals(100.0, expenses); // Только расходы за период
+        assertEquals(10000L, expenses); // Только расходы за период
     }
 
     @Test
@@ -215,16 +261,82 @@ class TransactionServiceTest {
         LocalDate end = LocalDate.of(2023, 12, 31);
 
         Map<String, Transaction> transactions = new HashMap<>();
-        transactions.put("transaction1", new Transaction(100.0, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
-        transactions.put("transaction2", new Transaction(200.0, "Transport", LocalDate.of(2023, 6, 1), "Bus fare", false));
+        transactions.put("transaction1", new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
+        transactions.put("transaction2", new Transaction(20000L, "Transport", LocalDate.of(2023, 6, 1), "Bus fare", false));
 
         when(userRepository.getTransactions(userId)).thenReturn(transactions);
 
-        Map<String, Double> expensesByCategory = transactionService.getExpensesByCategory(userId, start, end);
+        Map<String, Long> expensesByCategory = transactionService.getExpensesByCategory(userId, start, end);
 
         assertEquals(2, expensesByCategory.size());
-        assertEquals(100.0, expensesByCategory.get("Food"));
-        assertEquals(200.0, expensesByCategory.get("Transport"));
+        assertEquals(10000L, expensesByCategory.get("Food"));
+        assertEquals(20000L, expensesByCategory.get("Transport"));
+    }
+
+    @Test
+    void testParallelAggregationMatchesSequential() {
+        String userId = "user123";
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        LocalDate end = LocalDate.of(2023, 12, 31);
+
+        Map<String, Transaction> transactions = new HashMap<>();
+        transactions.put("transaction1", new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
+        transactions.put("transaction2", new Transaction(20000L, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true));
+        transactions.put("transaction3", new Transaction(5050L, "Food", LocalDate.of(2022, 12, 31), "Dinner", false));
+
+        when(userRepository.getTransactions(userId)).thenReturn(transactions);
+
+        ParallelAggregator aggregator = new ParallelAggregator(2, 1);
+        try {
+            TransactionService parallelService = new TransactionService(userRepository,
+                    new ReportEngine(List.of(), aggregator), aggregator);
+
+            assertEquals(transactionService.getBalance(userId), parallelService.getBalance(userId));
+            assertEquals(transactionService.getIncomeOfPeriod(userId, start, end),
+                    parallelService.getIncomeOfPeriod(userId, start, end));
+            assertEquals(transactionService.getExpensesOfPeriod(userId, start, end),
+                    parallelService.getExpensesOfPeriod(userId, start, end));
+            assertEquals(transactionService.getExpensesByCategory(userId, start, end),
+                    parallelService.getExpensesByCategory(userId, start, end));
+            assertEquals(transactionService.calculateMonthlyExpress(userId, "2023-05"),
+                    parallelService.calculateMonthlyExpress(userId, "2023-05"));
+        } finally {
+            aggregator.shutdown();
+        }
+    }
+
+    @Test
+    void testLedgerBackedUserAggregatedInParallel() {
+        UserRepository repository = new UserRepository(TransactionStore.offHeap());
+        User user = new User("test@example.com", "password", "Test Name", "user");
+        repository.saveUser(user);
+        String userId = user.getId();
+        for (int i = 0; i < 1000; i++) {
+            repository.addTransaction(userId, new Transaction(100L + i, i % 3 == 0 ? "Food" : "Transport",
+                    LocalDate.of(2023, 1, 1).plusDays(i % 365), "Operation " + i, i % 5 == 0));
+        }
+        LocalDate start = LocalDate.of(2023, 3, 10);
+        LocalDate end = LocalDate.of(2023, 9, 20);
+        TransactionService sequentialService = new TransactionService(repository);
+
+        ParallelAggregator aggregator = spy(new ParallelAggregator(2, 1));
+        try {
+            TransactionService parallelService = new TransactionService(repository,
+                    new ReportEngine(List.of(), aggregator), aggregator);
+
+            assertEquals(sequentialService.getIncomeOfPeriod(userId, start, end),
+                    parallelService.getIncomeOfPeriod(userId, start, end));
+            assertEquals(sequentialService.getExpensesOfPeriod(userId, start, end),
+                    parallelService.getExpensesOfPeriod(userId, start, end));
+            assertEquals(sequentialService.getExpensesByCategory(userId, start, end),
+                    parallelService.getExpensesByCategory(userId, start, end));
+            assertEquals(sequentialService.calculateMonthlyExpress(userId, "2023-05"),
+                    parallelService.calculateMonthlyExpress(userId, "2023-05"));
+            Ledger ledger = (Ledger) repository.getTransactions(userId);
+            verify(aggregator, times(4)).aggregate(same(ledger), any(), any());
+        } finally {
+            aggregator.shutdown();
+        }
     }
 
     @Test
@@ -233,14 +345,14 @@ class TransactionServiceTest {
         String month = "2023-05";
 
         Map<String, Transaction> transactions = new HashMap<>();
-        transactions.put("transaction1", new Transaction(100.0, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
-        transactions.put("transaction2", new Transaction(200.0, "Transport", LocalDate.of(2023, 6, 1), "Bus fare", false));
+        transactions.put("transaction1", new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
+        transactions.put("transaction2", new Transaction(20000L, "Transport", LocalDate.of(2023, 6, 1), "Bus fare", false));
 
         when(userRepository.getTransactions(userId)).thenReturn(transactions);
 
-        double monthlyExpenses = transactionService.calculateMonthlyExpress(userId, month);
+        long monthlyExpenses = transactionService.calculateMonthlyExpress(userId, month);
 
-        assertEquals(100.0, monthlyExpenses); // Только расходы за май 2023
+        assertEquals(10000L, monthlyExpenses); // Только расходы за май 2023
     }
 
     @Test
@@ -250,8 +362,8 @@ class TransactionServiceTest {
         LocalDate end = LocalDate.of(2023, 12, 31);
 
         Map<String, Transaction> transactions = new HashMap<>();
-        transactions.put("transaction1", new Transaction(100.0, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
-        transactions.put("transaction2", new Transaction(200.0, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true));
+        transactions.put("transaction1", new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
+        transactions.put("transaction2", new Transaction(20000L, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true));
 
         when(userRepository.getTransactions(userId)).thenReturn(transactions);
 
@@ -268,8 +380,8 @@ class TransactionServiceTest {
         String userId = "user123";
 
         Map<String, Transaction> transactions = new HashMap<>();
-        Transaction transaction1 = new Transaction(100.0, "Food", LocalDate.of(2023, 5, 15), "Groceries", false);
-        Transaction transaction2 = new Transaction(200.0, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true);
+        Transaction transaction1 = new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false);
+        Transaction transaction2 = new Transaction(20000L, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true);
         transactions.put(transaction1.getId(), transaction1);
         transactions.put(transaction2.getId(), transaction2);
 
@@ -283,14 +395,79 @@ class TransactionServiceTest {
         assertTrue(result.contains("ID: " + transaction2.getId()));
     }
 
+    @Test
+    void testSearchTransactions() {
+        Transaction coffee = new Transaction(300L, "Food", LocalDate.of(2024, 1, 1), "Кофе", false);
+        when(userRepository.searchTransactions("user123", "коф*", 10)).thenReturn(List.of(coffee));
+
+        assertEquals(List.of(coffee), transactionService.searchTransactions("user123", "коф*", 10));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.searchTransactions("user123", "коф*", -1));
+    }
+
+    @Test
+    void testGetLargestTransactions() {
+        String userId = "user123";
+        Map<String, Transaction> transactions = new HashMap<>();
+        Transaction small = new Transaction(1000L, "Food", LocalDate.of(2024, 3, 2), "Кофе", false);
+        Transaction large = new Transaction(90000L, "Rent", LocalDate.of(2024, 3, 1), "Аренда", false);
+        Transaction middle = new Transaction(5000L, "Food", LocalDate.of(2024, 3, 15), "Продукты", false);
+        Transaction salary = new Transaction(200000L, "Salary", LocalDate.of(2024, 3, 5), null, true);
+        Transaction old = new Transaction(500000L, "Rent", LocalDate.of(2024, 2, 1), "Аренда", false);
+        for (Transaction transaction : List.of(small, large, middle, salary, old)) {
+            transactions.put(transaction.getId(), transaction);
+        }
+        when(userRepository.getTransactions(userId)).thenReturn(transactions);
+        LocalDate start = LocalDate.of(2024, 3, 1);
+        LocalDate end = LocalDate.of(2024, 3, 31);
+
+        assertEquals(List.of(large, middle), transactionService.getLargestTransactions(userId, 2, start, end, false, null));
+        assertEquals(List.of(middle, small), transactionService.getLargestTransactions(userId, 10, start, end, false, "Food"));
+        assertEquals(List.of(old, salary), transactionService.getLargestTransactions(userId, 2, null, null, null, null));
+        assertEquals(List.of(old, salary, large, middle, small),
+                transactionService.getLargestTransactions(userId, Integer.MAX_VALUE, null, null, null, null));
+        assertEquals(List.of(), transactionService.getLargestTransactions(userId, 5, null, null, null, "Nonexistent"));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getLargestTransactions(userId, -1, null, null, null, null));
+    }
+
+    @Test
+    void testGetLargestTransactionsUsesLedger() {
+        String userId = "user123";
+        TransactionLedger transactions = new TransactionLedger();
+        for (int i = 1; i <= 20; i++) {
+            transactions.add(new Transaction("t" + i, i * 100L, "Food", LocalDate.of(2024, 3, i), null, false));
+        }
+        when(userRepository.getTransactions(userId)).thenReturn(transactions);
+
+        List<Transaction> result = transactionService.getLargestTransactions(userId, 3,
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 10), false, "Food");
+
+        assertEquals(List.of("t10", "t9", "t8"), result.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void testWriteTransactionsStreamsAllRows() throws IOException {
+        String userId = "user123";
+        TransactionLedger transactions = new TransactionLedger();
+        transactions.add(new Transaction("t1", 10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false));
+        transactions.add(new Transaction("t2", 20000L, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true));
+        when(userRepository.getTransactions(userId)).thenReturn(transactions);
+        StringWriter writer = new StringWriter();
+
+        long rows = transactionService.writeTransactions(userId, writer);
+
+        assertEquals(2, rows);
+        assertEquals(transactionService.viewTransactionNoFilter(userId), writer.toString());
+    }
+
     @Test
     void testViewTransactionsDateFilter() {
         String userId = "user123";
         LocalDate dateFilter = LocalDate.of(2023, 5, 15);
 
         Map<String, Transaction> transactions = new HashMap<>();
-        Transaction transaction1 = new Transaction(100.0, "Food", LocalDate.of(2023, 5, 15), "Groceries", false);
-        Transaction transaction2 = new Transaction(200.0, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true);
+        Transaction transaction1 = new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false);
+        Transaction transaction2 = new Transaction(20000L, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true);
         transactions.put(transaction1.getId(), transaction1);
         transactions.put(transaction2.getId(), transaction2);
         when(userRepository.getTransactions(userId)).thenReturn(transactions);
@@ -309,8 +486,8 @@ class TransactionServiceTest {
         String categoryFilter = "Food";
 
         Map<String, Transaction> transactions = new HashMap<>();
-        Transaction transaction1 = new Transaction(100.0, "Food", LocalDate.of(2023, 5, 15), "Groceries", false);
-        Transaction transaction2 = new Transaction(200.0, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true);
+        Transaction transaction1 = new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false);
+        Transaction transaction2 = new Transaction(20000L, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true);
         transactions.put(transaction1.getId(), transaction1);
         transactions.put(transaction2.getId(), transaction2);
         when(userRepository.getTransactions(userId)).thenReturn(transactions);
@@ -329,8 +506,8 @@ class TransactionServiceTest {
         boolean isIncomeFilter = true;
 
         Map<String, Transaction> transactions = new HashMap<>();
-        Transaction transaction1 = new Transaction(100.0, "Food", LocalDate.of(2023, 5, 15), "Groceries", false);
-        Transaction transaction2 = new Transaction(200.0, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true);
+        Transaction transaction1 = new Transaction(10000L, "Food", LocalDate.of(2023, 5, 15), "Groceries", false);
+        Transaction transaction2 = new Transaction(20000L, "Salary", LocalDate.of(2023, 6, 1), "Monthly salary", true);
         transactions.put(transaction1.getId(), transaction1);
         transactions.put(transaction2.getId(), transaction2);
 
@@ -343,4 +520,160 @@ class TransactionServiceTest {
         assertFalse(result.contains("ID: " + transaction1.getId()));
         assertTrue(result.contains("ID: " + transaction2.getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAddTransactionsValidatesWholeBatchFirst() {
+        String userId = "user123";
+        Map<String, Transaction> transactions = new HashMap<>();
+        transactions.put("existing", new Transaction("existing", 100L, "Food", LocalDate.now(), "", false));
+        when(userRepository.getTransactions(userId)).thenReturn(transactions);
+        int day = (int) LocalDate.of(2024, 3, 1).toEpochDay();
+
+        TransactionBatch duplicate = new TransactionBatch(2);
+        duplicate.add("t1", day, 100L, CategoryDictionary.NO_CATEGORY, "", false);
+        duplicate.add("t1", day, 200L, CategoryDictionary.NO_CATEGORY, "", false);
+        TransactionBatch existing = new TransactionBatch(2);
+        existing.add("t2", day, 100L, CategoryDictionary.NO_CATEGORY, "", false);
+        existing.add("existing", day, 100L, CategoryDictionary.NO_CATEGORY, "", false);
+        TransactionBatch zeroAmount = new TransactionBatch(2);
+        zeroAmount.add("t3", day, 100L, CategoryDictionary.NO_CATEGORY, "", false);
+        zeroAmount.add("t4", day, 0L, CategoryDictionary.NO_CATEGORY, "", false);
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.addTransactions(userId, duplicate));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.addTransactions(userId, existing));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.addTransactions(userId, zeroAmount));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.addTransactions(userId, null));
+        verify(userRepository, never()).addTransactions(anyString(), any());
+    }
+
+    @Test
+    void testAddTransactionsAddsValidBatch() {
+        String userId = "user123";
+        when(userRepository.getTransactions(userId)).thenReturn(new HashMap<>());
+        TransactionBatch batch = new TransactionBatch(2);
+        batch.add("t1", (int) LocalDate.of(2024, 3, 1).toEpochDay(), 100L, CategoryDictionary.NO_CATEGORY, "", false);
+        batch.add("t2", (int) LocalDate.of(2024, 3, 2).toEpochDay(), 200L, CategoryDictionary.NO_CATEGORY, "", true);
+
+        transactionService.addTransactions(userId, batch);
+
+        verify(userRepository, times(1)).addTransactions(userId, batch);
+    }
+
+    @Test
+    void testTransactionsPagesFollowCursor() {
+        String userId = "user123";
+        TransactionLedger transactions = new TransactionLedger();
+        for (int i = 0; i < 25; i++) {
+            transactions.add(new Transaction(String.format("t%02d", i), 100L + i, "Food",
+                    LocalDate.of(2024, 1, 1).plusDays(i % 5), "Покупка " + i, i % 2 == 0));
+        }
+        when(userRepository.getTransactions(userId)).thenReturn(transactions);
+
+        List<Transaction> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = transactionService.getTransactionsPage(userId, transaction -> true, cursor, 10);
+            seen.addAll(page.getTransactions());
+            cursor = page.getNextCursor();
+            pages++;
+            if (pages == 1) {
+                // Транзакция, добавленная перед уже показанными, не сдвигает следующие страницы
+                transactions.add(new Transaction("a00", 1L, "Food", LocalDate.of(2023, 12, 31), "Раньше", false));
+            }
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(25, seen.size());
+        List<Transaction> expected = new ArrayList<>(seen);
+        expected.sort(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId));
+        assertEquals(expected, seen);
+        assertEquals(25, new HashSet<>(seen).size());
+    }
+
+    @Test
+    void testTransactionsPageAppliesFilter() {
+        String userId = "user123";
+        Map<String, Transaction> transactions = new HashMap<>();
+        for (int i = 0; i < 9; i++) {
+            Transaction transaction = new Transaction(100L, "Food", LocalDate.of(2024, 1, 1 + i), null, i < 3);
+            transactions.put(transaction.getId(), transaction);
+        }
+        when(userRepository.getTransactions(userId)).thenReturn(transactions);
+
+        TransactionPage page = transactionService.getTransactionsPage(userId, Transaction::isIncome, null, 3);
+
+        assertEquals(3, page.getTransactions().size());
+        assertFalse(page.hasNext());
+        assertNull(page.getNextCursor());
+        assertEquals(LocalDate.of(2024, 1, 1), page.getTransactions().get(0).getDate());
+    }
+
+    @Test
+    void testFilteredPagesSeekInLedgerAndMatchMap() {
+        String userId = "user123";
+        String mapUserId = "user456";
+        TransactionLedger ledger = new TransactionLedger();
+        for (int i = 0; i < 45; i++) {
+            ledger.add(new Transaction(String.format("t%02d", (i * 7) % 45), 100L + i, i % 3 == 0 ? "Food" : "Transport",
+                    LocalDate.of(2024, 1, 1).plusDays(i % 9), "Покупка " + i, i % 4 == 0));
+        }
+        when(userRepository.getTransactions(userId)).thenReturn(ledger);
+        when(userRepository.getTransactions(mapUserId)).thenReturn(new HashMap<>(ledger));
+        LocalDate end = LocalDate.of(2024, 1, 7);
+
+        for (String category : new String[]{null, "Food"}) {
+            List<Transaction> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                TransactionPage page = transactionService.getTransactionsPage(userId, null, end, false, category,
+                        cursor, 4);
+                TransactionPage mapPage = transactionService.getTransactionsPage(mapUserId, null, end, false, category,
+                        cursor, 4);
+                assertEquals(mapPage.getTransactions(), page.getTransactions());
+                assertEquals(mapPage.getNextCursor(), page.getNextCursor());
+                seen.addAll(page.getTransactions());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            List<Transaction> expected = new ArrayList<>(ledger.values().stream()
+                    .filter(transaction -> !transaction.isIncome() && !transaction.getDate().isAfter(end)
+                            && (category == null || category.equals(transaction.getCategory())))
+                    .toList());
+            expected.sort(Comparator.comparing(Transaction::getDate).thenComparing(Transaction::getId));
+            assertEquals(expected, seen);
+        }
+        assertTrue(transactionService.getTransactionsPage(userId, null, null, null, "Unknown", null, 4)
+                .getTransactions().isEmpty());
+    }
+
+    @Test
+    void testTransactionsPageWithMaxLimit() {
+        String userId = "user123";
+        String mapUserId = "user456";
+        TransactionLedger ledger = new TransactionLedger();
+        for (int i = 0; i < 5; i++) {
+            ledger.add(new Transaction(100L + i, "Food", LocalDate.of(2024, 1, 1 + i), "Покупка " + i, false));
+        }
+        when(userRepository.getTransactions(userId)).thenReturn(ledger);
+        when(userRepository.getTransactions(mapUserId)).thenReturn(new HashMap<>(ledger));
+
+        for (TransactionPage page : List.of(
+                transactionService.getTransactionsPage(userId, null, null, null, null, null, Integer.MAX_VALUE),
+                transactionService.getTransactionsPage(mapUserId, null, null, null, null, null, Integer.MAX_VALUE),
+                transactionService.getTransactionsPage(userId, transaction -> true, null, Integer.MAX_VALUE))) {
+            assertEquals(5, page.getTransactions().size());
+            assertFalse(page.hasNext());
+        }
+    }
+
+    @Test
+    void testTransactionsPageRejectsInvalidArguments() {
+        when(userRepository.getTransactions("user123")).thenReturn(new HashMap<>());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactionsPage("user123", transaction -> true, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactionsPage("user123", transaction -> true, "not-a-cursor", 10));
+    }
+}
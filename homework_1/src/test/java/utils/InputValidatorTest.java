@@ -46,6 +46,16 @@ class InputValidatorTest {
         verify(inputProvider, times(1)).nextLine();
     }
 
+    @Test
+    void testGetMoneyInput_ValidInput() {
+        when(inputProvider.nextLine()).thenReturn("abc", "99,50");
+
+        long result = inputValidator.getMoneyInput("Введите сумму: ");
+
+        assertEquals(9950, result);
+        verify(inputProvider, times(2)).nextLine();
+    }
+
     @Test
     void testGetDateInput_ValidInput() {
         when(inputProvider.nextLine()).thenReturn("2023-10-01");
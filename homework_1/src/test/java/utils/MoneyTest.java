@@ -0,0 +1,48 @@
+package utils;
+
+import com.financetracker.utils.Money;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testParse() {
+        assertEquals(10000, Money.parse("100"));
+        assertEquals(9950, Money.parse("99.5"));
+        assertEquals(123456, Money.parse("1234,56"));
+        assertEquals(-1000, Money.parse("-10.00"));
+        assertEquals(5, Money.parse("0.05"));
+    }
+
+    @Test
+    void testParseIsExact() {
+        // 0.1 + 0.2 в double даёт 0.30000000000000004
+        assertEquals(Money.parse("0.3"), Money.parse("0.1") + Money.parse("0.2"));
+    }
+
+    @Test
+    void testParseThrowsException() {
+        assertThrows(NumberFormatException.class, () -> Money.parse(null));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1.234"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("99999999999999999999"));
+    }
+
+    @Test
+    void testFormat() {
+        assertEquals("100.00", Money.format(10000));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("1234.56", Money.format(123456));
+    }
+
+    @Test
+    void testAppendToMatchesFormat() {
+        long[] values = {0, 5, -5, 10000, 123456, -123456, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long cents : values) {
+            assertEquals(Money.format(cents), Money.appendTo(new StringBuilder(), cents).toString());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package utils;
+
+import com.financetracker.utils.Ids;
+import com.financetracker.utils.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void testIdsIncreaseWithinSameMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, () -> SnowflakeIdGenerator.EPOCH_MILLIS + 1000);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) { // больше 4096 за одну миллисекунду
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testIdsIncreaseWhenClockGoesBack() {
+        long[] now = {SnowflakeIdGenerator.EPOCH_MILLIS + 5000};
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, () -> now[0]);
+
+        long first = generator.nextId();
+        now[0] -= 1000;
+
+        assertTrue(generator.nextId() > first);
+    }
+
+    @Test
+    void testNodeIsEncoded() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE,
+                () -> SnowflakeIdGenerator.EPOCH_MILLIS);
+
+        assertEquals(SnowflakeIdGenerator.MAX_NODE, (generator.nextId() >>> 12) & SnowflakeIdGenerator.MAX_NODE);
+    }
+
+    @Test
+    void testIdsAreUniqueAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(200_000, ids.size());
+    }
+
+    @Test
+    void testInvalidNodeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE + 1));
+    }
+
+    @Test
+    void testEncodeDecode() {
+        long id = new SnowflakeIdGenerator(0).nextId();
+
+        assertEquals(id, Ids.decode(Ids.encode(id)));
+        assertThrows(NumberFormatException.class, () -> Ids.decode("not an id!"));
+    }
+}